@@ -0,0 +1,139 @@
+package org.microspring.aop;
+
+import org.microspring.aop.pointcut.Pointcut;
+import org.microspring.aop.support.DefaultPointcutAdvisor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 代理的配置：目标对象和按顺序排列的 Advisor
+ * 每个被调用的方法第一次调用时按切点筛选出拦截器数组，并为目标方法建立 MethodHandle，之后直接使用缓存
+ */
+public class AdvisedSupport {
+
+    private static final MethodInterceptor[] NO_INTERCEPTORS = new MethodInterceptor[0];
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Object target;
+    private final Class<?> targetClass;
+    private final List<Advisor> advisors = new ArrayList<>();
+    private final Map<Method, AdvisedMethod> methodCache = new ConcurrentHashMap<>();
+    private boolean proxyTargetClass;
+
+    public AdvisedSupport(Object target) {
+        this.target = target;
+        this.targetClass = target.getClass();
+    }
+
+    /**
+     * 添加作用于所有方法的拦截器
+     */
+    public void addInterceptor(MethodInterceptor interceptor) {
+        addAdvisor(new DefaultPointcutAdvisor(Pointcut.TRUE, interceptor));
+    }
+
+    public void addAdvisor(Advisor advisor) {
+        advisors.add(advisor);
+        methodCache.clear();
+    }
+
+    public Object getTarget() {
+        return target;
+    }
+
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    /**
+     * 是否生成目标类的子类作为代理，即使目标类实现了接口
+     */
+    public void setProxyTargetClass(boolean proxyTargetClass) {
+        this.proxyTargetClass = proxyTargetClass;
+    }
+
+    public boolean isProxyTargetClass() {
+        return proxyTargetClass;
+    }
+
+    public List<Advisor> getAdvisors() {
+        return Collections.unmodifiableList(advisors);
+    }
+
+    /**
+     * 目标类是否有方法被切点匹配
+     */
+    public boolean hasAdvice() {
+        for (Advisor advisor : advisors) {
+            if (advisor.getPointcut().getClassFilter().matches(targetClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    AdvisedMethod getAdvisedMethod(Method method) {
+        AdvisedMethod advised = methodCache.get(method);
+        if (advised == null) {
+            advised = methodCache.computeIfAbsent(method, this::createAdvisedMethod);
+        }
+        return advised;
+    }
+
+    /**
+     * 作用于给定方法的拦截器，按 Advisor 的顺序排列
+     */
+    public MethodInterceptor[] getInterceptors(Method method) {
+        return getAdvisedMethod(method).interceptors;
+    }
+
+    private AdvisedMethod createAdvisedMethod(Method method) {
+        List<MethodInterceptor> matched = new ArrayList<>();
+        for (Advisor advisor : advisors) {
+            Pointcut pointcut = advisor.getPointcut();
+            if (pointcut.getClassFilter().matches(targetClass)
+                    && pointcut.getMethodMatcher().matches(method, targetClass)) {
+                matched.add(advisor.getInterceptor());
+            }
+        }
+        MethodInterceptor[] interceptors = matched.isEmpty() ? NO_INTERCEPTORS : matched.toArray(NO_INTERCEPTORS);
+        return new AdvisedMethod(interceptors, createInvoker(method));
+    }
+
+    /**
+     * 把目标方法转换为 (Object target, Object[] args) -> Object 形式的 MethodHandle
+     */
+    static MethodHandle createInvoker(Method method) {
+        try {
+            method.setAccessible(true);
+            // 可变参数方法的参数已经是数组，不能再按可变参数收集
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+            return handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            // 无法访问时退回反射调用
+            return null;
+        }
+    }
+
+    /**
+     * 方法的拦截器数组和目标方法调用器
+     */
+    static final class AdvisedMethod {
+        final MethodInterceptor[] interceptors;
+        // 为 null 时通过反射调用
+        final MethodHandle invoker;
+
+        AdvisedMethod(MethodInterceptor[] interceptors, MethodHandle invoker) {
+            this.interceptors = interceptors;
+            this.invoker = invoker;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.microspring.aop;
+
+import org.microspring.aop.pointcut.Pointcut;
+
+/**
+ * 切点和拦截器的组合，拦截器只作用于切点匹配的方法
+ */
+public interface Advisor {
+
+    Pointcut getPointcut();
+
+    MethodInterceptor getInterceptor();
+}
@@ -0,0 +1,9 @@
+package org.microspring.aop;
+
+/**
+ * 根据代理配置创建 AopProxy
+ */
+public interface AopProxyFactory {
+
+    AopProxy createAopProxy(AdvisedSupport config);
+}
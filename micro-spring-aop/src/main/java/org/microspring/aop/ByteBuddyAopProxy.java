@@ -0,0 +1,149 @@
+package org.microspring.aop;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.InvocationHandlerAdapter;
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
+import static net.bytebuddy.matcher.ElementMatchers.isEquals;
+import static net.bytebuddy.matcher.ElementMatchers.isHashCode;
+import static net.bytebuddy.matcher.ElementMatchers.isToString;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+
+/**
+ * 生成目标类的子类作为代理，用于没有实现接口的类
+ * 子类由 ByteBuddy 生成，JDK 9+ 上通过 MethodHandles.privateLookupIn 定义到目标类所在的包中，不需要 --add-opens；
+ * 同一个目标类的代理类只生成一次，缓存对目标类和代理类都是弱引用，不会阻止类加载器被回收。
+ * 代理实例通过 Objenesis 创建，不调用目标类的构造器，调用仍然转发给目标对象。
+ * final 方法无法被拦截
+ */
+public class ByteBuddyAopProxy implements AopProxy {
+
+    private static final String HANDLER_FIELD = "$$microSpringHandler";
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private static final Map<Class<?>, WeakReference<Class<?>>> proxyClassCache =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Objenesis objenesis = new ObjenesisStd(true);
+    // JDK 8 上没有 privateLookupIn，退回到反射调用 ClassLoader.defineClass
+    private static final Method privateLookupIn = findPrivateLookupIn();
+
+    private final AdvisedSupport advised;
+
+    public ByteBuddyAopProxy(AdvisedSupport advised) {
+        if (Modifier.isFinal(advised.getTargetClass().getModifiers())) {
+            throw new RuntimeException("Cannot create class-based proxy for final class: "
+                + advised.getTargetClass().getName());
+        }
+        this.advised = advised;
+    }
+
+    @Override
+    public Object getProxy() {
+        return getProxy(advised.getTargetClass().getClassLoader());
+    }
+
+    @Override
+    public Object getProxy(ClassLoader classLoader) {
+        Class<?> targetClass = advised.getTargetClass();
+        Class<?> proxyClass;
+        if (classLoader == targetClass.getClassLoader()) {
+            synchronized (proxyClassCache) {
+                WeakReference<Class<?>> cached = proxyClassCache.get(targetClass);
+                proxyClass = cached != null ? cached.get() : null;
+                if (proxyClass == null) {
+                    proxyClass = createProxyClass(targetClass, classLoader);
+                    proxyClassCache.put(targetClass, new WeakReference<>(proxyClass));
+                }
+            }
+        } else {
+            proxyClass = createProxyClass(targetClass, classLoader);
+        }
+
+        Object proxy = objenesis.newInstance(proxyClass);
+        try {
+            Field handler = proxyClass.getDeclaredField(HANDLER_FIELD);
+            handler.setAccessible(true);
+            handler.set(proxy, new AdvisedInvocationHandler(advised));
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to initialize class-based proxy for " + targetClass.getName(), e);
+        }
+        return proxy;
+    }
+
+    private static Class<?> createProxyClass(Class<?> targetClass, ClassLoader classLoader) {
+        try {
+            return new ByteBuddy()
+                .subclass(targetClass)
+                .defineField(HANDLER_FIELD, InvocationHandler.class, Visibility.PRIVATE)
+                .method(not(isDeclaredBy(Object.class)).or(isEquals()).or(isHashCode()).or(isToString()))
+                .intercept(InvocationHandlerAdapter.toField(HANDLER_FIELD))
+                .make()
+                .load(classLoader, loadingStrategy(targetClass, classLoader))
+                .getLoaded();
+        } catch (RuntimeException | LinkageError e) {
+            throw new RuntimeException("Failed to create class-based proxy for " + targetClass.getName(), e);
+        }
+    }
+
+    /**
+     * 使用目标类的类加载器时把代理类定义在目标类所在的包中，这样也能覆盖包可见的方法；
+     * 其他类加载器下代理类由一个子加载器加载
+     */
+    private static ClassLoadingStrategy<ClassLoader> loadingStrategy(Class<?> targetClass, ClassLoader classLoader) {
+        if (classLoader != targetClass.getClassLoader() || classLoader == null) {
+            return ClassLoadingStrategy.Default.WRAPPER;
+        }
+        if (privateLookupIn == null) {
+            return ClassLoadingStrategy.Default.INJECTION;
+        }
+        try {
+            return ClassLoadingStrategy.UsingLookup.of(privateLookupIn.invoke(null, targetClass, MethodHandles.lookup()));
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Cannot access package of " + targetClass.getName(), e);
+        }
+    }
+
+    private static Method findPrivateLookupIn() {
+        try {
+            return MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static class AdvisedInvocationHandler implements InvocationHandler {
+        private final AdvisedSupport advised;
+
+        AdvisedInvocationHandler(AdvisedSupport advised) {
+            this.advised = advised;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            AdvisedSupport.AdvisedMethod advisedMethod = advised.getAdvisedMethod(method);
+            Object target = advised.getTarget();
+
+            // 没有匹配的拦截器时直接调用目标方法
+            if (advisedMethod.interceptors.length == 0 && advisedMethod.invoker != null) {
+                Object[] arguments = args != null ? args : NO_ARGUMENTS;
+                return (Object) advisedMethod.invoker.invokeExact(target, arguments);
+            }
+            return new ReflectiveMethodInvocation(
+                target, method, args, advisedMethod.interceptors, advisedMethod.invoker).proceed();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.microspring.aop;
+
+/**
+ * 目标类实现了接口时使用 JDK 动态代理，否则(或要求代理目标类时)生成目标类的子类
+ */
+public class DefaultAopProxyFactory implements AopProxyFactory {
+
+    @Override
+    public AopProxy createAopProxy(AdvisedSupport config) {
+        if (config.isProxyTargetClass() || config.getTargetClass().getInterfaces().length == 0) {
+            return new ByteBuddyAopProxy(config);
+        }
+        return new JdkDynamicAopProxy(config);
+    }
+}
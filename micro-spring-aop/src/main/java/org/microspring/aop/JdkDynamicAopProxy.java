@@ -8,32 +8,47 @@ import java.util.List;
 
 public class JdkDynamicAopProxy implements AopProxy, InvocationHandler {
 
-    private final Object target;
-    private final List<MethodInterceptor> interceptors;
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    private final AdvisedSupport advised;
 
     public JdkDynamicAopProxy(Object target, List<MethodInterceptor> interceptors) {
-        this.target = target;
-        this.interceptors = interceptors;
+        this.advised = new AdvisedSupport(target);
+        for (MethodInterceptor interceptor : interceptors) {
+            advised.addInterceptor(interceptor);
+        }
+    }
+
+    public JdkDynamicAopProxy(AdvisedSupport advised) {
+        this.advised = advised;
     }
 
     @Override
     public Object getProxy() {
-        return getProxy(target.getClass().getClassLoader());
+        return getProxy(advised.getTargetClass().getClassLoader());
     }
 
     @Override
     public Object getProxy(ClassLoader classLoader) {
-        Class<?>[] interfaces = target.getClass().getInterfaces();
+        Class<?>[] interfaces = advised.getTargetClass().getInterfaces();
         return Proxy.newProxyInstance(classLoader, interfaces, this);
     }
 
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        AdvisedSupport.AdvisedMethod advisedMethod = advised.getAdvisedMethod(method);
+        Object target = advised.getTarget();
+
+        // 没有匹配的拦截器时直接调用目标方法
+        if (advisedMethod.interceptors.length == 0 && advisedMethod.invoker != null) {
+            Object[] arguments = args != null ? args : NO_ARGUMENTS;
+            return (Object) advisedMethod.invoker.invokeExact(target, arguments);
+        }
 
         ReflectiveMethodInvocation invocation = new ReflectiveMethodInvocation(
-            target, method, args, interceptors
+            target, method, args, advisedMethod.interceptors, advisedMethod.invoker
         );
         
         return invocation.proceed();
     }
-} 
\ No newline at end of file
+}
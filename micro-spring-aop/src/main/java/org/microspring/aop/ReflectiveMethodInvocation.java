@@ -1,23 +1,40 @@
 package org.microspring.aop;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.List;
 
 
-public class ReflectiveMethodInvocation implements MethodInvocation {
-    
+/**
+ * 一次代理方法调用，同时作为传给 @Around 通知的 ProceedingJoinPoint，调用链上不再创建其他连接点对象
+ * proceed 从当前拦截器的下一个位置继续执行，返回后恢复位置，同一个通知可以多次 proceed；
+ * proceed(args) 替换参数后同样从当前位置继续，之前的拦截器不会重复执行
+ */
+public class ReflectiveMethodInvocation implements MethodInvocation, ProceedingJoinPoint {
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
     private final Object target;
     private final Method method;
-    private final Object[] arguments;
-    private final List<MethodInterceptor> interceptors;
+    private Object[] arguments;
+    private final MethodInterceptor[] interceptors;
+    // 目标方法的 MethodHandle，为 null 时通过反射调用
+    private final MethodHandle invoker;
     private int currentInterceptorIndex = -1;
 
-    public ReflectiveMethodInvocation(Object target, Method method, Object[] arguments, 
+    public ReflectiveMethodInvocation(Object target, Method method, Object[] arguments,
                                     List<MethodInterceptor> interceptors) {
+        this(target, method, arguments, interceptors.toArray(new MethodInterceptor[0]), null);
+    }
+
+    public ReflectiveMethodInvocation(Object target, Method method, Object[] arguments,
+                                      MethodInterceptor[] interceptors, MethodHandle invoker) {
         this.target = target;
         this.method = method;
-        this.arguments = arguments;
+        this.arguments = arguments != null ? arguments : NO_ARGUMENTS;
         this.interceptors = interceptors;
+        this.invoker = invoker;
     }
 
     @Override
@@ -35,20 +52,60 @@ public class ReflectiveMethodInvocation implements MethodInvocation {
         return arguments;
     }
 
+    @Override
+    public Object[] getArgs() {
+        return arguments;
+    }
+
+    @Override
+    public String getSignature() {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
     @Override
     public Object proceed() throws Throwable {
 
-        if (currentInterceptorIndex == interceptors.size() - 1) {
-            return method.invoke(target, arguments);
+        if (currentInterceptorIndex == interceptors.length - 1) {
+            return invokeJoinpoint();
         }
-        
 
-        MethodInterceptor interceptor = interceptors.get(++currentInterceptorIndex);
-        return interceptor.invoke(this);
+
+        int index = ++currentInterceptorIndex;
+        try {
+            return interceptors[index].invoke(this);
+        } finally {
+            // 回到调用方拦截器的位置，再次 proceed 时重新执行后面的拦截器
+            currentInterceptorIndex = index - 1;
+        }
+    }
+
+    @Override
+    public Object proceed(Object[] args) throws Throwable {
+        int expected = method.getParameterCount();
+        int actual = args != null ? args.length : 0;
+        if (actual != expected) {
+            throw new IllegalArgumentException("Expecting " + expected + " arguments to proceed "
+                + method.getName() + ", but was passed " + actual);
+        }
+        this.arguments = args != null ? args : NO_ARGUMENTS;
+        return proceed();
+    }
+
+    protected Object invokeJoinpoint() throws Throwable {
+        if (invoker != null) {
+            // 目标方法的异常直接抛出，不包装为 InvocationTargetException
+            Object[] args = arguments;
+            return (Object) invoker.invokeExact(target, args);
+        }
+        return method.invoke(target, arguments);
     }
 
 
     public List<MethodInterceptor> getInterceptors() {
-        return interceptors;
+        return Arrays.asList(interceptors);
+    }
+
+    MethodHandle getInvoker() {
+        return invoker;
     }
-} 
\ No newline at end of file
+}
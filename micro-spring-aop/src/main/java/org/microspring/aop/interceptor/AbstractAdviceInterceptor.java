@@ -0,0 +1,180 @@
+package org.microspring.aop.interceptor;
+
+import org.microspring.aop.JoinPoint;
+import org.microspring.aop.MethodInterceptor;
+import org.microspring.aop.MethodInvocation;
+import org.microspring.aop.adapter.MethodInvocationAdapter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * 调用切面中的通知方法
+ * 通知方法的参数按类型绑定，绑定方式在创建拦截器时确定：
+ * JoinPoint -> 连接点，Method -> 被调用的方法，Object[] -> 调用参数，
+ * Throwable 及其子类 -> 目标方法抛出的异常，其他类型 -> 目标方法的返回值。
+ * 通知方法通过创建时绑定到切面实例的 MethodHandle 调用；调用对象本身是 JoinPoint 时直接传入，不再包装
+ */
+public abstract class AbstractAdviceInterceptor implements MethodInterceptor {
+
+    private static final int JOIN_POINT = 0;
+    private static final int METHOD = 1;
+    private static final int ARGUMENTS = 2;
+    private static final int THROWABLE = 3;
+    private static final int RETURN_VALUE = 4;
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    private static final MethodType ADVICE_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final Object aspectInstance;
+    private final Method adviceMethod;
+    // (Object[] args) -> Object，为 null 时通过反射调用
+    private final MethodHandle adviceHandle;
+    private final int[] bindings;
+    // 绑定返回值或异常的参数类型，类型不匹配时不执行通知
+    private final Class<?> returnValueType;
+    private final Class<?> throwableType;
+
+    protected AbstractAdviceInterceptor(Object aspectInstance, Method adviceMethod) {
+        this.aspectInstance = aspectInstance;
+        this.adviceMethod = adviceMethod;
+        this.adviceMethod.setAccessible(true);
+
+        Class<?>[] parameterTypes = adviceMethod.getParameterTypes();
+        this.bindings = new int[parameterTypes.length];
+        Class<?> returnType = null;
+        Class<?> exceptionType = null;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> type = parameterTypes[i];
+            if (JoinPoint.class.isAssignableFrom(type)) {
+                bindings[i] = JOIN_POINT;
+            } else if (type == Method.class) {
+                bindings[i] = METHOD;
+            } else if (type == Object[].class) {
+                bindings[i] = ARGUMENTS;
+            } else if (Throwable.class.isAssignableFrom(type)) {
+                bindings[i] = THROWABLE;
+                exceptionType = type;
+            } else {
+                bindings[i] = RETURN_VALUE;
+                returnType = type;
+            }
+        }
+        this.returnValueType = returnType;
+        this.throwableType = exceptionType;
+        this.adviceHandle = createAdviceHandle(aspectInstance, adviceMethod);
+    }
+
+    private static MethodHandle createAdviceHandle(Object aspectInstance, Method adviceMethod) {
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(adviceMethod).asFixedArity();
+            if (!Modifier.isStatic(adviceMethod.getModifiers())) {
+                handle = handle.bindTo(aspectInstance);
+            }
+            return handle.asSpreader(Object[].class, adviceMethod.getParameterCount()).asType(ADVICE_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            // 无法访问时退回反射调用
+            return null;
+        }
+    }
+
+    /**
+     * 通知方法是否接收该返回值
+     */
+    protected boolean acceptsReturnValue(Object returnValue) {
+        return returnValueType == null || returnValue == null || wrap(returnValueType).isInstance(returnValue);
+    }
+
+    /**
+     * 通知方法是否接收该异常
+     */
+    protected boolean acceptsThrowable(Throwable ex) {
+        return throwableType == null || throwableType.isInstance(ex);
+    }
+
+    protected Object invokeAdviceMethod(MethodInvocation invocation, Object returnValue, Throwable ex) throws Throwable {
+        return invokeAdviceMethod(invocation, null, returnValue, ex);
+    }
+
+    /**
+     * @param joinPoint 传给通知方法的连接点，为 null 时按需创建
+     */
+    protected Object invokeAdviceMethod(MethodInvocation invocation, JoinPoint joinPoint,
+                                        Object returnValue, Throwable ex) throws Throwable {
+        Object[] args = bindings.length == 0 ? NO_ARGUMENTS : new Object[bindings.length];
+        for (int i = 0; i < bindings.length; i++) {
+            switch (bindings[i]) {
+                case JOIN_POINT:
+                    if (joinPoint == null) {
+                        joinPoint = invocation instanceof JoinPoint
+                            ? (JoinPoint) invocation
+                            : new MethodInvocationAdapter(invocation);
+                    }
+                    args[i] = joinPoint;
+                    break;
+                case METHOD:
+                    args[i] = invocation.getMethod();
+                    break;
+                case ARGUMENTS:
+                    args[i] = invocation.getArguments();
+                    break;
+                case THROWABLE:
+                    args[i] = ex;
+                    break;
+                default:
+                    args[i] = returnValue;
+            }
+        }
+        if (adviceHandle != null) {
+            return (Object) adviceHandle.invokeExact(args);
+        }
+        try {
+            return adviceMethod.invoke(aspectInstance, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    public Object getAspectInstance() {
+        return aspectInstance;
+    }
+
+    public Method getAdviceMethod() {
+        return adviceMethod;
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        }
+        if (type == long.class) {
+            return Long.class;
+        }
+        if (type == boolean.class) {
+            return Boolean.class;
+        }
+        if (type == double.class) {
+            return Double.class;
+        }
+        if (type == float.class) {
+            return Float.class;
+        }
+        if (type == char.class) {
+            return Character.class;
+        }
+        if (type == byte.class) {
+            return Byte.class;
+        }
+        if (type == short.class) {
+            return Short.class;
+        }
+        return Void.class;
+    }
+}
@@ -1,35 +1,22 @@
 package org.microspring.aop.interceptor;
 
-import org.microspring.aop.MethodInterceptor;
 import org.microspring.aop.MethodInvocation;
-import org.microspring.aop.adapter.MethodInvocationAdapter;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 
-public class AfterAdviceInterceptor implements MethodInterceptor {
-    private final Object aspectInstance;
-    private final Method adviceMethod;
+public class AfterAdviceInterceptor extends AbstractAdviceInterceptor {
 
     public AfterAdviceInterceptor(Object aspectInstance, Method adviceMethod) {
-        this.aspectInstance = aspectInstance;
-        this.adviceMethod = adviceMethod;
-        this.adviceMethod.setAccessible(true);
+        super(aspectInstance, adviceMethod);
     }
 
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
         try {
-            Object result = invocation.proceed();
-            return result;
-        } catch (Throwable ex) {
-            Throwable targetException = (ex instanceof InvocationTargetException) 
-                ? ((InvocationTargetException) ex).getTargetException() 
-                : ex;
-            throw targetException;
+            return invocation.proceed();
         } finally {
-            adviceMethod.invoke(aspectInstance, new MethodInvocationAdapter(invocation));
+            invokeAdviceMethod(invocation, null, null);
         }
     }
-} 
\ No newline at end of file
+}
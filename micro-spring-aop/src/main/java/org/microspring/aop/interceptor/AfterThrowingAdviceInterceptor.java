@@ -1,44 +1,32 @@
 package org.microspring.aop.interceptor;
 
-import org.microspring.aop.MethodInterceptor;
 import org.microspring.aop.MethodInvocation;
-import org.microspring.aop.adapter.MethodInvocationAdapter;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 
-public class AfterThrowingAdviceInterceptor implements MethodInterceptor {
-    private final Object aspectInstance;
-    private final Method adviceMethod;
+public class AfterThrowingAdviceInterceptor extends AbstractAdviceInterceptor {
     private final String throwingParameterName;
 
     public AfterThrowingAdviceInterceptor(Object aspectInstance, Method adviceMethod, String throwingParameterName) {
-        this.aspectInstance = aspectInstance;
-        this.adviceMethod = adviceMethod;
+        super(aspectInstance, adviceMethod);
         this.throwingParameterName = throwingParameterName;
-        this.adviceMethod.setAccessible(true); // Make the method accessible
     }
 
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
         try {
-            Object result = invocation.proceed();
-            return result;
+            return invocation.proceed();
         } catch (Throwable ex) {
-            Throwable targetException = (ex instanceof InvocationTargetException) 
-                ? ((InvocationTargetException) ex).getTargetException() 
-                : ex;
-            
-            if (throwingParameterName != null && !throwingParameterName.isEmpty()) {
-                if (targetException instanceof Exception) {
-                    adviceMethod.invoke(aspectInstance, new MethodInvocationAdapter(invocation), targetException);
-                }
-            } else {
-                adviceMethod.invoke(aspectInstance, new MethodInvocationAdapter(invocation));
+            // 异常类型和通知方法的参数类型不匹配时不执行通知
+            if (acceptsThrowable(ex)) {
+                invokeAdviceMethod(invocation, null, ex);
             }
-            
-            throw targetException;
+            throw ex;
         }
     }
-} 
\ No newline at end of file
+
+    public String getThrowingParameterName() {
+        return throwingParameterName;
+    }
+}
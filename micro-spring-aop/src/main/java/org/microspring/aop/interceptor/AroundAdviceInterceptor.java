@@ -1,29 +1,29 @@
 package org.microspring.aop.interceptor;
 
-import org.microspring.aop.MethodInterceptor;
 import org.microspring.aop.MethodInvocation;
 import org.microspring.aop.ProceedingJoinPoint;
-import org.microspring.aop.ReflectiveMethodInvocation;
 
 import java.lang.reflect.Method;
 
 
-public class AroundAdviceInterceptor implements MethodInterceptor {
-    private final Object aspectInstance;
-    private final Method adviceMethod;
+public class AroundAdviceInterceptor extends AbstractAdviceInterceptor {
 
     public AroundAdviceInterceptor(Object aspectInstance, Method adviceMethod) {
-        this.aspectInstance = aspectInstance;
-        this.adviceMethod = adviceMethod;
-        this.adviceMethod.setAccessible(true); // Make the method accessible
+        super(aspectInstance, adviceMethod);
     }
 
     @Override
     public Object invoke(MethodInvocation invocation) throws Throwable {
-        ProceedingJoinPoint pjp = new MethodInvocationProceedingJoinPoint(invocation);
-        return adviceMethod.invoke(aspectInstance, pjp);
+        // 代理创建的调用对象本身就是 ProceedingJoinPoint
+        ProceedingJoinPoint pjp = invocation instanceof ProceedingJoinPoint
+            ? (ProceedingJoinPoint) invocation
+            : new MethodInvocationProceedingJoinPoint(invocation);
+        return invokeAdviceMethod(invocation, pjp, null, null);
     }
 
+    /**
+     * 包装其他 MethodInvocation 实现
+     */
     private static class MethodInvocationProceedingJoinPoint implements ProceedingJoinPoint {
         private final MethodInvocation methodInvocation;
 
@@ -59,12 +59,17 @@ public class AroundAdviceInterceptor implements MethodInterceptor {
 
         @Override
         public Object proceed(Object[] args) throws Throwable {
-            return new ReflectiveMethodInvocation(
-                methodInvocation.getTarget(),
-                methodInvocation.getMethod(),
-                args,
-                ((ReflectiveMethodInvocation) methodInvocation).getInterceptors()
-            ).proceed();
+            // 无法替换参数数组时覆盖原数组的内容
+            Object[] arguments = methodInvocation.getArguments();
+            int length = args != null ? args.length : 0;
+            if (arguments == null ? length != 0 : arguments.length != length) {
+                throw new IllegalArgumentException("Expecting " + (arguments != null ? arguments.length : 0)
+                    + " arguments to proceed, but was passed " + length);
+            }
+            if (length > 0) {
+                System.arraycopy(args, 0, arguments, 0, length);
+            }
+            return methodInvocation.proceed();
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,104 @@
+package org.microspring.aop.pointcut;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 由 AspectJ 风格的表达式定义的切点，例如：
+ * execution(public * org.example..*Service.find*(String, ..)) && !@annotation(org.example.NoLog)
+ * 表达式在创建时编译，匹配结果按目标类、按(方法, 目标类)缓存。
+ * args(...) 按方法声明的参数类型静态匹配，不检查运行时参数
+ */
+public class AspectJExpressionPointcut implements Pointcut, ClassFilter, MethodMatcher {
+
+    private final String expression;
+    private final PointcutExpression compiled;
+    private final Map<Class<?>, Boolean> classMatchCache = new ConcurrentHashMap<>();
+    private final Map<MethodClassKey, Boolean> methodMatchCache = new ConcurrentHashMap<>();
+
+    public AspectJExpressionPointcut(String expression) {
+        this.expression = expression;
+        this.compiled = PointcutExpressionParser.parse(expression);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    @Override
+    public ClassFilter getClassFilter() {
+        return this;
+    }
+
+    @Override
+    public MethodMatcher getMethodMatcher() {
+        return this;
+    }
+
+    @Override
+    public boolean matches(Class<?> targetClass) {
+        Boolean matched = classMatchCache.get(targetClass);
+        if (matched == null) {
+            matched = classMatchCache.computeIfAbsent(targetClass, compiled::couldMatch);
+        }
+        return matched;
+    }
+
+    @Override
+    public boolean matches(Method method, Class<?> targetClass) {
+        MethodClassKey key = new MethodClassKey(method, targetClass);
+        Boolean matched = methodMatchCache.get(key);
+        if (matched == null) {
+            matched = methodMatchCache.computeIfAbsent(key,
+                k -> compiled.matches(getSpecificMethod(method, targetClass), targetClass));
+        }
+        return matched;
+    }
+
+    /**
+     * JDK 代理传入的是接口方法，注解和修饰符以目标类中的实现方法为准
+     */
+    private static Method getSpecificMethod(Method method, Class<?> targetClass) {
+        if (targetClass == null || method.getDeclaringClass() == targetClass) {
+            return method;
+        }
+        try {
+            return targetClass.getMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            return method;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AspectJExpressionPointcut: " + expression;
+    }
+
+    private static final class MethodClassKey {
+        private final Method method;
+        private final Class<?> targetClass;
+
+        MethodClassKey(Method method, Class<?> targetClass) {
+            this.method = method;
+            this.targetClass = targetClass;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof MethodClassKey)) {
+                return false;
+            }
+            MethodClassKey that = (MethodClassKey) other;
+            return method.equals(that.method) && targetClass == that.targetClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return method.hashCode() * 31 + (targetClass != null ? targetClass.hashCode() : 0);
+        }
+    }
+}
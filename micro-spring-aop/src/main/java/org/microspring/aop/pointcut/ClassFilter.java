@@ -0,0 +1,12 @@
+package org.microspring.aop.pointcut;
+
+/**
+ * 判断切点是否作用于目标类
+ */
+@FunctionalInterface
+public interface ClassFilter {
+
+    boolean matches(Class<?> targetClass);
+
+    ClassFilter TRUE = targetClass -> true;
+}
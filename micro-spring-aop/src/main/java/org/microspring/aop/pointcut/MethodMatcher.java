@@ -0,0 +1,15 @@
+package org.microspring.aop.pointcut;
+
+import java.lang.reflect.Method;
+
+/**
+ * 判断切点是否作用于目标类的某个方法
+ * 匹配结果只取决于方法和目标类，代理为每个方法缓存匹配结果
+ */
+@FunctionalInterface
+public interface MethodMatcher {
+
+    boolean matches(Method method, Class<?> targetClass);
+
+    MethodMatcher TRUE = (method, targetClass) -> true;
+}
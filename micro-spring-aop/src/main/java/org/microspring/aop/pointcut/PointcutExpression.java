@@ -0,0 +1,269 @@
+package org.microspring.aop.pointcut;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 编译后的切点表达式
+ * couldMatch 只根据目标类判断，返回 false 表示类中的任何方法都不可能匹配
+ */
+abstract class PointcutExpression {
+
+    abstract boolean couldMatch(Class<?> targetClass);
+
+    /**
+     * @param method 目标类中的方法(接口方法已经替换为实现方法)
+     */
+    abstract boolean matches(Method method, Class<?> targetClass);
+
+    static final class And extends PointcutExpression {
+        private final PointcutExpression left;
+        private final PointcutExpression right;
+
+        And(PointcutExpression left, PointcutExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean couldMatch(Class<?> targetClass) {
+            return left.couldMatch(targetClass) && right.couldMatch(targetClass);
+        }
+
+        @Override
+        boolean matches(Method method, Class<?> targetClass) {
+            return left.matches(method, targetClass) && right.matches(method, targetClass);
+        }
+    }
+
+    static final class Or extends PointcutExpression {
+        private final PointcutExpression left;
+        private final PointcutExpression right;
+
+        Or(PointcutExpression left, PointcutExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean couldMatch(Class<?> targetClass) {
+            return left.couldMatch(targetClass) || right.couldMatch(targetClass);
+        }
+
+        @Override
+        boolean matches(Method method, Class<?> targetClass) {
+            return left.matches(method, targetClass) || right.matches(method, targetClass);
+        }
+    }
+
+    static final class Not extends PointcutExpression {
+        private final PointcutExpression expression;
+
+        Not(PointcutExpression expression) {
+            this.expression = expression;
+        }
+
+        @Override
+        boolean couldMatch(Class<?> targetClass) {
+            // 内部表达式对类的判断不能取反
+            return true;
+        }
+
+        @Override
+        boolean matches(Method method, Class<?> targetClass) {
+            return !expression.matches(method, targetClass);
+        }
+    }
+
+    /**
+     * execution([修饰符] 返回类型 [声明类型.]方法名(参数) [throws ...])
+     */
+    static final class Execution extends PointcutExpression {
+        private final int modifiers;
+        private final TypePattern returnType;
+        // 为 null 时不限制声明类型
+        private final TypePattern declaringType;
+        private final NamePattern name;
+        private final ParameterPattern parameters;
+
+        Execution(int modifiers, TypePattern returnType, TypePattern declaringType,
+                  NamePattern name, ParameterPattern parameters) {
+            this.modifiers = modifiers;
+            this.returnType = returnType;
+            this.declaringType = declaringType;
+            this.name = name;
+            this.parameters = parameters;
+        }
+
+        @Override
+        boolean couldMatch(Class<?> targetClass) {
+            // 方法可能声明在父类或接口中，这里不排除
+            return true;
+        }
+
+        @Override
+        boolean matches(Method method, Class<?> targetClass) {
+            return (method.getModifiers() & modifiers) == modifiers
+                && name.matches(method.getName())
+                && returnType.matches(method.getReturnType())
+                && (declaringType == null || declaringType.matches(targetClass)
+                    || declaringType.matches(method.getDeclaringClass()))
+                && parameters.matches(method.getParameterTypes());
+        }
+
+        static int parseModifier(String token) {
+            switch (token) {
+                case "public":
+                    return Modifier.PUBLIC;
+                case "protected":
+                    return Modifier.PROTECTED;
+                case "private":
+                    return Modifier.PRIVATE;
+                case "static":
+                    return Modifier.STATIC;
+                case "final":
+                    return Modifier.FINAL;
+                case "synchronized":
+                    return Modifier.SYNCHRONIZED;
+                default:
+                    return -1;
+            }
+        }
+    }
+
+    /**
+     * within(类型)：目标类匹配
+     */
+    static final class Within extends PointcutExpression {
+        private final TypePattern type;
+
+        Within(TypePattern type) {
+            this.type = type;
+        }
+
+        @Override
+        boolean couldMatch(Class<?> targetClass) {
+            return type.matches(targetClass);
+        }
+
+        @Override
+        boolean matches(Method method, Class<?> targetClass) {
+            return type.matches(targetClass);
+        }
+    }
+
+    /**
+     * @annotation(注解类型)：方法上有该注解
+     */
+    static final class AnnotationMatch extends PointcutExpression {
+        private final TypePattern annotationType;
+
+        AnnotationMatch(TypePattern annotationType) {
+            this.annotationType = annotationType;
+        }
+
+        @Override
+        boolean couldMatch(Class<?> targetClass) {
+            return true;
+        }
+
+        @Override
+        boolean matches(Method method, Class<?> targetClass) {
+            for (Annotation annotation : method.getAnnotations()) {
+                if (annotationType.matches(annotation.annotationType())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * args(类型, ...)：按方法声明的参数类型匹配，参数类型是给定类型或其子类型
+     */
+    static final class Args extends PointcutExpression {
+        private final ParameterPattern parameters;
+
+        Args(ParameterPattern parameters) {
+            this.parameters = parameters;
+        }
+
+        @Override
+        boolean couldMatch(Class<?> targetClass) {
+            return true;
+        }
+
+        @Override
+        boolean matches(Method method, Class<?> targetClass) {
+            return parameters.matches(method.getParameterTypes());
+        }
+    }
+
+    /**
+     * 方法名模式，"*" 匹配任意字符
+     */
+    static final class NamePattern {
+        // 不含通配符时直接比较名称
+        private final String exactName;
+        private final Pattern regex;
+
+        NamePattern(String pattern) {
+            if (pattern.indexOf('*') < 0) {
+                this.exactName = pattern;
+                this.regex = null;
+            } else {
+                this.exactName = null;
+                String[] parts = pattern.split("\\*", -1);
+                StringBuilder builder = new StringBuilder();
+                for (int i = 0; i < parts.length; i++) {
+                    if (i > 0) {
+                        builder.append(".*");
+                    }
+                    builder.append(Pattern.quote(parts[i]));
+                }
+                this.regex = Pattern.compile(builder.toString());
+            }
+        }
+
+        boolean matches(String name) {
+            return regex == null ? exactName.equals(name) : regex.matcher(name).matches();
+        }
+    }
+
+    /**
+     * 参数列表模式，".." 匹配任意个参数，"*" 匹配一个任意类型的参数
+     */
+    static final class ParameterPattern {
+        // 元素为 null 表示 ".."
+        private final List<TypePattern> patterns;
+
+        ParameterPattern(List<TypePattern> patterns) {
+            this.patterns = patterns;
+        }
+
+        boolean matches(Class<?>[] parameterTypes) {
+            return matches(parameterTypes, 0, 0);
+        }
+
+        private boolean matches(Class<?>[] parameterTypes, int typeIndex, int patternIndex) {
+            if (patternIndex == patterns.size()) {
+                return typeIndex == parameterTypes.length;
+            }
+            TypePattern pattern = patterns.get(patternIndex);
+            if (pattern == null) {
+                for (int i = typeIndex; i <= parameterTypes.length; i++) {
+                    if (matches(parameterTypes, i, patternIndex + 1)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            return typeIndex < parameterTypes.length
+                && pattern.matches(parameterTypes[typeIndex])
+                && matches(parameterTypes, typeIndex + 1, patternIndex + 1);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package org.microspring.aop.pointcut;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 解析切点表达式
+ * 支持 execution(...)、within(...)、@annotation(...)、args(...)，以及 &&、||、! 和括号
+ */
+final class PointcutExpressionParser {
+
+    private final String expression;
+    private int position;
+
+    private PointcutExpressionParser(String expression) {
+        this.expression = expression;
+    }
+
+    static PointcutExpression parse(String expression) {
+        if (expression == null || expression.trim().isEmpty()) {
+            throw new IllegalArgumentException("Pointcut expression must not be empty");
+        }
+        PointcutExpressionParser parser = new PointcutExpressionParser(expression);
+        PointcutExpression result = parser.parseOr();
+        parser.skipWhitespace();
+        if (parser.position < expression.length()) {
+            throw parser.error("Unexpected '" + expression.charAt(parser.position) + "'");
+        }
+        return result;
+    }
+
+    private PointcutExpression parseOr() {
+        PointcutExpression left = parseAnd();
+        while (consume("||")) {
+            left = new PointcutExpression.Or(left, parseAnd());
+        }
+        return left;
+    }
+
+    private PointcutExpression parseAnd() {
+        PointcutExpression left = parseUnary();
+        while (consume("&&")) {
+            left = new PointcutExpression.And(left, parseUnary());
+        }
+        return left;
+    }
+
+    private PointcutExpression parseUnary() {
+        if (consume("!")) {
+            return new PointcutExpression.Not(parseUnary());
+        }
+        if (consume("(")) {
+            PointcutExpression inner = parseOr();
+            if (!consume(")")) {
+                throw error("Missing ')'");
+            }
+            return inner;
+        }
+        return parsePrimitive();
+    }
+
+    private PointcutExpression parsePrimitive() {
+        skipWhitespace();
+        int start = position;
+        while (position < expression.length()
+                && (Character.isJavaIdentifierPart(expression.charAt(position)) || expression.charAt(position) == '@')) {
+            position++;
+        }
+        String designator = expression.substring(start, position);
+        if (designator.isEmpty()) {
+            throw error("Expected pointcut designator");
+        }
+        String body = readParenthesized(designator);
+        switch (designator) {
+            case "execution":
+                return parseExecution(body);
+            case "within":
+                return new PointcutExpression.Within(new TypePattern(body));
+            case "@annotation":
+                return new PointcutExpression.AnnotationMatch(new TypePattern(body));
+            case "args":
+                return new PointcutExpression.Args(parseParameters(body, true));
+            default:
+                throw error("Unsupported pointcut designator '" + designator + "'");
+        }
+    }
+
+    /**
+     * 读取括号中的内容，允许嵌套括号
+     */
+    private String readParenthesized(String designator) {
+        if (!consume("(")) {
+            throw error("Expected '(' after " + designator);
+        }
+        int start = position;
+        int depth = 1;
+        while (position < expression.length()) {
+            char c = expression.charAt(position++);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return expression.substring(start, position - 1).trim();
+            }
+        }
+        throw error("Missing ')' for " + designator);
+    }
+
+    private PointcutExpression parseExecution(String body) {
+        int throwsIndex = body.indexOf(" throws ");
+        String signature = throwsIndex >= 0 ? body.substring(0, throwsIndex) : body;
+        int open = signature.indexOf('(');
+        int close = signature.lastIndexOf(')');
+        if (open < 0 || close < open) {
+            throw error("Missing parameter list in execution(" + body + ")");
+        }
+        PointcutExpression.ParameterPattern parameters = parseParameters(signature.substring(open + 1, close), false);
+
+        String[] tokens = signature.substring(0, open).trim().split("\\s+");
+        if (tokens.length < 2) {
+            throw error("Expected return type and method name in execution(" + body + ")");
+        }
+        int modifiers = 0;
+        for (int i = 0; i < tokens.length - 2; i++) {
+            int modifier = PointcutExpression.Execution.parseModifier(tokens[i]);
+            if (modifier < 0) {
+                throw error("Unknown modifier '" + tokens[i] + "' in execution(" + body + ")");
+            }
+            modifiers |= modifier;
+        }
+        TypePattern returnType = new TypePattern(tokens[tokens.length - 2]);
+
+        // 最后一个 "." 之前是声明类型，之后是方法名
+        String qualifiedName = tokens[tokens.length - 1];
+        int lastDot = qualifiedName.lastIndexOf('.');
+        TypePattern declaringType = null;
+        String methodName = qualifiedName;
+        if (lastDot >= 0) {
+            String typeName = qualifiedName.substring(0, lastDot);
+            // "com.example..find*" 中的 ".." 表示任意子包中的任意类型
+            declaringType = new TypePattern(typeName.endsWith(".") ? typeName + ".*" : typeName);
+            methodName = qualifiedName.substring(lastDot + 1);
+        }
+        if (methodName.isEmpty()) {
+            throw error("Missing method name in execution(" + body + ")");
+        }
+        return new PointcutExpression.Execution(modifiers, returnType, declaringType,
+            new PointcutExpression.NamePattern(methodName), parameters);
+    }
+
+    private PointcutExpression.ParameterPattern parseParameters(String text, boolean includeSubtypes) {
+        List<TypePattern> patterns = new ArrayList<>();
+        if (!text.trim().isEmpty()) {
+            for (String parameter : text.split(",")) {
+                String trimmed = parameter.trim();
+                if ("..".equals(trimmed)) {
+                    patterns.add(null);
+                } else if ("*".equals(trimmed)) {
+                    patterns.add(TypePattern.ANY);
+                } else {
+                    patterns.add(new TypePattern(trimmed, includeSubtypes));
+                }
+            }
+        }
+        return new PointcutExpression.ParameterPattern(patterns);
+    }
+
+    private boolean consume(String token) {
+        skipWhitespace();
+        if (expression.startsWith(token, position)) {
+            position += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + position + " in pointcut expression: " + expression);
+    }
+}
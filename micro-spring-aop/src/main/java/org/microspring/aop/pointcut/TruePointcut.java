@@ -0,0 +1,27 @@
+package org.microspring.aop.pointcut;
+
+/**
+ * 匹配所有类的所有方法的切点
+ */
+final class TruePointcut implements Pointcut {
+
+    static final TruePointcut INSTANCE = new TruePointcut();
+
+    private TruePointcut() {
+    }
+
+    @Override
+    public ClassFilter getClassFilter() {
+        return ClassFilter.TRUE;
+    }
+
+    @Override
+    public MethodMatcher getMethodMatcher() {
+        return MethodMatcher.TRUE;
+    }
+
+    @Override
+    public String toString() {
+        return "Pointcut.TRUE";
+    }
+}
@@ -0,0 +1,111 @@
+package org.microspring.aop.pointcut;
+
+import java.util.regex.Pattern;
+
+/**
+ * 切点表达式中的类型名模式
+ * "*" 匹配名称中不含 "." 的任意部分，"a..*" 匹配 a 包及其子包中的类型，结尾的 "+" 同时匹配子类型；
+ * 不含 "." 的模式按简单类名匹配，例如 "String"、"*Service"
+ */
+final class TypePattern {
+
+    static final TypePattern ANY = new TypePattern("*");
+
+    private final String pattern;
+    private final Pattern regex;
+    private final boolean simpleName;
+    private final boolean includeSubtypes;
+
+    TypePattern(String pattern) {
+        this(pattern, false);
+    }
+
+    /**
+     * @param includeSubtypes 没有 "+" 时是否也匹配子类型
+     */
+    TypePattern(String pattern, boolean includeSubtypes) {
+        String text = pattern.trim();
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("Empty type pattern");
+        }
+        this.pattern = text;
+        this.includeSubtypes = includeSubtypes || text.endsWith("+");
+        if (text.endsWith("+")) {
+            text = text.substring(0, text.length() - 1);
+        }
+        // 内部类统一按 "." 分隔匹配
+        text = text.replace('$', '.');
+        this.simpleName = !text.contains(".");
+        this.regex = Pattern.compile(toRegex(text));
+    }
+
+    boolean isAny() {
+        return "*".equals(pattern);
+    }
+
+    boolean matches(Class<?> type) {
+        if (isAny()) {
+            return true;
+        }
+        if (matchesName(type)) {
+            return true;
+        }
+        if (includeSubtypes && !type.isPrimitive()) {
+            Class<?> superclass = type.getSuperclass();
+            if (superclass != null && matches(superclass)) {
+                return true;
+            }
+            for (Class<?> ifc : type.getInterfaces()) {
+                if (matches(ifc)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesName(Class<?> type) {
+        String name = simpleName ? simpleTypeName(type) : typeName(type);
+        return regex.matcher(name).matches();
+    }
+
+    /**
+     * 全限定名，内部类使用 "." 分隔，数组以 "[]" 结尾
+     */
+    static String typeName(Class<?> type) {
+        if (type.isArray()) {
+            return typeName(type.getComponentType()) + "[]";
+        }
+        return type.getName().replace('$', '.');
+    }
+
+    private static String simpleTypeName(Class<?> type) {
+        String name = typeName(type);
+        int lastDot = name.lastIndexOf('.', name.endsWith("[]") ? name.length() - 3 : name.length());
+        return lastDot >= 0 ? name.substring(lastDot + 1) : name;
+    }
+
+    private static String toRegex(String text) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '.' && i + 1 < text.length() && text.charAt(i + 1) == '.') {
+                // "..": 任意层子包
+                regex.append("\\.(?:.*\\.)?");
+                i++;
+            } else if (c == '*') {
+                regex.append("[^.]*");
+            } else if (Character.isJavaIdentifierPart(c)) {
+                regex.append(c);
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return regex.toString();
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
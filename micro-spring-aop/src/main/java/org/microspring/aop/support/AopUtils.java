@@ -0,0 +1,44 @@
+package org.microspring.aop.support;
+
+import org.microspring.aop.Advisor;
+import org.microspring.aop.pointcut.MethodMatcher;
+import org.microspring.aop.pointcut.Pointcut;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+public abstract class AopUtils {
+
+    /**
+     * 切点是否匹配目标类的某个 public 方法
+     */
+    public static boolean canApply(Pointcut pointcut, Class<?> targetClass) {
+        if (!pointcut.getClassFilter().matches(targetClass)) {
+            return false;
+        }
+        MethodMatcher methodMatcher = pointcut.getMethodMatcher();
+        if (methodMatcher == MethodMatcher.TRUE) {
+            return true;
+        }
+        for (Method method : targetClass.getMethods()) {
+            if (methodMatcher.matches(method, targetClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 筛选出作用于目标类的 Advisor，保持原有顺序
+     */
+    public static List<Advisor> findAdvisorsThatCanApply(List<Advisor> advisors, Class<?> targetClass) {
+        List<Advisor> eligible = new ArrayList<>();
+        for (Advisor advisor : advisors) {
+            if (canApply(advisor.getPointcut(), targetClass)) {
+                eligible.add(advisor);
+            }
+        }
+        return eligible;
+    }
+}
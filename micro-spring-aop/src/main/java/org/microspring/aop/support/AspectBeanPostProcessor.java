@@ -2,110 +2,219 @@ package org.microspring.aop.support;
 
 import org.microspring.core.BeanPostProcessor;
 import org.microspring.core.DefaultBeanFactory;
+import org.microspring.core.exception.BeanCreationException;
+import org.microspring.aop.AdvisedSupport;
+import org.microspring.aop.Advisor;
+import org.microspring.aop.AopProxyFactory;
 import org.microspring.aop.Aspect;
-import org.microspring.aop.advice.LogAdvice;
+import org.microspring.aop.DefaultAopProxyFactory;
+import org.microspring.aop.annotation.After;
+import org.microspring.aop.annotation.AfterReturning;
+import org.microspring.aop.annotation.AfterThrowing;
+import org.microspring.aop.annotation.Around;
+import org.microspring.aop.annotation.Before;
+import org.microspring.aop.interceptor.AfterAdviceInterceptor;
+import org.microspring.aop.interceptor.AfterReturningAdviceInterceptor;
+import org.microspring.aop.interceptor.AfterThrowingAdviceInterceptor;
+import org.microspring.aop.interceptor.AroundAdviceInterceptor;
+import org.microspring.aop.interceptor.BeforeAdviceInterceptor;
+import org.microspring.aop.pointcut.AspectJExpressionPointcut;
 
-import java.lang.reflect.Proxy;
 import java.lang.reflect.Method;
-import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
+/**
+ * 把 @Aspect bean 中的通知织入其他 bean
+ * 切面注册时就解析出通知方法并转换为拦截器，调用时不再查找方法；
+ * 多个切面按 order 排序，order 小的在外层：before 先执行，afterReturning/afterThrowing 后执行。
+ * 带 @Around、@Before、@After、@AfterReturning、@AfterThrowing 的通知只作用于切点表达式匹配的方法，
+ * 没有任何方法匹配的 bean 不创建代理
+ */
 public class AspectBeanPostProcessor implements BeanPostProcessor {
     private final DefaultBeanFactory beanFactory;
-    private final List<Object> aspects = new ArrayList<>();
-    
+    private final List<AspectAdvisors> aspects = new ArrayList<>();
+    // 所有切面的 Advisor，按切面顺序排列，注册切面时重建
+    private volatile List<Advisor> advisors = Collections.emptyList();
+    private final AopProxyFactory proxyFactory = new DefaultAopProxyFactory();
+
     public AspectBeanPostProcessor(DefaultBeanFactory beanFactory) {
         this.beanFactory = beanFactory;
     }
-    
+
     @Override
     public Object postProcessBeforeInitialization(Object bean, String beanName) {
-        if (bean.getClass().isAnnotationPresent(Aspect.class)) {
-            aspects.add(bean);
-            // 按order排序
-            aspects.sort((a1, a2) -> {
-                Aspect aspect1 = a1.getClass().getAnnotation(Aspect.class);
-                Aspect aspect2 = a2.getClass().getAnnotation(Aspect.class);
-                return Integer.compare(aspect1.order(), aspect2.order());
-            });
+        Aspect aspect = bean.getClass().getAnnotation(Aspect.class);
+        if (aspect != null) {
+            registerAspect(bean, aspect.order());
         }
         return bean;
     }
-    
+
     @Override
     public Object postProcessAfterInitialization(Object bean, String beanName) {
-        if (!aspects.isEmpty() && !bean.getClass().isAnnotationPresent(Aspect.class)) {
-            Class<?>[] interfaces = bean.getClass().getInterfaces();
-            if (interfaces.length > 0) {
-                return createProxy(bean, interfaces);
-            }
+        List<Advisor> currentAdvisors = advisors;
+        Class<?> beanClass = bean.getClass();
+        if (currentAdvisors.isEmpty() || beanClass.isAnnotationPresent(Aspect.class)
+                || Modifier.isFinal(beanClass.getModifiers())) {
+            return bean;
         }
-        return bean;
+        List<Advisor> eligible = AopUtils.findAdvisorsThatCanApply(currentAdvisors, beanClass);
+        if (eligible.isEmpty()) {
+            return bean;
+        }
+        // 没有实现接口的类生成子类代理
+        AdvisedSupport advised = new AdvisedSupport(bean);
+        for (Advisor advisor : eligible) {
+            advised.addAdvisor(advisor);
+        }
+        try {
+            return proxyFactory.createAopProxy(advised).getProxy();
+        } catch (RuntimeException e) {
+            // 通知匹配的 bean 无法代理时启动失败，不能静默地返回没有织入通知的 bean
+            throw new BeanCreationException(beanName, "Cannot create AOP proxy for " + beanClass.getName(), e);
+        }
+    }
+
+    private synchronized void registerAspect(Object aspect, int order) {
+        AspectAdvisors resolved = new AspectAdvisors(order, resolveAdvisors(aspect));
+        // 相同 order 的切面保持注册顺序
+        int index = 0;
+        while (index < aspects.size() && aspects.get(index).order <= order) {
+            index++;
+        }
+        aspects.add(index, resolved);
+
+        List<Advisor> all = new ArrayList<>();
+        for (AspectAdvisors aspectAdvisors : aspects) {
+            all.addAll(aspectAdvisors.advisors);
+        }
+        advisors = Collections.unmodifiableList(all);
     }
-    
-    private Object createProxy(final Object target, Class<?>[] interfaces) {
-        return Proxy.newProxyInstance(
-            target.getClass().getClassLoader(),
-            interfaces,
-            new InvocationHandler() {
-                @Override
-                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-                    
-                    // 按order顺序执行before方法
-                    for (Object aspect : aspects) {
-                        try {
-                            Method beforeMethod = aspect.getClass().getDeclaredMethod("before", Method.class, Object[].class);
-                            beforeMethod.setAccessible(true);
-                            beforeMethod.invoke(aspect, method, args);
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                        }
-                    }
-                    
-                    try {
-                        Object result = method.invoke(target, args);
-                        
-                        // 按order相反顺序执行after方法
-                        List<Object> reversedAspects = new ArrayList<>(aspects);
-                        Collections.reverse(reversedAspects);
-                        
-                        for (Object aspect : reversedAspects) {
-                            try {
-                                Method afterMethod = aspect.getClass().getDeclaredMethod("afterReturning", 
-                                    Method.class, Object.class);
-                                afterMethod.setAccessible(true);
-                                afterMethod.invoke(aspect, method, result);
-                            } catch (Exception e) {
-                                e.printStackTrace();
-                            }
-                        }
-                        
-                        return result;
-                    } catch (Exception e) {
-                        Throwable targetException = e.getCause() != null ? e.getCause() : e;
-                        
-                        // 按order相反顺序执行afterThrowing方法
-                        List<Object> reversedAspects = new ArrayList<>(aspects);
-                        Collections.reverse(reversedAspects);
-                        
-                        for (Object aspect : reversedAspects) {
-                            try {
-                                Method throwingMethod = aspect.getClass().getDeclaredMethod("afterThrowing", 
-                                    Method.class, Exception.class);
-                                throwingMethod.setAccessible(true);
-                                throwingMethod.invoke(aspect, method, targetException);
-                            } catch (Exception ex) {
-                                System.err.println("[ERROR] Failed to invoke afterThrowing method on aspect: " + 
-                                    aspect.getClass().getSimpleName() + ", error: " + ex.getMessage());
-                                ex.printStackTrace();
-                            }
-                        }
-                        throw targetException;
-                    }
+
+    private List<Advisor> resolveAdvisors(Object aspect) {
+        List<Advisor> result = resolveAnnotatedAdvisors(aspect);
+        result.addAll(resolveConventionAdvisors(aspect));
+        return result;
+    }
+
+    /**
+     * 按 Around、Before、After、AfterReturning、AfterThrowing 的顺序解析带注解的通知方法，
+     * 同类通知按方法名排序
+     */
+    private List<Advisor> resolveAnnotatedAdvisors(Object aspect) {
+        List<Method> adviceMethods = new ArrayList<>();
+        // 子类覆盖的方法不再从父类重复解析
+        Set<String> signatures = new HashSet<>();
+        for (Class<?> current = aspect.getClass(); current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Method method : current.getDeclaredMethods()) {
+                String signature = method.getName() + Arrays.toString(method.getParameterTypes());
+                if (signatures.add(signature) && adviceKind(method) >= 0) {
+                    adviceMethods.add(method);
                 }
             }
-        );
+        }
+        adviceMethods.sort(Comparator.comparingInt(AspectBeanPostProcessor::adviceKind).thenComparing(Method::getName));
+
+        List<Advisor> result = new ArrayList<>();
+        for (Method method : adviceMethods) {
+            result.add(createAnnotatedAdvisor(aspect, method));
+        }
+        return result;
+    }
+
+    private static Advisor createAnnotatedAdvisor(Object aspect, Method method) {
+        Around around = method.getAnnotation(Around.class);
+        if (around != null) {
+            return new DefaultPointcutAdvisor(new AspectJExpressionPointcut(around.value()),
+                new AroundAdviceInterceptor(aspect, method));
+        }
+        Before before = method.getAnnotation(Before.class);
+        if (before != null) {
+            return new DefaultPointcutAdvisor(new AspectJExpressionPointcut(before.value()),
+                new BeforeAdviceInterceptor(aspect, method));
+        }
+        After after = method.getAnnotation(After.class);
+        if (after != null) {
+            return new DefaultPointcutAdvisor(new AspectJExpressionPointcut(after.value()),
+                new AfterAdviceInterceptor(aspect, method));
+        }
+        AfterReturning afterReturning = method.getAnnotation(AfterReturning.class);
+        if (afterReturning != null) {
+            return new DefaultPointcutAdvisor(new AspectJExpressionPointcut(afterReturning.value()),
+                new AfterReturningAdviceInterceptor(aspect, method, afterReturning.returning()));
+        }
+        AfterThrowing afterThrowing = method.getAnnotation(AfterThrowing.class);
+        return new DefaultPointcutAdvisor(new AspectJExpressionPointcut(afterThrowing.value()),
+            new AfterThrowingAdviceInterceptor(aspect, method, afterThrowing.throwing()));
+    }
+
+    private static int adviceKind(Method method) {
+        if (method.isAnnotationPresent(Around.class)) {
+            return 0;
+        }
+        if (method.isAnnotationPresent(Before.class)) {
+            return 1;
+        }
+        if (method.isAnnotationPresent(After.class)) {
+            return 2;
+        }
+        if (method.isAnnotationPresent(AfterReturning.class)) {
+            return 3;
+        }
+        if (method.isAnnotationPresent(AfterThrowing.class)) {
+            return 4;
+        }
+        return -1;
+    }
+
+    /**
+     * 解析切面的 before(Method, Object[])、afterReturning(Method, Object)、afterThrowing(Method, Exception) 方法，
+     * 作用于所有方法；没有声明或已经带通知注解的跳过
+     */
+    private List<Advisor> resolveConventionAdvisors(Object aspect) {
+        Class<?> aspectClass = aspect.getClass();
+        List<Advisor> result = new ArrayList<>();
+        Method before = findAdviceMethod(aspectClass, "before", Method.class, Object[].class);
+        if (before != null) {
+            result.add(new DefaultPointcutAdvisor(new BeforeAdviceInterceptor(aspect, before)));
+        }
+        Method afterReturning = findAdviceMethod(aspectClass, "afterReturning", Method.class, Object.class);
+        if (afterReturning != null) {
+            result.add(new DefaultPointcutAdvisor(new AfterReturningAdviceInterceptor(aspect, afterReturning, "result")));
+        }
+        Method afterThrowing = findAdviceMethod(aspectClass, "afterThrowing", Method.class, Exception.class);
+        if (afterThrowing != null) {
+            result.add(new DefaultPointcutAdvisor(new AfterThrowingAdviceInterceptor(aspect, afterThrowing, "ex")));
+        }
+        return result;
+    }
+
+    private static Method findAdviceMethod(Class<?> aspectClass, String name, Class<?>... parameterTypes) {
+        for (Class<?> current = aspectClass; current != null && current != Object.class; current = current.getSuperclass()) {
+            try {
+                Method method = current.getDeclaredMethod(name, parameterTypes);
+                return adviceKind(method) < 0 ? method : null;
+            } catch (NoSuchMethodException e) {
+                // 继续查找父类
+            }
+        }
+        return null;
+    }
+
+    private static final class AspectAdvisors {
+        private final int order;
+        private final List<Advisor> advisors;
+
+        AspectAdvisors(int order, List<Advisor> advisors) {
+            this.order = order;
+            this.advisors = advisors;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,32 @@
+package org.microspring.aop.support;
+
+import org.microspring.aop.Advisor;
+import org.microspring.aop.MethodInterceptor;
+import org.microspring.aop.pointcut.Pointcut;
+
+public class DefaultPointcutAdvisor implements Advisor {
+    private final Pointcut pointcut;
+    private final MethodInterceptor interceptor;
+
+    /**
+     * 作用于所有方法
+     */
+    public DefaultPointcutAdvisor(MethodInterceptor interceptor) {
+        this(Pointcut.TRUE, interceptor);
+    }
+
+    public DefaultPointcutAdvisor(Pointcut pointcut, MethodInterceptor interceptor) {
+        this.pointcut = pointcut;
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public MethodInterceptor getInterceptor() {
+        return interceptor;
+    }
+}
@@ -126,4 +126,66 @@ public class AdviceTest {
                 executionOrder.contains("after"));
         }
     }
-} 
\ No newline at end of file
+
+    static class RetryAspect {
+        final List<String> calls = new ArrayList<>();
+        final List<Object> joinPoints = new ArrayList<>();
+
+        // 第一次用改写后的参数调用，然后再调用一次
+        public Object upperCaseTwice(ProceedingJoinPoint pjp) throws Throwable {
+            joinPoints.add(pjp);
+            Object first = pjp.proceed(new Object[] {((String) pjp.getArgs()[0]).toUpperCase()});
+            Object second = pjp.proceed();
+            calls.add("around:" + first + "|" + second);
+            return second;
+        }
+
+        public void record(JoinPoint joinPoint) {
+            joinPoints.add(joinPoint);
+            calls.add("before:" + joinPoint.getArgs()[0]);
+        }
+    }
+
+    @Test
+    public void testProceedWithArgumentsContinuesFromCurrentPosition() throws Exception {
+        RetryAspect aspect = new RetryAspect();
+        List<MethodInterceptor> interceptors = new ArrayList<>();
+        interceptors.add(invocation -> {
+            aspect.calls.add("outer");
+            return invocation.proceed();
+        });
+        interceptors.add(new AroundAdviceInterceptor(aspect,
+            RetryAspect.class.getMethod("upperCaseTwice", ProceedingJoinPoint.class)));
+        interceptors.add(new BeforeAdviceInterceptor(aspect,
+            RetryAspect.class.getMethod("record", JoinPoint.class)));
+
+        TestService proxyObject = (TestService) new JdkDynamicAopProxy(new TestServiceImpl(), interceptors).getProxy();
+        assertEquals("Hello, WORLD", proxyObject.doSomething("world"));
+
+        // 外层拦截器只执行一次，内层拦截器每次 proceed 都执行
+        List<String> expected = new ArrayList<>();
+        expected.add("outer");
+        expected.add("before:WORLD");
+        expected.add("before:WORLD");
+        expected.add("around:Hello, WORLD|Hello, WORLD");
+        assertEquals(expected, aspect.calls);
+
+        // 整个调用链共用同一个连接点对象
+        assertEquals(3, aspect.joinPoints.size());
+        assertSame(aspect.joinPoints.get(0), aspect.joinPoints.get(1));
+        assertSame(aspect.joinPoints.get(0), aspect.joinPoints.get(2));
+    }
+
+    @Test
+    public void testProceedWithWrongArgumentCount() throws Exception {
+        List<MethodInterceptor> interceptors = new ArrayList<>();
+        interceptors.add(invocation -> ((ProceedingJoinPoint) invocation).proceed(new Object[0]));
+        TestService proxyObject = (TestService) new JdkDynamicAopProxy(new TestServiceImpl(), interceptors).getProxy();
+        try {
+            proxyObject.doSomething("world");
+            fail("Should throw exception");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("Expecting 1 arguments"));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.microspring.aop;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.microspring.aop.pointcut.ClassFilter;
+import org.microspring.aop.pointcut.MethodMatcher;
+import org.microspring.aop.pointcut.Pointcut;
+import org.microspring.aop.support.DefaultPointcutAdvisor;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AdvisedMethodCacheTest {
+
+    public interface AccountService {
+        int deposit(int amount);
+
+        String owner();
+
+        void close() throws Exception;
+
+        String join(String... parts);
+    }
+
+    public static class SimpleAccountService implements AccountService {
+        private int balance;
+
+        @Override
+        public int deposit(int amount) {
+            balance += amount;
+            return balance;
+        }
+
+        @Override
+        public String owner() {
+            return "alice";
+        }
+
+        @Override
+        public void close() throws Exception {
+            throw new Exception("already closed");
+        }
+
+        @Override
+        public String join(String... parts) {
+            return String.join(",", parts);
+        }
+    }
+
+    // 只匹配指定名称的方法，并记录匹配次数
+    static class NamePointcut implements Pointcut {
+        private final String methodName;
+        private final AtomicInteger matchCount = new AtomicInteger();
+
+        NamePointcut(String methodName) {
+            this.methodName = methodName;
+        }
+
+        @Override
+        public ClassFilter getClassFilter() {
+            return ClassFilter.TRUE;
+        }
+
+        @Override
+        public MethodMatcher getMethodMatcher() {
+            return (method, targetClass) -> {
+                matchCount.incrementAndGet();
+                return method.getName().equals(methodName);
+            };
+        }
+    }
+
+    private final List<String> calls = new ArrayList<>();
+    private NamePointcut depositPointcut;
+    private AccountService proxy;
+
+    @Before
+    public void setUp() {
+        depositPointcut = new NamePointcut("deposit");
+        AdvisedSupport advised = new AdvisedSupport(new SimpleAccountService());
+        advised.addAdvisor(new DefaultPointcutAdvisor(depositPointcut, invocation -> {
+            calls.add("audit:" + invocation.getMethod().getName());
+            return invocation.proceed();
+        }));
+        advised.addInterceptor(invocation -> {
+            calls.add("all:" + invocation.getMethod().getName());
+            return invocation.proceed();
+        });
+        proxy = (AccountService) new JdkDynamicAopProxy(advised).getProxy();
+    }
+
+    @Test
+    public void testInterceptorsApplyOnlyToMatchedMethods() {
+        assertEquals(10, proxy.deposit(10));
+        assertEquals("alice", proxy.owner());
+
+        List<String> expected = new ArrayList<>();
+        expected.add("audit:deposit");
+        expected.add("all:deposit");
+        expected.add("all:owner");
+        assertEquals(expected, calls);
+    }
+
+    @Test
+    public void testPointcutIsEvaluatedOncePerMethod() {
+        proxy.deposit(1);
+        proxy.deposit(2);
+        assertEquals(8, proxy.deposit(5));
+        proxy.owner();
+        proxy.owner();
+
+        assertEquals(2, depositPointcut.matchCount.get());
+    }
+
+    @Test
+    public void testUnadvisedMethodGoesStraightToTarget() {
+        AdvisedSupport advised = new AdvisedSupport(new SimpleAccountService());
+        advised.addAdvisor(new DefaultPointcutAdvisor(new NamePointcut("deposit"), invocation -> {
+            throw new AssertionError("should not intercept " + invocation.getMethod().getName());
+        }));
+        AccountService unadvised = (AccountService) new JdkDynamicAopProxy(advised).getProxy();
+
+        assertEquals("alice", unadvised.owner());
+        assertEquals(0, advised.getInterceptors(getMethod("owner")).length);
+        assertEquals(1, advised.getInterceptors(getMethod("deposit")).length);
+    }
+
+    @Test
+    public void testTargetExceptionIsNotWrapped() {
+        try {
+            proxy.close();
+            fail("Should throw exception");
+        } catch (Exception e) {
+            assertEquals(Exception.class, e.getClass());
+            assertEquals("already closed", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testVarargsMethod() {
+        assertEquals("a,b", proxy.join("a", "b"));
+        assertEquals("", proxy.join());
+    }
+
+    private static Method getMethod(String name) {
+        for (Method method : AccountService.class.getMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+}
@@ -11,6 +11,9 @@ import static org.junit.Assert.*;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class AspectTest {
     
@@ -120,4 +123,62 @@ public class AspectTest {
             System.setOut(originalOut);
         }
     }
-} 
\ No newline at end of file
+    
+    public interface IFailingService {
+        void fail() throws Exception;
+    }
+    
+    public static class FailingService implements IFailingService {
+        @Override
+        public void fail() throws Exception {
+            throw new IllegalStateException("failed");
+        }
+    }
+    
+    @Aspect(order = 1)
+    public static class OuterAspect {
+        static final List<String> calls = new ArrayList<>();
+        
+        public void before(Method method, Object[] args) {
+            calls.add("outer-before");
+        }
+        
+        public void afterThrowing(Method method, Exception ex) {
+            calls.add("outer-throwing:" + ex.getMessage());
+        }
+    }
+    
+    // 只继承父类的 before，没有 afterThrowing
+    @Aspect(order = 2)
+    public static class InnerAspect extends BeforeOnlyAdvice {
+    }
+    
+    public static class BeforeOnlyAdvice {
+        public void before(Method method, Object[] args) {
+            OuterAspect.calls.add("inner-before");
+        }
+    }
+    
+    @Test
+    public void testAdviceOrderWhenTargetThrows() {
+        OuterAspect.calls.clear();
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.addBeanPostProcessor(new AspectBeanPostProcessor(beanFactory));
+        // 后注册 order 更小的切面
+        beanFactory.registerBeanDefinition("innerAspect", new DefaultBeanDefinition(InnerAspect.class));
+        beanFactory.getBean("innerAspect");
+        beanFactory.registerBeanDefinition("outerAspect", new DefaultBeanDefinition(OuterAspect.class));
+        beanFactory.getBean("outerAspect");
+        beanFactory.registerBeanDefinition("failingService", new DefaultBeanDefinition(FailingService.class));
+        
+        IFailingService service = (IFailingService) beanFactory.getBean("failingService");
+        try {
+            service.fail();
+            fail("Should throw exception");
+        } catch (Exception e) {
+            assertEquals(IllegalStateException.class, e.getClass());
+        }
+        
+        assertEquals(Arrays.asList("outer-before", "inner-before", "outer-throwing:failed"), OuterAspect.calls);
+    }
+}
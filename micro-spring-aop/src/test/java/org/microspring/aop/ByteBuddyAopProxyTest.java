@@ -0,0 +1,216 @@
+package org.microspring.aop;
+
+import org.junit.Test;
+import org.microspring.aop.pointcut.ClassFilter;
+import org.microspring.aop.pointcut.MethodMatcher;
+import org.microspring.aop.pointcut.Pointcut;
+import org.microspring.aop.support.AspectBeanPostProcessor;
+import org.microspring.aop.support.DefaultPointcutAdvisor;
+import org.microspring.core.DefaultBeanDefinition;
+import org.microspring.core.DefaultBeanFactory;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ByteBuddyAopProxyTest {
+
+    // 没有接口，也没有无参构造器
+    public static class OrderService {
+        private final String prefix;
+        private int created;
+
+        public OrderService(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String create(int id) {
+            created++;
+            return prefix + id;
+        }
+
+        public int getCreated() {
+            return created;
+        }
+
+        public void cancel() throws Exception {
+            throw new Exception("cannot cancel");
+        }
+    }
+
+    public interface Greeter {
+        String greet();
+    }
+
+    public static class SimpleGreeter implements Greeter {
+        @Override
+        public String greet() {
+            return "hi";
+        }
+    }
+
+    public static final class FinalService {
+    }
+
+    @Aspect
+    public static class RecordingAspect {
+        static final List<String> calls = new ArrayList<>();
+
+        public void before(Method method, Object[] args) {
+            calls.add("before:" + method.getName());
+        }
+
+        public void afterReturning(Method method, Object result) {
+            calls.add("after:" + method.getName());
+        }
+
+        public void afterThrowing(Method method, Exception ex) {
+            calls.add("throwing:" + method.getName());
+        }
+    }
+
+    private static Pointcut methodNamed(String name) {
+        return new Pointcut() {
+            @Override
+            public ClassFilter getClassFilter() {
+                return ClassFilter.TRUE;
+            }
+
+            @Override
+            public MethodMatcher getMethodMatcher() {
+                return (method, targetClass) -> method.getName().equals(name);
+            }
+        };
+    }
+
+    @Test
+    public void testProxyClassWithoutInterfaces() {
+        List<String> calls = new ArrayList<>();
+        OrderService target = new OrderService("order-");
+        AdvisedSupport advised = new AdvisedSupport(target);
+        advised.addAdvisor(new DefaultPointcutAdvisor(methodNamed("create"), invocation -> {
+            calls.add("create(" + invocation.getArguments()[0] + ")");
+            return invocation.proceed();
+        }));
+
+        AopProxy aopProxy = new DefaultAopProxyFactory().createAopProxy(advised);
+        assertTrue(aopProxy instanceof ByteBuddyAopProxy);
+        OrderService proxy = (OrderService) aopProxy.getProxy();
+
+        assertEquals("order-7", proxy.create(7));
+        // 未匹配的方法直接调用目标对象，状态保存在目标对象上
+        assertEquals(1, proxy.getCreated());
+        assertEquals(1, target.getCreated());
+        assertEquals(1, calls.size());
+        assertEquals("create(7)", calls.get(0));
+    }
+
+    @Test
+    public void testTargetExceptionIsNotWrapped() {
+        AdvisedSupport advised = new AdvisedSupport(new OrderService("o"));
+        advised.addInterceptor(MethodInvocation::proceed);
+        OrderService proxy = (OrderService) new ByteBuddyAopProxy(advised).getProxy();
+        try {
+            proxy.cancel();
+            fail("Should throw exception");
+        } catch (Exception e) {
+            assertEquals(Exception.class, e.getClass());
+            assertEquals("cannot cancel", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testProxyClassIsReused() {
+        Object first = new ByteBuddyAopProxy(new AdvisedSupport(new OrderService("a"))).getProxy();
+        Object second = new ByteBuddyAopProxy(new AdvisedSupport(new OrderService("b"))).getProxy();
+
+        assertSame(first.getClass(), second.getClass());
+        assertEquals("a1", ((OrderService) first).create(1));
+        assertEquals("b1", ((OrderService) second).create(1));
+    }
+
+    @Test
+    public void testProxyFactorySelection() {
+        AdvisedSupport advised = new AdvisedSupport(new SimpleGreeter());
+        assertTrue(new DefaultAopProxyFactory().createAopProxy(advised) instanceof JdkDynamicAopProxy);
+
+        advised.setProxyTargetClass(true);
+        Object proxy = new DefaultAopProxyFactory().createAopProxy(advised).getProxy();
+        assertTrue(proxy instanceof SimpleGreeter);
+        assertFalse(Proxy.isProxyClass(proxy.getClass()));
+        assertEquals("hi", ((SimpleGreeter) proxy).greet());
+
+        try {
+            new ByteBuddyAopProxy(new AdvisedSupport(new FinalService()));
+            fail("Should throw exception");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains("final"));
+        }
+    }
+
+    @Test
+    public void testAspectAppliedToClassWithoutInterfaces() {
+        RecordingAspect.calls.clear();
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.addBeanPostProcessor(new AspectBeanPostProcessor(beanFactory));
+        beanFactory.registerBeanDefinition("recordingAspect", new DefaultBeanDefinition(RecordingAspect.class));
+        beanFactory.getBean("recordingAspect");
+        beanFactory.registerBeanDefinition("greeter", new DefaultBeanDefinition(NoInterfaceGreeter.class));
+
+        NoInterfaceGreeter greeter = (NoInterfaceGreeter) beanFactory.getBean("greeter");
+        assertEquals("hello", greeter.greet());
+
+        assertEquals(2, RecordingAspect.calls.size());
+        assertEquals("before:greet", RecordingAspect.calls.get(0));
+        assertEquals("after:greet", RecordingAspect.calls.get(1));
+    }
+
+    @Test
+    public void testPackagePrivateClassAndMethodAreProxied() {
+        List<String> calls = new ArrayList<>();
+        AdvisedSupport advised = new AdvisedSupport(new PackagePrivateService());
+        advised.addInterceptor(invocation -> {
+            calls.add(invocation.getMethod().getName());
+            return invocation.proceed();
+        });
+        PackagePrivateService proxy = (PackagePrivateService) new ByteBuddyAopProxy(advised).getProxy();
+
+        assertEquals("internal", proxy.internal());
+        // final 方法不能被覆盖，直接在代理实例上执行
+        assertEquals("fixed", proxy.fixed());
+        assertEquals(1, calls.size());
+        assertEquals("internal", calls.get(0));
+    }
+
+    @Test
+    public void testUnloadableProxyClassFailsWithRuntimeException() {
+        // 隔离的类加载器看不到目标类，生成失败时抛出 RuntimeException 而不是 Error
+        ClassLoader isolated = new ClassLoader(null) {
+        };
+        try {
+            new ByteBuddyAopProxy(new AdvisedSupport(new PackagePrivateService())).getProxy(isolated);
+            fail("Should throw exception");
+        } catch (RuntimeException e) {
+            assertTrue(e.getMessage().contains(PackagePrivateService.class.getName()));
+        }
+    }
+
+    static class PackagePrivateService {
+        String internal() {
+            return "internal";
+        }
+
+        final String fixed() {
+            return "fixed";
+        }
+    }
+
+    public static class NoInterfaceGreeter {
+        public String greet() {
+            return "hello";
+        }
+    }
+}
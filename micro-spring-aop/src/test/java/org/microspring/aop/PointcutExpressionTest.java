@@ -0,0 +1,151 @@
+package org.microspring.aop;
+
+import org.junit.Test;
+import org.microspring.aop.annotation.Before;
+import org.microspring.aop.pointcut.AspectJExpressionPointcut;
+import org.microspring.aop.support.AspectBeanPostProcessor;
+import org.microspring.core.DefaultBeanDefinition;
+import org.microspring.core.DefaultBeanFactory;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PointcutExpressionTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    public @interface Audited {
+    }
+
+    public interface OrderService {
+        String saveOrder(String id, int quantity);
+
+        void deleteOrder(Long id);
+    }
+
+    public static class DefaultOrderService implements OrderService {
+        @Audited
+        @Override
+        public String saveOrder(String id, int quantity) {
+            return id + ":" + quantity;
+        }
+
+        @Override
+        public void deleteOrder(Long id) {
+        }
+
+        protected void internal() {
+        }
+    }
+
+    public static class ReportGenerator {
+        public String generate() {
+            return "report";
+        }
+    }
+
+    @Aspect
+    public static class SaveAspect {
+        final List<String> calls = new ArrayList<>();
+
+        @Before("execution(* org.microspring..*Service.save*(..))")
+        public void beforeSave(JoinPoint joinPoint) {
+            calls.add("before:" + joinPoint.getMethod().getName());
+        }
+    }
+
+    private static boolean matches(String expression, String methodName) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut(expression);
+        for (Method method : DefaultOrderService.class.getDeclaredMethods()) {
+            if (method.getName().equals(methodName)) {
+                return pointcut.matches(DefaultOrderService.class)
+                    && pointcut.matches(method, DefaultOrderService.class);
+            }
+        }
+        throw new IllegalArgumentException(methodName);
+    }
+
+    @Test
+    public void testExecution() {
+        assertTrue(matches("execution(* saveOrder(..))", "saveOrder"));
+        assertTrue(matches("execution(public String save*(String, int))", "saveOrder"));
+        assertTrue(matches("execution(* org.microspring..*OrderService.*(..))", "deleteOrder"));
+        assertTrue(matches("execution(void *(java.lang.Long))", "deleteOrder"));
+        assertTrue(matches("execution(* *(*, ..))", "saveOrder"));
+        assertTrue(matches("execution(protected * *())", "internal"));
+
+        assertFalse(matches("execution(* save*(String))", "saveOrder"));
+        assertFalse(matches("execution(public * internal())", "internal"));
+        assertFalse(matches("execution(* org.example..*.*(..))", "saveOrder"));
+    }
+
+    @Test
+    public void testWithinAnnotationAndArgs() {
+        assertTrue(matches("within(org.microspring.aop..*)", "deleteOrder"));
+        assertTrue(matches("within(*OrderService)", "deleteOrder"));
+        assertTrue(matches("@annotation(org.microspring.aop.PointcutExpressionTest.Audited)", "saveOrder"));
+        assertFalse(matches("@annotation(Audited)", "deleteOrder"));
+        // 参数类型是给定类型的子类型
+        assertTrue(matches("args(Number)", "deleteOrder"));
+        assertTrue(matches("args(CharSequence, ..)", "saveOrder"));
+        assertFalse(matches("args(String)", "deleteOrder"));
+
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut("within(org.example..*)");
+        assertFalse(pointcut.matches(DefaultOrderService.class));
+    }
+
+    @Test
+    public void testCombinedExpressions() {
+        assertTrue(matches("execution(* *Order(..)) && !@annotation(Audited)", "deleteOrder"));
+        assertFalse(matches("execution(* *Order(..)) && !@annotation(Audited)", "saveOrder"));
+        assertTrue(matches("args(Long) || (within(*Service) && execution(* save*(..)))", "saveOrder"));
+    }
+
+    @Test
+    public void testInterfaceMethodUsesImplementation() throws NoSuchMethodException {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut("@annotation(Audited)");
+        Method interfaceMethod = OrderService.class.getMethod("saveOrder", String.class, int.class);
+        assertTrue(pointcut.matches(interfaceMethod, DefaultOrderService.class));
+    }
+
+    @Test
+    public void testInvalidExpression() {
+        String[] invalid = {"", "execution(* save*", "target(Foo)", "execution(* *(..)) &&", "within(Foo) extra"};
+        for (String expression : invalid) {
+            try {
+                new AspectJExpressionPointcut(expression);
+                fail("Should reject: " + expression);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testOnlyMatchingBeansAreProxied() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.addBeanPostProcessor(new AspectBeanPostProcessor(beanFactory));
+        beanFactory.registerBeanDefinition("saveAspect", new DefaultBeanDefinition(SaveAspect.class));
+        SaveAspect aspect = (SaveAspect) beanFactory.getBean("saveAspect");
+        beanFactory.registerBeanDefinition("orderService", new DefaultBeanDefinition(DefaultOrderService.class));
+        beanFactory.registerBeanDefinition("reportGenerator", new DefaultBeanDefinition(ReportGenerator.class));
+
+        OrderService orderService = (OrderService) beanFactory.getBean("orderService");
+        assertTrue(Proxy.isProxyClass(orderService.getClass()));
+        assertEquals("a:1", orderService.saveOrder("a", 1));
+        orderService.deleteOrder(1L);
+        assertEquals(1, aspect.calls.size());
+        assertEquals("before:saveOrder", aspect.calls.get(0));
+
+        Object reportGenerator = beanFactory.getBean("reportGenerator");
+        assertEquals(ReportGenerator.class, reportGenerator.getClass());
+    }
+}
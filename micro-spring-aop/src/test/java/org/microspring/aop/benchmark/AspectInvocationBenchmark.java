@@ -0,0 +1,94 @@
+package org.microspring.aop.benchmark;
+
+import org.microspring.aop.Aspect;
+import org.microspring.aop.support.AspectBeanPostProcessor;
+import org.microspring.core.DefaultBeanDefinition;
+import org.microspring.core.DefaultBeanFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 经过 AspectBeanPostProcessor 代理后每次方法调用的开销，切面数为 0 时 bean 不被代理
+ * 运行方式：mvn test-compile 后执行 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AspectInvocationBenchmark {
+
+    public interface Calculator {
+        int add(int a, int b);
+    }
+
+    public static class SimpleCalculator implements Calculator {
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+
+    @Aspect
+    public static class CountingAspect {
+        private long calls;
+
+        public void before(Method method, Object[] args) {
+            calls++;
+        }
+
+        public void afterReturning(Method method, Object result) {
+            calls++;
+        }
+
+        public void afterThrowing(Method method, Exception ex) {
+            calls++;
+        }
+    }
+
+    @Param({"0", "1", "5"})
+    public int aspectCount;
+
+    private Calculator calculator;
+    private int operand;
+
+    @Setup
+    public void setUp() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.addBeanPostProcessor(new AspectBeanPostProcessor(beanFactory));
+        for (int i = 0; i < aspectCount; i++) {
+            String name = "countingAspect" + i;
+            beanFactory.registerBeanDefinition(name, new DefaultBeanDefinition(CountingAspect.class));
+            beanFactory.getBean(name);
+        }
+        beanFactory.registerBeanDefinition("calculator", new DefaultBeanDefinition(SimpleCalculator.class));
+        calculator = (Calculator) beanFactory.getBean("calculator");
+    }
+
+    @Benchmark
+    public int invoke() {
+        return calculator.add(operand++, 1);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AspectInvocationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
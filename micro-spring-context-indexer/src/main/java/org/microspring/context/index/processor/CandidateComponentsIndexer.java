@@ -0,0 +1,257 @@
+package org.microspring.context.index.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 编译期生成组件索引 META-INF/microspring.components
+ * 把该模块加入编译期 classpath(或 annotationProcessorPaths)即可启用，运行时
+ * AnnotationConfigApplicationContext 发现索引后直接读取候选类，不再遍历类路径。
+ *
+ * 索引为 Properties 格式，key 为类的二进制名称，value 为以分号分隔的五段：
+ * 构造型注解(逗号分隔);bean名称;作用域;@Conditional 条件类(逗号分隔);@ConditionalOnClass 要求的类(逗号分隔)
+ *
+ * 增量编译时只有部分源文件参与编译，已有索引中未重新编译且仍然存在的类会保留；
+ * 重新编译后不再带构造型注解的类和已经删除的类从索引中移除
+ */
+// 处理所有注解(包括没有注解的类)，才能发现被移除了构造型注解的类
+@SupportedAnnotationTypes("*")
+public class CandidateComponentsIndexer extends AbstractProcessor {
+
+    public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/microspring.components";
+
+    static final String COMPONENT = "org.microspring.stereotype.Component";
+    static final String SERVICE = "org.microspring.stereotype.Service";
+    static final String REPOSITORY = "org.microspring.stereotype.Repository";
+    static final String CONFIGURATION = "org.microspring.context.annotation.Configuration";
+    static final String CONTROLLER = "org.microspring.web.annotation.Controller";
+    static final String REST_CONTROLLER = "org.microspring.web.annotation.RestController";
+
+    private static final String SCOPE = "org.microspring.beans.factory.annotation.Scope";
+    private static final String CONDITIONAL = "org.microspring.core.annotation.Conditional";
+    private static final String CONDITIONAL_ON_CLASS = "org.microspring.core.annotation.ConditionalOnClass";
+
+    private static final List<String> STEREOTYPES = Collections.unmodifiableList(Arrays.asList(
+        SERVICE, REPOSITORY, COMPONENT, CONFIGURATION, CONTROLLER, REST_CONTROLLER));
+
+    // 类名 -> 索引内容，按类名排序保证输出稳定
+    private final Map<String, String> entries = new TreeMap<>();
+    // 本次编译的顶层类，已有索引中这些类的条目以本次结果为准
+    private final Set<String> compiledTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element root : roundEnv.getRootElements()) {
+            if (root instanceof TypeElement) {
+                compiledTypes.add(processingEnv.getElementUtils().getBinaryName((TypeElement) root).toString());
+            }
+        }
+        for (TypeElement annotation : annotations) {
+            if (!STEREOTYPES.contains(annotation.getQualifiedName().toString())) {
+                continue;
+            }
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (isIndexable(element)) {
+                    TypeElement type = (TypeElement) element;
+                    String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+                    entries.put(className, describe(type));
+                }
+            }
+        }
+        if (roundEnv.processingOver()) {
+            Map<String, String> existing = readExistingIndex();
+            mergeExistingEntries(existing);
+            // 没有组件时不生成索引；已有索引的条目全部失效时写入空索引覆盖
+            if (!entries.isEmpty() || !existing.isEmpty()) {
+                writeIndex();
+            }
+        }
+        return false;
+    }
+
+    private boolean isIndexable(Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            return false;
+        }
+        // 非静态内部类无法独立实例化
+        Element enclosing = element.getEnclosingElement();
+        boolean nested = enclosing != null && enclosing.getKind() != ElementKind.PACKAGE;
+        return !nested || element.getModifiers().contains(Modifier.STATIC);
+    }
+
+    private String describe(TypeElement type) {
+        Map<String, AnnotationMirror> mirrors = new LinkedHashMap<>();
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            String annotationName = ((TypeElement) mirror.getAnnotationType().asElement())
+                .getQualifiedName().toString();
+            mirrors.put(annotationName, mirror);
+        }
+
+        // 与运行时规则一致：按注解优先级取第一个非空 value，否则为类名首字母小写
+        List<String> stereotypes = new ArrayList<>();
+        String beanName = null;
+        for (String stereotype : STEREOTYPES) {
+            AnnotationMirror mirror = mirrors.get(stereotype);
+            if (mirror == null) {
+                continue;
+            }
+            stereotypes.add(stereotype);
+            Object value = getValue(mirror, "value");
+            if (beanName == null && value instanceof String && !((String) value).isEmpty()) {
+                beanName = (String) value;
+            }
+        }
+        if (beanName == null) {
+            String simpleName = type.getSimpleName().toString();
+            beanName = Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
+        }
+
+        String scope = "singleton";
+        if (mirrors.containsKey(SCOPE)) {
+            Object value = getValue(mirrors.get(SCOPE), "value");
+            if (value instanceof String && !((String) value).isEmpty()) {
+                scope = (String) value;
+            }
+        }
+
+        List<String> conditions = new ArrayList<>();
+        if (mirrors.containsKey(CONDITIONAL)) {
+            Object value = getValue(mirrors.get(CONDITIONAL), "value");
+            if (value instanceof List) {
+                for (Object item : (List<?>) value) {
+                    Object condition = ((AnnotationValue) item).getValue();
+                    if (condition instanceof TypeMirror) {
+                        Element conditionElement = processingEnv.getTypeUtils().asElement((TypeMirror) condition);
+                        conditions.add(processingEnv.getElementUtils()
+                            .getBinaryName((TypeElement) conditionElement).toString());
+                    }
+                }
+            }
+        }
+
+        List<String> requiredClasses = new ArrayList<>();
+        if (mirrors.containsKey(CONDITIONAL_ON_CLASS)) {
+            Object value = getValue(mirrors.get(CONDITIONAL_ON_CLASS), "value");
+            if (value instanceof List) {
+                for (Object item : (List<?>) value) {
+                    requiredClasses.add(String.valueOf(((AnnotationValue) item).getValue()));
+                }
+            }
+        }
+
+        return String.join(",", stereotypes) + ";" + beanName + ";" + scope + ";" + String.join(",", conditions)
+            + ";" + String.join(",", requiredClasses);
+    }
+
+    private Object getValue(AnnotationMirror mirror, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : mirror.getElementValues().entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 读取输出目录中上一次编译生成的索引，不存在时返回空
+     */
+    private Map<String, String> readExistingIndex() {
+        Map<String, String> existing = new TreeMap<>();
+        try {
+            FileObject file = processingEnv.getFiler()
+                .getResource(StandardLocation.CLASS_OUTPUT, "", COMPONENTS_RESOURCE_LOCATION);
+            Properties properties = new Properties();
+            try (InputStream in = file.openInputStream()) {
+                properties.load(in);
+            }
+            for (String className : properties.stringPropertyNames()) {
+                existing.put(className, properties.getProperty(className));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 全量编译时没有旧索引
+        }
+        return existing;
+    }
+
+    /**
+     * 保留未参与本次编译且仍然存在的类
+     */
+    private void mergeExistingEntries(Map<String, String> existing) {
+        for (Map.Entry<String, String> entry : existing.entrySet()) {
+            String className = entry.getKey();
+            int nested = className.indexOf('$');
+            String topLevel = nested >= 0 ? className.substring(0, nested) : className;
+            if (!entries.containsKey(className) && !compiledTypes.contains(topLevel)
+                    && processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) != null) {
+                entries.put(className, entry.getValue());
+            }
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject file = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", COMPONENTS_RESOURCE_LOCATION);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.ISO_8859_1)) {
+                // 不使用 Properties.store：它会写入时间戳且顺序不固定，影响构建的可重复性
+                for (Map.Entry<String, String> entry : entries.entrySet()) {
+                    writer.write(escape(entry.getKey()));
+                    writer.write('=');
+                    writer.write(escape(entry.getValue()));
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Unable to write component index: " + e.getMessage());
+        }
+    }
+
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '\\' || c == '=' || c == ':' || c == '#' || c == '!' || c == ' ') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20 || c > 0x7e) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
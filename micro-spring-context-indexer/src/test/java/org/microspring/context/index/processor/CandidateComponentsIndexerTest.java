@@ -0,0 +1,164 @@
+package org.microspring.context.index.processor;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+public class CandidateComponentsIndexerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static class SourceFile extends SimpleJavaFileObject {
+        private final String code;
+
+        SourceFile(String className, String code) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+    private Properties compile(SourceFile... sources) throws Exception {
+        return compile(temporaryFolder.newFolder(), Arrays.asList("-proc:only"), sources);
+    }
+
+    /**
+     * 编译到指定目录，输出目录同时作为类路径，模拟增量编译
+     */
+    private Properties compile(File output, List<String> options, SourceFile... sources) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(output));
+            fileManager.setLocation(StandardLocation.CLASS_PATH, Collections.singletonList(output));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+                options, null, Arrays.<JavaFileObject>asList(sources));
+            task.setProcessors(Collections.singletonList(new CandidateComponentsIndexer()));
+            assertTrue("Compilation failed", task.call());
+        }
+
+        Properties index = new Properties();
+        File file = new File(output, CandidateComponentsIndexer.COMPONENTS_RESOURCE_LOCATION);
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                index.load(in);
+            }
+        }
+        return index;
+    }
+
+    private List<SourceFile> annotations() {
+        List<SourceFile> sources = new ArrayList<>();
+        sources.add(new SourceFile("org.microspring.stereotype.Component",
+            "package org.microspring.stereotype;\n"
+                + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+                + "public @interface Component { String value() default \"\"; }"));
+        sources.add(new SourceFile("org.microspring.stereotype.Service",
+            "package org.microspring.stereotype;\n"
+                + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+                + "public @interface Service { String value() default \"\"; }"));
+        sources.add(new SourceFile("org.microspring.beans.factory.annotation.Scope",
+            "package org.microspring.beans.factory.annotation;\n"
+                + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+                + "public @interface Scope { String value() default \"singleton\"; }"));
+        sources.add(new SourceFile("org.microspring.core.annotation.Conditional",
+            "package org.microspring.core.annotation;\n"
+                + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+                + "public @interface Conditional { Class<?>[] value(); }"));
+        sources.add(new SourceFile("org.microspring.core.annotation.ConditionalOnClass",
+            "package org.microspring.core.annotation;\n"
+                + "@java.lang.annotation.Retention(java.lang.annotation.RetentionPolicy.RUNTIME)\n"
+                + "public @interface ConditionalOnClass { String[] value(); }"));
+        return sources;
+    }
+
+    @Test
+    public void testIndexListsComponentsWithNameScopeAndConditions() throws Exception {
+        List<SourceFile> sources = annotations();
+        sources.add(new SourceFile("com.example.OrderService",
+            "package com.example;\n"
+                + "import org.microspring.stereotype.*;\n"
+                + "import org.microspring.beans.factory.annotation.Scope;\n"
+                + "import org.microspring.core.annotation.Conditional;\n"
+                + "@Service(\"orders\") @Scope(\"prototype\") @Conditional({OrderService.OnLinux.class})\n"
+                + "public class OrderService {\n"
+                + "  public static class OnLinux {}\n"
+                + "  @Component public static class Nested {}\n"
+                + "  @Component public class Inner {}\n"
+                + "}"));
+        sources.add(new SourceFile("com.example.Helper",
+            "package com.example;\n"
+                + "@org.microspring.stereotype.Component\n"
+                + "@org.microspring.core.annotation.ConditionalOnClass({\"com.example.Driver\", \"com.example.Pool\"})\n"
+                + "public class Helper {}"));
+        sources.add(new SourceFile("com.example.Plain",
+            "package com.example;\npublic class Plain {}"));
+
+        Properties index = compile(sources.toArray(new SourceFile[0]));
+
+        assertEquals(3, index.size());
+        assertEquals("org.microspring.stereotype.Service;orders;prototype;com.example.OrderService$OnLinux;",
+            index.getProperty("com.example.OrderService"));
+        assertEquals("org.microspring.stereotype.Component;nested;singleton;;",
+            index.getProperty("com.example.OrderService$Nested"));
+        assertEquals("org.microspring.stereotype.Component;helper;singleton;;com.example.Driver,com.example.Pool",
+            index.getProperty("com.example.Helper"));
+        assertNull(index.getProperty("com.example.OrderService$Inner"));
+        assertNull(index.getProperty("com.example.Plain"));
+    }
+
+    @Test
+    public void testNoIndexWithoutComponents() throws Exception {
+        List<SourceFile> sources = annotations();
+        sources.add(new SourceFile("com.example.Plain",
+            "package com.example;\npublic class Plain {}"));
+
+        assertTrue(compile(sources.toArray(new SourceFile[0])).isEmpty());
+    }
+
+    @Test
+    public void testIncrementalCompilationMergesExistingIndex() throws Exception {
+        File output = temporaryFolder.newFolder();
+        List<SourceFile> sources = annotations();
+        sources.add(new SourceFile("com.example.Kept",
+            "package com.example;\n@org.microspring.stereotype.Component\npublic class Kept {}"));
+        sources.add(new SourceFile("com.example.Deleted",
+            "package com.example;\n@org.microspring.stereotype.Component\npublic class Deleted {}"));
+        sources.add(new SourceFile("com.example.Changed",
+            "package com.example;\n@org.microspring.stereotype.Component\npublic class Changed {}"));
+        assertEquals(3, compile(output, Collections.<String>emptyList(), sources.toArray(new SourceFile[0])).size());
+
+        // 删除 Deleted，Changed 去掉注解后重新编译，并新增 Added
+        assertTrue(new File(output, "com/example/Deleted.class").delete());
+        Properties index = compile(output, Collections.<String>emptyList(),
+            new SourceFile("com.example.Changed", "package com.example;\npublic class Changed {}"),
+            new SourceFile("com.example.Added",
+                "package com.example;\n@org.microspring.stereotype.Service\npublic class Added {}"));
+
+        assertEquals(2, index.size());
+        assertEquals("org.microspring.stereotype.Component;kept;singleton;;", index.getProperty("com.example.Kept"));
+        assertEquals("org.microspring.stereotype.Service;added;singleton;;", index.getProperty("com.example.Added"));
+    }
+}
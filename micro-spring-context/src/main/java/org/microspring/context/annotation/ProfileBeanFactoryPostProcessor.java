@@ -5,6 +5,8 @@ import org.microspring.core.DefaultBeanFactory;
 import org.microspring.core.BeanDefinition;
 import org.microspring.core.env.Environment;
 import org.microspring.core.type.AnnotatedTypeMetadata;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.Map;
@@ -12,6 +14,7 @@ import java.util.HashMap;
 
 /**
  * 处理 @Profile 注解的后处理器
+ * 条件只依赖声明的 profile 和激活的 profile，相同的 profile 声明只评估一次
  */
 public class ProfileBeanFactoryPostProcessor implements BeanFactoryPostProcessor {
 
@@ -20,6 +23,8 @@ public class ProfileBeanFactoryPostProcessor implements BeanFactoryPostProcessor
         Set<String> beansToRemove = new HashSet<>();
         ProfileCondition condition = new ProfileCondition();
         ConditionContext context = new TestConditionContext(beanFactory);
+        // 声明的 profile -> 是否匹配
+        Map<List<String>, Boolean> results = new HashMap<>();
 
         // 遍历所有 bean 定义
         for (String beanName : beanFactory.getBeanDefinitionNames()) {
@@ -27,10 +32,12 @@ public class ProfileBeanFactoryPostProcessor implements BeanFactoryPostProcessor
             Class<?> beanClass = bd.getBeanClass();
             
             // 检查类上是否有 @Profile 注解
-            if (beanClass.isAnnotationPresent(Profile.class)) {
-                AnnotatedTypeMetadata metadata = new TestAnnotatedTypeMetadata(beanClass);
+            Profile profile = beanClass.getAnnotation(Profile.class);
+            if (profile != null) {
+                Boolean matched = results.computeIfAbsent(Arrays.asList(profile.value()),
+                    k -> condition.matches(context, new TestAnnotatedTypeMetadata(beanClass)));
                 // 如果条件不匹配，将 bean 添加到待移除列表
-                if (!condition.matches(context, metadata)) {
+                if (!matched) {
                     beansToRemove.add(beanName);
                 }
             }
@@ -45,6 +52,7 @@ public class ProfileBeanFactoryPostProcessor implements BeanFactoryPostProcessor
     // 内部类实现 ConditionContext 接口
     private static class TestConditionContext implements ConditionContext {
         private final DefaultBeanFactory beanFactory;
+        private Environment environment;
 
         public TestConditionContext(DefaultBeanFactory beanFactory) {
             this.beanFactory = beanFactory;
@@ -57,7 +65,10 @@ public class ProfileBeanFactoryPostProcessor implements BeanFactoryPostProcessor
 
         @Override
         public Environment getEnvironment() {
-            return beanFactory.getEnvironment();
+            if (environment == null) {
+                environment = beanFactory.getEnvironment();
+            }
+            return environment;
         }
 
         @Override
@@ -1,6 +1,7 @@
 package org.microspring.context.event;
 
 import java.util.Collection;
+import java.util.concurrent.Executor;
 
 /**
  * 事件广播器接口
@@ -25,4 +26,15 @@ public interface ApplicationEventMulticaster {
      * 广播事件给所有适合的监听器
      */
     void multicastEvent(ApplicationEvent event);
+
+    /**
+     * 按顺序广播一批事件，批量监听器一次接收其中所有匹配的事件
+     */
+    void multicastEvents(Collection<? extends ApplicationEvent> events);
+
+    /**
+     * 设置执行 @Async 监听器的执行器，为 null 时所有监听器同步执行
+     * @see org.microspring.context.event.executor.EventExecutors
+     */
+    void setTaskExecutor(Executor taskExecutor);
 } 
\ No newline at end of file
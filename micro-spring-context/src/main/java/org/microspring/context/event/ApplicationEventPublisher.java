@@ -1,5 +1,28 @@
 package org.microspring.context.event;
 
+import java.util.Collection;
+import java.util.function.Function;
+
 public interface ApplicationEventPublisher {
     void publishEvent(ApplicationEvent event);
-} 
\ No newline at end of file
+
+    /**
+     * 批量发布事件，实现可以合并分发以减少逐个广播的开销
+     */
+    default void publishEvents(Collection<? extends ApplicationEvent> events) {
+        for (ApplicationEvent event : events) {
+            publishEvent(event);
+        }
+    }
+
+    /**
+     * 创建在此发布器之上缓冲、去重的发布器
+     * @param windowMillis 第一个事件进入缓冲后最多等待的时间
+     * @param maxBatchSize 缓冲达到该数量时立即发布
+     * @param keyExtractor 去重键，相同键只保留最新的事件，返回 null 表示不去重
+     */
+    default CoalescingEventPublisher coalescing(long windowMillis, int maxBatchSize,
+                                                Function<? super ApplicationEvent, ?> keyExtractor) {
+        return new CoalescingEventPublisher(this, windowMillis, maxBatchSize, keyExtractor);
+    }
+}
@@ -3,26 +3,43 @@ package org.microspring.context.event;
 import java.lang.reflect.Method;
 
 public class ApplicationListenerMethodAdapter implements ApplicationListener<ApplicationEvent> {
-    private final Object target;
-    private final Method method;
+    protected final Object target;
+    protected final Method method;
     private final Class<?> eventType;
+    private final Class<?> parameterType;
 
     public ApplicationListenerMethodAdapter(Object target, Method method) {
+        this(target, method, method.getParameterTypes()[0]);
+    }
+
+    /**
+     * @param parameterType 方法实际接收的事件类型
+     */
+    protected ApplicationListenerMethodAdapter(Object target, Method method, Class<?> parameterType) {
         this.target = target;
         this.method = method;
-        this.eventType = determineEventType(method);
+        this.parameterType = parameterType;
+        this.eventType = determineEventType(method, parameterType);
     }
 
     @Override
     public void onApplicationEvent(ApplicationEvent event) {
+        // 注解指定的类型可能比参数类型宽
+        if (!parameterType.isInstance(event)) {
+            return;
+        }
+        invokeMethod(event);
+    }
+
+    protected void invokeMethod(Object argument) {
         try {
-            method.invoke(target, event);
+            method.invoke(target, argument);
         } catch (Exception e) {
             throw new RuntimeException("Failed to invoke event listener method", e);
         }
     }
 
-    private Class<?> determineEventType(Method method) {
+    private Class<?> determineEventType(Method method, Class<?> parameterType) {
         // 首先检查@EventListener注解中指定的类型
         EventListener ann = method.getAnnotation(EventListener.class);
         if (ann != null && ann.value().length > 0) {
@@ -34,10 +51,14 @@ public class ApplicationListenerMethodAdapter implements ApplicationListener<App
         if (paramTypes.length != 1) {
             throw new IllegalStateException("Event listener method must have exactly one parameter");
         }
-        return paramTypes[0];
+        return parameterType;
     }
 
     public Class<?> getEventType() {
         return eventType;
     }
-} 
\ No newline at end of file
+
+    protected Class<?> getParameterType() {
+        return parameterType;
+    }
+}
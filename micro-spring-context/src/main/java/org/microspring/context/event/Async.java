@@ -8,4 +8,9 @@ import java.lang.annotation.Target;
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Async {
-} 
\ No newline at end of file
+
+    /**
+     * 该监听器同时执行的最大任务数，0 表示不限制；达到上限时由工作线程等待，发布者不等待
+     */
+    int maxConcurrency() default 0;
+} 
@@ -0,0 +1,16 @@
+package org.microspring.context.event;
+
+import java.util.List;
+
+/**
+ * 支持批量接收事件的监听器
+ * 通过 publishEvents 批量发布时，一次发布中所有匹配的事件合并为一个列表投递；
+ * 单个发布的事件仍通过 onApplicationEvent 投递
+ */
+public interface BatchApplicationListener<E extends ApplicationEvent> extends ApplicationListener<E> {
+
+    /**
+     * 按发布顺序接收一批匹配的事件，列表不为空
+     */
+    void onApplicationEvents(List<E> events);
+}
@@ -0,0 +1,70 @@
+package org.microspring.context.event;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 参数为 List&lt;T&gt; 的 @EventListener 方法的适配器
+ * 批量发布时一次接收所有匹配的事件，单个发布的事件包装成只有一个元素的列表
+ */
+public class BatchListenerMethodAdapter extends ApplicationListenerMethodAdapter
+        implements BatchApplicationListener<ApplicationEvent> {
+
+    public BatchListenerMethodAdapter(Object target, Method method) {
+        super(target, method, resolveElementType(method));
+    }
+
+    /**
+     * 判断方法是否按批接收事件
+     */
+    public static boolean isBatchListenerMethod(Method method) {
+        return method.getParameterTypes().length == 1 && method.getParameterTypes()[0] == List.class;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (getParameterType().isInstance(event)) {
+            invokeMethod(Collections.singletonList(event));
+        }
+    }
+
+    @Override
+    public void onApplicationEvents(List<ApplicationEvent> events) {
+        // 注解指定的类型可能比元素类型宽，只传入方法能接收的事件
+        List<ApplicationEvent> accepted = events;
+        for (int i = 0; i < events.size(); i++) {
+            if (!getParameterType().isInstance(events.get(i))) {
+                accepted = new ArrayList<>(events.size());
+                for (ApplicationEvent event : events) {
+                    if (getParameterType().isInstance(event)) {
+                        accepted.add(event);
+                    }
+                }
+                break;
+            }
+        }
+        if (!accepted.isEmpty()) {
+            invokeMethod(Collections.unmodifiableList(accepted));
+        }
+    }
+
+    private static Class<?> resolveElementType(Method method) {
+        Type type = method.getGenericParameterTypes()[0];
+        if (type instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (argument instanceof WildcardType) {
+                argument = ((WildcardType) argument).getUpperBounds()[0];
+            }
+            if (argument instanceof Class && ApplicationEvent.class.isAssignableFrom((Class<?>) argument)) {
+                return (Class<?>) argument;
+            }
+        }
+        throw new IllegalStateException(
+            "Batch event listener method parameter must be List of ApplicationEvent subtype: " + method);
+    }
+}
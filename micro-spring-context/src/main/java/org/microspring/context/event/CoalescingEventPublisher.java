@@ -0,0 +1,145 @@
+package org.microspring.context.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 缓冲并去重的事件发布器
+ * 事件先进入缓冲区，相同去重键只保留最新的一个(位置保持第一次出现时的位置)；
+ * 缓冲区达到上限时由发布线程立即发布，否则在第一个事件进入后等待一个时间窗口再由后台线程发布。
+ * 每批事件通过目标发布器的 publishEvents 一次性发布，各批按缓冲顺序依次发布
+ */
+public class CoalescingEventPublisher implements ApplicationEventPublisher, AutoCloseable {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final ApplicationEventPublisher target;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final Function<? super ApplicationEvent, ?> keyExtractor;
+    private final ScheduledExecutorService scheduler;
+
+    // 去重键 -> 事件，没有去重键的事件使用各自独立的键
+    private Map<Object, ApplicationEvent> buffer = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean closed;
+    // 保证先取出的批次先发布
+    private final Object publishLock = new Object();
+
+    public CoalescingEventPublisher(ApplicationEventPublisher target, long windowMillis, int maxBatchSize,
+                                    Function<? super ApplicationEvent, ?> keyExtractor) {
+        if (target == null) {
+            throw new IllegalArgumentException("Target publisher must not be null");
+        }
+        if (windowMillis <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Window and batch size must be positive");
+        }
+        this.target = target;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.keyExtractor = keyExtractor;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "microspring-event-coalescer-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void publishEvent(ApplicationEvent event) {
+        if (buffer(event)) {
+            flush();
+        }
+    }
+
+    @Override
+    public void publishEvents(Collection<? extends ApplicationEvent> events) {
+        boolean full = false;
+        for (ApplicationEvent event : events) {
+            full |= buffer(event);
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    /**
+     * 放入缓冲区，返回缓冲区是否已满
+     */
+    private synchronized boolean buffer(ApplicationEvent event) {
+        if (closed) {
+            throw new IllegalStateException("CoalescingEventPublisher has been closed");
+        }
+        Object key = keyExtractor != null ? keyExtractor.apply(event) : null;
+        buffer.put(key != null ? key : new Object(), event);
+        if (scheduledFlush == null) {
+            scheduledFlush = scheduler.schedule(this::flushQuietly, windowMillis, TimeUnit.MILLISECONDS);
+        }
+        return buffer.size() >= maxBatchSize;
+    }
+
+    /**
+     * 立即发布缓冲区中的事件
+     */
+    public void flush() {
+        synchronized (publishLock) {
+            List<ApplicationEvent> batch = drain();
+            if (!batch.isEmpty()) {
+                target.publishEvents(batch);
+            }
+        }
+    }
+
+    private synchronized List<ApplicationEvent> drain() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (buffer.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<ApplicationEvent> batch = new ArrayList<>(buffer.values());
+        buffer = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // 后台发布的异常无法抛给发布者
+            System.err.println("Error publishing coalesced events: " + e.getMessage());
+        }
+    }
+
+    public synchronized int getBufferedCount() {
+        return buffer.size();
+    }
+
+    /**
+     * 发布剩余的事件并停止后台线程
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            flush();
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
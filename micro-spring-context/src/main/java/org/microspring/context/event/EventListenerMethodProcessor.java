@@ -37,19 +37,11 @@ public class EventListenerMethodProcessor {
                     validateMethod(method);
                     method.setAccessible(true);
                     
-                    // 创建一个ApplicationListener适配器
-                    ApplicationListener<?> listener = new ApplicationListener<ApplicationEvent>() {
-                        @Override
-                        public void onApplicationEvent(ApplicationEvent event) {
-                            try {
-                                if (method.getParameterTypes()[0].isInstance(event)) {
-                                    method.invoke(bean, event);
-                                }
-                            } catch (Exception e) {
-                                throw new RuntimeException("Failed to invoke event listener", e);
-                            }
-                        }
-                    };
+                    // 适配器带有方法声明的事件类型，广播器据此只分发匹配的事件；
+                    // 参数为 List 的方法在批量发布时一次接收所有匹配的事件
+                    ApplicationListener<?> listener = BatchListenerMethodAdapter.isBatchListenerMethod(method)
+                        ? new BatchListenerMethodAdapter(bean, method)
+                        : new ApplicationListenerMethodAdapter(bean, method);
                     
                     // 注册监听器
                     applicationContext.addApplicationListener(listener);
@@ -64,9 +56,10 @@ public class EventListenerMethodProcessor {
             throw new IllegalStateException(
                 "Event listener method must have exactly one parameter: " + method);
         }
-        if (!ApplicationEvent.class.isAssignableFrom(paramTypes[0])) {
+        if (!ApplicationEvent.class.isAssignableFrom(paramTypes[0])
+                && !BatchListenerMethodAdapter.isBatchListenerMethod(method)) {
             throw new IllegalStateException(
-                "Event listener method parameter must be assignable to ApplicationEvent: " + method);
+                "Event listener method parameter must be assignable to ApplicationEvent or List: " + method);
         }
     }
 } 
\ No newline at end of file
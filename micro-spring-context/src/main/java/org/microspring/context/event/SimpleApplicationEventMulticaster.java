@@ -2,17 +2,33 @@ package org.microspring.context.event;
 
 import org.microspring.core.annotation.Order;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.Arrays;
 
+/**
+ * 事件广播器
+ * 监听器注册时解析好事件类型、顺序和同步/异步方式；每种(事件类型, 事件源类型)第一次广播时
+ * 筛选并排序出匹配的监听器，之后直接使用缓存的分发表。增删监听器时整张分发表失效。
+ * 批量广播时普通监听器逐个接收事件，批量监听器在最后按顺序各接收一次匹配事件的列表
+ */
 public class SimpleApplicationEventMulticaster implements ApplicationEventMulticaster {
-    
-    private final List<ApplicationListener<?>> applicationListeners = new ArrayList<>();
+
+    private final List<ListenerInvoker> listenerInvokers = new CopyOnWriteArrayList<>();
+    // (事件类型, 事件源类型) -> 按顺序排列的监听器，增删监听器时整体替换
+    private volatile Map<ListenerCacheKey, ListenerInvoker[]> dispatchCache = new ConcurrentHashMap<>();
     private Executor taskExecutor; // 用于异步事件处理
 
+    @Override
     public void setTaskExecutor(Executor taskExecutor) {
         this.taskExecutor = taskExecutor;
     }
@@ -20,112 +36,315 @@ public class SimpleApplicationEventMulticaster implements ApplicationEventMultic
     @Override
     public void addApplicationListener(ApplicationListener<?> listener) {
         if (listener != null) {
-            this.applicationListeners.add(listener);
+            synchronized (this.listenerInvokers) {
+                this.listenerInvokers.add(new ListenerInvoker(listener));
+                this.dispatchCache = new ConcurrentHashMap<>();
+            }
         }
     }
 
     @Override
     public void removeApplicationListener(ApplicationListener<?> listener) {
-        this.applicationListeners.remove(listener);
+        synchronized (this.listenerInvokers) {
+            for (ListenerInvoker invoker : this.listenerInvokers) {
+                if (invoker.listener.equals(listener)) {
+                    this.listenerInvokers.remove(invoker);
+                    break;
+                }
+            }
+            this.dispatchCache = new ConcurrentHashMap<>();
+        }
     }
 
     @Override
     public void removeAllListeners() {
-        this.applicationListeners.clear();
+        synchronized (this.listenerInvokers) {
+            this.listenerInvokers.clear();
+            this.dispatchCache = new ConcurrentHashMap<>();
+        }
+    }
+
+    public Executor getTaskExecutor() {
+        return taskExecutor;
     }
 
     @Override
     public void multicastEvent(final ApplicationEvent event) {
-        List<ApplicationListener<?>> listeners = getApplicationListeners(event);
-        
-        for (ApplicationListener<?> listener : listeners) {
-            if (shouldHandleAsynchronously(listener)) {
-                if (taskExecutor != null) {
-                    taskExecutor.execute(() -> invokeListener(listener, event));
-                } else {
-                    invokeListener(listener, event);
+        for (ListenerInvoker invoker : getListenerInvokers(event)) {
+            dispatch(invoker, event);
+        }
+    }
+
+    @Override
+    public void multicastEvents(Collection<? extends ApplicationEvent> events) {
+        // 批量监听器 -> 本次广播中匹配的事件
+        Map<ListenerInvoker, List<ApplicationEvent>> batches = null;
+        for (ApplicationEvent event : events) {
+            for (ListenerInvoker invoker : getListenerInvokers(event)) {
+                if (invoker.batchListener == null) {
+                    dispatch(invoker, event);
+                    continue;
+                }
+                if (batches == null) {
+                    batches = new LinkedHashMap<>();
                 }
+                batches.computeIfAbsent(invoker, k -> new ArrayList<>()).add(event);
+            }
+        }
+        if (batches == null) {
+            return;
+        }
+        List<ListenerInvoker> batchInvokers = new ArrayList<>(batches.keySet());
+        batchInvokers.sort((i1, i2) -> Integer.compare(i1.order, i2.order));
+        for (ListenerInvoker invoker : batchInvokers) {
+            List<ApplicationEvent> batch = batches.get(invoker);
+            if (invoker.async && taskExecutor != null) {
+                invokeAsynchronously(new AsyncListenerTask(invoker, null, batch));
             } else {
-                invokeListener(listener, event);
+                invoker.invokeBatch(batch);
             }
         }
     }
 
+    private void dispatch(ListenerInvoker invoker, ApplicationEvent event) {
+        if (invoker.async && taskExecutor != null) {
+            invokeAsynchronously(new AsyncListenerTask(invoker, event, null));
+        } else {
+            invoker.invoke(event);
+        }
+    }
+
+    private void invokeAsynchronously(AsyncListenerTask task) {
+        // 并发上限在工作线程中检查，发布者只受执行器背压策略的约束
+        taskExecutor.execute(task);
+    }
+
     protected List<ApplicationListener<?>> getApplicationListeners(ApplicationEvent event) {
-        List<ApplicationListener<?>> allListeners = new ArrayList<>();
-        for (ApplicationListener<?> listener : this.applicationListeners) {
-            if (supportsEvent(listener, event)) {
-                allListeners.add(listener);
-            }
+        List<ApplicationListener<?>> listeners = new ArrayList<>();
+        for (ListenerInvoker invoker : getListenerInvokers(event)) {
+            listeners.add(invoker.listener);
         }
-        
-        // 根据@Order注解排序
-        allListeners.sort((l1, l2) -> {
-            Order order1 = l1.getClass().getAnnotation(Order.class);
-            Order order2 = l2.getClass().getAnnotation(Order.class);
-            int p1 = order1 != null ? order1.value() : Integer.MAX_VALUE;
-            int p2 = order2 != null ? order2.value() : Integer.MAX_VALUE;
-            return Integer.compare(p1, p2);
-        });
-        
-        return allListeners;
+        return listeners;
     }
 
-    @SuppressWarnings("unchecked")
-    protected void invokeListener(ApplicationListener listener, ApplicationEvent event) {
-        try {
-            if (supportsEvent(listener, event)) {
-                listener.onApplicationEvent(event);
-            } 
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to invoke event listener", e);
+    private ListenerInvoker[] getListenerInvokers(ApplicationEvent event) {
+        // 先取出当前的分发表，即使期间有监听器变化，新结果也只会放进已失效的旧表
+        Map<ListenerCacheKey, ListenerInvoker[]> cache = this.dispatchCache;
+        ListenerCacheKey key = new ListenerCacheKey(event.getClass(), event.getSource().getClass());
+        ListenerInvoker[] invokers = cache.get(key);
+        if (invokers == null) {
+            invokers = retrieveListenerInvokers(key);
+            cache.put(key, invokers);
+        }
+        return invokers;
+    }
+
+    private ListenerInvoker[] retrieveListenerInvokers(ListenerCacheKey key) {
+        List<ListenerInvoker> matching = new ArrayList<>();
+        for (ListenerInvoker invoker : this.listenerInvokers) {
+            if (invoker.supports(key.eventType, key.sourceType)) {
+                matching.add(invoker);
+            }
         }
+        // 根据@Order注解和SmartApplicationListener接口排序，相同顺序保持注册顺序
+        matching.sort((i1, i2) -> Integer.compare(i1.order, i2.order));
+        return matching.toArray(new ListenerInvoker[0]);
     }
 
     protected boolean supportsEvent(ApplicationListener<?> listener, ApplicationEvent event) {
-        Class<?> eventType = getEventType(listener);
+        return new ListenerInvoker(listener).supports(event.getClass(), event.getSource().getClass());
+    }
 
-        if (eventType == null) {
-            return false;
+    protected Class<?> getEventType(ApplicationListener<?> listener) {
+        if (listener instanceof ApplicationListenerMethodAdapter) {
+            return ((ApplicationListenerMethodAdapter) listener).getEventType();
         }
+        // 先检查接口，再检查父类
+        for (Type type : listener.getClass().getGenericInterfaces()) {
+            Class<?> eventType = getEventTypeArgument(type);
+            if (eventType != null) {
+                return eventType;
+            }
+        }
+        return getEventTypeArgument(listener.getClass().getGenericSuperclass());
+    }
 
-        boolean supports = eventType.isAssignableFrom(event.getClass());
-        
-        if (supports) {
-            Class<?> currentClass = event.getClass();
-            while (currentClass != null) {
-                currentClass = currentClass.getSuperclass();
+    private static Class<?> getEventTypeArgument(Type type) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType paramType = (ParameterizedType) type;
+            Type rawType = paramType.getRawType();
+            if (rawType instanceof Class && ApplicationListener.class.isAssignableFrom((Class<?>) rawType)) {
+                Type[] typeArguments = paramType.getActualTypeArguments();
+                if (typeArguments.length > 0 && typeArguments[0] instanceof Class) {
+                    return (Class<?>) typeArguments[0];
+                }
             }
         }
-        
-        return supports;
+        return null;
     }
 
-    protected Class<?> getEventType(ApplicationListener<?> listener) {
-        Type[] genericInterfaces = listener.getClass().getGenericInterfaces();
-        
-        for (Type type : genericInterfaces) {
-            if (type instanceof ParameterizedType) {
-                ParameterizedType paramType = (ParameterizedType) type;
-                if (ApplicationListener.class.equals(paramType.getRawType())) {
-                    Type[] typeArguments = paramType.getActualTypeArguments();
-                    if (typeArguments != null && typeArguments.length > 0) {
-                        return (Class<?>) typeArguments[0];
+    /**
+     * 监听器及注册时解析好的事件类型、顺序和同步/异步方式
+     */
+    private final class ListenerInvoker {
+        private final ApplicationListener<?> listener;
+        private final SmartApplicationListener smartListener;
+        private final BatchApplicationListener<ApplicationEvent> batchListener;
+        // 无法确定事件类型的监听器不接收任何事件
+        private final Class<?> eventType;
+        private final int order;
+        private final boolean async;
+        // @Async(maxConcurrency) 限制，不限制时为 null
+        private final Semaphore concurrencyLimit;
+
+        @SuppressWarnings("unchecked")
+        ListenerInvoker(ApplicationListener<?> listener) {
+            this.listener = listener;
+            this.batchListener = listener instanceof BatchApplicationListener
+                ? (BatchApplicationListener<ApplicationEvent>) listener : null;
+            if (listener instanceof SmartApplicationListener) {
+                this.smartListener = (SmartApplicationListener) listener;
+                this.eventType = ApplicationEvent.class;
+                this.order = smartListener.getOrder();
+            } else {
+                this.smartListener = null;
+                this.eventType = getEventType(listener);
+                Order orderAnn = listener.getClass().getAnnotation(Order.class);
+                this.order = orderAnn != null ? orderAnn.value() : Integer.MAX_VALUE;
+            }
+            Async asyncAnn = findAsync(listener, eventType);
+            this.async = asyncAnn != null;
+            this.concurrencyLimit = asyncAnn != null && asyncAnn.maxConcurrency() > 0
+                ? new Semaphore(asyncAnn.maxConcurrency()) : null;
+        }
+
+        private Async findAsync(ApplicationListener<?> listener, Class<?> eventType) {
+            if (listener instanceof BatchApplicationListener) {
+                try {
+                    Method method = listener.getClass().getMethod("onApplicationEvents", List.class);
+                    if (method.isAnnotationPresent(Async.class)) {
+                        return method.getAnnotation(Async.class);
+                    }
+                } catch (NoSuchMethodException e) {
+                    // 继续检查单个事件的方法
+                }
+            }
+            // 优先检查按声明的事件类型定义的方法，再检查桥接方法
+            if (eventType != null) {
+                try {
+                    Method method = listener.getClass().getMethod("onApplicationEvent", eventType);
+                    if (method.isAnnotationPresent(Async.class)) {
+                        return method.getAnnotation(Async.class);
                     }
+                } catch (NoSuchMethodException e) {
+                    // 继续检查桥接方法
                 }
             }
+            try {
+                return listener.getClass()
+                    .getMethod("onApplicationEvent", ApplicationEvent.class)
+                    .getAnnotation(Async.class);
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        boolean supports(Class<? extends ApplicationEvent> eventClass, Class<?> sourceClass) {
+            if (smartListener != null) {
+                return smartListener.supportsEventType(eventClass) && smartListener.supportsSourceType(sourceClass);
+            }
+            return eventType != null && eventType.isAssignableFrom(eventClass);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        void invoke(ApplicationEvent event) {
+            try {
+                // 事件类型已在建立分发表时检查过
+                ((ApplicationListener) listener).onApplicationEvent(event);
+            } catch (Exception e) {
+                e.printStackTrace();
+                throw new RuntimeException("Failed to invoke event listener", e);
+            }
+        }
+
+        void invokeBatch(List<ApplicationEvent> events) {
+            try {
+                batchListener.onApplicationEvents(events);
+            } catch (Exception e) {
+                e.printStackTrace();
+                throw new RuntimeException("Failed to invoke event listener", e);
+            }
         }
-        return null;
     }
 
-    private boolean shouldHandleAsynchronously(ApplicationListener<?> listener) {
-        try {
-            return listener.getClass()
-                .getMethod("onApplicationEvent", ApplicationEvent.class)
-                .isAnnotationPresent(Async.class);
-        } catch (NoSuchMethodException e) {
-            return false;
+    /**
+     * 异步执行的监听器调用(单个事件或一批事件)，执行结束或被执行器丢弃时归还并发许可
+     */
+    private static final class AsyncListenerTask implements Runnable {
+        private final ListenerInvoker invoker;
+        private final ApplicationEvent event;
+        private final List<ApplicationEvent> batch;
+
+        AsyncListenerTask(ListenerInvoker invoker, ApplicationEvent event, List<ApplicationEvent> batch) {
+            this.invoker = invoker;
+            this.event = event;
+            this.batch = batch;
+        }
+
+        @Override
+        public void run() {
+            // 许可只在执行期间持有，排队中的任务不占用许可
+            Semaphore concurrencyLimit = invoker.concurrencyLimit;
+            if (concurrencyLimit != null) {
+                try {
+                    concurrencyLimit.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    System.err.println("Interrupted while waiting for listener concurrency limit, event skipped");
+                    return;
+                }
+            }
+            try {
+                if (batch != null) {
+                    invoker.invokeBatch(batch);
+                } else {
+                    invoker.invoke(event);
+                }
+            } catch (Exception e) {
+                // 异步处理中的异常无法抛给发布者
+                System.err.println("Error processing event asynchronously: " + e.getMessage());
+            } finally {
+                if (concurrencyLimit != null) {
+                    concurrencyLimit.release();
+                }
+            }
+        }
+    }
+
+    private static final class ListenerCacheKey {
+        private final Class<? extends ApplicationEvent> eventType;
+        private final Class<?> sourceType;
+
+        ListenerCacheKey(Class<? extends ApplicationEvent> eventType, Class<?> sourceType) {
+            this.eventType = eventType;
+            this.sourceType = sourceType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ListenerCacheKey)) {
+                return false;
+            }
+            ListenerCacheKey other = (ListenerCacheKey) o;
+            return eventType == other.eventType && sourceType == other.sourceType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(eventType, sourceType);
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package org.microspring.context.event;
+
+import org.microspring.context.ApplicationContext;
+import org.microspring.core.startup.StartupTimeline;
+
+/**
+ * 上下文刷新完成后发布，携带本次启动的时间线(仅在启用时间线时发布)
+ */
+public class StartupTimelineEvent extends ApplicationContextEvent {
+    private final StartupTimeline timeline;
+
+    public StartupTimelineEvent(ApplicationContext source, StartupTimeline timeline) {
+        super(source);
+        this.timeline = timeline;
+    }
+
+    public StartupTimeline getTimeline() {
+        return timeline;
+    }
+}
@@ -0,0 +1,89 @@
+package org.microspring.context.event.executor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 记录指标的执行器基类，提交的任务统一包装为 {@link EventTask}
+ */
+abstract class AbstractEventExecutor implements EventExecutor {
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder totalQueueNanos = new LongAdder();
+    private final LongAdder totalExecutionNanos = new LongAdder();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+
+    @Override
+    public void execute(Runnable command) {
+        submitted.increment();
+        doExecute(new EventTask(command));
+    }
+
+    protected abstract void doExecute(EventTask task);
+
+    protected abstract int getQueueDepth();
+
+    @Override
+    public EventExecutorMetrics getMetrics() {
+        long startedCount = started.sum();
+        long completedCount = completed.sum();
+        return new EventExecutorMetrics(submitted.sum(), completedCount, dropped.sum(), callerRuns.sum(),
+            getQueueDepth(), active.get(),
+            startedCount > 0 ? totalQueueNanos.sum() / startedCount : 0,
+            maxQueueNanos.get(),
+            completedCount > 0 ? totalExecutionNanos.sum() / completedCount : 0);
+    }
+
+    protected void runInCaller(Runnable task) {
+        callerRuns.increment();
+        task.run();
+    }
+
+    protected void discard(Runnable task) {
+        dropped.increment();
+        if (task instanceof EventTask) {
+            ((EventTask) task).discard();
+        }
+    }
+
+    /**
+     * 记录排队时间和执行时间的任务包装
+     */
+    protected final class EventTask implements Runnable {
+        private final Runnable delegate;
+        private final long submittedNanos = System.nanoTime();
+
+        EventTask(Runnable delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            long queueNanos = start - submittedNanos;
+            started.increment();
+            totalQueueNanos.add(queueNanos);
+            maxQueueNanos.accumulateAndGet(queueNanos, Math::max);
+            active.incrementAndGet();
+            try {
+                delegate.run();
+            } finally {
+                active.decrementAndGet();
+                totalExecutionNanos.add(System.nanoTime() - start);
+                completed.increment();
+            }
+        }
+
+        void discard() {
+            if (delegate instanceof DiscardableTask) {
+                ((DiscardableTask) delegate).onDiscard();
+            }
+        }
+    }
+}
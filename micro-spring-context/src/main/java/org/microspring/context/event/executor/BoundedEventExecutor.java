@@ -0,0 +1,116 @@
+package org.microspring.context.event.executor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 固定线程数、有界队列的事件执行器
+ * 队列满时按背压策略处理新任务，事件突发不会在内存中无限堆积
+ */
+public class BoundedEventExecutor extends AbstractEventExecutor {
+
+    public enum BackPressurePolicy {
+        /** 在发布事件的线程中直接执行，发布者被自然减速 */
+        CALLER_RUNS,
+        /** 丢弃队列中最早的任务，再提交新任务 */
+        DROP_OLDEST,
+        /** 阻塞发布者，直到队列有空位 */
+        BLOCK
+    }
+
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor pool;
+    private final BackPressurePolicy policy;
+
+    public BoundedEventExecutor(int threads, int queueCapacity, BackPressurePolicy policy) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be positive: " + threads);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + queueCapacity);
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Back-pressure policy must not be null");
+        }
+        this.policy = policy;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        String prefix = "microspring-event-" + POOL_COUNTER.incrementAndGet() + "-";
+        AtomicInteger threadCounter = new AtomicInteger();
+        // 与原来的固定线程池一样使用非守护线程，JVM 不会在事件处理到一半时退出；关闭容器时由 shutdown 停止
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue,
+            runnable -> new Thread(runnable, prefix + threadCounter.incrementAndGet()),
+            (task, executor) -> reject(task));
+    }
+
+    public BackPressurePolicy getPolicy() {
+        return policy;
+    }
+
+    @Override
+    protected void doExecute(EventTask task) {
+        pool.execute(task);
+    }
+
+    /**
+     * 线程都在忙且队列已满时在提交线程中调用
+     */
+    private void reject(Runnable task) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("Event executor has been shut down");
+        }
+        switch (policy) {
+            case CALLER_RUNS:
+                runInCaller(task);
+                break;
+            case DROP_OLDEST:
+                Runnable oldest = queue.poll();
+                if (oldest != null) {
+                    discard(oldest);
+                }
+                pool.execute(task);
+                break;
+            case BLOCK:
+                try {
+                    queue.put(task);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("Interrupted while waiting for event queue", e);
+                }
+                // 等待期间执行器被关闭，任务不会再被执行
+                if (pool.isShutdown() && queue.remove(task)) {
+                    throw new RejectedExecutionException("Event executor has been shut down");
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown back-pressure policy: " + policy);
+        }
+    }
+
+    @Override
+    protected int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public void shutdownNow() {
+        for (Runnable task : pool.shutdownNow()) {
+            discard(task);
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return pool.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,29 @@
+package org.microspring.context.event.executor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步事件执行器
+ * 在 Executor 的基础上提供关闭和运行指标
+ */
+public interface EventExecutor extends Executor {
+
+    /**
+     * 当前的排队深度、延迟等指标
+     */
+    EventExecutorMetrics getMetrics();
+
+    void shutdown();
+
+    void shutdownNow();
+
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * 可以感知被丢弃的任务，执行器因为背压策略丢弃任务时调用 onDiscard
+     */
+    interface DiscardableTask extends Runnable {
+        void onDiscard();
+    }
+}
@@ -0,0 +1,86 @@
+package org.microspring.context.event.executor;
+
+/**
+ * 异步事件执行器的指标快照
+ */
+public class EventExecutorMetrics {
+    private final long submittedCount;
+    private final long completedCount;
+    private final long droppedCount;
+    private final long callerRunsCount;
+    private final int queueDepth;
+    private final int activeCount;
+    private final long averageQueueLatencyNanos;
+    private final long maxQueueLatencyNanos;
+    private final long averageExecutionNanos;
+
+    public EventExecutorMetrics(long submittedCount, long completedCount, long droppedCount, long callerRunsCount,
+                                int queueDepth, int activeCount, long averageQueueLatencyNanos,
+                                long maxQueueLatencyNanos, long averageExecutionNanos) {
+        this.submittedCount = submittedCount;
+        this.completedCount = completedCount;
+        this.droppedCount = droppedCount;
+        this.callerRunsCount = callerRunsCount;
+        this.queueDepth = queueDepth;
+        this.activeCount = activeCount;
+        this.averageQueueLatencyNanos = averageQueueLatencyNanos;
+        this.maxQueueLatencyNanos = maxQueueLatencyNanos;
+        this.averageExecutionNanos = averageExecutionNanos;
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount;
+    }
+
+    /**
+     * 执行结束(包括抛出异常)的任务数
+     */
+    public long getCompletedCount() {
+        return completedCount;
+    }
+
+    /**
+     * 因 DROP_OLDEST 策略被丢弃的任务数
+     */
+    public long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * 因 CALLER_RUNS 策略在发布线程中执行的任务数
+     */
+    public long getCallerRunsCount() {
+        return callerRunsCount;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * 从提交到开始执行的平均等待时间
+     */
+    public long getAverageQueueLatencyNanos() {
+        return averageQueueLatencyNanos;
+    }
+
+    public long getMaxQueueLatencyNanos() {
+        return maxQueueLatencyNanos;
+    }
+
+    public long getAverageExecutionNanos() {
+        return averageExecutionNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "EventExecutorMetrics{submitted=" + submittedCount + ", completed=" + completedCount
+            + ", dropped=" + droppedCount + ", callerRuns=" + callerRunsCount + ", queueDepth=" + queueDepth
+            + ", active=" + activeCount + ", avgQueueLatencyNanos=" + averageQueueLatencyNanos
+            + ", maxQueueLatencyNanos=" + maxQueueLatencyNanos + ", avgExecutionNanos=" + averageExecutionNanos + "}";
+    }
+}
@@ -0,0 +1,32 @@
+package org.microspring.context.event.executor;
+
+/**
+ * 创建异步事件执行器的工厂方法
+ */
+public final class EventExecutors {
+
+    public static final int DEFAULT_THREADS = 4;
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private EventExecutors() {
+    }
+
+    /**
+     * 默认执行器：4 个线程，队列容量 1024，队列满时在发布线程中执行
+     */
+    public static EventExecutor defaultExecutor() {
+        return bounded(DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY, BoundedEventExecutor.BackPressurePolicy.CALLER_RUNS);
+    }
+
+    public static EventExecutor bounded(int threads, int queueCapacity,
+                                        BoundedEventExecutor.BackPressurePolicy policy) {
+        return new BoundedEventExecutor(threads, queueCapacity, policy);
+    }
+
+    /**
+     * 每个事件一个虚拟线程，当前 JDK 不支持时抛出 UnsupportedOperationException
+     */
+    public static EventExecutor virtualThreadPerEvent() {
+        return new VirtualThreadEventExecutor();
+    }
+}
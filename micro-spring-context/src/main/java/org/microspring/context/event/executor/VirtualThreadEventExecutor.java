@@ -0,0 +1,69 @@
+package org.microspring.context.event.executor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个事件一个虚拟线程的执行器，需要 JDK 21+
+ * 没有排队，并发度由监听器的 {@code @Async(maxConcurrency)} 限制
+ */
+public class VirtualThreadEventExecutor extends AbstractEventExecutor {
+
+    // 以 Java 8 为编译目标，通过反射获取 JDK 21 的工厂方法
+    private static final Method FACTORY_METHOD = findFactoryMethod();
+
+    private final ExecutorService executor;
+
+    public VirtualThreadEventExecutor() {
+        if (FACTORY_METHOD == null) {
+            throw new UnsupportedOperationException("Virtual threads require JDK 21 or later, running on "
+                + System.getProperty("java.version"));
+        }
+        try {
+            this.executor = (ExecutorService) FACTORY_METHOD.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create virtual thread executor", e);
+        }
+    }
+
+    private static Method findFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    public static boolean isSupported() {
+        return FACTORY_METHOD != null;
+    }
+
+    @Override
+    protected void doExecute(EventTask task) {
+        executor.execute(task);
+    }
+
+    @Override
+    protected int getQueueDepth() {
+        return 0;
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public void shutdownNow() {
+        for (Runnable task : executor.shutdownNow()) {
+            discard(task);
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,220 @@
+package org.microspring.context.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * 编译期生成的组件索引(META-INF/microspring.components)
+ * 由 micro-spring-context-indexer 模块的注解处理器写入，类路径上所有同名文件合并使用。
+ * 存在索引时扫描直接读取候选类，不再遍历目录和 jar 包；没有索引的类路径根目录(或 jar)中的包仍然按字节码扫描。
+ * 设置系统属性 microspring.index.ignore=true 可忽略索引，退回类路径扫描
+ */
+public class CandidateComponentsIndex {
+
+    public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/microspring.components";
+
+    public static final String IGNORE_INDEX_PROPERTY = "microspring.index.ignore";
+
+    // 没有索引时缓存的占位对象
+    private static final CandidateComponentsIndex NO_INDEX =
+        new CandidateComponentsIndex(Collections.emptyMap(), Collections.emptySet());
+
+    private static final Map<ClassLoader, CandidateComponentsIndex> cache =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<String, Entry> entries;
+    // 带索引文件的类路径根，形如 file:/.../classes/ 或 jar:file:/.../x.jar!/
+    private final Set<String> indexedRoots;
+
+    CandidateComponentsIndex(Map<String, Entry> entries, Set<String> indexedRoots) {
+        this.entries = entries;
+        this.indexedRoots = indexedRoots;
+    }
+
+    /**
+     * 加载类路径上的组件索引，没有索引或索引被忽略时返回 null
+     */
+    public static CandidateComponentsIndex load(ClassLoader classLoader) {
+        if (Boolean.getBoolean(IGNORE_INDEX_PROPERTY)) {
+            return null;
+        }
+        CandidateComponentsIndex index = cache.get(classLoader);
+        if (index == null) {
+            index = doLoad(classLoader);
+            cache.put(classLoader, index);
+        }
+        return index != NO_INDEX ? index : null;
+    }
+
+    private static CandidateComponentsIndex doLoad(ClassLoader classLoader) {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        Set<String> indexedRoots = new HashSet<>();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(COMPONENTS_RESOURCE_LOCATION);
+            if (!urls.hasMoreElements()) {
+                return NO_INDEX;
+            }
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                String location = url.toString();
+                indexedRoots.add(location.substring(0, location.length() - COMPONENTS_RESOURCE_LOCATION.length()));
+                Properties properties = new Properties();
+                try (InputStream in = url.openStream()) {
+                    properties.load(in);
+                }
+                for (String className : properties.stringPropertyNames()) {
+                    entries.put(className, Entry.parse(className, properties.getProperty(className)));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to load component index from " + COMPONENTS_RESOURCE_LOCATION, e);
+        }
+        return new CandidateComponentsIndex(entries, indexedRoots);
+    }
+
+    /**
+     * 包所在的每个类路径根都带有索引时返回 true；
+     * 只要有一个根(例如没有启用注解处理器的模块或第三方 jar)没有索引，该包就需要按字节码扫描
+     */
+    public boolean isIndexed(String basePackage, ClassLoader classLoader) {
+        String path = basePackage.replace('.', '/');
+        try {
+            Enumeration<URL> urls = classLoader.getResources(path);
+            while (urls.hasMoreElements()) {
+                String location = urls.nextElement().toString();
+                if (location.endsWith("/")) {
+                    location = location.substring(0, location.length() - 1);
+                }
+                if (!location.endsWith(path)
+                        || !indexedRoots.contains(location.substring(0, location.length() - path.length()))) {
+                    return false;
+                }
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 获取包(含子包)下的候选组件
+     */
+    public List<Entry> getCandidates(String basePackage) {
+        String prefix = basePackage.endsWith(".") ? basePackage : basePackage + ".";
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.getClassName().startsWith(prefix)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 索引中的一个组件
+     */
+    public static class Entry {
+        private final String className;
+        private final Set<String> stereotypes;
+        private final String beanName;
+        private final String scope;
+        private final List<String> conditions;
+        private final List<String> requiredClasses;
+
+        Entry(String className, Set<String> stereotypes, String beanName, String scope,
+              List<String> conditions, List<String> requiredClasses) {
+            this.className = className;
+            this.stereotypes = stereotypes;
+            this.beanName = beanName;
+            this.scope = scope;
+            this.conditions = conditions;
+            this.requiredClasses = requiredClasses;
+        }
+
+        /**
+         * 格式：构造型注解(逗号分隔);bean名称;作用域;条件类(逗号分隔);@ConditionalOnClass 要求的类(逗号分隔)
+         */
+        static Entry parse(String className, String value) {
+            String[] parts = value.split(";", -1);
+            Set<String> stereotypes = new LinkedHashSet<>(split(parts[0]));
+            String beanName = parts.length > 1 && !parts[1].isEmpty() ? parts[1] : null;
+            String scope = parts.length > 2 && !parts[2].isEmpty() ? parts[2] : "singleton";
+            List<String> conditions = parts.length > 3 ? split(parts[3]) : Collections.<String>emptyList();
+            List<String> requiredClasses = parts.length > 4 ? split(parts[4]) : Collections.<String>emptyList();
+            return new Entry(className, Collections.unmodifiableSet(stereotypes), beanName, scope,
+                Collections.unmodifiableList(conditions), Collections.unmodifiableList(requiredClasses));
+        }
+
+        private static List<String> split(String value) {
+            if (value.trim().isEmpty()) {
+                return new ArrayList<>();
+            }
+            List<String> result = new ArrayList<>();
+            for (String item : Arrays.asList(value.split(","))) {
+                if (!item.trim().isEmpty()) {
+                    result.add(item.trim());
+                }
+            }
+            return result;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public Set<String> getStereotypes() {
+            return stereotypes;
+        }
+
+        public boolean hasStereotype(String annotationName) {
+            return stereotypes.contains(annotationName);
+        }
+
+        /**
+         * 索引中记录的 bean 名称，没有记录时返回 null
+         */
+        public String getBeanName() {
+            return beanName;
+        }
+
+        public String getScope() {
+            return scope;
+        }
+
+        /**
+         * @Conditional 指定的条件类，扫描时在加载组件类之前判断
+         */
+        public List<String> getConditions() {
+            return conditions;
+        }
+
+        /**
+         * 类路径上必须存在的类，扫描时不满足则跳过该组件
+         */
+        public List<String> getRequiredClasses() {
+            return requiredClasses;
+        }
+
+        @Override
+        public String toString() {
+            return className + stereotypes;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.microspring.context.scope;
+
+import javax.servlet.ServletRequestEvent;
+import javax.servlet.ServletRequestListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+/**
+ * 把请求和会话绑定到处理线程上，请求结束时自动释放 request 作用域的 bean
+ * 需要在 web 容器中注册，例如 ServletContext.addListener(new RequestScopeListener(context.getScopeManager()))
+ */
+public class RequestScopeListener implements ServletRequestListener {
+
+    private final ScopeManager scopeManager;
+
+    public RequestScopeListener(ScopeManager scopeManager) {
+        this.scopeManager = scopeManager;
+    }
+
+    @Override
+    public void requestInitialized(ServletRequestEvent event) {
+        if (!(event.getServletRequest() instanceof HttpServletRequest)) {
+            return;
+        }
+        HttpServletRequest request = (HttpServletRequest) event.getServletRequest();
+        scopeManager.setCurrentRequest(request);
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            scopeManager.setCurrentSession(session);
+        }
+    }
+
+    @Override
+    public void requestDestroyed(ServletRequestEvent event) {
+        scopeManager.setCurrentRequest(null);
+        scopeManager.setCurrentSession(null);
+    }
+}
@@ -2,28 +2,62 @@ package org.microspring.context.scope;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import org.microspring.beans.factory.annotation.Scope;
 
+/**
+ * request/session 作用域 bean 的存储
+ * request 作用域的 bean 存放在当前线程上，和绑定的请求对象一一对应：换成另一个请求时清空，
+ * 请求结束时从线程上移除，不经过全局的 Map。
+ * session 作用域的 bean 存放在 HttpSession 的属性中，随会话失效一起释放；
+ * 设置了空闲超时时间后，长时间没有访问的 bean 会在之后的访问中被移除。
+ * 会话被序列化(持久化或集群复制)时只保留可序列化的 bean，其余 bean 在恢复后的下一次访问时重新创建
+ */
 public class ScopeManager {
-    private static final ThreadLocal<HttpServletRequest> currentRequest = new ThreadLocal<>();
-    private static final ThreadLocal<HttpSession> currentSession = new ThreadLocal<>();
-    
-    // 存储 request 作用域的 bean
-    private final Map<String, Map<String, Object>> requestScoped = new ConcurrentHashMap<>();
-    
-    // 存储 session 作用域的 bean
-    private final Map<String, Map<String, Object>> sessionScoped = new ConcurrentHashMap<>();
-    
+    /**
+     * 保存 session 作用域 bean 的会话属性名
+     */
+    public static final String SESSION_SCOPE_ATTRIBUTE = ScopeManager.class.getName() + ".SESSION_BEANS";
+
+    // 当前线程绑定的请求、会话及请求的 bean 都属于单个 ScopeManager，
+    // 一个容器绑定或清除请求不影响同一线程上的其他容器
+    private final ThreadLocal<HttpServletRequest> currentRequest = new ThreadLocal<>();
+    private final ThreadLocal<HttpSession> currentSession = new ThreadLocal<>();
+    private final ThreadLocal<RequestBeans> requestBeans = ThreadLocal.withInitial(RequestBeans::new);
+
+    private volatile long sessionIdleTimeoutMillis;
+
     public void setCurrentRequest(HttpServletRequest request) {
-        currentRequest.set(request);
+        if (request == null) {
+            currentRequest.remove();
+            requestCompleted();
+        } else {
+            currentRequest.set(request);
+        }
     }
-    
+
     public void setCurrentSession(HttpSession session) {
-        currentSession.set(session);
+        if (session == null) {
+            currentSession.remove();
+        } else {
+            currentSession.set(session);
+        }
     }
-    
+
+    /**
+     * session 作用域 bean 的空闲超时时间，0 表示只随会话失效释放
+     */
+    public void setSessionIdleTimeoutMillis(long sessionIdleTimeoutMillis) {
+        this.sessionIdleTimeoutMillis = sessionIdleTimeoutMillis;
+    }
+
     public Object getBean(String name, String scope, ObjectFactory factory) {
         if (Scope.REQUEST.equals(scope)) {
             return getRequestScopedBean(name, factory);
@@ -33,48 +67,150 @@ public class ScopeManager {
         }
         throw new IllegalArgumentException("Unknown scope: " + scope);
     }
-    
+
     private Object getRequestScopedBean(String name, ObjectFactory factory) {
         HttpServletRequest request = getCurrentRequest();
         if (request == null) {
             throw new IllegalStateException("No request bound to current thread");
         }
-        
-        String requestId = request.getRequestedSessionId();
-        Map<String, Object> requestBeans = requestScoped.computeIfAbsent(requestId, k -> new ConcurrentHashMap<>());
-        
-        // Request 作用域：每个请求都创建新实例
-        return requestBeans.computeIfAbsent(name, k -> factory.getObject());
+
+        // Request 作用域：每个请求都创建新实例，请求只在当前线程上处理，不需要同步
+        RequestBeans beans = requestBeans.get();
+        beans.bind(request);
+        Object bean = beans.beans.get(name);
+        if (bean == null) {
+            bean = factory.getObject();
+            beans.beans.put(name, bean);
+        }
+        return bean;
     }
-    
+
     private Object getSessionScopedBean(String name, ObjectFactory factory) {
         HttpSession session = getCurrentSession();
         if (session == null) {
             throw new IllegalStateException("No session bound to current thread");
         }
-        
-        String sessionId = session.getId();
-        Map<String, Object> sessionBeans = sessionScoped.computeIfAbsent(sessionId, k -> new ConcurrentHashMap<>());
-        
+
         // Session 作用域：同一会话复用实例
-        return sessionBeans.computeIfAbsent(name, k -> factory.getObject());
+        return getSessionBeans(session).get(name, factory, sessionIdleTimeoutMillis);
     }
-    
-    // 清理过期的 request 作用域 bean
-    public void cleanupRequestScope(String requestId) {
-        requestScoped.remove(requestId);
+
+    private SessionBeans getSessionBeans(HttpSession session) {
+        SessionBeans beans = (SessionBeans) session.getAttribute(SESSION_SCOPE_ATTRIBUTE);
+        if (beans == null) {
+            // 同一会话的并发请求只能创建一个存储
+            synchronized (session) {
+                beans = (SessionBeans) session.getAttribute(SESSION_SCOPE_ATTRIBUTE);
+                if (beans == null) {
+                    beans = new SessionBeans();
+                    session.setAttribute(SESSION_SCOPE_ATTRIBUTE, beans);
+                }
+            }
+        }
+        return beans;
     }
-    
-    // 清理过期的 session 作用域 bean
-    public void cleanupSessionScope(String sessionId) {
-        sessionScoped.remove(sessionId);
+
+    /**
+     * 请求结束，释放当前线程上 request 作用域的 bean，线程池中的线程不再持有存储
+     */
+    public void requestCompleted() {
+        requestBeans.remove();
     }
-    
+
+    /**
+     * 立即释放会话中 session 作用域的 bean
+     */
+    public void destroySessionScope(HttpSession session) {
+        session.removeAttribute(SESSION_SCOPE_ATTRIBUTE);
+    }
+
     public HttpServletRequest getCurrentRequest() {
         return currentRequest.get();
     }
-    
+
     public HttpSession getCurrentSession() {
         return currentSession.get();
     }
-} 
\ No newline at end of file
+
+    /**
+     * 当前线程上的 request 作用域 bean，切换请求时清空并复用
+     */
+    private static final class RequestBeans {
+        private final Map<String, Object> beans = new HashMap<>();
+        private HttpServletRequest request;
+
+        void bind(HttpServletRequest request) {
+            if (this.request != request) {
+                this.request = request;
+                beans.clear();
+            }
+        }
+    }
+
+    /**
+     * 保存在会话属性中的 session 作用域 bean 及最后访问时间
+     */
+    static final class SessionBeans implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private transient Map<String, Entry> beans = new ConcurrentHashMap<>();
+        private transient volatile long nextEvictionCheck;
+
+        Object get(String name, ObjectFactory factory, long idleTimeoutMillis) {
+            long now = System.currentTimeMillis();
+            if (idleTimeoutMillis > 0 && now >= nextEvictionCheck) {
+                evictIdle(now, idleTimeoutMillis);
+            }
+            Entry entry = beans.get(name);
+            if (entry == null) {
+                // 在 Map 外创建 bean：创建过程中可能再获取同一会话的其他 session 作用域 bean，
+                // 在 computeIfAbsent 中重入会抛出 Recursive update(JDK 8 上可能死循环)。
+                // 并发创建时以先放入的实例为准
+                Entry created = new Entry(factory.getObject());
+                Entry existing = beans.putIfAbsent(name, created);
+                entry = existing != null ? existing : created;
+            }
+            entry.lastAccess = now;
+            return entry.bean;
+        }
+
+        private void evictIdle(long now, long idleTimeoutMillis) {
+            // 最多每半个超时时间检查一次
+            nextEvictionCheck = now + Math.max(1, idleTimeoutMillis / 2);
+            for (Iterator<Entry> it = beans.values().iterator(); it.hasNext(); ) {
+                if (now - it.next().lastAccess > idleTimeoutMillis) {
+                    it.remove();
+                }
+            }
+        }
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            Map<String, Entry> serializable = new HashMap<>();
+            for (Map.Entry<String, Entry> entry : beans.entrySet()) {
+                if (entry.getValue().bean instanceof Serializable) {
+                    serializable.put(entry.getKey(), entry.getValue());
+                }
+            }
+            out.writeObject(serializable);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            beans = new ConcurrentHashMap<>((Map<String, Entry>) in.readObject());
+        }
+    }
+
+    private static final class Entry implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        // 只有可序列化的 bean 会被写出，见 SessionBeans.writeObject
+        private final Object bean;
+        private volatile long lastAccess;
+
+        Entry(Object bean) {
+            this.bean = bean;
+        }
+    }
+}
@@ -1,65 +1,90 @@
 package org.microspring.context.support;
 
-import org.microspring.beans.factory.annotation.Value;
 import org.microspring.context.ApplicationContext;
 import org.microspring.core.DefaultBeanFactory;
+import org.microspring.core.InjectionMetadata;
 import org.microspring.core.BeanDefinition;
+import org.microspring.core.BeanDefinitionSnapshot;
+import org.microspring.core.io.ClassPathFingerprint;
+import org.microspring.core.startup.StartupStep;
+import org.microspring.core.startup.StartupTimeline;
+import org.microspring.core.shutdown.ShutdownReport;
 import org.microspring.core.io.ClassPathBeanDefinitionScanner;
-import org.microspring.beans.factory.annotation.Autowired;
-import org.microspring.beans.factory.annotation.Qualifier;
 import org.microspring.context.event.ApplicationEvent;
 import org.microspring.context.event.ApplicationEventPublisher;
 import org.microspring.context.event.SimpleApplicationEventPublisher;
 import org.microspring.context.event.ContextRefreshedEvent;
 import org.microspring.context.event.ApplicationListener;
-import org.microspring.context.event.Async;
-import org.microspring.core.annotation.Order;
 import org.microspring.context.event.ApplicationEventMulticaster;
 import org.microspring.context.event.SimpleApplicationEventMulticaster;
 import org.microspring.context.event.EventListenerMethodProcessor;
-import org.microspring.context.event.SmartApplicationListener;
+import org.microspring.context.event.StartupTimelineEvent;
+import org.microspring.context.event.executor.EventExecutor;
+import org.microspring.context.event.executor.EventExecutors;
+import org.microspring.context.event.executor.VirtualThreadEventExecutor;
 import org.microspring.core.BeanPostProcessor;
-import javax.annotation.Resource;
+import org.microspring.beans.factory.FactoryBean;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
 import java.util.List;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.annotation.Annotation;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.ArrayList;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.Arrays;
 
 public abstract class AbstractApplicationContext implements ApplicationContext {
+    /**
+     * 指定bean定义快照文件的系统属性，构造器中就会 refresh 的上下文通过它启用快照
+     */
+    public static final String SNAPSHOT_FILE_PROPERTY = "microspring.snapshot.file";
+
+    /**
+     * 设为 true 时记录启动时间线，刷新完成后发布 StartupTimelineEvent
+     */
+    public static final String STARTUP_TIMELINE_PROPERTY = "microspring.startup.timeline";
+
+    /**
+     * 每个bean销毁回调的超时时间(毫秒)，默认 10 秒
+     */
+    public static final String SHUTDOWN_TIMEOUT_PROPERTY = "microspring.shutdown.timeout";
+
+    /**
+     * 异步事件执行器：bounded(默认，有界队列) 或 virtual(每个事件一个虚拟线程，需要 JDK 21+)
+     */
+    public static final String EVENT_EXECUTOR_PROPERTY = "microspring.event.executor";
+
     protected final DefaultBeanFactory beanFactory;
     protected final ValueResolver valueResolver;
-    private final List<ApplicationListener<?>> applicationListeners = new ArrayList<>();
     private final ApplicationEventMulticaster eventMulticaster;
-    private final ExecutorService eventExecutor = Executors.newFixedThreadPool(4);
+    private Executor eventExecutor = createDefaultEventExecutor();
+    // 上下文创建的执行器在 close() 时关闭，外部设置的由调用方管理
+    private boolean ownsEventExecutor = true;
     
     private ApplicationContext parent;
+    // bean定义快照文件，为 null 时不使用快照
+    private File definitionSnapshotFile = getDefaultSnapshotFile();
     
     public AbstractApplicationContext() {
         this.beanFactory = new DefaultBeanFactory();
         this.valueResolver = new DefaultValueResolver(beanFactory);
-        SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
-        multicaster.setTaskExecutor(eventExecutor);
-        this.eventMulticaster = multicaster;
+        initFromSystemProperties();
+        this.eventMulticaster = new SimpleApplicationEventMulticaster();
+        this.eventMulticaster.setTaskExecutor(eventExecutor);
     }
     
     public AbstractApplicationContext(DefaultBeanFactory beanFactory) {
         this.beanFactory = beanFactory;
         this.valueResolver = new DefaultValueResolver(beanFactory);
-        SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
-        multicaster.setTaskExecutor(eventExecutor);
-        this.eventMulticaster = multicaster;
+        initFromSystemProperties();
+        this.eventMulticaster = new SimpleApplicationEventMulticaster();
+        this.eventMulticaster.setTaskExecutor(eventExecutor);
     }
     
     @Override
@@ -94,6 +119,126 @@ public abstract class AbstractApplicationContext implements ApplicationContext {
         return Character.toLowerCase(shortClassName.charAt(0)) + shortClassName.substring(1);
     }
     
+    private void initFromSystemProperties() {
+        if (Boolean.getBoolean(STARTUP_TIMELINE_PROPERTY) && !beanFactory.getStartupTimeline().isEnabled()) {
+            beanFactory.setStartupTimeline(new StartupTimeline());
+        }
+        Long shutdownTimeout = Long.getLong(SHUTDOWN_TIMEOUT_PROPERTY);
+        if (shutdownTimeout != null) {
+            beanFactory.setDestroyTimeoutMillis(shutdownTimeout);
+        }
+    }
+    
+    /**
+     * 设置启动时间线，需要在 refresh 之前设置；传入 null 表示不记录
+     */
+    public void setStartupTimeline(StartupTimeline startupTimeline) {
+        beanFactory.setStartupTimeline(startupTimeline);
+    }
+    
+    public StartupTimeline getStartupTimeline() {
+        return beanFactory.getStartupTimeline();
+    }
+    
+    /**
+     * 关闭报告，close() 之前为 null
+     */
+    public ShutdownReport getShutdownReport() {
+        return beanFactory.getShutdownReport();
+    }
+    
+    /**
+     * 刷新完成后冻结并发布启动时间线，未启用时什么都不做
+     */
+    protected void publishStartupTimeline() {
+        StartupTimeline timeline = getStartupTimeline();
+        if (timeline.isEnabled()) {
+            timeline.freeze();
+            publishEvent(new StartupTimelineEvent(this, timeline));
+        }
+    }
+    
+    private static File getDefaultSnapshotFile() {
+        String path = System.getProperty(SNAPSHOT_FILE_PROPERTY);
+        return path != null && !path.isEmpty() ? new File(path) : null;
+    }
+    
+    /**
+     * 设置bean定义快照文件：类路径指纹一致时 refresh 直接从快照恢复bean定义，
+     * 跳过XML解析、包扫描、配置类处理和 BeanFactoryPostProcessor；否则正常加载并重写快照。
+     * 快照文件不要放在类路径目录中，否则写入快照本身就会改变指纹
+     */
+    public void setDefinitionSnapshotFile(File definitionSnapshotFile) {
+        this.definitionSnapshotFile = definitionSnapshotFile;
+    }
+    
+    public File getDefinitionSnapshotFile() {
+        return this.definitionSnapshotFile;
+    }
+    
+    /**
+     * 计算快照指纹：类路径 + 激活的 profile + 子类提供的配置来源(扫描的包、配置文件位置等)
+     */
+    protected String computeSnapshotFingerprint(String... sources) {
+        List<String> extras = new ArrayList<>();
+        extras.add(getClass().getName());
+        if (sources != null) {
+            extras.addAll(Arrays.asList(sources));
+        }
+        if (beanFactory.getEnvironment() != null) {
+            extras.add("profiles=" + Arrays.toString(beanFactory.getEnvironment().getActiveProfiles()));
+        }
+        return ClassPathFingerprint.compute(Thread.currentThread().getContextClassLoader(),
+            extras.toArray(new String[0]));
+    }
+    
+    /**
+     * 指纹一致时从快照恢复bean定义
+     * @return 是否已经恢复，返回 false 时需要正常加载bean定义
+     */
+    protected boolean restoreDefinitionSnapshot(String fingerprint) {
+        BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.read(definitionSnapshotFile);
+        if (snapshot == null || !snapshot.matches(fingerprint)) {
+            return false;
+        }
+        try {
+            snapshot.restore(beanFactory, Thread.currentThread().getContextClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            // 快照引用的类已经变化，退回正常加载
+            return false;
+        }
+    }
+    
+    /**
+     * 保存当前的bean定义，写入失败只影响下次启动的速度，不中断本次启动
+     */
+    protected void saveDefinitionSnapshot(String fingerprint) {
+        try {
+            BeanDefinitionSnapshot.capture(beanFactory, fingerprint).write(definitionSnapshotFile);
+        } catch (IOException e) {
+            System.err.println("Failed to write bean definition snapshot " + definitionSnapshotFile
+                + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 预实例化单例：FactoryBean 只创建它本身，产品在第一次获取时才创建
+     */
+    protected void preInstantiateSingleton(String beanName) {
+        getDeclaredBean(beanName, beanFactory.getBeanDefinition(beanName));
+    }
+
+    /**
+     * 获取定义中声明的类的实例：FactoryBean 返回它本身而不是产品
+     */
+    private Object getDeclaredBean(String beanName, BeanDefinition bd) {
+        if (bd.getBeanClass() != null && FactoryBean.class.isAssignableFrom(bd.getBeanClass())) {
+            return getBean(DefaultBeanFactory.FACTORY_BEAN_PREFIX + beanName);
+        }
+        return getBean(beanName);
+    }
+    
     @Override
     public Object getBean(String name) {
         // 先从 beanFactory 获取 bean
@@ -122,170 +267,113 @@ public abstract class AbstractApplicationContext implements ApplicationContext {
     }
     
     protected void injectDependencies(Object bean) {
-        Class<?> clazz = bean.getClass();
+        // 注入点按类缓存在 beanFactory 中，与 populateBean 共用
+        InjectionMetadata metadata = beanFactory.getInjectionMetadata(bean.getClass());
         
         // 1. 处理 @Value 注解
-        for (Field field : clazz.getDeclaredFields()) {
-            Value valueAnn = field.getAnnotation(Value.class);
-            if (valueAnn != null) {
-                String expression = valueAnn.value();
-                Object resolvedValue = valueResolver.resolveValue(expression);
-                try {
-                    field.setAccessible(true);
-                    Object convertedValue = convertValueIfNecessary(field.getType(), resolvedValue);
-                    field.set(bean, convertedValue);
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException("Failed to inject @Value: " + expression, e);
-                }
+        for (InjectionMetadata.InjectedField element : metadata.getValueFields()) {
+            Field field = element.getField();
+            String expression = element.getValueExpression();
+            Object resolvedValue = valueResolver.resolveValue(expression);
+            try {
+                Object convertedValue = convertValueIfNecessary(field.getType(), resolvedValue);
+                field.set(bean, convertedValue);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException("Failed to inject @Value: " + expression, e);
             }
         }
         
         // 2. 处理 @Resource 注解的字段注入
-        for (Field field : clazz.getDeclaredFields()) {
-            Resource resource = field.getAnnotation(Resource.class);
-            if (resource != null) {
-                field.setAccessible(true);
-                Class<?> fieldType = field.getType();
-                
-                // 跳过集合类型
-                if (List.class.isAssignableFrom(fieldType) || 
-                    Map.class.isAssignableFrom(fieldType)) {
-                    continue;
-                }
-                
-                // 1. 首先按name查找
-                String refName = resource.name();
-                if (refName.isEmpty()) {
-                    // 如果没有指定name，使用字段名
-                    refName = field.getName();
-                }
-                
-                try {
-                    Object value = null;
-                    // 先尝试按名称查找
-                    if (containsBean(refName)) {
-                        value = getBean(refName);
-                    }
-                    
-                    // 2. 如果按名称没找到，降级为按类型查找
-                    if (value == null) {
-                        value = getBean(fieldType);
-                    }
-                    
-                    field.set(bean, value);
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to inject resource field: " + field.getName(), e);
-                }
+        for (InjectionMetadata.InjectedField element : metadata.getResourceFields()) {
+            Field field = element.getField();
+            InjectionMetadata.DependencyDescriptor descriptor = element.getDescriptor();
+            
+            // 跳过集合类型
+            if (descriptor.isList() || descriptor.isMap()) {
+                continue;
+            }
+            
+            try {
+                field.set(bean, resolveResource(element.getResourceName(), descriptor.getType()));
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to inject resource field: " + field.getName(), e);
             }
         }
         
-        // 3. 处理方法注入（包括setter方法和普通方法）
-        for (Method method : clazz.getDeclaredMethods()) {
-            Autowired autowired = method.getAnnotation(Autowired.class);
-            if (autowired != null) {
-                Class<?>[] paramTypes = method.getParameterTypes();
-                Annotation[][] paramAnnotations = method.getParameterAnnotations();
-                Object[] args = new Object[paramTypes.length];
-                
-                // 处理每个参数
-                for (int i = 0; i < paramTypes.length; i++) {
-                    Qualifier qualifier = null;
-                    // 查找参数上的 @Qualifier 注解
-                    for (Annotation ann : paramAnnotations[i]) {
-                        if (ann instanceof Qualifier) {
-                            qualifier = (Qualifier) ann;
-                            break;
-                        }
+        // 3. 处理 @Autowired 方法注入（包括setter方法和普通方法）
+        for (InjectionMetadata.InjectedMethod element : metadata.getAutowiredMethods()) {
+            Method method = element.getMethod();
+            InjectionMetadata.DependencyDescriptor[] parameters = element.getParameters();
+            Object[] args = new Object[parameters.length];
+            
+            // 处理每个参数
+            for (int i = 0; i < parameters.length; i++) {
+                InjectionMetadata.DependencyDescriptor param = parameters[i];
+                if (param.isLazy() && !param.isList() && !param.isMap()) {
+                    // @Lazy 参数注入代理，依赖在第一次使用时才创建
+                    args[i] = beanFactory.createLazyResolutionProxy(method.getDeclaringClass(),
+                        "parameter " + i + " of method '" + method.getName() + "'", param.getType(),
+                        () -> param.getQualifier() != null
+                            ? beanFactory.getBean(param.getQualifier()) : beanFactory.getBean(param.getType()));
+                } else if (param.isList()) {
+                    if (param.isParameterized() && param.getElementType() != null) {
+                        args[i] = beanFactory.getBeansByType(param.getElementType());
                     }
-                    
-                    if (List.class.isAssignableFrom(paramTypes[i])) {
-                        // 获取泛型类型
-                        Type paramType = method.getGenericParameterTypes()[i];
-                        if (paramType instanceof ParameterizedType) {
-                            Type elementType = ((ParameterizedType) paramType).getActualTypeArguments()[0];
-                            if (elementType instanceof Class) {
-                                args[i] = beanFactory.getBeansByType((Class<?>) elementType);
-                            }
+                } else if (param.isMap()) {
+                    if (param.isParameterized() && param.getElementType() != null) {
+                        Map<String, Object> matchingBeans = new HashMap<>();
+                        // 获取所有匹配类型的bean
+                        for (String name : beanFactory.getBeanNamesForType(param.getElementType())) {
+                            matchingBeans.put(name, beanFactory.getBean(name));
                         }
-                    } else if (Map.class.isAssignableFrom(paramTypes[i])) {
-                        // 获取泛型类型
-                        Type paramType = method.getGenericParameterTypes()[i];
-                        if (paramType instanceof ParameterizedType) {
-                            Type[] typeArgs = ((ParameterizedType) paramType).getActualTypeArguments();
-                            if (typeArgs.length == 2 && typeArgs[1] instanceof Class) {
-                                Class<?> valueType = (Class<?>) typeArgs[1];
-                                Map<String, Object> matchingBeans = new HashMap<>();
-                                // 获取所有匹配类型的bean
-                                for (String name : beanFactory.getBeanDefinitionNames()) {
-                                    BeanDefinition bd = beanFactory.getBeanDefinition(name);
-                                    if (valueType.isAssignableFrom(bd.getBeanClass())) {
-                                        matchingBeans.put(name, beanFactory.getBean(name));
-                                    }
-                                }
-                                args[i] = matchingBeans;
-                            }
-                        }
-                    } else if (qualifier != null) {
-                        args[i] = beanFactory.getBean(qualifier.value());
-                    } else {
-                        args[i] = beanFactory.getBean(paramTypes[i]);
+                        args[i] = matchingBeans;
                     }
-                }
-                
-                try {
-                    method.setAccessible(true);
-                    method.invoke(bean, args);
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to inject method: " + method, e);
+                } else if (param.getQualifier() != null) {
+                    args[i] = beanFactory.getBean(param.getQualifier());
+                } else {
+                    args[i] = beanFactory.getBean(param.getType());
                 }
             }
             
-            // 处理 @Resource 注解
-            Resource resource = method.getAnnotation(Resource.class);
-            if (resource != null && method.getParameterCount() == 1) {
-                method.setAccessible(true);
-                Class<?> paramType = method.getParameterTypes()[0];
-                
-                // 跳过集合类型
-                if (List.class.isAssignableFrom(paramType) || 
-                    Map.class.isAssignableFrom(paramType)) {
-                    continue;
-                }
-                
-                // 1. 首先按name查找
-                String refName = resource.name();
-                if (refName.isEmpty()) {
-                    // 如果没有指定name，使用方法名去掉"set"后的部分
-                    if (method.getName().startsWith("set")) {
-                        refName = method.getName().substring(3);
-                        refName = Character.toLowerCase(refName.charAt(0)) + refName.substring(1);
-                    } else {
-                        // 如果不是setter方法，使用参数类型的首字母小写作为bean名称
-                        refName = Character.toLowerCase(paramType.getSimpleName().charAt(0)) + 
-                                 paramType.getSimpleName().substring(1);
-                    }
-                }
-                
-                try {
-                    Object value = null;
-                    // 先尝试按名称查找
-                    if (containsBean(refName)) {
-                        value = getBean(refName);
-                    }
-                    
-                    // 2. 如果按名称没找到，降级为按类型查找
-                    if (value == null) {
-                        value = getBean(paramType);
-                    }
-                    
-                    method.invoke(bean, value);
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to inject resource method: " + method.getName(), e);
-                }
+            try {
+                method.invoke(bean, args);
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to inject method: " + method, e);
+            }
+        }
+        
+        // 4. 处理 @Resource 方法注入
+        for (InjectionMetadata.InjectedMethod element : metadata.getResourceMethods()) {
+            Method method = element.getMethod();
+            InjectionMetadata.DependencyDescriptor param = element.getParameters()[0];
+            
+            // 跳过集合类型
+            if (param.isList() || param.isMap()) {
+                continue;
+            }
+            
+            try {
+                method.invoke(bean, resolveResource(element.getResourceName(), param.getType()));
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to inject resource method: " + method.getName(), e);
             }
         }
     }
     
+    /**
+     * @Resource 的解析规则：先按名称查找，找不到再降级为按类型查找
+     */
+    private Object resolveResource(String refName, Class<?> type) {
+        Object value = null;
+        if (containsBean(refName)) {
+            value = getBean(refName);
+        }
+        if (value == null) {
+            value = getBean(type);
+        }
+        return value;
+    }
+    
     private Object convertValueIfNecessary(Class<?> targetType, Object value) {
         if (value == null) {
             return null;
@@ -328,35 +416,58 @@ public abstract class AbstractApplicationContext implements ApplicationContext {
     }
     
     public void close() {
-        // 遍历所有单例bean，调用销毁方法
-        for (String beanName : beanFactory.getBeanDefinitionNames()) {
-            BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
-            if (bd.isSingleton()) {
-                Object bean = getBean(beanName);
-                String destroyMethodName = bd.getDestroyMethodName();
-                if (destroyMethodName != null && !destroyMethodName.isEmpty()) {
-                    try {
-                        Method destroyMethod = bean.getClass().getDeclaredMethod(destroyMethodName);
-                        destroyMethod.setAccessible(true);
-                        destroyMethod.invoke(bean);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Error invoking destroy method on bean: " + beanName, e);
-                    }
-                }
-            }
+        // 只销毁已经创建的单例，按依赖逆序并发执行销毁回调，失败和超时记录在关闭报告中
+        ShutdownReport report = beanFactory.destroySingletons();
+        if (report.hasProblems()) {
+            System.err.println(report);
         }
         
         // 关闭线程池
-        eventExecutor.shutdown();
+        if (ownsEventExecutor) {
+            shutdownEventExecutor((EventExecutor) eventExecutor);
+        }
+    }
+    
+    private static void shutdownEventExecutor(EventExecutor executor) {
+        executor.shutdown();
         try {
-            if (!eventExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                eventExecutor.shutdownNow();
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
             }
         } catch (InterruptedException e) {
-            eventExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
         }
     }
     
+    private static EventExecutor createDefaultEventExecutor() {
+        if ("virtual".equals(System.getProperty(EVENT_EXECUTOR_PROPERTY))) {
+            if (VirtualThreadEventExecutor.isSupported()) {
+                return EventExecutors.virtualThreadPerEvent();
+            }
+            System.err.println("Virtual threads are not supported on Java " + System.getProperty("java.version")
+                + ", using bounded event executor");
+        }
+        return EventExecutors.defaultExecutor();
+    }
+    
+    /**
+     * 替换执行 @Async 监听器的执行器，上下文原来创建的执行器会被关闭；
+     * 传入的执行器由调用方负责关闭，为 null 时所有监听器同步执行
+     */
+    public void setEventExecutor(Executor eventExecutor) {
+        if (ownsEventExecutor) {
+            shutdownEventExecutor((EventExecutor) this.eventExecutor);
+        }
+        this.eventExecutor = eventExecutor;
+        this.ownsEventExecutor = false;
+        this.eventMulticaster.setTaskExecutor(eventExecutor);
+    }
+    
+    public Executor getEventExecutor() {
+        return eventExecutor;
+    }
+    
     @Override
     public String[] getBeanNamesForAnnotation(Class<? extends Annotation> annotationType) {
         return beanFactory.getBeanNamesForAnnotation(annotationType);
@@ -370,8 +481,8 @@ public abstract class AbstractApplicationContext implements ApplicationContext {
         for (String beanName : beanNames) {
             BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
             if (!bd.isLazyInit()) {
-                // 统一使用 getBean 方法
-                result.put(beanName, getBean(beanName));
+                // 注解在声明的类上，FactoryBean 返回它本身，不触发产品的创建
+                result.put(beanName, getDeclaredBean(beanName, bd));
             }
         }
         return result;
@@ -383,8 +494,7 @@ public abstract class AbstractApplicationContext implements ApplicationContext {
         for (String beanName : beanFactory.getBeanDefinitionNames()) {
             BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
             if (bd.getBeanClass().isAnnotationPresent(annotationType)) {
-                // 统一使用 getBean 方法
-                result.put(beanName, getBean(beanName));
+                result.put(beanName, getDeclaredBean(beanName, bd));
             }
         }
         return result;
@@ -396,16 +506,31 @@ public abstract class AbstractApplicationContext implements ApplicationContext {
     
     @Override
     public void refresh() {
-        // 添加调试日志
+        StartupTimeline timeline = getStartupTimeline();
+        StartupStep step = timeline.start("context.registerBeanPostProcessors");
         registerBeanPostProcessors(beanFactory);
+        step.end();
+        
+        // 子类扩展点：BeanPostProcessor 已就绪，监听器尚未注册
+        step = timeline.start("context.onRefresh");
+        onRefresh();
+        step.end();
         
         // 注册监听器
+        step = timeline.start("context.registerListeners");
         registerListeners();
+        step.end();
         
         // 发布刷新完成事件
         publishEvent(new ContextRefreshedEvent(this));
     }
     
+    /**
+     * 模板方法，子类可以在注册监听器之前初始化特殊的bean，默认什么都不做
+     */
+    protected void onRefresh() {
+    }
+    
     protected void registerListeners() {
         // 处理所有的事件监听器（包括@EventListener注解和ApplicationListener接口）
         EventListenerMethodProcessor processor = new EventListenerMethodProcessor(this);
@@ -414,157 +539,29 @@ public abstract class AbstractApplicationContext implements ApplicationContext {
     
     @Override
     public void publishEvent(ApplicationEvent event) {
-        
-        List<ApplicationListener<?>> currentListeners = getApplicationListeners(event);
-        
-        for (ApplicationListener<?> listener : currentListeners) {
-            invokeListener(listener, event);
-        }
+        // 匹配、排序和同步/异步判断都由广播器的分发表缓存
+        eventMulticaster.multicastEvent(event);
         
         if (parent != null) {
             parent.publishEvent(event);
         } 
     }
-    
-    @SuppressWarnings("unchecked")
-    private void invokeListener(ApplicationListener listener, ApplicationEvent event) {
-        if (listener instanceof SmartApplicationListener) {
-            // SmartApplicationListener 直接调用，类型检查已经在 supportsEvent 中完成
-            listener.onApplicationEvent(event);
-            return;
-        }
-
-        final Method onApplicationEventMethod;
-        try {
-            // 获取监听器的泛型类型
-            Class<?> eventType = getEventType(listener);
-            // 使用监听器声明的事件类型而不是具体的事件类型
-            onApplicationEventMethod = listener.getClass().getMethod("onApplicationEvent", eventType);
-            onApplicationEventMethod.setAccessible(true);
-        } catch (NoSuchMethodException e) {
-            throw new RuntimeException(e);
-        }
 
-        if (onApplicationEventMethod.isAnnotationPresent(Async.class)) {
-            // 异步处理
-            eventExecutor.submit(() -> {
-                try {
-                    onApplicationEventMethod.invoke(listener, event);
-                } catch (Exception e) {
-                    // 异步处理中的异常需要特别处理
-                    System.err.println("Error processing event asynchronously: " + e.getMessage());
-                }
-            });
-        } else {
-            // 同步处理
-            try {
-                onApplicationEventMethod.invoke(listener, event);
-            } catch (Exception e) {
-                throw new RuntimeException("Error invoking listener", e);
-            }
-        }
-    }
-    
-    private List<ApplicationListener<?>> getApplicationListeners(ApplicationEvent event) {        
-        List<ApplicationListener<?>> allListeners = new ArrayList<>();
-        for (ApplicationListener<?> listener : applicationListeners) {
-            if (supportsEvent(listener, event)) {
-                allListeners.add(listener);
-            }
-        }
-        
-        // 根据@Order注解和SmartApplicationListener接口排序
-        allListeners.sort((l1, l2) -> {
-            int p1 = getListenerOrder(l1);
-            int p2 = getListenerOrder(l2);
-            return Integer.compare(p1, p2);
-        });
-        
-        return allListeners;
-    }
-    
-    private boolean supportsEvent(ApplicationListener<?> listener, ApplicationEvent event) {
-        
-        // 如果是SmartApplicationListener，使用其自定义的类型检查逻辑
-        if (listener instanceof SmartApplicationListener) {
-            SmartApplicationListener smartListener = (SmartApplicationListener) listener;
-            return smartListener.supportsEventType(event.getClass()) && 
-                   smartListener.supportsSourceType(event.getSource().getClass());
-        }
+    @Override
+    public void publishEvents(Collection<? extends ApplicationEvent> events) {
+        eventMulticaster.multicastEvents(events);
 
-        // 获取监听器的泛型类型
-        Class<?> eventType = getEventType(listener);
-        
-        // 检查事件类型的继承关系
-        Class<?> currentClass = event.getClass();
-        while (currentClass != null) {
-            currentClass = currentClass.getSuperclass();
-        }
-        
-        // 检查事件是否是监听器要监听的类型或其子类
-        boolean supports = eventType != null && eventType.isAssignableFrom(event.getClass());
-        
-        return supports;
-    }
-    
-    /**
-     * 获取监听器的事件泛型类型
-     */
-    private Class<?> getEventType(ApplicationListener<?> listener) {
-        
-        // SmartApplicationListener 不需要获取泛型类型
-        if (listener instanceof SmartApplicationListener) {
-            return ApplicationEvent.class;
-        }
-        
-        // 先检查接口
-        Type[] genericInterfaces = listener.getClass().getGenericInterfaces();
-        for (Type type : genericInterfaces) {
-            if (type instanceof ParameterizedType) {
-                ParameterizedType paramType = (ParameterizedType) type;
-                if (paramType.getRawType().equals(ApplicationListener.class)) {
-                    Type[] typeArguments = paramType.getActualTypeArguments();
-                    if (typeArguments != null && typeArguments.length > 0) {
-                        Type typeArgument = typeArguments[0];
-                        if (typeArgument instanceof Class) {
-                            return (Class<?>) typeArgument;
-                        }
-                    }
-                }
-            }
-        }
-        
-        // 如果接口没找到，再检查父类
-        Type genericSuperclass = listener.getClass().getGenericSuperclass();
-        if (genericSuperclass instanceof ParameterizedType) {
-            ParameterizedType paramType = (ParameterizedType) genericSuperclass;
-            Type[] typeArguments = paramType.getActualTypeArguments();
-            if (typeArguments != null && typeArguments.length > 0) {
-                Type typeArgument = typeArguments[0];
-                if (typeArgument instanceof Class) {
-                    return (Class<?>) typeArgument;
-                }
-            }
+        if (parent != null) {
+            parent.publishEvents(events);
         }
-        
-        throw new IllegalStateException("Could not find event type for listener: " + listener);
     }
     
     public void addApplicationListener(ApplicationListener<?> listener) {
-        if (listener != null) {
-            this.applicationListeners.add(listener);
-        }
+        eventMulticaster.addApplicationListener(listener);
     }
     
     public String[] getBeanNamesForType(Class<?> type) {
-        Set<String> result = new HashSet<>();
-        for (String beanName : beanFactory.getBeanDefinitionNames()) {
-            BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
-            if (type.isAssignableFrom(bd.getBeanClass())) {
-                result.add(beanName);
-            }
-        }
-        return result.toArray(new String[0]);
+        return beanFactory.getBeanNamesForType(type);
     }
     
     @Override
@@ -577,14 +574,6 @@ public abstract class AbstractApplicationContext implements ApplicationContext {
         return this.parent;
     }
     
-    private int getListenerOrder(ApplicationListener<?> listener) {
-        if (listener instanceof SmartApplicationListener) {
-            return ((SmartApplicationListener) listener).getOrder();
-        }
-        Order order = listener.getClass().getAnnotation(Order.class);
-        return order != null ? order.value() : Integer.MAX_VALUE;
-    }
-    
     protected void registerBeanPostProcessors(DefaultBeanFactory beanFactory) {
         String[] postProcessorNames = getBeanNamesForType(BeanPostProcessor.class);
         
@@ -2,13 +2,23 @@ package org.microspring.context.support;
 
 import org.microspring.core.DefaultBeanFactory;
 import org.microspring.core.BeanDefinition;
+import org.microspring.core.BeanDependencyGraph;
 import org.microspring.core.BeanFactoryPostProcessor;
+import org.microspring.core.annotation.Conditional;
+import org.microspring.core.annotation.ConditionalOnClass;
+import org.microspring.core.condition.Condition;
+import org.microspring.core.condition.ConditionEvaluator;
+import org.microspring.core.condition.DefaultConditionContext;
 import org.microspring.beans.factory.annotation.Scope;
 import org.microspring.beans.factory.annotation.Lazy;
 import org.microspring.core.beans.ConstructorArg;
 import org.microspring.core.beans.PropertyValue;
+import org.microspring.core.io.ClassPathMetadataScanner;
+import org.microspring.core.startup.StartupStep;
+import org.microspring.core.type.ClassMetadata;
 import org.microspring.stereotype.Component;
 import org.microspring.context.event.ApplicationListener;
+import org.microspring.context.index.CandidateComponentsIndex;
 import org.microspring.context.event.ContextRefreshedEvent;
 import org.microspring.context.event.EventListenerMethodProcessor;
 import org.microspring.context.event.SimpleApplicationEventPublisher;
@@ -29,19 +39,34 @@ import org.microspring.context.annotation.ImportSelector;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.io.File;
-import java.net.URL;
-import java.util.Enumeration;
 import java.io.IOException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 public class AnnotationConfigApplicationContext extends AbstractApplicationContext {
+    // 扫描时识别的构造型注解
+    private static final String[] STEREOTYPE_ANNOTATIONS = {
+        Component.class.getName(), Service.class.getName(),
+        Repository.class.getName(), Configuration.class.getName()
+    };
+    private static final String CONDITIONAL_ON_CLASS_ANNOTATION = ConditionalOnClass.class.getName();
+    private static final String CONDITIONAL_ANNOTATION = Conditional.class.getName();
+
     private String basePackage;
     private final ScopeManager scopeManager = new ScopeManager();
+    // 是否按依赖图并发创建非延迟单例(默认关闭)
+    private boolean parallelPreInstantiation = false;
+    private int preInstantiationParallelism = Runtime.getRuntime().availableProcessors();
     
     public AnnotationConfigApplicationContext() {
         super();
@@ -70,7 +95,7 @@ public class AnnotationConfigApplicationContext extends AbstractApplicationConte
             for (String beanName : beanFactory.getBeanDefinitionNames()) {
                 BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
                 if (bd.isSingleton() && !bd.isLazyInit()) {
-                    getBean(beanName);
+                    preInstantiateSingleton(beanName);
                 }
             }
         } else {
@@ -82,6 +107,20 @@ public class AnnotationConfigApplicationContext extends AbstractApplicationConte
         this.basePackage = basePackage;
     }
 
+    /**
+     * 开启后，refresh() 会根据bean依赖图把互不依赖的单例放到 ForkJoinPool 上并发创建
+     */
+    public void setParallelPreInstantiation(boolean parallelPreInstantiation) {
+        this.parallelPreInstantiation = parallelPreInstantiation;
+    }
+
+    public void setPreInstantiationParallelism(int preInstantiationParallelism) {
+        if (preInstantiationParallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + preInstantiationParallelism);
+        }
+        this.preInstantiationParallelism = preInstantiationParallelism;
+    }
+
     @Override
     public String getApplicationName() {
         return "AnnotationConfigApplicationContext";
@@ -89,28 +128,119 @@ public class AnnotationConfigApplicationContext extends AbstractApplicationConte
 
     @Override
     public void refresh() {
-        if (basePackage != null) {
-            // 1. 扫描组件
-            String[] basePackages = basePackage.split(",");
-            scanPackages(basePackages);
+        StartupStep refreshStep = getStartupTimeline().start("context.refresh");
+        
+        // 1-2. 加载bean定义：指纹与快照一致时直接恢复，否则扫描并执行后处理器
+        StartupStep step = getStartupTimeline().start("context.loadBeanDefinitions");
+        if (getDefinitionSnapshotFile() == null) {
+            loadBeanDefinitions();
+        } else {
+            String fingerprint = computeSnapshotFingerprint(String.valueOf(basePackage));
+            if (!restoreDefinitionSnapshot(fingerprint)) {
+                loadBeanDefinitions();
+                saveDefinitionSnapshot(fingerprint);
+            }
         }
-            
-        // 2. 调用 BeanFactoryPostProcessor
-        invokeBeanFactoryPostProcessors();
+        step.end();
             
         // 3. 注册 BeanPostProcessor 和监听器
         super.refresh();
         
         // 4. 只初始化非延迟加载的单例bean
+        step = getStartupTimeline().start("context.preInstantiateSingletons");
         for (String beanName : beanFactory.getBeanDefinitionNames()) {
             BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
             if (bd.isSingleton() && !bd.isLazyInit()) {
-                getBean(beanName);
+                preInstantiateSingleton(beanName);
             }
         }
+        step.end();
         
         // 5. 发布刷新完成事件
         publishEvent(new ContextRefreshedEvent(this));
+        refreshStep.end();
+        publishStartupTimeline();
+    }
+
+    private void loadBeanDefinitions() {
+        if (basePackage != null) {
+            // 1. 扫描组件
+            String[] basePackages = basePackage.split(",");
+            scanPackages(basePackages);
+        }
+            
+        // 2. 调用 BeanFactoryPostProcessor
+        invokeBeanFactoryPostProcessors();
+    }
+
+    @Override
+    protected void onRefresh() {
+        if (parallelPreInstantiation) {
+            preInstantiateSingletonsInParallel();
+        }
+    }
+
+    /**
+     * 按依赖图并发创建非延迟单例：
+     * 循环依赖的bean归为一组在同一线程中创建，每组只等待它所依赖的组完成
+     */
+    private void preInstantiateSingletonsInParallel() {
+        Set<String> candidates = new HashSet<>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+            if (bd.isSingleton() && !bd.isLazyInit()) {
+                candidates.add(beanName);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        List<BeanDependencyGraph.CreationGroup> groups = new BeanDependencyGraph(beanFactory).getCreationGroups();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ForkJoinPool pool = new ForkJoinPool(preInstantiationParallelism, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        }, null, false);
+
+        try {
+            Map<BeanDependencyGraph.CreationGroup, CompletableFuture<Void>> futures = new HashMap<>();
+            for (BeanDependencyGraph.CreationGroup group : groups) {
+                // 分组按依赖顺序排列，依赖的分组一定已经登记
+                CompletableFuture<?>[] upstream = group.getDependencies().stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+                CompletableFuture<Void> ready = CompletableFuture.allOf(upstream);
+                List<String> beanNames = new ArrayList<>();
+                for (String beanName : group.getBeanNames()) {
+                    if (candidates.contains(beanName)) {
+                        beanNames.add(beanName);
+                    }
+                }
+                if (beanNames.isEmpty()) {
+                    futures.put(group, ready);
+                } else {
+                    futures.put(group, ready.thenRunAsync(() -> {
+                        for (String beanName : beanNames) {
+                            preInstantiateSingleton(beanName);
+                        }
+                    }, pool));
+                }
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Failed to pre-instantiate singletons", cause);
+        } finally {
+            pool.shutdown();
+        }
     }
 
     private void invokeBeanFactoryPostProcessors() {
@@ -125,22 +255,28 @@ public class AnnotationConfigApplicationContext extends AbstractApplicationConte
     }
 
     protected void scanPackages(String... basePackages) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ConditionEvaluator conditionEvaluator = new ConditionEvaluator(new DefaultConditionContext(beanFactory));
+
+        CandidateComponentsIndex index = CandidateComponentsIndex.load(classLoader);
+        ClassPathMetadataScanner metadataScanner = new ClassPathMetadataScanner(classLoader);
         try {
             for (String basePackage : basePackages) {
-                String path = basePackage.replace('.', '/');
-                ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-                
-                // 获取类路径下的资源
-                Enumeration<URL> resources = classLoader.getResources(path);
-
-                while (resources.hasMoreElements()) {
-                    URL resource = resources.nextElement();
-                    if (resource != null) {
-                        File directory = new File(resource.getFile());
-                        if (directory.exists()) {
-                            scanDirectory(directory, basePackage);
+                // 包所在的类路径根都有编译期组件索引时直接读取索引，不再遍历目录和 jar 包
+                if (index != null && index.isIndexed(basePackage.trim(), classLoader)) {
+                    for (CandidateComponentsIndex.Entry entry : index.getCandidates(basePackage.trim())) {
+                        if (isCandidateComponent(entry, conditionEvaluator, classLoader)) {
+                            processCandidate(entry, classLoader);
                         }
                     }
+                    continue;
+                }
+                // 否则先读取字节码元数据筛选候选类，只加载带构造型注解的类
+                for (ClassMetadata metadata : metadataScanner.scan(basePackage, true)) {
+                    if (isCandidateComponent(metadata, conditionEvaluator, metadataScanner.getClassLoader())) {
+                        processCandidate(metadata.getClassName(),
+                            metadata.isAnnotated(Configuration.class.getName()), metadataScanner.getClassLoader());
+                    }
                 }
             }
         } catch (IOException e) {
@@ -148,45 +284,91 @@ public class AnnotationConfigApplicationContext extends AbstractApplicationConte
         }
     }
 
-    private void scanDirectory(File directory, String basePackage) {
-        File[] files = directory.listFiles();
-        if (files != null) {
-            for (File file : files) {
-                if (file.isDirectory()) {
-                    scanDirectory(file, basePackage + "." + file.getName());
-                } else if (file.getName().endsWith(".class")) {
-                    try {
-                        String className = basePackage + "." + 
-                            file.getName().substring(0, file.getName().length() - 6);
-                        Class<?> clazz = Class.forName(className);
-                        
-                        // 跳过注解类
-                        if (clazz.isAnnotation()) {
-                            continue;
-                        }
-                        
-                        // 检查是否有构造型注解
-                        Component componentAnn = clazz.getAnnotation(Component.class);
-                        Service serviceAnn = clazz.getAnnotation(Service.class);
-                        Repository repositoryAnn = clazz.getAnnotation(Repository.class);
-                        Configuration configAnn = clazz.getAnnotation(Configuration.class);
-                        
-                        if (componentAnn != null || serviceAnn != null || 
-                            repositoryAnn != null || configAnn != null) {
-                            
-                            // 如果是配置类，处理其中的@Bean方法
-                            if (configAnn != null) {
-                                processConfigurationClass(clazz);
-                            } else {
-                                registerBean(clazz);
-                            }
-                        }
-                    } catch (ClassNotFoundException | NoClassDefFoundError e) {
-                    } catch (Exception e) {
-                    }
+    private boolean isCandidateComponent(CandidateComponentsIndex.Entry entry,
+                                         ConditionEvaluator conditionEvaluator, ClassLoader classLoader) {
+        for (String stereotype : STEREOTYPE_ANNOTATIONS) {
+            if (entry.hasStereotype(stereotype)) {
+                return conditionEvaluator.isPresent(entry.getRequiredClasses().toArray(new String[0]), classLoader)
+                    && matchesConditions(entry.getConditions().toArray(new String[0]), conditionEvaluator, classLoader);
+            }
+        }
+        return false;
+    }
+
+    private boolean isCandidateComponent(ClassMetadata metadata,
+                                         ConditionEvaluator conditionEvaluator, ClassLoader classLoader) {
+        // 跳过注解类
+        if (metadata.isAnnotation()) {
+            return false;
+        }
+        // 检查是否有构造型注解
+        for (String stereotype : STEREOTYPE_ANNOTATIONS) {
+            if (metadata.isAnnotated(stereotype)) {
+                // @ConditionalOnClass 按字节码中的类名检查，不满足时不加载候选类
+                Object requiredClasses = metadata.getAnnotationAttribute(CONDITIONAL_ON_CLASS_ANNOTATION, "value");
+                if (requiredClasses instanceof Object[]
+                        && !conditionEvaluator.isPresent(toStrings((Object[]) requiredClasses), classLoader)) {
+                    return false;
                 }
+                Object conditions = metadata.getAnnotationAttribute(CONDITIONAL_ANNOTATION, "value");
+                return !(conditions instanceof Object[])
+                    || matchesConditions(toStrings((Object[]) conditions), conditionEvaluator, classLoader);
             }
         }
+        return false;
+    }
+
+    /**
+     * 只加载条件类并评估 @Conditional，不满足时候选类不会被加载
+     */
+    private static boolean matchesConditions(String[] conditionClassNames,
+                                             ConditionEvaluator conditionEvaluator, ClassLoader classLoader) {
+        for (String conditionClassName : conditionClassNames) {
+            Class<? extends Condition> conditionClass;
+            try {
+                conditionClass = Class.forName(conditionClassName, false, classLoader).asSubclass(Condition.class);
+            } catch (ClassNotFoundException | LinkageError e) {
+                throw new RuntimeException("Could not load condition class: " + conditionClassName, e);
+            }
+            if (!conditionEvaluator.matches(conditionClass)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] toStrings(Object[] values) {
+        String[] strings = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            strings[i] = (String) values[i];
+        }
+        return strings;
+    }
+
+    private void processCandidate(CandidateComponentsIndex.Entry entry, ClassLoader classLoader) {
+        if (entry.hasStereotype(Configuration.class.getName()) || entry.getBeanName() == null) {
+            processCandidate(entry.getClassName(), entry.hasStereotype(Configuration.class.getName()), classLoader);
+            return;
+        }
+        try {
+            registerBean(Class.forName(entry.getClassName(), false, classLoader), entry.getBeanName(), entry.getScope());
+        } catch (ClassNotFoundException | NoClassDefFoundError e) {
+        } catch (Exception e) {
+        }
+    }
+
+    private void processCandidate(String className, boolean configuration, ClassLoader classLoader) {
+        try {
+            Class<?> clazz = Class.forName(className, false, classLoader);
+            // 如果是配置类，处理其中的@Bean方法
+            if (configuration) {
+                processConfigurationClass(clazz);
+            } else {
+                registerBean(clazz);
+            }
+        } catch (ClassNotFoundException | NoClassDefFoundError e) {
+        } catch (Exception e) {
+        }
     }
 
     private void processConfigurationClass(Class<?> configClass) {
@@ -406,6 +588,8 @@ public class AnnotationConfigApplicationContext extends AbstractApplicationConte
                     String refName = Character.toLowerCase(paramType.getSimpleName().charAt(0)) + 
                                    paramType.getSimpleName().substring(1);
                     ConstructorArg arg = new ConstructorArg(refName, null, paramType);
+                    Lazy lazy = parameters[i].getAnnotation(Lazy.class);
+                    arg.setLazy(lazy != null && lazy.value());
                     bd.addConstructorArg(arg);
                 }
             }
@@ -444,7 +628,15 @@ public class AnnotationConfigApplicationContext extends AbstractApplicationConte
             beanName = Character.toLowerCase(clazz.getSimpleName().charAt(0)) + 
                       clazz.getSimpleName().substring(1);
         }
-        
+
+        Scope scopeAnn = clazz.getAnnotation(Scope.class);
+        registerBean(clazz, beanName, scopeAnn != null ? scopeAnn.value() : "singleton");
+    }
+
+    /**
+     * 按已经确定的 bean 名称和作用域注册组件，组件索引中记录了这两项时不再读取类上的注解
+     */
+    private void registerBean(Class<?> clazz, String beanName, String scope) {
         // 创建并注册BeanDefinition
         BeanDefinition bd = new BeanDefinition() {
             private boolean lazyInit = false;
@@ -461,8 +653,7 @@ public class AnnotationConfigApplicationContext extends AbstractApplicationConte
             
             @Override
             public String getScope() {
-                Scope scope = clazz.getAnnotation(Scope.class);
-                return scope != null ? scope.value() : "singleton";
+                return scope;
             }
             
             @Override
@@ -546,9 +737,10 @@ public class AnnotationConfigApplicationContext extends AbstractApplicationConte
                 Qualifier qualifier = field.getAnnotation(Qualifier.class);
                 Class<?> fieldType = field.getType();
 
-                // 跳过集合类型的字段，让 DefaultBeanFactory 处理
+                // 跳过集合类型和 @Lazy 字段，让 DefaultBeanFactory 处理
                 if (List.class.isAssignableFrom(fieldType) || 
-                    Map.class.isAssignableFrom(fieldType)) {
+                    Map.class.isAssignableFrom(fieldType) ||
+                    field.isAnnotationPresent(Lazy.class)) {
                     continue;
                 }
                 
@@ -604,9 +796,10 @@ public class AnnotationConfigApplicationContext extends AbstractApplicationConte
                     
                     Class<?> paramType = method.getParameterTypes()[0];
                     
-                    // 跳过集合类型的参数，让 DefaultBeanFactory 处理
+                    // 跳过集合类型和 @Lazy 参数，让 DefaultBeanFactory 处理
                     if (List.class.isAssignableFrom(paramType) || 
-                        Map.class.isAssignableFrom(paramType)) {
+                        Map.class.isAssignableFrom(paramType) ||
+                        method.getParameters()[0].isAnnotationPresent(Lazy.class)) {
                         continue;
                     }
                     
@@ -675,6 +868,10 @@ public class AnnotationConfigApplicationContext extends AbstractApplicationConte
     @Override
     public Object getBean(String name) {
         BeanDefinition bd = beanFactory.getBeanDefinition(name);
+        if (bd == null) {
+            // &name 或未定义的bean交给父类处理
+            return super.getBean(name);
+        }
         String scope = bd.getScope();
         
         // 对于 request 作用域
@@ -1,26 +1,52 @@
 package org.microspring.context.support;
 
-import org.microspring.core.io.XmlBeanDefinitionReader;
+import org.microspring.core.DefaultBeanFactory;
+import org.microspring.core.startup.StartupStep;
 
 public class ClassPathXmlApplicationContext extends AbstractApplicationContext {
-    private final String configLocation;
+    /**
+     * 设为 dom 时使用基于 DOM 的 XmlBeanDefinitionReader，默认使用流式的 StaxXmlBeanDefinitionReader
+     */
+    public static final String XML_READER_PROPERTY = DefaultBeanFactory.XML_READER_PROPERTY;
 
-    public ClassPathXmlApplicationContext(String configLocation) {
+    private final String[] configLocations;
+
+    /**
+     * 多个配置文件会并行解析，按给定顺序注册
+     */
+    public ClassPathXmlApplicationContext(String... configLocations) {
         super();
-        this.configLocation = configLocation;
+        this.configLocations = configLocations;
         refresh();
     }
 
     @Override
     public void refresh() {
-        XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(getBeanFactory());
-        reader.loadBeanDefinitions(configLocation);
+        StartupStep refreshStep = getStartupTimeline().start("context.refresh");
+        StartupStep step = getStartupTimeline().start("context.loadBeanDefinitions");
+        if (getDefinitionSnapshotFile() == null) {
+            loadBeanDefinitions();
+        } else {
+            String fingerprint = computeSnapshotFingerprint(configLocations);
+            if (!restoreDefinitionSnapshot(fingerprint)) {
+                loadBeanDefinitions();
+                saveDefinitionSnapshot(fingerprint);
+            }
+        }
+        step.end();
         
         super.refresh();
+        refreshStep.end();
+        publishStartupTimeline();
+    }
+
+    private void loadBeanDefinitions() {
+        // 与直接使用 DefaultBeanFactory 时相同的读取器选择
+        getBeanFactory().loadBeanDefinitions(configLocations);
     }
 
     @Override
     public String getApplicationName() {
         return "ClassPathXmlApplicationContext";
     }
-} 
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import org.microspring.test.collection.Pet;
 import org.microspring.test.collection.CollectionConstructorBean;
 import org.microspring.test.collection.CollectionFieldInjectBean;
 import org.microspring.test.collection.CollectionSetterBean;
+import org.microspring.test.conditional.PresentClassComponent;
 
 import static org.junit.Assert.*;
 
@@ -318,4 +319,14 @@ public class AnnotationConfigApplicationContextTest {
         assertEquals("MongoDB", mongoDS.getType());
         assertEquals("Redis", redisDS.getType());
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testConditionalOnClass() {
+        AnnotationConfigApplicationContext context =
+            new AnnotationConfigApplicationContext("org.microspring.test.conditional");
+
+        assertNotNull(context.getBean(PresentClassComponent.class));
+        assertFalse("Component requiring a missing class should be skipped",
+            context.containsBean("missingClassComponent"));
+    }
+}
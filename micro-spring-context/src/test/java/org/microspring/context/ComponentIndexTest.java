@@ -0,0 +1,158 @@
+package org.microspring.context;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.microspring.context.index.CandidateComponentsIndex;
+import org.microspring.context.support.AnnotationConfigApplicationContext;
+import org.microspring.test.index.IndexedService;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Enumeration;
+
+import static org.junit.Assert.*;
+
+public class ComponentIndexTest {
+
+    private static final String INDEX_PACKAGE = "org.microspring.test.index";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ClassLoader originalClassLoader;
+
+    @Before
+    public void setUp() throws Exception {
+        originalClassLoader = Thread.currentThread().getContextClassLoader();
+
+        // 带索引的类路径根：索引和 org.microspring.test.index 包的类文件放在同一个目录下
+        File root = temporaryFolder.newFolder();
+        File packageDir = new File(root, INDEX_PACKAGE.replace('.', '/'));
+        assertTrue(packageDir.mkdirs());
+        File compiledDir = new File(IndexedService.class.getResource("IndexedService.class").toURI()).getParentFile();
+        for (File classFile : compiledDir.listFiles()) {
+            Files.copy(classFile.toPath(), new File(packageDir, classFile.getName()).toPath());
+        }
+
+        File index = new File(root, CandidateComponentsIndex.COMPONENTS_RESOURCE_LOCATION);
+        assertTrue(index.getParentFile().mkdirs());
+        try (Writer writer = new FileWriter(index)) {
+            // bean 名称和作用域取自索引，与类上的注解不同
+            writer.write("org.microspring.test.index.IndexedService="
+                + "org.microspring.stereotype.Service;renamedService;prototype;;\n");
+            writer.write("org.microspring.test.index.IndexedConfig="
+                + "org.microspring.context.annotation.Configuration;indexedConfig;singleton;;\n");
+            writer.write("org.microspring.test.index.ConditionalComponent="
+                + "org.microspring.stereotype.Component;conditionalComponent;singleton;;com.example.missing.Driver\n");
+            writer.write("org.microspring.test.index.GuardedComponent="
+                + "org.microspring.stereotype.Component;guardedComponent;singleton;"
+                + "org.microspring.test.index.DisabledCondition;\n");
+            writer.write("org.microspring.test.other.Elsewhere="
+                + "org.microspring.stereotype.Component;elsewhere;singleton;\n");
+        }
+        Thread.currentThread().setContextClassLoader(new IndexRootClassLoader(root, originalClassLoader));
+    }
+
+    @After
+    public void tearDown() {
+        Thread.currentThread().setContextClassLoader(originalClassLoader);
+        System.clearProperty(CandidateComponentsIndex.IGNORE_INDEX_PROPERTY);
+    }
+
+    @Test
+    public void testIndexEntriesAreParsed() {
+        CandidateComponentsIndex index = CandidateComponentsIndex.load(Thread.currentThread().getContextClassLoader());
+        assertNotNull(index);
+        assertEquals(5, index.size());
+        assertEquals(4, index.getCandidates(INDEX_PACKAGE).size());
+
+        CandidateComponentsIndex.Entry entry = index.getCandidates("org.microspring.test.other").get(0);
+        assertEquals("elsewhere", entry.getBeanName());
+        assertEquals("singleton", entry.getScope());
+        assertTrue(entry.getConditions().isEmpty());
+        assertTrue(entry.getRequiredClasses().isEmpty());
+
+        for (CandidateComponentsIndex.Entry candidate : index.getCandidates(INDEX_PACKAGE)) {
+            if (candidate.getClassName().endsWith(".GuardedComponent")) {
+                assertEquals("org.microspring.test.index.DisabledCondition", candidate.getConditions().get(0));
+            }
+        }
+    }
+
+    @Test
+    public void testContextUsesIndexInsteadOfScanning() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(INDEX_PACKAGE);
+
+        // 名称和作用域来自索引
+        assertTrue(context.containsBean("renamedService"));
+        assertFalse(context.containsBean("indexedService"));
+        assertNotSame(context.getBean("renamedService"), context.getBean("renamedService"));
+        assertEquals("hello", context.getBean("indexedGreeting"));
+        // 不在索引中的类不会被发现
+        assertFalse(context.containsBean("unindexedComponent"));
+        assertFalse(context.containsBean("elsewhere"));
+        // 索引中记录的 @ConditionalOnClass 和 @Conditional 不满足
+        assertFalse(context.containsBean("conditionalComponent"));
+        assertFalse(context.containsBean("guardedComponent"));
+    }
+
+    @Test
+    public void testPackageWithoutIndexIsScanned() {
+        // org.microspring.test.conditional 所在的类路径根没有索引，仍然按字节码扫描
+        AnnotationConfigApplicationContext context =
+            new AnnotationConfigApplicationContext(INDEX_PACKAGE, "org.microspring.test.conditional");
+
+        assertTrue(context.containsBean("renamedService"));
+        assertFalse(context.containsBean("unindexedComponent"));
+        assertTrue(context.containsBean("presentClassComponent"));
+        assertFalse(context.containsBean("missingClassComponent"));
+    }
+
+    @Test
+    public void testIndexCanBeIgnored() {
+        System.setProperty(CandidateComponentsIndex.IGNORE_INDEX_PROPERTY, "true");
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(INDEX_PACKAGE);
+
+        assertTrue(context.containsBean("unindexedComponent"));
+        assertTrue(context.containsBean("indexedService"));
+        assertFalse(context.containsBean("conditionalComponent"));
+        assertFalse(context.containsBean("guardedComponent"));
+    }
+
+    /**
+     * 只从带索引的根目录加载 org.microspring.test.index 包，隐藏 test-classes 中的同名包
+     */
+    private static class IndexRootClassLoader extends URLClassLoader {
+
+        IndexRootClassLoader(File root, ClassLoader parent) throws IOException {
+            super(new URL[]{root.toURI().toURL()}, parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(INDEX_PACKAGE + ".")) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                return loaded != null ? loaded : findClass(name);
+            }
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String name) throws IOException {
+            if (name.startsWith(INDEX_PACKAGE.replace('.', '/'))) {
+                return findResources(name);
+            }
+            return super.getResources(name);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.microspring.context;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.microspring.context.support.AnnotationConfigApplicationContext;
+import org.microspring.core.BeanDefinitionSnapshot;
+import org.microspring.core.DefaultBeanFactory;
+import org.microspring.test.snapshot.CountingPostProcessor;
+import org.microspring.test.snapshot.SnapshotService;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class DefinitionSnapshotTest {
+
+    private static final String BASE_PACKAGE = "org.microspring.test.snapshot";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File snapshotFile;
+
+    @Before
+    public void setUp() {
+        snapshotFile = new File(temporaryFolder.getRoot(), "definitions.snapshot");
+        CountingPostProcessor.INVOCATIONS.set(0);
+    }
+
+    private AnnotationConfigApplicationContext start() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setBasePackage(BASE_PACKAGE);
+        context.setDefinitionSnapshotFile(snapshotFile);
+        context.refresh();
+        return context;
+    }
+
+    @Test
+    public void testSecondStartRestoresFromSnapshot() {
+        AnnotationConfigApplicationContext first = start();
+        Set<String> names = new HashSet<>(first.getBeanFactory().getBeanDefinitionNames());
+        first.close();
+        assertTrue(snapshotFile.isFile());
+        assertEquals(1, CountingPostProcessor.INVOCATIONS.get());
+
+        AnnotationConfigApplicationContext second = start();
+        // 从快照恢复时不再执行 BeanFactoryPostProcessor
+        assertEquals(1, CountingPostProcessor.INVOCATIONS.get());
+        assertEquals(names, new HashSet<>(second.getBeanFactory().getBeanDefinitionNames()));
+
+        SnapshotService service = second.getBean(SnapshotService.class);
+        assertNotNull(service.getSnapshotRepository());
+        assertEquals("hello from SnapshotRepository", second.getBean("snapshotGreeting"));
+        second.close();
+    }
+
+    @Test
+    public void testStaleSnapshotIsRebuilt() throws Exception {
+        BeanDefinitionSnapshot.capture(new DefaultBeanFactory(), "stale").write(snapshotFile);
+
+        AnnotationConfigApplicationContext context = start();
+        assertEquals(1, CountingPostProcessor.INVOCATIONS.get());
+        assertNotNull(context.getBean(SnapshotService.class));
+        context.close();
+
+        BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.read(snapshotFile);
+        assertNotNull(snapshot);
+        assertFalse(snapshot.matches("stale"));
+        assertTrue(snapshot.getCreationOrder().contains("snapshotService"));
+    }
+}
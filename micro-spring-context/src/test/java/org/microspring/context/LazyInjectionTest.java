@@ -0,0 +1,34 @@
+package org.microspring.context;
+
+import org.junit.Test;
+import org.microspring.context.support.AnnotationConfigApplicationContext;
+import org.microspring.core.LazyResolutionProxy;
+import org.microspring.test.lazyinjection.HeavyReportGenerator;
+import org.microspring.test.lazyinjection.ReportController;
+import org.microspring.test.lazyinjection.ReportGenerator;
+import org.microspring.test.lazyinjection.ReportScheduler;
+
+import static org.junit.Assert.*;
+
+public class LazyInjectionTest {
+
+    @Test
+    public void testLazyFieldAndBeanMethodParameter() {
+        HeavyReportGenerator.CREATED.set(0);
+        AnnotationConfigApplicationContext context =
+            new AnnotationConfigApplicationContext("org.microspring.test.lazyinjection");
+
+        ReportGenerator fromField = context.getBean(ReportController.class).getReportGenerator();
+        ReportGenerator fromBeanMethod = context.getBean(ReportScheduler.class).getReportGenerator();
+        assertNotNull(fromField);
+        assertNotNull(fromBeanMethod);
+        // 启动后依赖还没有创建
+        assertEquals(0, HeavyReportGenerator.CREATED.get());
+        assertFalse(LazyResolutionProxy.isResolved(fromField));
+
+        assertEquals("report", fromField.generate());
+        assertEquals("report", fromBeanMethod.generate());
+        assertEquals(1, HeavyReportGenerator.CREATED.get());
+        assertTrue(LazyResolutionProxy.isResolved(fromField));
+    }
+}
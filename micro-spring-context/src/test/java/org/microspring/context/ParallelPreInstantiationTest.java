@@ -0,0 +1,51 @@
+package org.microspring.context;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.microspring.context.support.AnnotationConfigApplicationContext;
+import org.microspring.test.parallel.ReportService;
+import org.microspring.test.parallel.SlowResource;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ParallelPreInstantiationTest {
+
+    @Before
+    public void setUp() {
+        SlowResource.CREATION_THREADS.clear();
+    }
+
+    @Test
+    public void testIndependentSingletonsAreCreatedConcurrently() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setBasePackage("org.microspring.test.parallel");
+        context.setParallelPreInstantiation(true);
+        context.setPreInstantiationParallelism(4);
+        context.refresh();
+
+        // 四个互不依赖的慢资源全部在 refresh 中创建，并且分布在多个工作线程上
+        assertEquals(4, SlowResource.CREATION_THREADS.size());
+        Set<String> threads = new HashSet<>(SlowResource.CREATION_THREADS.values());
+        assertTrue("Expected more than one creation thread: " + threads, threads.size() > 1);
+        assertFalse(threads.contains(Thread.currentThread().getName()));
+
+        // 依赖关系仍然正确注入，并且单例没有被重复创建
+        ReportService reportService = context.getBean(ReportService.class);
+        assertSame(context.getBean("slowPoolA"), reportService.getResource());
+        assertEquals("a", reportService.getResource().getName());
+    }
+
+    @Test
+    public void testSequentialModeIsDefault() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setBasePackage("org.microspring.test.parallel");
+        context.refresh();
+
+        Set<String> threads = new HashSet<>(SlowResource.CREATION_THREADS.values());
+        assertEquals(1, threads.size());
+        assertTrue(threads.contains(Thread.currentThread().getName()));
+    }
+}
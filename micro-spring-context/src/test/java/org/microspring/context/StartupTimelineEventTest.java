@@ -0,0 +1,88 @@
+package org.microspring.context;
+
+import org.junit.Test;
+import org.microspring.context.event.ApplicationListener;
+import org.microspring.context.event.StartupTimelineEvent;
+import org.microspring.context.support.AnnotationConfigApplicationContext;
+import org.microspring.core.startup.StartupStep;
+import org.microspring.core.startup.StartupTimeline;
+import org.microspring.test.annotation.TestPrototypeBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StartupTimelineEventTest {
+
+    @Test
+    public void testTimelinePublishedAfterRefresh() {
+        List<StartupTimelineEvent> events = new ArrayList<>();
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setBasePackage("org.microspring.test.snapshot");
+        context.setStartupTimeline(new StartupTimeline());
+        context.addApplicationListener(new ApplicationListener<StartupTimelineEvent>() {
+            @Override
+            public void onApplicationEvent(StartupTimelineEvent event) {
+                events.add(event);
+            }
+        });
+        context.refresh();
+
+        assertEquals(1, events.size());
+        StartupTimeline timeline = events.get(0).getTimeline();
+        assertSame(context.getStartupTimeline(), timeline);
+
+        List<StartupStep> refresh = timeline.getSteps("context.refresh");
+        assertEquals(1, refresh.size());
+        assertTrue(refresh.get(0).isEnded());
+        List<String> phases = new ArrayList<>();
+        for (StartupStep step : refresh.get(0).getChildren()) {
+            phases.add(step.getName());
+        }
+        assertTrue(phases.contains("context.loadBeanDefinitions"));
+        assertTrue(phases.contains("context.registerBeanPostProcessors"));
+        assertTrue(phases.contains("context.preInstantiateSingletons"));
+
+        boolean serviceRecorded = false;
+        for (StartupStep step : timeline.getSteps("bean")) {
+            serviceRecorded |= "snapshotService".equals(step.getBeanName());
+        }
+        assertTrue(serviceRecorded);
+        context.close();
+    }
+
+    @Test
+    public void testNoEventWhenTimelineDisabled() {
+        List<StartupTimelineEvent> events = new ArrayList<>();
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setBasePackage("org.microspring.test.snapshot");
+        context.addApplicationListener(new ApplicationListener<StartupTimelineEvent>() {
+            @Override
+            public void onApplicationEvent(StartupTimelineEvent event) {
+                events.add(event);
+            }
+        });
+        context.refresh();
+
+        assertTrue(events.isEmpty());
+        assertFalse(context.getStartupTimeline().isEnabled());
+        context.close();
+    }
+
+    @Test
+    public void testTimelineStopsRecordingAfterRefresh() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.setBasePackage("org.microspring.test.annotation");
+        context.setStartupTimeline(new StartupTimeline());
+        context.refresh();
+
+        StartupTimeline timeline = context.getStartupTimeline();
+        assertTrue(timeline.isFrozen());
+        int steps = timeline.getSteps().size();
+        context.getBean(TestPrototypeBean.class);
+        context.getBean(TestPrototypeBean.class);
+        assertEquals(steps, timeline.getSteps().size());
+        context.close();
+    }
+}
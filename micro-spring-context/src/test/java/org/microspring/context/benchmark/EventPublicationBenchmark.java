@@ -0,0 +1,148 @@
+package org.microspring.context.benchmark;
+
+import org.microspring.context.event.ApplicationEvent;
+import org.microspring.context.event.ApplicationEventPublisher;
+import org.microspring.context.event.ApplicationListener;
+import org.microspring.context.event.BatchApplicationListener;
+import org.microspring.context.event.CoalescingEventPublisher;
+import org.microspring.context.event.SimpleApplicationEventMulticaster;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 高频小事件的发布开销：逐个发布 vs publishEvents 批量发布 vs 按键去重的缓冲发布
+ * 每次调用发布 eventCount 个事件，事件只有 distinctKeys 个不同的键
+ * 运行方式：mvn test-compile 后执行 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventPublicationBenchmark {
+
+    public static class CacheInvalidatedEvent extends ApplicationEvent {
+        private final String key;
+
+        public CacheInvalidatedEvent(Object source, String key) {
+            super(source);
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    // 每次回调都要取一次锁，模拟清理缓存之类的固定开销
+    public static class InvalidationListener implements BatchApplicationListener<CacheInvalidatedEvent> {
+        private long invalidated;
+
+        @Override
+        public synchronized void onApplicationEvent(CacheInvalidatedEvent event) {
+            invalidated += event.getKey().hashCode();
+        }
+
+        @Override
+        public synchronized void onApplicationEvents(List<CacheInvalidatedEvent> events) {
+            for (CacheInvalidatedEvent event : events) {
+                invalidated += event.getKey().hashCode();
+            }
+        }
+    }
+
+    public static class AuditListener implements ApplicationListener<CacheInvalidatedEvent> {
+        private long audited;
+
+        @Override
+        public void onApplicationEvent(CacheInvalidatedEvent event) {
+            audited++;
+        }
+    }
+
+    @Param({"1000"})
+    public int eventCount;
+
+    @Param({"100", "1000"})
+    public int distinctKeys;
+
+    private SimpleApplicationEventMulticaster multicaster;
+    private CoalescingEventPublisher coalescingPublisher;
+    private List<CacheInvalidatedEvent> events;
+
+    @Setup
+    public void setUp() {
+        multicaster = new SimpleApplicationEventMulticaster();
+        for (int i = 0; i < 4; i++) {
+            multicaster.addApplicationListener(new InvalidationListener());
+        }
+        multicaster.addApplicationListener(new AuditListener());
+
+        ApplicationEventPublisher publisher = new ApplicationEventPublisher() {
+            @Override
+            public void publishEvent(ApplicationEvent event) {
+                multicaster.multicastEvent(event);
+            }
+
+            @Override
+            public void publishEvents(Collection<? extends ApplicationEvent> events) {
+                multicaster.multicastEvents(events);
+            }
+        };
+        coalescingPublisher = publisher.coalescing(60_000, Integer.MAX_VALUE,
+            event -> ((CacheInvalidatedEvent) event).getKey());
+
+        events = new ArrayList<>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            events.add(new CacheInvalidatedEvent(this, "key-" + (i % distinctKeys)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        coalescingPublisher.close();
+    }
+
+    @Benchmark
+    public void perEvent() {
+        for (CacheInvalidatedEvent event : events) {
+            multicaster.multicastEvent(event);
+        }
+    }
+
+    @Benchmark
+    public void batched() {
+        multicaster.multicastEvents(events);
+    }
+
+    @Benchmark
+    public void coalesced() {
+        coalescingPublisher.publishEvents(events);
+        coalescingPublisher.flush();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(EventPublicationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
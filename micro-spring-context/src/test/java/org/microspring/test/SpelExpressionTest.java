@@ -2,6 +2,7 @@ package org.microspring.test;
 
 import org.junit.Test;
 import org.microspring.context.support.AnnotationConfigApplicationContext;
+import org.microspring.core.spel.SpelParseException;
 import org.microspring.test.spel.SpelTestBeans.*;
 import static org.junit.Assert.*;
 
@@ -28,10 +29,31 @@ public class SpelExpressionTest {
         
         ErrorBean errorBean = context.getBean(ErrorBean.class);
         
-        // 验证错误情况下返回null
-        assertNull("Invalid bean reference should return null", errorBean.getInvalidBeanRef());
+        // 不存在的属性返回null
         assertNull("Invalid property should return null", errorBean.getInvalidProperty());
-        assertNull("Invalid expression should return null", errorBean.getInvalidExpression());
+
+        // 不存在的bean和语法错误在创建bean时报错
+        context.register(InvalidBeanRefBean.class);
+        Throwable beanRefError = rootCause(() -> context.getBean(InvalidBeanRefBean.class));
+        assertTrue(beanRefError instanceof IllegalArgumentException);
+        assertEquals("No bean named 'nonExistentBean' is defined", beanRefError.getMessage());
+
+        context.register(InvalidExpressionBean.class);
+        assertTrue(rootCause(() -> context.getBean(InvalidExpressionBean.class)) instanceof SpelParseException);
+    }
+
+    private static Throwable rootCause(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            return cause;
+        }
+        fail("Expected exception");
+        return null;
     }
 
     @Test
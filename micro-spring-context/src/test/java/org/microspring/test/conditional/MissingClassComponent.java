@@ -0,0 +1,12 @@
+package org.microspring.test.conditional;
+
+import org.microspring.core.annotation.ConditionalOnClass;
+import org.microspring.stereotype.Service;
+
+/**
+ * 要求的类不在类路径上，不应被注册
+ */
+@Service
+@ConditionalOnClass({"org.microspring.core.DefaultBeanFactory", "com.example.missing.Driver"})
+public class MissingClassComponent {
+}
@@ -0,0 +1,12 @@
+package org.microspring.test.conditional;
+
+import org.microspring.core.annotation.ConditionalOnClass;
+import org.microspring.stereotype.Component;
+
+/**
+ * 要求的类在类路径上，应被注册
+ */
+@Component
+@ConditionalOnClass("org.microspring.core.DefaultBeanFactory")
+public class PresentClassComponent {
+}
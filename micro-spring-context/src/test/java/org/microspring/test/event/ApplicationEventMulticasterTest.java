@@ -176,4 +176,58 @@ public class ApplicationEventMulticasterTest {
         assertTrue(events.contains("ApplicationEvent-ContextStartedEvent"));
         assertTrue(events.contains("ApplicationEvent-ContextRefreshedEvent"));
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testDispatchTableIsInvalidatedWhenListenersChange() {
+        SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+        TestListener first = new TestListener();
+        TestListener second = new TestListener();
+        multicaster.addApplicationListener(first);
+
+        multicaster.multicastEvent(new TestEvent(this));
+        multicaster.addApplicationListener(second);
+        multicaster.multicastEvent(new TestEvent(this));
+        multicaster.removeApplicationListener(first);
+        multicaster.multicastEvent(new TestEvent(this));
+
+        assertEquals(2, first.getEvents().size());
+        assertEquals(2, second.getEvents().size());
+    }
+
+    @Test
+    public void testSmartListenerIsMatchedPerSourceType() {
+        SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+        List<String> events = new ArrayList<>();
+        multicaster.addApplicationListener(new SmartApplicationListener() {
+            @Override
+            public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+                return TestEvent.class.isAssignableFrom(eventType);
+            }
+
+            @Override
+            public boolean supportsSourceType(Class<?> sourceType) {
+                return String.class == sourceType;
+            }
+
+            @Override
+            public void onApplicationEvent(ApplicationEvent event) {
+                events.add("smart:" + event.getSource());
+            }
+
+            @Override
+            public int getOrder() {
+                return 0;
+            }
+        });
+        TestListener listener = new TestListener();
+        multicaster.addApplicationListener(listener);
+
+        // 同一事件类型、不同事件源使用不同的分发表条目
+        multicaster.multicastEvent(new TestEvent("text"));
+        multicaster.multicastEvent(new TestEvent(this));
+        multicaster.multicastEvent(new TestEvent("more"));
+
+        assertEquals(java.util.Arrays.asList("smart:text", "smart:more"), events);
+        assertEquals(3, listener.getEvents().size());
+    }
+}
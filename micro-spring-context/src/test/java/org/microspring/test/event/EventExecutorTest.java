@@ -0,0 +1,210 @@
+package org.microspring.test.event;
+
+import org.junit.After;
+import org.junit.Test;
+import org.microspring.context.event.ApplicationEvent;
+import org.microspring.context.event.ApplicationListener;
+import org.microspring.context.event.Async;
+import org.microspring.context.event.SimpleApplicationEventMulticaster;
+import org.microspring.context.event.executor.BoundedEventExecutor;
+import org.microspring.context.event.executor.EventExecutor;
+import org.microspring.context.event.executor.EventExecutorMetrics;
+import org.microspring.context.event.executor.EventExecutors;
+import org.microspring.context.event.executor.VirtualThreadEventExecutor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class EventExecutorTest {
+
+    static class TestEvent extends ApplicationEvent {
+        public TestEvent(Object source) {
+            super(source);
+        }
+    }
+
+    static class LimitedListener implements ApplicationListener<TestEvent> {
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private final CountDownLatch processed;
+
+        LimitedListener(int events) {
+            this.processed = new CountDownLatch(events);
+        }
+
+        @Async(maxConcurrency = 1)
+        @Override
+        public void onApplicationEvent(TestEvent event) {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            processed.countDown();
+        }
+    }
+
+    // 处理第一个事件时再向自己发布一个事件
+    static class RepublishingListener implements ApplicationListener<TestEvent> {
+        private final CountDownLatch processed = new CountDownLatch(2);
+        private SimpleApplicationEventMulticaster multicaster;
+
+        @Async(maxConcurrency = 1)
+        @Override
+        public void onApplicationEvent(TestEvent event) {
+            if (event.getSource() != this) {
+                multicaster.multicastEvent(new TestEvent(this));
+            }
+            processed.countDown();
+        }
+    }
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private EventExecutor executor;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // 一个线程、队列容量 1：第一个任务占住线程，第二个任务占满队列
+    private CountDownLatch saturate(BoundedEventExecutor.BackPressurePolicy policy, Runnable queued)
+            throws InterruptedException {
+        executor = EventExecutors.bounded(1, 1, policy);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        executor.execute(queued);
+        return started;
+    }
+
+    @Test
+    public void testCallerRunsWhenQueueIsFull() throws InterruptedException {
+        saturate(BoundedEventExecutor.BackPressurePolicy.CALLER_RUNS, () -> { });
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+
+        executor.execute(() -> threads.add(Thread.currentThread()));
+
+        assertEquals(Thread.currentThread(), threads.get(0));
+        EventExecutorMetrics metrics = executor.getMetrics();
+        assertEquals(1, metrics.getCallerRunsCount());
+        assertEquals(1, metrics.getQueueDepth());
+        assertEquals(1, metrics.getActiveCount());
+    }
+
+    @Test
+    public void testDropOldestDiscardsQueuedTask() throws InterruptedException {
+        AtomicBoolean oldestRan = new AtomicBoolean();
+        AtomicBoolean oldestDiscarded = new AtomicBoolean();
+        saturate(BoundedEventExecutor.BackPressurePolicy.DROP_OLDEST, new EventExecutor.DiscardableTask() {
+            @Override
+            public void run() {
+                oldestRan.set(true);
+            }
+
+            @Override
+            public void onDiscard() {
+                oldestDiscarded.set(true);
+            }
+        });
+        CountDownLatch newestRan = new CountDownLatch(1);
+
+        executor.execute(newestRan::countDown);
+        release.countDown();
+
+        assertTrue(newestRan.await(1, TimeUnit.SECONDS));
+        assertFalse(oldestRan.get());
+        assertTrue(oldestDiscarded.get());
+        assertEquals(1, executor.getMetrics().getDroppedCount());
+    }
+
+    @Test
+    public void testBlockWaitsForQueueSpace() throws InterruptedException {
+        saturate(BoundedEventExecutor.BackPressurePolicy.BLOCK, () -> { });
+        CountDownLatch ran = new CountDownLatch(1);
+        Thread publisher = new Thread(() -> executor.execute(ran::countDown));
+        publisher.start();
+
+        // 队列满时发布者被阻塞
+        long deadline = System.currentTimeMillis() + 1000;
+        while (publisher.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(Thread.State.WAITING, publisher.getState());
+
+        release.countDown();
+        assertTrue(ran.await(1, TimeUnit.SECONDS));
+        publisher.join(1000);
+        EventExecutorMetrics metrics = executor.getMetrics();
+        assertEquals(3, metrics.getSubmittedCount());
+        assertEquals(3, metrics.getCompletedCount());
+        assertTrue(metrics.getMaxQueueLatencyNanos() > 0);
+    }
+
+    @Test
+    public void testListenerConcurrencyLimit() throws InterruptedException {
+        executor = EventExecutors.bounded(4, 16, BoundedEventExecutor.BackPressurePolicy.CALLER_RUNS);
+        SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+        multicaster.setTaskExecutor(executor);
+        LimitedListener listener = new LimitedListener(5);
+        multicaster.addApplicationListener(listener);
+
+        for (int i = 0; i < 5; i++) {
+            multicaster.multicastEvent(new TestEvent(this));
+        }
+
+        assertTrue(listener.processed.await(2, TimeUnit.SECONDS));
+        assertEquals(1, listener.maxRunning.get());
+    }
+
+    @Test
+    public void testLimitedListenerCanPublishToItself() throws InterruptedException {
+        executor = EventExecutors.bounded(2, 16, BoundedEventExecutor.BackPressurePolicy.CALLER_RUNS);
+        SimpleApplicationEventMulticaster multicaster = new SimpleApplicationEventMulticaster();
+        multicaster.setTaskExecutor(executor);
+        RepublishingListener listener = new RepublishingListener();
+        listener.multicaster = multicaster;
+        multicaster.addApplicationListener(listener);
+
+        multicaster.multicastEvent(new TestEvent("publisher"));
+
+        // 持有许可的监听器发布事件时不等待许可
+        assertTrue(listener.processed.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testVirtualThreadExecutor() throws InterruptedException {
+        if (!VirtualThreadEventExecutor.isSupported()) {
+            try {
+                EventExecutors.virtualThreadPerEvent();
+                fail("Should throw UnsupportedOperationException");
+            } catch (UnsupportedOperationException e) {
+                assertTrue(e.getMessage().contains("JDK 21"));
+            }
+            return;
+        }
+        executor = EventExecutors.virtualThreadPerEvent();
+        CountDownLatch ran = new CountDownLatch(1);
+        executor.execute(ran::countDown);
+        assertTrue(ran.await(1, TimeUnit.SECONDS));
+        assertEquals(0, executor.getMetrics().getQueueDepth());
+    }
+}
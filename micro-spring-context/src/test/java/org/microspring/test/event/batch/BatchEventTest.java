@@ -0,0 +1,93 @@
+package org.microspring.test.event.batch;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.microspring.context.event.CoalescingEventPublisher;
+import org.microspring.context.support.AnnotationConfigApplicationContext;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BatchEventTest {
+
+    private AnnotationConfigApplicationContext context;
+    private EntityChangeHandler handler;
+
+    @Before
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext("org.microspring.test.event.batch");
+        handler = context.getBean(EntityChangeHandler.class);
+    }
+
+    @After
+    public void tearDown() {
+        context.close();
+    }
+
+    private EntityChangedEvent change(String id, int version) {
+        return new EntityChangedEvent(this, id, version);
+    }
+
+    @Test
+    public void testPublishEventsDeliversOneBatch() {
+        List<EntityChangedEvent> events = Arrays.asList(change("a", 1), change("b", 1), change("c", 1));
+
+        context.publishEvents(events);
+
+        assertEquals(1, handler.getBatches().size());
+        assertEquals(events, handler.getBatches().get(0));
+        assertEquals(events, handler.getSingle());
+    }
+
+    @Test
+    public void testSingleEventIsDeliveredAsSingletonBatch() {
+        EntityChangedEvent event = change("a", 1);
+
+        context.publishEvent(event);
+
+        assertEquals(Collections.singletonList(Collections.singletonList(event)), handler.getBatches());
+        assertEquals(Collections.singletonList(event), handler.getSingle());
+    }
+
+    @Test
+    public void testCoalescingDeduplicatesByKey() {
+        try (CoalescingEventPublisher publisher = context.coalescing(60_000, 10,
+                event -> ((EntityChangedEvent) event).getEntityId())) {
+            publisher.publishEvent(change("a", 1));
+            publisher.publishEvent(change("b", 1));
+            publisher.publishEvent(change("a", 2));
+            assertEquals(2, publisher.getBufferedCount());
+            assertTrue(handler.getBatches().isEmpty());
+
+            publisher.flush();
+        }
+
+        assertEquals(1, handler.getBatches().size());
+        List<EntityChangedEvent> batch = handler.getBatches().get(0);
+        assertEquals("a", batch.get(0).getEntityId());
+        assertEquals(2, batch.get(0).getVersion());
+        assertEquals("b", batch.get(1).getEntityId());
+    }
+
+    @Test
+    public void testCoalescingFlushesOnSizeAndWindow() throws InterruptedException {
+        try (CoalescingEventPublisher publisher = context.coalescing(50, 2, null)) {
+            publisher.publishEvents(Arrays.asList(change("a", 1), change("a", 1)));
+            // 没有去重键时不去重，达到上限后立即发布
+            assertEquals(1, handler.getBatches().size());
+            assertEquals(2, handler.getBatches().get(0).size());
+
+            publisher.publishEvent(change("b", 1));
+            long deadline = System.currentTimeMillis() + 2000;
+            while (handler.getBatches().size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, handler.getBatches().size());
+            assertEquals(0, publisher.getBufferedCount());
+        }
+    }
+}
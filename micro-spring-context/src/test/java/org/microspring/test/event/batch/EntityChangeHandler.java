@@ -0,0 +1,32 @@
+package org.microspring.test.event.batch;
+
+import org.microspring.context.event.EventListener;
+import org.microspring.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@Component
+public class EntityChangeHandler {
+    private final List<List<EntityChangedEvent>> batches = Collections.synchronizedList(new ArrayList<>());
+    private final List<EntityChangedEvent> single = Collections.synchronizedList(new ArrayList<>());
+
+    @EventListener
+    public void onChanges(List<EntityChangedEvent> events) {
+        batches.add(new ArrayList<>(events));
+    }
+
+    @EventListener
+    public void onChange(EntityChangedEvent event) {
+        single.add(event);
+    }
+
+    public List<List<EntityChangedEvent>> getBatches() {
+        return batches;
+    }
+
+    public List<EntityChangedEvent> getSingle() {
+        return single;
+    }
+}
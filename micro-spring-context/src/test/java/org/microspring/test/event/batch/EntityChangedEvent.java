@@ -0,0 +1,22 @@
+package org.microspring.test.event.batch;
+
+import org.microspring.context.event.ApplicationEvent;
+
+public class EntityChangedEvent extends ApplicationEvent {
+    private final String entityId;
+    private final int version;
+
+    public EntityChangedEvent(Object source, String entityId, int version) {
+        super(source);
+        this.entityId = entityId;
+        this.version = version;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,12 @@
+package org.microspring.test.index;
+
+import org.microspring.core.annotation.ConditionalOnClass;
+import org.microspring.stereotype.Component;
+
+/**
+ * 索引中记录了不存在的依赖类，使用索引时不应被注册
+ */
+@Component
+@ConditionalOnClass("com.example.missing.Driver")
+public class ConditionalComponent {
+}
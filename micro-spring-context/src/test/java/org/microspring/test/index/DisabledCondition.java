@@ -0,0 +1,11 @@
+package org.microspring.test.index;
+
+import org.microspring.core.condition.Condition;
+import org.microspring.core.condition.ConditionContext;
+
+public class DisabledCondition implements Condition {
+    @Override
+    public boolean matches(ConditionContext context) {
+        return false;
+    }
+}
@@ -0,0 +1,12 @@
+package org.microspring.test.index;
+
+import org.microspring.core.annotation.Conditional;
+import org.microspring.stereotype.Component;
+
+/**
+ * @Conditional 不满足，使用索引和扫描时都不应被注册
+ */
+@Component
+@Conditional(DisabledCondition.class)
+public class GuardedComponent {
+}
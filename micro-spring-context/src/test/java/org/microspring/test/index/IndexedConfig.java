@@ -0,0 +1,13 @@
+package org.microspring.test.index;
+
+import org.microspring.context.annotation.Bean;
+import org.microspring.context.annotation.Configuration;
+
+@Configuration
+public class IndexedConfig {
+
+    @Bean
+    public String indexedGreeting() {
+        return "hello";
+    }
+}
@@ -0,0 +1,7 @@
+package org.microspring.test.index;
+
+import org.microspring.stereotype.Service;
+
+@Service
+public class IndexedService {
+}
@@ -0,0 +1,10 @@
+package org.microspring.test.index;
+
+import org.microspring.stereotype.Component;
+
+/**
+ * 不在测试索引中的组件，使用索引时不应被注册
+ */
+@Component
+public class UnindexedComponent {
+}
@@ -0,0 +1,21 @@
+package org.microspring.test.lazyinjection;
+
+import org.microspring.beans.factory.annotation.Lazy;
+import org.microspring.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component("reportGenerator")
+@Lazy
+public class HeavyReportGenerator implements ReportGenerator {
+    public static final AtomicInteger CREATED = new AtomicInteger();
+
+    public HeavyReportGenerator() {
+        CREATED.incrementAndGet();
+    }
+
+    @Override
+    public String generate() {
+        return "report";
+    }
+}
@@ -0,0 +1,13 @@
+package org.microspring.test.lazyinjection;
+
+import org.microspring.beans.factory.annotation.Lazy;
+import org.microspring.context.annotation.Bean;
+import org.microspring.context.annotation.Configuration;
+
+@Configuration
+public class ReportConfig {
+    @Bean
+    public ReportScheduler reportScheduler(@Lazy ReportGenerator reportGenerator) {
+        return new ReportScheduler(reportGenerator);
+    }
+}
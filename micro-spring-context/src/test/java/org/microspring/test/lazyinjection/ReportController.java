@@ -0,0 +1,16 @@
+package org.microspring.test.lazyinjection;
+
+import org.microspring.beans.factory.annotation.Autowired;
+import org.microspring.beans.factory.annotation.Lazy;
+import org.microspring.stereotype.Component;
+
+@Component
+public class ReportController {
+    @Autowired
+    @Lazy
+    private ReportGenerator reportGenerator;
+
+    public ReportGenerator getReportGenerator() {
+        return reportGenerator;
+    }
+}
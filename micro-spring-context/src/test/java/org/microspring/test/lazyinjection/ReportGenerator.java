@@ -0,0 +1,5 @@
+package org.microspring.test.lazyinjection;
+
+public interface ReportGenerator {
+    String generate();
+}
@@ -0,0 +1,13 @@
+package org.microspring.test.lazyinjection;
+
+public class ReportScheduler {
+    private final ReportGenerator reportGenerator;
+
+    public ReportScheduler(ReportGenerator reportGenerator) {
+        this.reportGenerator = reportGenerator;
+    }
+
+    public ReportGenerator getReportGenerator() {
+        return reportGenerator;
+    }
+}
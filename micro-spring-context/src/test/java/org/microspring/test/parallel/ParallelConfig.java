@@ -0,0 +1,28 @@
+package org.microspring.test.parallel;
+
+import org.microspring.context.annotation.Bean;
+import org.microspring.context.annotation.Configuration;
+
+@Configuration
+public class ParallelConfig {
+
+    @Bean
+    public SlowResource slowPoolA() {
+        return new SlowResource("a");
+    }
+
+    @Bean
+    public SlowResource slowPoolB() {
+        return new SlowResource("b");
+    }
+
+    @Bean
+    public SlowResource slowPoolC() {
+        return new SlowResource("c");
+    }
+
+    @Bean
+    public SlowResource slowPoolD() {
+        return new SlowResource("d");
+    }
+}
@@ -0,0 +1,17 @@
+package org.microspring.test.parallel;
+
+import org.microspring.beans.factory.annotation.Autowired;
+import org.microspring.beans.factory.annotation.Qualifier;
+import org.microspring.stereotype.Service;
+
+@Service
+public class ReportService {
+
+    @Autowired
+    @Qualifier("slowPoolA")
+    private SlowResource resource;
+
+    public SlowResource getResource() {
+        return resource;
+    }
+}
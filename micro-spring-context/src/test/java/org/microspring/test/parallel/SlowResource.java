@@ -0,0 +1,28 @@
+package org.microspring.test.parallel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模拟创建很慢的资源(例如连接池、缓存预热)
+ */
+public class SlowResource {
+    // 资源名称 -> 创建它的线程名
+    public static final Map<String, String> CREATION_THREADS = new ConcurrentHashMap<>();
+
+    private final String name;
+
+    public SlowResource(String name) {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.name = name;
+        CREATION_THREADS.put(name, Thread.currentThread().getName());
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -11,7 +11,18 @@ import org.microspring.context.scope.ScopeManager;
 import org.microspring.stereotype.Component;
 import org.microspring.beans.factory.annotation.Scope;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 public class WebScopeTest {
@@ -27,6 +38,8 @@ public class WebScopeTest {
     
     private AnnotationConfigApplicationContext context;
     private ScopeManager scopeManager;
+    // session 作用域的 bean 保存在会话属性中
+    private final Map<String, Object> sessionAttributes = new ConcurrentHashMap<>();
     
     @Component
     @Scope("request")
@@ -46,6 +59,15 @@ public class WebScopeTest {
         }
     }
     
+    @Component
+    @Scope("session")
+    public static class SerializableSessionBean implements Serializable {
+        private int count = 0;
+        public int increment() {
+            return ++count;
+        }
+    }
+    
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
@@ -56,6 +78,11 @@ public class WebScopeTest {
         when(request1.getRequestedSessionId()).thenReturn("request1");
         when(request2.getRequestedSessionId()).thenReturn("request2");
         when(session.getId()).thenReturn("session1");
+        when(session.getAttribute(anyString())).thenAnswer(inv -> sessionAttributes.get(inv.<String>getArgument(0)));
+        doAnswer(inv -> sessionAttributes.put(inv.getArgument(0), inv.getArgument(1)))
+            .when(session).setAttribute(anyString(), any());
+        doAnswer(inv -> sessionAttributes.remove(inv.<String>getArgument(0)))
+            .when(session).removeAttribute(anyString());
         
         // 创建并配置 context
         context = new AnnotationConfigApplicationContext();
@@ -134,4 +161,124 @@ public class WebScopeTest {
             scopeManager.setCurrentSession(null);
         }
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testRequestScopeIsReleasedWhenRequestEnds() {
+        scopeManager.setCurrentRequest(request1);
+        RequestScopedBean bean1 = (RequestScopedBean) context.getBean("requestScopedBean");
+        assertSame(bean1, context.getBean("requestScopedBean"));
+
+        // 请求结束后同一个请求对象再次进入，也不会拿到上一次的 bean
+        scopeManager.setCurrentRequest(null);
+        scopeManager.setCurrentRequest(request1);
+        assertNotSame(bean1, context.getBean("requestScopedBean"));
+        scopeManager.setCurrentRequest(null);
+    }
+
+    @Test
+    public void testConcurrentRequestsInSameSessionDoNotShareRequestBeans() throws InterruptedException {
+        // 两个请求的 requestedSessionId 相同
+        when(request2.getRequestedSessionId()).thenReturn("request1");
+        scopeManager.setCurrentRequest(request1);
+        Object bean1 = context.getBean("requestScopedBean");
+
+        AtomicReference<Object> bean2 = new AtomicReference<>();
+        Thread other = new Thread(() -> {
+            scopeManager.setCurrentRequest(request2);
+            bean2.set(context.getBean("requestScopedBean"));
+            scopeManager.setCurrentRequest(null);
+        });
+        other.start();
+        other.join();
+
+        assertNotNull(bean2.get());
+        assertNotSame(bean1, bean2.get());
+        assertSame(bean1, context.getBean("requestScopedBean"));
+        scopeManager.setCurrentRequest(null);
+    }
+
+    @Test
+    public void testSessionBeansLiveOnSessionAndEvictWhenIdle() throws InterruptedException {
+        try {
+            scopeManager.setCurrentRequest(request1);
+            scopeManager.setCurrentSession(session);
+            Object bean1 = context.getBean("sessionScopedBean");
+            assertNotNull(sessionAttributes.get(ScopeManager.SESSION_SCOPE_ATTRIBUTE));
+
+            scopeManager.destroySessionScope(session);
+            Object bean2 = context.getBean("sessionScopedBean");
+            assertNotSame(bean1, bean2);
+
+            scopeManager.setSessionIdleTimeoutMillis(20);
+            assertSame(bean2, context.getBean("sessionScopedBean"));
+            Thread.sleep(50);
+            assertNotSame(bean2, context.getBean("sessionScopedBean"));
+        } finally {
+            scopeManager.setSessionIdleTimeoutMillis(0);
+            scopeManager.setCurrentRequest(null);
+            scopeManager.setCurrentSession(null);
+        }
+    }
+
+    @Test
+    public void testSessionBeanFactoryCanCreateOtherSessionBeans() {
+        try {
+            scopeManager.setCurrentSession(session);
+            Object outer = scopeManager.getBean("outer", Scope.SESSION,
+                () -> new AtomicReference<>(scopeManager.getBean("inner", Scope.SESSION, Object::new)));
+            Object inner = scopeManager.getBean("inner", Scope.SESSION, Object::new);
+
+            assertSame(inner, ((AtomicReference<?>) outer).get());
+            assertSame(outer, scopeManager.getBean("outer", Scope.SESSION, Object::new));
+        } finally {
+            scopeManager.setCurrentSession(null);
+        }
+    }
+
+    @Test
+    public void testBoundRequestBelongsToOneScopeManager() {
+        ScopeManager other = new ScopeManager();
+        try {
+            scopeManager.setCurrentRequest(request1);
+            scopeManager.setCurrentSession(session);
+            assertNull(other.getCurrentRequest());
+            assertNull(other.getCurrentSession());
+
+            // 另一个容器清除绑定不影响当前容器
+            other.setCurrentRequest(null);
+            assertSame(request1, scopeManager.getCurrentRequest());
+        } finally {
+            scopeManager.setCurrentRequest(null);
+            scopeManager.setCurrentSession(null);
+        }
+    }
+
+    @Test
+    public void testSessionBeansSurviveSessionSerialization() throws Exception {
+        try {
+            scopeManager.setCurrentRequest(request1);
+            scopeManager.setCurrentSession(session);
+            Object plain = context.getBean("sessionScopedBean");
+            SerializableSessionBean stored = (SerializableSessionBean) context.getBean("serializableSessionBean");
+            stored.increment();
+
+            // 模拟容器持久化会话后再恢复
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(sessionAttributes.get(ScopeManager.SESSION_SCOPE_ATTRIBUTE));
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                sessionAttributes.put(ScopeManager.SESSION_SCOPE_ATTRIBUTE, in.readObject());
+            }
+
+            SerializableSessionBean restored = (SerializableSessionBean) context.getBean("serializableSessionBean");
+            assertNotSame(stored, restored);
+            assertEquals(2, restored.increment());
+            // 不可序列化的 bean 没有写出，恢复后重新创建
+            assertNotSame(plain, context.getBean("sessionScopedBean"));
+        } finally {
+            scopeManager.setCurrentRequest(null);
+            scopeManager.setCurrentSession(null);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.microspring.test.snapshot;
+
+import org.microspring.core.BeanFactoryPostProcessor;
+import org.microspring.core.DefaultBeanFactory;
+import org.microspring.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class CountingPostProcessor implements BeanFactoryPostProcessor {
+
+    public static final AtomicInteger INVOCATIONS = new AtomicInteger();
+
+    @Override
+    public void postProcessBeanFactory(DefaultBeanFactory beanFactory) {
+        INVOCATIONS.incrementAndGet();
+    }
+}
@@ -0,0 +1,13 @@
+package org.microspring.test.snapshot;
+
+import org.microspring.context.annotation.Bean;
+import org.microspring.context.annotation.Configuration;
+
+@Configuration
+public class SnapshotConfig {
+
+    @Bean
+    public String snapshotGreeting(SnapshotRepository snapshotRepository) {
+        return "hello from " + snapshotRepository.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,7 @@
+package org.microspring.test.snapshot;
+
+import org.microspring.stereotype.Repository;
+
+@Repository
+public class SnapshotRepository {
+}
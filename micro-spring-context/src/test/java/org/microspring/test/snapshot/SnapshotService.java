@@ -0,0 +1,15 @@
+package org.microspring.test.snapshot;
+
+import org.microspring.beans.factory.annotation.Autowired;
+import org.microspring.stereotype.Service;
+
+@Service
+public class SnapshotService {
+
+    @Autowired
+    private SnapshotRepository snapshotRepository;
+
+    public SnapshotRepository getSnapshotRepository() {
+        return snapshotRepository;
+    }
+}
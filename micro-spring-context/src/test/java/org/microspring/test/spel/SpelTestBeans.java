@@ -45,18 +45,21 @@ public class SpelTestBeans {
 
     @Component
     public static class ErrorBean {
-        @Value("#{nonExistentBean.price * 1.1}")
-        private Double invalidBeanRef;
-        
         @Value("#{beanB.nonExistentProperty + 100}")
         private Double invalidProperty;
         
+        public Double getInvalidProperty() { return invalidProperty; }
+    }
+
+    // 以下两个类不参与扫描，由测试单独注册，创建时应当失败
+    public static class InvalidBeanRefBean {
+        @Value("#{nonExistentBean.price * 1.1}")
+        private Double invalidBeanRef;
+    }
+
+    public static class InvalidExpressionBean {
         @Value("#{beanB.price * * 1.1}")
         private Double invalidExpression;
-        
-        public Double getInvalidBeanRef() { return invalidBeanRef; }
-        public Double getInvalidProperty() { return invalidProperty; }
-        public Double getInvalidExpression() { return invalidExpression; }
     }
 
     @Component
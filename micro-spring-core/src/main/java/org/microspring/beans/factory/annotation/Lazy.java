@@ -2,7 +2,12 @@ package org.microspring.beans.factory.annotation;
 
 import java.lang.annotation.*;
 
-@Target({ElementType.TYPE})
+/**
+ * 标注在类上表示bean延迟初始化；
+ * 标注在 @Autowired 字段、构造器参数或 @Bean 方法参数上表示注入延迟解析代理，第一次使用时才获取依赖。
+ * 接口类型的注入点使用 JDK 动态代理，类类型的注入点使用子类代理；final 类的注入点在创建bean时抛出 BeanCreationException
+ */
+@Target({ElementType.TYPE, ElementType.FIELD, ElementType.PARAMETER})
 @Retention(RetentionPolicy.RUNTIME)
 @Documented
 public @interface Lazy {
@@ -0,0 +1,296 @@
+package org.microspring.core;
+
+import org.microspring.core.beans.ConstructorArg;
+import org.microspring.core.beans.PropertyValue;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 刷新后(扫描、@Import/@Bean 处理、BeanFactoryPostProcessor 执行之后)的bean定义快照
+ * 保存类名、作用域、构造器参数、属性值、工厂方法、primary/lazy 标记和解析好的依赖顺序，
+ * 下次启动时类路径指纹一致就直接恢复定义，跳过整个发现过程。
+ *
+ * 快照只保存 BeanDefinition 接口上的信息，恢复后统一是 DefaultBeanDefinition；
+ * 构造器参数和属性值必须可序列化，否则 capture 会抛出 NotSerializableException
+ */
+public class BeanDefinitionSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // 快照格式版本，格式变化时递增，旧文件自动失效
+    private static final int FORMAT_VERSION = 2;
+
+    private static final Map<String, Class<?>> PRIMITIVE_TYPES = new HashMap<>();
+
+    static {
+        for (Class<?> type : new Class<?>[]{boolean.class, byte.class, char.class, short.class,
+                int.class, long.class, float.class, double.class, void.class}) {
+            PRIMITIVE_TYPES.put(type.getName(), type);
+        }
+    }
+
+    private final int formatVersion = FORMAT_VERSION;
+    private final String fingerprint;
+    // 按依赖顺序排列(被依赖的在前)
+    private final List<Definition> definitions;
+
+    private BeanDefinitionSnapshot(String fingerprint, List<Definition> definitions) {
+        this.fingerprint = fingerprint;
+        this.definitions = definitions;
+    }
+
+    /**
+     * 记录bean工厂中当前所有的bean定义
+     *
+     * @param fingerprint 生成快照时的类路径指纹
+     */
+    public static BeanDefinitionSnapshot capture(DefaultBeanFactory beanFactory, String fingerprint)
+            throws NotSerializableException {
+        List<String> order = new BeanDependencyGraph(beanFactory)
+            .getCreationOrder(new ArrayList<>(beanFactory.getBeanDefinitionNames()));
+        List<Definition> definitions = new ArrayList<>(order.size());
+        for (String beanName : order) {
+            BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+            if (bd != null) {
+                definitions.add(new Definition(beanName, bd));
+            }
+        }
+        return new BeanDefinitionSnapshot(fingerprint, definitions);
+    }
+
+    /**
+     * 读取快照文件，文件不存在、损坏或格式版本不一致时返回 null
+     */
+    public static BeanDefinitionSnapshot read(File file) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            Object object = new ObjectInputStream(in).readObject();
+            if (object instanceof BeanDefinitionSnapshot
+                    && ((BeanDefinitionSnapshot) object).formatVersion == FORMAT_VERSION) {
+                return (BeanDefinitionSnapshot) object;
+            }
+            return null;
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 写入快照文件：先写临时文件再改名，避免并发启动的进程读到写了一半的文件
+     */
+    public void write(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable to create directory: " + parent);
+        }
+        File temp = new File(parent, file.getName() + ".tmp");
+        try (ObjectOutputStream out = new ObjectOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeObject(this);
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+        if (!temp.renameTo(file)) {
+            file.delete();
+            if (!temp.renameTo(file)) {
+                temp.delete();
+                throw new IOException("Unable to replace snapshot file: " + file);
+            }
+        }
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public boolean matches(String fingerprint) {
+        return this.fingerprint != null && this.fingerprint.equals(fingerprint);
+    }
+
+    /**
+     * 快照中bean的依赖顺序(被依赖的在前)
+     */
+    public List<String> getCreationOrder() {
+        List<String> order = new ArrayList<>(definitions.size());
+        for (Definition definition : definitions) {
+            order.add(definition.beanName);
+        }
+        return order;
+    }
+
+    /**
+     * 把快照中的定义按依赖顺序注册到bean工厂。
+     * 先解析出所有类和方法再注册，任何一个解析失败都不会留下部分定义
+     *
+     * @throws ClassNotFoundException 快照引用的类或方法已不存在
+     */
+    public void restore(DefaultBeanFactory beanFactory, ClassLoader classLoader) throws ClassNotFoundException {
+        Map<String, BeanDefinition> resolved = new LinkedHashMap<>();
+        for (Definition definition : definitions) {
+            resolved.put(definition.beanName, definition.toBeanDefinition(classLoader));
+        }
+        for (Map.Entry<String, BeanDefinition> entry : resolved.entrySet()) {
+            beanFactory.registerBeanDefinition(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static Class<?> resolveClass(String className, ClassLoader classLoader) throws ClassNotFoundException {
+        if (className == null) {
+            return null;
+        }
+        Class<?> primitive = PRIMITIVE_TYPES.get(className);
+        return primitive != null ? primitive : Class.forName(className, false, classLoader);
+    }
+
+    private static String nameOf(Class<?> type) {
+        return type != null ? type.getName() : null;
+    }
+
+    private static Object checkSerializable(String beanName, Object value) throws NotSerializableException {
+        if (value != null && !(value instanceof Serializable)) {
+            throw new NotSerializableException("Bean '" + beanName + "' holds a non-serializable value of type "
+                + value.getClass().getName());
+        }
+        return value;
+    }
+
+    /**
+     * 一个bean定义的可序列化形式，类型都以类名保存
+     */
+    private static class Definition implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String beanName;
+        private final String className;
+        private final String scope;
+        private final boolean lazyInit;
+        private final boolean primary;
+        private final String initMethodName;
+        private final String destroyMethodName;
+        private final List<Argument> constructorArgs = new ArrayList<>();
+        private final List<Property> propertyValues = new ArrayList<>();
+        private final String factoryBeanClassName;
+        private final String factoryMethodDeclaringClass;
+        private final String factoryMethodName;
+        private final String[] factoryMethodParameterTypes;
+
+        Definition(String beanName, BeanDefinition bd) throws NotSerializableException {
+            this.beanName = beanName;
+            this.className = nameOf(bd.getBeanClass());
+            this.scope = bd.getScope();
+            this.lazyInit = bd.isLazyInit();
+            this.primary = bd.isPrimary();
+            this.initMethodName = bd.getInitMethodName();
+            this.destroyMethodName = bd.getDestroyMethodName();
+            for (ConstructorArg arg : bd.getConstructorArgs()) {
+                constructorArgs.add(new Argument(arg.getRef(), checkSerializable(beanName, arg.getValue()),
+                    nameOf(arg.getType()), arg.isLazy()));
+            }
+            for (PropertyValue pv : bd.getPropertyValues()) {
+                propertyValues.add(new Property(pv.getName(), checkSerializable(beanName, pv.getValue()),
+                    nameOf(pv.getType()), pv.isRef()));
+            }
+            this.factoryBeanClassName = nameOf(bd.getFactoryBeanClass());
+            Method factoryMethod = bd.getFactoryMethod();
+            if (factoryMethod != null) {
+                this.factoryMethodDeclaringClass = factoryMethod.getDeclaringClass().getName();
+                this.factoryMethodName = factoryMethod.getName();
+                Class<?>[] parameterTypes = factoryMethod.getParameterTypes();
+                this.factoryMethodParameterTypes = new String[parameterTypes.length];
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    this.factoryMethodParameterTypes[i] = parameterTypes[i].getName();
+                }
+            } else {
+                this.factoryMethodDeclaringClass = null;
+                this.factoryMethodName = null;
+                this.factoryMethodParameterTypes = null;
+            }
+        }
+
+        BeanDefinition toBeanDefinition(ClassLoader classLoader) throws ClassNotFoundException {
+            DefaultBeanDefinition bd = new DefaultBeanDefinition(resolveClass(className, classLoader));
+            if (scope != null) {
+                bd.setScope(scope);
+            }
+            bd.setLazyInit(lazyInit);
+            bd.setPrimary(primary);
+            bd.setInitMethodName(initMethodName);
+            bd.setDestroyMethodName(destroyMethodName);
+            for (Argument arg : constructorArgs) {
+                ConstructorArg constructorArg = new ConstructorArg(arg.ref, arg.value, resolveClass(arg.type, classLoader));
+                constructorArg.setLazy(arg.lazy);
+                bd.addConstructorArg(constructorArg);
+            }
+            for (Property property : propertyValues) {
+                bd.addPropertyValue(new PropertyValue(property.name, property.value,
+                    resolveClass(property.type, classLoader), property.ref));
+            }
+            bd.setFactoryBeanClass(resolveClass(factoryBeanClassName, classLoader));
+            if (factoryMethodName != null) {
+                Class<?> declaringClass = resolveClass(factoryMethodDeclaringClass, classLoader);
+                Class<?>[] parameterTypes = new Class<?>[factoryMethodParameterTypes.length];
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    parameterTypes[i] = resolveClass(factoryMethodParameterTypes[i], classLoader);
+                }
+                try {
+                    bd.setFactoryMethod(declaringClass.getDeclaredMethod(factoryMethodName, parameterTypes));
+                } catch (NoSuchMethodException e) {
+                    throw new ClassNotFoundException("Factory method no longer exists: "
+                        + factoryMethodDeclaringClass + "." + factoryMethodName, e);
+                }
+            }
+            return bd;
+        }
+    }
+
+    private static class Argument implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String ref;
+        private final Object value;
+        private final String type;
+        private final boolean lazy;
+
+        Argument(String ref, Object value, String type, boolean lazy) {
+            this.ref = ref;
+            this.value = value;
+            this.type = type;
+            this.lazy = lazy;
+        }
+    }
+
+    private static class Property implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final Object value;
+        private final String type;
+        private final boolean ref;
+
+        Property(String name, Object value, String type, boolean ref) {
+            this.name = name;
+            this.value = value;
+            this.type = type;
+            this.ref = ref;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package org.microspring.core;
+
+import org.microspring.beans.factory.annotation.Autowired;
+import org.microspring.beans.factory.annotation.Qualifier;
+import org.microspring.core.beans.ConstructorArg;
+import org.microspring.core.beans.PropertyValue;
+
+import javax.annotation.Resource;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bean依赖关系图
+ * 依赖来源：构造器参数引用、PropertyValue引用、工厂方法所在的配置类、
+ * 以及 @Autowired/@Resource 标注的构造器、字段和方法
+ */
+public class BeanDependencyGraph {
+
+    // beanName -> 它依赖的bean
+    private final Map<String, Set<String>> dependencies = new LinkedHashMap<>();
+    // beanName -> 依赖它的bean
+    private final Map<String, Set<String>> dependents = new HashMap<>();
+
+    public BeanDependencyGraph(DefaultBeanFactory beanFactory) {
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+            if (bd == null) {
+                continue;
+            }
+            Set<String> deps = new LinkedHashSet<>();
+            collectDependencies(beanFactory, bd, deps);
+            deps.remove(beanName);
+            deps.removeIf(dep -> !beanFactory.containsBean(dep));
+            addBean(beanName, deps);
+        }
+    }
+
+    private void addBean(String beanName, Set<String> deps) {
+        dependencies.put(beanName, deps);
+        dependents.computeIfAbsent(beanName, k -> new LinkedHashSet<>());
+        for (String dep : deps) {
+            dependents.computeIfAbsent(dep, k -> new LinkedHashSet<>()).add(beanName);
+        }
+    }
+
+    /**
+     * 获取bean直接依赖的bean名称
+     */
+    public Set<String> getDependencies(String beanName) {
+        Set<String> deps = dependencies.get(beanName);
+        return deps != null ? Collections.unmodifiableSet(deps) : Collections.emptySet();
+    }
+
+    /**
+     * 获取直接依赖该bean的bean名称
+     */
+    public Set<String> getDependents(String beanName) {
+        Set<String> deps = dependents.get(beanName);
+        return deps != null ? Collections.unmodifiableSet(deps) : Collections.emptySet();
+    }
+
+    /**
+     * 按依赖顺序排列(被依赖的在前)，循环依赖按首次访问顺序打断
+     */
+    public List<String> getCreationOrder(Collection<String> beanNames) {
+        Set<String> wanted = new HashSet<>(beanNames);
+        Set<String> visited = new HashSet<>();
+        List<String> order = new ArrayList<>();
+        for (String beanName : beanNames) {
+            visit(beanName, wanted, visited, order);
+        }
+        return order;
+    }
+
+    private void visit(String beanName, Set<String> wanted, Set<String> visited, List<String> order) {
+        if (!visited.add(beanName)) {
+            return;
+        }
+        for (String dep : getDependencies(beanName)) {
+            visit(dep, wanted, visited, order);
+        }
+        if (wanted.contains(beanName)) {
+            order.add(beanName);
+        }
+    }
+
+    /**
+     * 将所有bean划分为创建分组：存在循环依赖的bean(强连通分量)归为同一组，
+     * 返回的分组按依赖顺序排列，被依赖的分组在前。
+     * 一个分组只需等待它所依赖的分组完成，互不依赖的分组可以并发创建
+     */
+    public List<CreationGroup> getCreationGroups() {
+        TarjanState state = new TarjanState();
+        for (String beanName : dependencies.keySet()) {
+            if (!state.index.containsKey(beanName)) {
+                strongConnect(beanName, state);
+            }
+        }
+
+        // 分组之间的依赖关系
+        for (CreationGroup group : state.groups) {
+            for (String beanName : group.beanNames) {
+                for (String dep : getDependencies(beanName)) {
+                    CreationGroup depGroup = state.groupOf.get(dep);
+                    if (depGroup != null && depGroup != group) {
+                        group.dependencies.add(depGroup);
+                    }
+                }
+            }
+        }
+        return state.groups;
+    }
+
+    private static class TarjanState {
+        private int counter = 0;
+        private final Map<String, Integer> index = new HashMap<>();
+        private final Map<String, Integer> lowLink = new HashMap<>();
+        private final List<String> stack = new ArrayList<>();
+        private final Set<String> onStack = new HashSet<>();
+        private final List<CreationGroup> groups = new ArrayList<>();
+        private final Map<String, CreationGroup> groupOf = new HashMap<>();
+    }
+
+    private void strongConnect(String beanName, TarjanState state) {
+        state.index.put(beanName, state.counter);
+        state.lowLink.put(beanName, state.counter);
+        state.counter++;
+        state.stack.add(beanName);
+        state.onStack.add(beanName);
+
+        for (String dep : getDependencies(beanName)) {
+            if (!state.index.containsKey(dep)) {
+                strongConnect(dep, state);
+                state.lowLink.put(beanName, Math.min(state.lowLink.get(beanName), state.lowLink.get(dep)));
+            } else if (state.onStack.contains(dep)) {
+                state.lowLink.put(beanName, Math.min(state.lowLink.get(beanName), state.index.get(dep)));
+            }
+        }
+
+        // 根节点：弹出整个强连通分量，Tarjan 算法保证依赖的分量先于当前分量产生
+        if (state.lowLink.get(beanName).equals(state.index.get(beanName))) {
+            List<String> members = new ArrayList<>();
+            String member;
+            do {
+                member = state.stack.remove(state.stack.size() - 1);
+                state.onStack.remove(member);
+                members.add(member);
+            } while (!member.equals(beanName));
+            // 组内按依赖顺序排列
+            CreationGroup group = new CreationGroup(getCreationOrder(members));
+            for (String name : members) {
+                state.groupOf.put(name, group);
+            }
+            state.groups.add(group);
+        }
+    }
+
+    /**
+     * 一组需要在同一线程中按顺序创建的bean
+     */
+    public static class CreationGroup {
+        private final List<String> beanNames;
+        private final Set<CreationGroup> dependencies = new LinkedHashSet<>();
+
+        CreationGroup(List<String> beanNames) {
+            this.beanNames = beanNames;
+        }
+
+        public List<String> getBeanNames() {
+            return Collections.unmodifiableList(beanNames);
+        }
+
+        public Set<CreationGroup> getDependencies() {
+            return Collections.unmodifiableSet(dependencies);
+        }
+
+        @Override
+        public String toString() {
+            return "CreationGroup" + beanNames;
+        }
+    }
+
+    private void collectDependencies(DefaultBeanFactory beanFactory, BeanDefinition bd, Set<String> deps) {
+        // 1. 构造器参数/工厂方法参数引用
+        for (ConstructorArg arg : bd.getConstructorArgs()) {
+            if (arg.isRef()) {
+                deps.add(arg.getRef());
+            }
+        }
+
+        // 2. 属性引用(包括List/Map中的引用)
+        for (PropertyValue pv : bd.getPropertyValues()) {
+            if (!pv.isRef()) {
+                continue;
+            }
+            Object ref = pv.getRef();
+            if (ref instanceof String) {
+                deps.add((String) ref);
+            } else if (ref instanceof Collection) {
+                for (Object item : (Collection<?>) ref) {
+                    if (item instanceof String) {
+                        deps.add((String) item);
+                    }
+                }
+            } else if (ref instanceof Map) {
+                for (Object item : ((Map<?, ?>) ref).values()) {
+                    if (item instanceof String) {
+                        deps.add((String) item);
+                    }
+                }
+            }
+        }
+
+        // 3. 工厂方法依赖所在的配置类
+        if (bd.getFactoryMethod() != null && bd.getFactoryBeanClass() != null) {
+            Collections.addAll(deps, beanFactory.getBeanNamesForType(bd.getFactoryBeanClass()));
+        }
+
+        // 4. 注解声明的依赖
+        Class<?> beanClass = bd.getBeanClass();
+        if (beanClass == null || beanClass.isPrimitive() || beanClass.isArray()) {
+            return;
+        }
+        try {
+            for (Constructor<?> constructor : beanClass.getDeclaredConstructors()) {
+                if (constructor.isAnnotationPresent(Autowired.class)) {
+                    for (Parameter param : constructor.getParameters()) {
+                        addTypeDependency(beanFactory, param.getType(), param.getParameterizedType(),
+                            param.getAnnotation(Qualifier.class), deps);
+                    }
+                }
+            }
+            for (Field field : beanClass.getDeclaredFields()) {
+                if (field.isAnnotationPresent(Autowired.class)) {
+                    addTypeDependency(beanFactory, field.getType(), field.getGenericType(),
+                        field.getAnnotation(Qualifier.class), deps);
+                }
+                Resource resource = field.getAnnotation(Resource.class);
+                if (resource != null) {
+                    String name = resource.name().isEmpty() ? field.getName() : resource.name();
+                    deps.add(name);
+                    addTypeDependency(beanFactory, field.getType(), field.getGenericType(), null, deps);
+                }
+            }
+            for (Method method : beanClass.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(Autowired.class) || method.isAnnotationPresent(Resource.class)) {
+                    for (Parameter param : method.getParameters()) {
+                        addTypeDependency(beanFactory, param.getType(), param.getParameterizedType(),
+                            param.getAnnotation(Qualifier.class), deps);
+                    }
+                }
+            }
+        } catch (NoClassDefFoundError e) {
+            // 类的依赖不完整时忽略注解依赖，由创建过程本身报告错误
+        }
+    }
+
+    private void addTypeDependency(DefaultBeanFactory beanFactory, Class<?> type, Type genericType,
+                                   Qualifier qualifier, Set<String> deps) {
+        if (qualifier != null) {
+            deps.add(qualifier.value());
+            return;
+        }
+        Class<?> lookupType = type;
+        if ((List.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type))
+                && genericType instanceof ParameterizedType) {
+            Type[] typeArgs = ((ParameterizedType) genericType).getActualTypeArguments();
+            Type elementType = typeArgs[typeArgs.length - 1];
+            if (!(elementType instanceof Class)) {
+                return;
+            }
+            lookupType = (Class<?>) elementType;
+        }
+        if (lookupType.isPrimitive() || lookupType.getName().startsWith("java.")) {
+            return;
+        }
+        // 默认名称(类名首字母小写)和按类型匹配的bean都视为依赖
+        String simpleName = lookupType.getSimpleName();
+        if (!simpleName.isEmpty()) {
+            deps.add(Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1));
+        }
+        Collections.addAll(deps, beanFactory.getBeanNamesForType(lookupType));
+    }
+}
@@ -0,0 +1,41 @@
+package org.microspring.core;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Bean实例化策略
+ * 负责调用构造器、工厂方法、注入方法和字段赋值，由 DefaultBeanFactory 在创建bean时使用。
+ * 目标方法本身抛出的异常统一包装为 InvocationTargetException，与反射调用的语义保持一致
+ */
+public interface BeanInstantiationStrategy {
+
+    /**
+     * 使用构造器创建实例
+     *
+     * @param constructor 已设置为可访问的构造器
+     * @param args 构造器参数
+     * @return 新实例
+     */
+    Object instantiate(Constructor<?> constructor, Object... args) throws Exception;
+
+    /**
+     * 调用工厂方法、init方法或注入方法
+     *
+     * @param target 目标对象，静态方法时为 null
+     * @param method 已设置为可访问的方法
+     * @param args 方法参数
+     * @return 方法返回值
+     */
+    Object invoke(Object target, Method method, Object... args) throws Exception;
+
+    /**
+     * 为字段赋值
+     *
+     * @param target 目标对象
+     * @param field 已设置为可访问的字段
+     * @param value 字段值
+     */
+    void setField(Object target, Field field, Object value) throws Exception;
+}
@@ -2,51 +2,98 @@ package org.microspring.core;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Set;
 import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
 import java.lang.annotation.Annotation;
 import java.util.HashSet;
-import java.lang.reflect.Parameter;
-import java.lang.reflect.Type;
-import java.lang.reflect.ParameterizedType;
-import javax.annotation.Resource;
+import java.util.LinkedHashSet;
+import java.util.Collections;
 
+import org.microspring.core.io.StaxXmlBeanDefinitionReader;
 import org.microspring.core.io.XmlBeanDefinitionReader;
 import org.microspring.core.beans.ConstructorArg;
 import org.microspring.core.beans.PropertyValue;
 import org.microspring.core.exception.CircularDependencyException;
 import org.microspring.core.aware.BeanNameAware;
-import org.microspring.beans.factory.annotation.Autowired;
-import org.microspring.beans.factory.annotation.Qualifier;
 import org.microspring.core.aware.BeanFactoryAware;
 import org.microspring.core.exception.BeanCreationException;
 import org.microspring.core.exception.NoSuchBeanDefinitionException;
-import org.microspring.beans.factory.annotation.Value;
 import org.microspring.beans.factory.FactoryBean;
 import org.microspring.core.env.Environment;
+import org.microspring.core.startup.StartupStep;
+import org.microspring.core.startup.StartupTimeline;
+import org.microspring.core.shutdown.ShutdownReport;
 
 public class DefaultBeanFactory implements BeanFactory {
+
+    /**
+     * 获取 FactoryBean 本身(而不是它的产品)时在bean名称前加的前缀
+     */
+    public static final String FACTORY_BEAN_PREFIX = "&";
+
+    /**
+     * 选择 XML 读取器的系统属性，见 {@link #loadBeanDefinitions(String...)}
+     */
+    public static final String XML_READER_PROPERTY = "microspring.xml.reader";
     
     private final Map<String, BeanDefinition> beanDefinitionMap = new ConcurrentHashMap<>();
     private final Map<String, Object> singletonObjects = new ConcurrentHashMap<>();
     
     private final Map<String, Object> earlySingletonObjects = new ConcurrentHashMap<>();
     private final Map<String, ObjectFactory<?>> singletonFactories = new ConcurrentHashMap<>();
-    private final Set<String> singletonsCurrentlyInCreation = new HashSet<>();
+    // 当前线程正在创建的bean，按线程隔离，允许不同线程并发创建互不相关的单例
+    private final ThreadLocal<Set<String>> singletonsCurrentlyInCreation = ThreadLocal.withInitial(HashSet::new);
+    // 正在创建的单例：beanName -> 创建记录，其他线程获取同一个单例时只等待这一个bean
+    private final Map<String, SingletonCreation> singletonCreations = new ConcurrentHashMap<>();
+    // 正在等待其他线程创建单例的线程 -> 等待的创建记录，用于发现跨线程的循环等待
+    private final Map<Thread, SingletonCreation> waitingThreads = new ConcurrentHashMap<>();
+    // 早期引用锁，按bean名称区分：保证一个bean的早期引用只生成一次，并与创建完成时的交接互斥
+    private final Map<String, Object> singletonLocks = new ConcurrentHashMap<>();
+    // 等待其他线程创建单例时，重新检查循环等待的间隔
+    private static final long WAIT_CHECK_INTERVAL_MILLIS = 10;
     
-    private boolean closed = false;
+    private volatile boolean closed = false;
     
     private final List<BeanPostProcessor> beanPostProcessors = new ArrayList<>();
     
     private Environment environment;
 
+    // 类型索引：类型(包括所有父类和接口) -> bean名称，注册时构建，移除时失效
+    private final Map<Class<?>, Set<String>> beanNamesByType = new ConcurrentHashMap<>();
+    // FactoryBean 的产品类型缓存：beanName -> getObjectType()
+    private final Map<String, Class<?>> factoryBeanObjectTypes = new ConcurrentHashMap<>();
+    // 单例 FactoryBean 的产品缓存：beanName -> getObject()
+    private final Map<String, Object> factoryBeanObjectCache = new ConcurrentHashMap<>();
+    // getBean(Class) 的解析结果缓存(已处理@Primary和精确匹配)：类型 -> beanName
+    private final Map<Class<?>, String> resolvedBeanNamesByType = new ConcurrentHashMap<>();
+    // 类 -> 注入元数据
+    private final Map<Class<?>, InjectionMetadata> injectionMetadataCache = new ConcurrentHashMap<>();
+    // 构造器/工厂方法/注入方法/字段的调用策略
+    private BeanInstantiationStrategy instantiationStrategy = new MethodHandleInstantiationStrategy();
+    // 启动时间线，默认不记录
+    private StartupTimeline startupTimeline = StartupTimeline.disabled();
+    // 销毁回调的超时时间和并发度
+    private long destroyTimeoutMillis = 10000;
+    private int destroyParallelism = Runtime.getRuntime().availableProcessors();
+    private volatile ShutdownReport shutdownReport;
+
     public void removeBeanDefinition(String beanName) {
-        this.beanDefinitionMap.remove(beanName);
+        BeanDefinition removed = this.beanDefinitionMap.remove(beanName);
+        if (removed != null) {
+            removeFromTypeIndex(beanName, removed);
+        }
     }
 
     public Environment getEnvironment() {
@@ -58,30 +105,98 @@ public class DefaultBeanFactory implements BeanFactory {
     }
 
     public void registerBeanDefinition(String beanName, BeanDefinition beanDefinition) {
-        this.beanDefinitionMap.put(beanName, beanDefinition);
+        BeanDefinition existing = this.beanDefinitionMap.put(beanName, beanDefinition);
+        if (existing != null) {
+            removeFromTypeIndex(beanName, existing);
+        }
+        addToTypeIndex(beanName, beanDefinition);
     }
 
+    private void addToTypeIndex(String beanName, BeanDefinition bd) {
+        Class<?> beanClass = bd.getBeanClass();
+        if (beanClass != null) {
+            for (Class<?> type : getTypeHierarchy(beanClass)) {
+                Set<String> names = beanNamesByType.computeIfAbsent(type, 
+                    k -> Collections.synchronizedSet(new LinkedHashSet<>()));
+                names.add(beanName);
+            }
+        }
+        this.resolvedBeanNamesByType.clear();
+    }
+
+    private void removeFromTypeIndex(String beanName, BeanDefinition bd) {
+        Class<?> beanClass = bd.getBeanClass();
+        if (beanClass != null) {
+            for (Class<?> type : getTypeHierarchy(beanClass)) {
+                Set<String> names = beanNamesByType.get(type);
+                if (names != null) {
+                    names.remove(beanName);
+                }
+            }
+        }
+        this.factoryBeanObjectTypes.remove(beanName);
+        this.factoryBeanObjectCache.remove(beanName);
+        this.resolvedBeanNamesByType.clear();
+    }
+
+    /**
+     * 收集类本身、所有父类以及所有(包括继承来的)接口
+     */
+    private Set<Class<?>> getTypeHierarchy(Class<?> clazz) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Class<?> current = clazz;
+        while (current != null) {
+            types.add(current);
+            collectInterfaces(current, types);
+            current = current.getSuperclass();
+        }
+        return types;
+    }
+
+    private void collectInterfaces(Class<?> clazz, Set<Class<?>> types) {
+        for (Class<?> ifc : clazz.getInterfaces()) {
+            if (types.add(ifc)) {
+                collectInterfaces(ifc, types);
+            }
+        }
+    }
+
+    /**
+     * 根据类型获取所有匹配的bean名称(按注册顺序)，不包括FactoryBean的产品类型
+     */
+    public String[] getBeanNamesForType(Class<?> type) {
+        Set<String> names = beanNamesByType.get(type);
+        if (names == null) {
+            return new String[0];
+        }
+        synchronized (names) {
+            return names.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * 名称以 & 开头时返回 FactoryBean 本身，否则返回它的产品
+     */
     @Override
     public Object getBean(String name) {
-        BeanDefinition bd = getBeanDefinition(name);
+        String beanName = transformedBeanName(name);
+        BeanDefinition bd = getBeanDefinition(beanName);
         if (bd == null) {
             throw new NoSuchBeanDefinitionException(name);
         }
         
+        Object bean;
         if (bd.isSingleton()) {
-            // 对于单例，先检查缓存
-            Object singleton = singletonObjects.get(name);
-            if (singleton != null) {
-                return singleton;
+            // 对于单例，先检查缓存；如果缓存中没有，加锁创建并缓存
+            bean = singletonObjects.get(beanName);
+            if (bean == null) {
+                bean = createSingleton(beanName, () -> createBean(beanName, bd));
             }
-            // 如果缓存中没有，创建并缓存
-            singleton = createBean(name, bd);
-            singletonObjects.put(name, singleton);
-            return singleton;
+        } else {
+            // 非单例(原型)每次都创建新的
+            bean = createBean(beanName, bd);
         }
-        
-        // 非单例(原型)每次都创建新的
-        return createBean(name, bd);
+        return getObjectForBeanInstance(name, beanName, bean);
     }
 
     @Override
@@ -91,19 +206,13 @@ public class DefaultBeanFactory implements BeanFactory {
 
     @SuppressWarnings("unchecked")
     protected <T> T doGetBean(String name, Class<T> requiredType){
+        String beanName = transformedBeanName(name);
         try {
             // 1. 先尝试从缓存获取(1级、2级、3级)
-            Object bean = getSingleton(name, true);
+            Object bean = getSingleton(beanName, true);
             if (bean != null) {
                 // 若 bean 已存在，则可进行类型检查
-                if (bean instanceof FactoryBean) {
-                    try {
-                        FactoryBean<?> factoryBean = (FactoryBean<?>) bean;
-                        bean = factoryBean.getObject();
-                    } catch (Exception e) {
-                        throw new BeanCreationException(name, "FactoryBean threw exception on object creation", e);
-                    }
-                }
+                bean = getObjectForBeanInstance(name, beanName, bean);
                 
                 if (requiredType != null && !requiredType.isInstance(bean)) {
                     throw new BeanCreationException(name, 
@@ -113,27 +222,20 @@ public class DefaultBeanFactory implements BeanFactory {
             }
 
             // 2. beanDefinition
-            BeanDefinition beanDefinition = getBeanDefinition(name);
+            BeanDefinition beanDefinition = getBeanDefinition(beanName);
             if (beanDefinition == null) {
                 throw new NoSuchBeanDefinitionException(name);
             }
 
             // 3. 创建Bean(单例或原型)
             if (beanDefinition.isSingleton()) {
-                bean = createSingleton(name, () -> createBean(name, beanDefinition));
+                bean = createSingleton(beanName, () -> createBean(beanName, beanDefinition));
             } else {
-                bean = createBean(name, beanDefinition);
+                bean = createBean(beanName, beanDefinition);
             }
 
             // 4. 处理 FactoryBean
-            if (bean instanceof FactoryBean) {
-                try {
-                    FactoryBean<?> factoryBean = (FactoryBean<?>) bean;
-                    bean = factoryBean.getObject();
-                } catch (Exception e) {
-                    throw new BeanCreationException(name, "FactoryBean threw exception on object creation", e);
-                }
-            }
+            bean = getObjectForBeanInstance(name, beanName, bean);
 
             // 5. 类型检查
             if (requiredType != null && !requiredType.isInstance(bean)) {
@@ -156,10 +258,14 @@ public class DefaultBeanFactory implements BeanFactory {
      * 核心：创建Bean的完整流程
      */
     public Object createBean(String beanName, BeanDefinition bd) {
-        singletonsCurrentlyInCreation.add(beanName);
+        singletonsCurrentlyInCreation.get().add(beanName);
+        // 各阶段的步骤只在正常路径上结束，异常时由外层步骤一并收尾
+        StartupStep beanStep = startupTimeline.start("bean", beanName);
         try {
             // 1. 实例化原始对象
+            StartupStep step = startupTimeline.start("bean.instantiate", beanName);
             Object rawBean = createBeanInstance(beanName, bd);
+            step.end();
 
             // 2. 如果是单例 -> 提前放到三级缓存(存一个 ObjectFactory)
             if (bd.isSingleton()) {
@@ -169,26 +275,33 @@ public class DefaultBeanFactory implements BeanFactory {
             }
 
             // 3. 填充属性 (依赖注入)
+            step = startupTimeline.start("bean.populate", beanName);
             populateBean(rawBean, bd);
+            step.end();
 
             // 4. 初始化 (BPP before -> aware -> initMethod)
             Object bean = initializeBean(beanName, rawBean, bd);
 
             // 5. 如果已经创建了代理对象（从二级缓存中获取），则使用该代理对象
             if (bd.isSingleton()) {
-                Object earlySingletonReference = this.earlySingletonObjects.get(beanName);
-                if (earlySingletonReference != null) {
-                    bean = earlySingletonReference;
+                // 与其他线程生成早期引用互斥：要么对方已经生成(这里改用它)，要么之后再也生成不了
+                synchronized (getSingletonLock(beanName)) {
+                    Object earlySingletonReference = this.earlySingletonObjects.get(beanName);
+                    if (earlySingletonReference != null) {
+                        bean = earlySingletonReference;
+                    }
+                    // 放入一级缓存
+                    this.singletonObjects.put(beanName, bean);
+                    // 干掉三级和二级
+                    this.singletonFactories.remove(beanName);
+                    this.earlySingletonObjects.remove(beanName);
                 }
-                // 放入一级缓存
-                this.singletonObjects.put(beanName, bean);
-                // 干掉三级和二级
-                this.singletonFactories.remove(beanName);
-                this.earlySingletonObjects.remove(beanName);
             }
 
             // 6. afterInitialization => 可能返回新代理
+            step = startupTimeline.start("bean.postProcessAfterInitialization", beanName);
             bean = applyBeanPostProcessorsAfterInitialization(bean, beanName);
+            step.end();
 
             // 7. 如果 afterInit 又返回新的代理，则覆盖进一级缓存
             if (bd.isSingleton()) {
@@ -203,21 +316,26 @@ public class DefaultBeanFactory implements BeanFactory {
         } catch (Exception e) {
             throw new BeanCreationException(beanName, "Creation failed", e);
         } finally {
-            singletonsCurrentlyInCreation.remove(beanName);
+            beanStep.end();
+            singletonsCurrentlyInCreation.get().remove(beanName);
         }
     }
 
     protected Object initializeBean(String beanName, Object bean, BeanDefinition bd) {
         // 1. BPP before
+        StartupStep step = startupTimeline.start("bean.postProcessBeforeInitialization", beanName);
         Object result = applyBeanPostProcessorsBeforeInitialization(bean, beanName);
+        step.end();
         if (result == null) {
             return null;
         }
         bean = result;
 
         // 2. aware + initMethod
+        step = startupTimeline.start("bean.initMethod", beanName);
         invokeAwareMethods(beanName, bean);
         invokeInitMethod(beanName, bean, bd);
+        step.end();
 
         // 不在这里放入 singletonObjects, 已移动到 createBean(...) 里
 
@@ -242,31 +360,44 @@ public class DefaultBeanFactory implements BeanFactory {
         // 1. 先从一级缓存找
         Object singletonObject = this.singletonObjects.get(beanName);
         if (singletonObject == null && isInCreation(beanName)) {
-            synchronized (this.singletonObjects) {
-                // 2. 从二级缓存找
+            // 2. 从二级缓存找
+            singletonObject = this.earlySingletonObjects.get(beanName);
+            if (singletonObject == null && allowEarlyReference) {
+                // 3. 从三级缓存生成早期引用
+                singletonObject = getEarlySingletonReference(beanName);
+            }
+        }
+        return singletonObject;
+    }
+
+    /**
+     * 从三级缓存生成早期引用并放入二级缓存，只锁住这一个bean
+     * @return 早期引用；bean还没有实例化(仍在构造器中)时返回 null
+     */
+    private Object getEarlySingletonReference(String beanName) {
+        synchronized (getSingletonLock(beanName)) {
+            Object singletonObject = this.singletonObjects.get(beanName);
+            if (singletonObject == null) {
                 singletonObject = this.earlySingletonObjects.get(beanName);
-                if (singletonObject == null && allowEarlyReference) {
-                    // 3. 从三级缓存找
-                    ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
-                    if (singletonFactory != null) {
-                        // 从三级缓存获取，然后放入二级缓存
-                        singletonObject = singletonFactory.getObject();
-                        this.earlySingletonObjects.put(beanName, singletonObject);
-                        this.singletonFactories.remove(beanName);
-                    }
+            }
+            if (singletonObject == null) {
+                ObjectFactory<?> singletonFactory = this.singletonFactories.get(beanName);
+                if (singletonFactory != null) {
+                    singletonObject = singletonFactory.getObject();
+                    this.earlySingletonObjects.put(beanName, singletonObject);
+                    this.singletonFactories.remove(beanName);
                 }
             }
+            return singletonObject;
         }
-        return singletonObject;
     }
 
     private void invokeInitMethod(String beanName, Object bean, BeanDefinition bd) {
         String initMethodName = bd.getInitMethodName();
         if (initMethodName != null && !initMethodName.isEmpty()) {
             try {
-                Method initMethod = bd.getBeanClass().getDeclaredMethod(initMethodName);
-                initMethod.setAccessible(true);
-                initMethod.invoke(bean);
+                Method initMethod = getInjectionMetadata(bd.getBeanClass()).getNoArgMethod(initMethodName);
+                instantiationStrategy.invoke(bean, initMethod);
             } catch (NoSuchMethodException e) {
                 throw new BeanCreationException(beanName, 
                     "Init method [" + initMethodName + "] not found");
@@ -306,8 +437,7 @@ public class DefaultBeanFactory implements BeanFactory {
 
         // 1. 处理 PropertyValue 注入
         for (PropertyValue pv : bd.getPropertyValues()) {
-            Field field = bean.getClass().getDeclaredField(pv.getName());
-            field.setAccessible(true);
+            Field field = getInjectionMetadata(bean.getClass()).getField(pv.getName());
                 
             Object value;
             if (pv.isRef()) {
@@ -316,19 +446,7 @@ public class DefaultBeanFactory implements BeanFactory {
                     // 处理单个引用
                     String refName = (String) ref;
                     try {
-                        value = getSingleton(refName, true);
-                        if (value == null) {
-                            value = doGetBean(refName, null);
-                        }
-                        
-                        // 处理 FactoryBean (为了MyBatis)
-                        if (value instanceof FactoryBean) {
-                            try {
-                                value = ((FactoryBean<?>) value).getObject();
-                            } catch (Exception e) {
-                                throw new BeanCreationException(refName, "Failed to get object from FactoryBean", e);
-                            }
-                        }
+                        value = resolveReference(refName);
                     } catch (Exception e) {
                         if (e instanceof CircularDependencyException) {
                             throw e;
@@ -343,10 +461,7 @@ public class DefaultBeanFactory implements BeanFactory {
                     for (Object item : refList) {
                         if (item instanceof String) {
                             String refName = (String) item;
-                            Object refValue = getSingleton(refName, true);
-                            if (refValue == null) {
-                                refValue = doGetBean(refName, null);
-                            }
+                            Object refValue = resolveReference(refName);
                             resolvedList.add(refValue);
                         } else {
                             resolvedList.add(item);
@@ -362,10 +477,7 @@ public class DefaultBeanFactory implements BeanFactory {
                         Object val = entry.getValue();
                         if (val instanceof String) {
                             String refName = (String) val;
-                            Object refValue = getSingleton(refName, true);
-                            if (refValue == null) {
-                                refValue = doGetBean(refName, null);
-                            }
+                            Object refValue = resolveReference(refName);
                             resolvedMap.put(key, refValue);
                         } else {
                             resolvedMap.put(key, val);
@@ -379,277 +491,278 @@ public class DefaultBeanFactory implements BeanFactory {
                 value = pv.getValue();
             }
                         
-            field.set(bean, value);
+            instantiationStrategy.setField(bean, field, value);
                 }
                 
+        // 注解注入点按类缓存，创建实例时不再重复反射查找
+        InjectionMetadata metadata = getInjectionMetadata(bd.getBeanClass());
+
         // 2. 处理 @Autowired 注解的字段注入
-        for (Field field : bd.getBeanClass().getDeclaredFields()) {
-            Autowired autowired = field.getAnnotation(Autowired.class);
-            if (autowired != null) {
-                field.setAccessible(true);
-                
-                Class<?> fieldType = field.getType();
-                
-                // 处理集合类型
-                if (List.class.isAssignableFrom(fieldType)) {
-                    // 获取List的泛型类型
-                    Type genericType = field.getGenericType();
-                    if (genericType instanceof ParameterizedType) {
-                        Class<?> elementType = (Class<?>) ((ParameterizedType) genericType).getActualTypeArguments()[0];
-                        List<Object> matchingBeans = getBeansByType(elementType);
-                        field.set(bean, matchingBeans);
-                    } else {
-                        // 如果没有泛型参数，设置空列表
-                        field.set(bean, new ArrayList<>());
-                    }
-                    continue;
+        for (InjectionMetadata.InjectedField element : metadata.getAutowiredFields()) {
+            Field field = element.getField();
+            InjectionMetadata.DependencyDescriptor descriptor = element.getDescriptor();
+
+            // 处理集合类型
+            if (descriptor.isList() || descriptor.isMap()) {
+                Object value = resolveCollectionDependency(descriptor);
+                if (value != null) {
+                    instantiationStrategy.setField(bean, field, value);
                 }
-                
-                // 处理Map类型
-                if (Map.class.isAssignableFrom(fieldType)) {
-                    // 获取Map的泛型类型
-                    Type genericType = field.getGenericType();
-                    if (genericType instanceof ParameterizedType) {
-                        ParameterizedType paramType = (ParameterizedType) genericType;
-                        Type[] typeArgs = paramType.getActualTypeArguments();
-                        // 只处理 Map<String, SomeType> 类型
-                        if (typeArgs[0] == String.class) {
-                            Class<?> valueType = (Class<?>) typeArgs[1];
-                            Map<String, Object> matchingBeans = new HashMap<>();
-                            // 获取所有匹配类型的bean
-                            for (String name : getBeanDefinitionNames()) {
-                                BeanDefinition beanDef = getBeanDefinition(name);
-                                if (valueType.isAssignableFrom(beanDef.getBeanClass())) {
-                                    matchingBeans.put(name, getBean(name));
-                                }
-                            }
-                            field.set(bean, matchingBeans);
-                        }
-                    } else {
-                        // 如果没有泛型参数，设置空Map
-                        field.set(bean, new HashMap<>());
-                    }
-                    continue;
+                continue;
             }
-                
-                // 处理普通类型
-                String refName;
-                Qualifier qualifier = field.getAnnotation(Qualifier.class);
-                if (qualifier != null) {
-                    refName = qualifier.value();
-                } else {
-                    // 使用字段类型作为依赖的bean名称
-                    refName = Character.toLowerCase(fieldType.getSimpleName().charAt(0)) 
-                             + fieldType.getSimpleName().substring(1);
-        }
 
-                            try {
+            // 处理普通类型
+            String refName = descriptor.getQualifier() != null
+                ? descriptor.getQualifier()
+                : descriptor.getDefaultBeanName();
+            try {
+                Object value;
+                if (descriptor.isLazy()) {
+                    // @Lazy 字段注入代理，依赖在第一次使用时才创建
+                    value = createLazyResolutionProxy(field.getDeclaringClass(), "field '" + field.getName() + "'",
+                        descriptor.getType(), () -> doGetBean(refName, descriptor.getType()));
+                } else {
                     // 先尝试从缓存中获取
-                    Object value = getSingleton(refName, true);
+                    value = getSingleton(refName, true);
                     if (value == null) {
-                        value = doGetBean(refName, fieldType);
+                        value = doGetBean(refName, descriptor.getType());
                     }
-                    field.set(bean, value);
-                            } catch (Exception e) {
-                    if (e instanceof CircularDependencyException) {
-                        throw e;
-                    }
-                        throw new CircularDependencyException(
-                        "Error injecting autowired field '" + field.getName() + "'", e);
                 }
-                            }
-                        }
+                instantiationStrategy.setField(bean, field, value);
+            } catch (Exception e) {
+                if (e instanceof CircularDependencyException) {
+                    throw e;
+                }
+                throw new CircularDependencyException(
+                    "Error injecting autowired field '" + field.getName() + "'", e);
+            }
+        }
 
         // 2.1 处理 @Resource 注解的字段注入
-        for (Field field : bd.getBeanClass().getDeclaredFields()) {
-            Resource resource = field.getAnnotation(Resource.class);
-            if (resource != null) {
-                field.setAccessible(true);
-                Class<?> fieldType = field.getType();
-                
-                // 处理集合类型
-                if (List.class.isAssignableFrom(fieldType)) {
-                    // 获取List的泛型类型
-                    Type genericType = field.getGenericType();
-                    if (genericType instanceof ParameterizedType) {
-                        Class<?> elementType = (Class<?>) ((ParameterizedType) genericType).getActualTypeArguments()[0];
-                        List<Object> matchingBeans = getBeansByType(elementType);
-                        field.set(bean, matchingBeans);
-                    } else {
-                        // 如果没有泛型参数，设置空列表
-                        field.set(bean, new ArrayList<>());
-                    }
-                    continue;
-                }
-                
-                if (Map.class.isAssignableFrom(fieldType)) {
-                    // 获取Map的泛型类型
-                    Type genericType = field.getGenericType();
-                    if (genericType instanceof ParameterizedType) {
-                        ParameterizedType paramType = (ParameterizedType) genericType;
-                        Type[] typeArgs = paramType.getActualTypeArguments();
-                        // 只处理 Map<String, SomeType> 类型
-                        if (typeArgs[0] == String.class) {
-                            Class<?> valueType = (Class<?>) typeArgs[1];
-                            Map<String, Object> matchingBeans = new HashMap<>();
-                            // 获取所有匹配类型的bean
-                            for (String name : getBeanDefinitionNames()) {
-                                BeanDefinition beanDef = getBeanDefinition(name);
-                                if (valueType.isAssignableFrom(beanDef.getBeanClass())) {
-                                    matchingBeans.put(name, getBean(name));
-                                }
-                            }
-                            field.set(bean, matchingBeans);
-                            }
-                    } else {
-                        // 如果没有泛型参数，设置空Map
-                        field.set(bean, new HashMap<>());
-                    }
-                    continue;
-                }
-                
-                // 处理普通类型
-                // 1. 首先按name查找
-                String refName = resource.name();
-                if (refName.isEmpty()) {
-                    // 如果没有指定name，使用字段名
-                    refName = field.getName();
+        for (InjectionMetadata.InjectedField element : metadata.getResourceFields()) {
+            Field field = element.getField();
+            InjectionMetadata.DependencyDescriptor descriptor = element.getDescriptor();
+
+            // 处理集合类型
+            if (descriptor.isList() || descriptor.isMap()) {
+                Object value = resolveCollectionDependency(descriptor);
+                if (value != null) {
+                    instantiationStrategy.setField(bean, field, value);
                 }
-                
-                try {
-                    Object value = null;
-                    // 先尝试按名称查找
-                    if (containsBean(refName)) {
-                        value = getSingleton(refName, true);
-                        if (value == null) {
-                            value = doGetBean(refName, fieldType);
-                        }
-                    }
-                    
-                    // 2. 如果按名称没找到，降级为按类型查找
-                    if (value == null) {
-                        value = getBean(fieldType);
-                    }
-                    
-                    field.set(bean, value);
-                    } catch (Exception e) {
-                        if (e instanceof CircularDependencyException) {
-                            throw e;
-                        }
-                        throw new CircularDependencyException(
-                        "Error injecting resource field '" + field.getName() + "'", e);
+                continue;
+            }
+
+            // 处理普通类型，先按name查找，没有则按类型查找
+            try {
+                instantiationStrategy.setField(bean, field,
+                    resolveResourceDependency(element.getResourceName(), descriptor.getType()));
+            } catch (Exception e) {
+                if (e instanceof CircularDependencyException) {
+                    throw e;
                 }
+                throw new CircularDependencyException(
+                    "Error injecting resource field '" + field.getName() + "'", e);
             }
         }
 
-        // 3. 处理方法注入
-        for (Method method : bd.getBeanClass().getDeclaredMethods()) {
-            // 处理 @Resource 注解
-            Resource resource = method.getAnnotation(Resource.class);
-            if (resource != null && method.getParameterCount() == 1) {
-                method.setAccessible(true);
-                Class<?> paramType = method.getParameterTypes()[0];
-                
-                // 处理集合类型
-                if (List.class.isAssignableFrom(paramType)) {
-                    // 获取泛型类型
-                    Type genericType = method.getGenericParameterTypes()[0];
-                    if (genericType instanceof ParameterizedType) {
-                        Type elementType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
-                        if (elementType instanceof Class) {
-                            List<Object> matchingBeans = getBeansByType((Class<?>) elementType);
-                            method.invoke(bean, matchingBeans);
-                    }
-                } else {
-                        // 如果没有泛型参数，注入空列表
-                        method.invoke(bean, new ArrayList<>());
-                    }
-                    continue;
-                }
-                
-                if (Map.class.isAssignableFrom(paramType)) {
-                    // 获取泛型类型
-                    Type genericType = method.getGenericParameterTypes()[0];
-                    if (genericType instanceof ParameterizedType) {
-                        Type[] typeArgs = ((ParameterizedType) genericType).getActualTypeArguments();
-                        if (typeArgs.length == 2 && typeArgs[0] == String.class && typeArgs[1] instanceof Class) {
-                            Class<?> valueType = (Class<?>) typeArgs[1];
-                            Map<String, Object> matchingBeans = new HashMap<>();
-                            for (String name : getBeanDefinitionNames()) {
-                                BeanDefinition beanDef = getBeanDefinition(name);
-                                if (valueType.isAssignableFrom(beanDef.getBeanClass())) {
-                                    matchingBeans.put(name, getBean(name));
-                                }
-                            }
-                            method.invoke(bean, matchingBeans);
+        // 3. 处理 @Resource 方法注入
+        for (InjectionMetadata.InjectedMethod element : metadata.getResourceMethods()) {
+            Method method = element.getMethod();
+            InjectionMetadata.DependencyDescriptor descriptor = element.getParameters()[0];
+
+            // 处理集合类型
+            if (descriptor.isList() || descriptor.isMap()) {
+                Object value = resolveCollectionDependency(descriptor);
+                if (value != null) {
+                    instantiationStrategy.invoke(bean, method, value);
                 }
-            } else {
-                        // 如果没有泛型参数，注入空Map
-                        method.invoke(bean, new HashMap<>());
-                    }
-                    continue;
+                continue;
             }
-                
-                // 处理普通类型
-                // 1. 首先按name查找
-                String refName = resource.name();
-                if (refName.isEmpty()) {
-                    // 如果没有指定name，使用方法名去掉"set"后的部分
-                    if (method.getName().startsWith("set")) {
-                        refName = method.getName().substring(3);
-                        refName = Character.toLowerCase(refName.charAt(0)) + refName.substring(1);
-                    } else {
-                        // 如果不是setter方法，使用参数类型的首字母小写作为bean名称
-                        refName = Character.toLowerCase(paramType.getSimpleName().charAt(0)) + 
-                                 paramType.getSimpleName().substring(1);
-                    }
-                }
-                
-                try {
-                    Object value = null;
-                    // 先尝试按名称查找
-                    if (containsBean(refName)) {
-                        value = getSingleton(refName, true);
-                        if (value == null) {
-                            value = doGetBean(refName, paramType);
-                        }
-                    }
-                    
-                    // 2. 如果按名称没找到，降级为按类型查找
-                    if (value == null) {
-                        value = getBean(paramType);
+
+            try {
+                instantiationStrategy.invoke(bean, method,
+                    resolveResourceDependency(element.getResourceName(), descriptor.getType()));
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to inject resource method: " + method.getName(), e);
+            }
+        }
+
+        // 4. 处理 @Value 注解的 setter 方法
+        for (InjectionMetadata.InjectedMethod element : metadata.getValueMethods()) {
+            Class<?> paramType = element.getParameters()[0].getType();
+            Object convertedValue = convertValue(element.getValueExpression(), paramType);
+            instantiationStrategy.invoke(bean, element.getMethod(), convertedValue);
+        }
+    }
+
+    /**
+     * 解析属性引用：已有的单例(包括早期引用)直接使用，否则创建；FactoryBean 换成它的产品
+     */
+    private Object resolveReference(String refName) {
+        Object value = getSingleton(transformedBeanName(refName), true);
+        if (value == null) {
+            return doGetBean(refName, null);
+        }
+        return getObjectForBeanInstance(refName, transformedBeanName(refName), value);
+    }
+
+    /**
+     * 去掉 FactoryBean 解引用前缀
+     */
+    private static String transformedBeanName(String name) {
+        String beanName = name;
+        while (beanName.startsWith(FACTORY_BEAN_PREFIX)) {
+            beanName = beanName.substring(FACTORY_BEAN_PREFIX.length());
+        }
+        return beanName;
+    }
+
+    /**
+     * 按请求的名称决定返回 bean 本身还是 FactoryBean 的产品
+     */
+    private Object getObjectForBeanInstance(String name, String beanName, Object bean) {
+        if (name.startsWith(FACTORY_BEAN_PREFIX)) {
+            if (!(bean instanceof FactoryBean)) {
+                throw new BeanCreationException(beanName, "Bean is not a FactoryBean: " + bean.getClass().getName());
+            }
+            return bean;
+        }
+        if (!(bean instanceof FactoryBean)) {
+            return bean;
+        }
+        try {
+            return getCachedObjectForFactoryBean(beanName, (FactoryBean<?>) bean);
+        } catch (BeanCreationException | CircularDependencyException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new BeanCreationException(beanName, "FactoryBean threw exception on object creation", e);
+        }
+    }
+
+    /**
+     * 单例 FactoryBean 且 isSingleton() 为 true 时产品只创建一次，之后从缓存获取
+     */
+    private Object getCachedObjectForFactoryBean(String beanName, FactoryBean<?> factoryBean) throws Exception {
+        BeanDefinition bd = getBeanDefinition(beanName);
+        if (!factoryBean.isSingleton() || (bd != null && !bd.isSingleton())) {
+            return getObjectFromFactoryBean(beanName, factoryBean);
+        }
+        Object object = factoryBeanObjectCache.get(beanName);
+        if (object == null) {
+            synchronized (factoryBean) {
+                object = factoryBeanObjectCache.get(beanName);
+                if (object == null) {
+                    object = getObjectFromFactoryBean(beanName, factoryBean);
+                    if (object != null) {
+                        factoryBeanObjectCache.put(beanName, object);
                     }
-                    
-                    method.invoke(bean, value);
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to inject resource method: " + method.getName(), e);
                 }
             }
         }
+        return object;
+    }
 
-        // 4. 处理 @Value 注解
-        for (Method method : bd.getBeanClass().getDeclaredMethods()) {
-            if (method.isAnnotationPresent(Value.class)) {
-                Value valueAnnotation = method.getAnnotation(Value.class);
-                String value = valueAnnotation.value();
-                
-                // 确保是setter方法
-                if (method.getName().startsWith("set") && 
-                    method.getParameterCount() == 1 && 
-                    method.getReturnType() == void.class) {
-                    
-                    method.setAccessible(true);
-                    Class<?> paramType = method.getParameterTypes()[0];
-                    Object convertedValue = convertValue(value, paramType);
-                    method.invoke(bean, convertedValue);
-                }
+    /**
+     * 从 FactoryBean 获取产品，记录为启动时间线中的一个步骤
+     */
+    private Object getObjectFromFactoryBean(String beanName, FactoryBean<?> factoryBean) throws Exception {
+        StartupStep step = startupTimeline.start("bean.factoryBean.getObject", beanName);
+        try {
+            return factoryBean.getObject();
+        } finally {
+            step.end();
+        }
+    }
+
+    public StartupTimeline getStartupTimeline() {
+        return startupTimeline;
+    }
+
+    /**
+     * 设置启动时间线，之后创建的bean都会记录各阶段耗时；传入 null 表示不再记录
+     */
+    public void setStartupTimeline(StartupTimeline startupTimeline) {
+        this.startupTimeline = startupTimeline != null ? startupTimeline : StartupTimeline.disabled();
+    }
+
+    public BeanInstantiationStrategy getInstantiationStrategy() {
+        return instantiationStrategy;
+    }
+
+    /**
+     * 设置实例化策略，默认使用 MethodHandleInstantiationStrategy
+     */
+    public void setInstantiationStrategy(BeanInstantiationStrategy instantiationStrategy) {
+        if (instantiationStrategy == null) {
+            throw new IllegalArgumentException("BeanInstantiationStrategy must not be null");
+        }
+        this.instantiationStrategy = instantiationStrategy;
+    }
+
+    /**
+     * 获取类的注入元数据，每个类只解析一次
+     */
+    public InjectionMetadata getInjectionMetadata(Class<?> clazz) {
+        return injectionMetadataCache.computeIfAbsent(clazz, InjectionMetadata::new);
+    }
+
+    /**
+     * 解析 List/Map 类型的依赖
+     * 没有泛型参数时返回空集合；泛型参数无法解析时返回 null，表示不注入
+     */
+    private Object resolveCollectionDependency(InjectionMetadata.DependencyDescriptor descriptor) {
+        if (!descriptor.isParameterized()) {
+            return descriptor.isList() ? new ArrayList<>() : new HashMap<>();
+        }
+        Class<?> elementType = descriptor.getElementType();
+        if (elementType == null) {
+            return null;
+        }
+        if (descriptor.isList()) {
+            return getBeansByType(elementType);
+        }
+        // 只处理 Map<String, SomeType> 类型
+        if (!descriptor.isStringKeyed()) {
+            return null;
+        }
+        Map<String, Object> matchingBeans = new HashMap<>();
+        for (String name : getBeanNamesForType(elementType)) {
+            matchingBeans.put(name, getBean(beanNameForDefinitionType(name, beanDefinitionMap.get(name))));
+        }
+        return matchingBeans;
+    }
+
+    /**
+     * @Resource 的解析规则：先按名称查找，找不到再降级为按类型查找
+     */
+    private Object resolveResourceDependency(String refName, Class<?> type) {
+        Object value = null;
+        if (containsBean(refName)) {
+            value = getSingleton(refName, true);
+            if (value == null) {
+                value = doGetBean(refName, type);
             }
         }
+        if (value == null) {
+            value = getBean(type);
+        }
+        return value;
     }
 
-    public void loadBeanDefinitions(String xmlPath) {
-        XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(this);
-        reader.loadBeanDefinitions(xmlPath);
+    /**
+     * 多个文件按给定顺序注册；系统属性 microspring.xml.reader 设为 dom 时使用基于 DOM 的 XmlBeanDefinitionReader，
+     * 默认使用流式的 StaxXmlBeanDefinitionReader
+     */
+    public void loadBeanDefinitions(String... xmlPaths) {
+        if ("dom".equalsIgnoreCase(System.getProperty(XML_READER_PROPERTY))) {
+            XmlBeanDefinitionReader reader = new XmlBeanDefinitionReader(this);
+            for (String xmlPath : xmlPaths) {
+                reader.loadBeanDefinitions(xmlPath);
+            }
+        } else {
+            StaxXmlBeanDefinitionReader reader = new StaxXmlBeanDefinitionReader(this);
+            reader.loadBeanDefinitions(xmlPaths);
+        }
     }
 
     protected Object createBeanInstance(String targetBeanName, BeanDefinition bd) throws Exception {
@@ -671,7 +784,13 @@ public class DefaultBeanFactory implements BeanFactory {
                     
                     for (int i = 0; i < args.length; i++) {
                         ConstructorArg arg = constructorArgs.get(i);
-                        if (arg.isRef()) {
+                        if (arg.isRef() && arg.isLazy()) {
+                            // @Lazy 参数注入代理，依赖在第一次使用时才创建
+                            String refName = arg.getRef();
+                            args[i] = createLazyResolutionProxy(factoryMethod.getDeclaringClass(),
+                                "parameter " + i + " of method '" + factoryMethod.getName() + "'",
+                                factoryMethod.getParameterTypes()[i], () -> getBean(refName));
+                        } else if (arg.isRef()) {
                             // 如果是引用类型，从容器中获取bean
                             args[i] = getBean((String)arg.getRef());
                         } else {
@@ -696,9 +815,9 @@ public class DefaultBeanFactory implements BeanFactory {
                             }
                         }
                     }
-                    return factoryMethod.invoke(factoryBean, args);
+                    return instantiationStrategy.invoke(factoryBean, factoryMethod, args);
                 } else {
-                    return factoryMethod.invoke(factoryBean);
+                    return instantiationStrategy.invoke(factoryBean, factoryMethod);
                 }
             } catch (Exception e) {
                 throw new BeanCreationException(beanClass.getName(), 
@@ -708,89 +827,28 @@ public class DefaultBeanFactory implements BeanFactory {
         
         // 2. 如果没有工厂方法，使用构造函数创建
         List<ConstructorArg> constructorArgs = bd.getConstructorArgs();
-        
+        InjectionMetadata metadata = getInjectionMetadata(beanClass);
+
         // 获取所有构造函数
-        Constructor<?>[] constructors = beanClass.getDeclaredConstructors();
+        Constructor<?>[] constructors = metadata.getDeclaredConstructors();
         
-        // 首先尝试找到带有 @Autowired 注解的构造函数
-        Constructor<?> autowiredConstructor = null;
-        for (Constructor<?> constructor : constructors) {
-            if (constructor.isAnnotationPresent(Autowired.class)) {
-                autowiredConstructor = constructor;
-                break;
-            }
-        }
-        
-        // 如果找到了带 @Autowired 的构造函数，使用它
+        // 如果有带 @Autowired 的构造函数，使用它
+        Constructor<?> autowiredConstructor = metadata.getAutowiredConstructor();
         if (autowiredConstructor != null) {
-
-            Class<?>[] paramTypes = autowiredConstructor.getParameterTypes();
-            Object[] args = new Object[paramTypes.length];
-            
-            // 获取构造函数的参数
-            Parameter[] parameters = autowiredConstructor.getParameters();
+            InjectionMetadata.DependencyDescriptor[] parameters = metadata.getAutowiredConstructorParameters();
+            Object[] args = new Object[parameters.length];
             for (int i = 0; i < parameters.length; i++) {
-                Parameter param = parameters[i];
-                Class<?> paramType = paramTypes[i];
-                
-                // 检查是否有 @Qualifier 注解
-                Qualifier qualifier = param.getAnnotation(Qualifier.class);
-                Object argValue;
-                
-                if (List.class.isAssignableFrom(paramType)) {
-                    // 处理 List 类型参数
-                    Type paramGenericType = param.getParameterizedType();
-                    if (paramGenericType instanceof ParameterizedType) {
-                        Type elementType = ((ParameterizedType) paramGenericType).getActualTypeArguments()[0];
-                        if (elementType instanceof Class) {
-                            argValue = getBeansByType((Class<?>) elementType);
-                        } else {
-                            argValue = new ArrayList<>();
-                        }
-                    } else {
-                        argValue = new ArrayList<>();
-                    }
-                } else if (Map.class.isAssignableFrom(paramType)) {
-                    // 处理 Map 类型参数
-                    Type paramGenericType = param.getParameterizedType();
-                    if (paramGenericType instanceof ParameterizedType) {
-                        Type[] typeArgs = ((ParameterizedType) paramGenericType).getActualTypeArguments();
-                        if (typeArgs.length == 2 && typeArgs[0] == String.class && typeArgs[1] instanceof Class) {
-                            Class<?> valueType = (Class<?>) typeArgs[1];
-                            Map<String, Object> matchingBeans = new HashMap<>();
-                            for (String name : getBeanDefinitionNames()) {
-                                BeanDefinition beanDef = getBeanDefinition(name);
-                                if (valueType.isAssignableFrom(beanDef.getBeanClass())) {
-                                    matchingBeans.put(name, getBean(name));
-                                }
-                            }
-                            argValue = matchingBeans;
-                        } else {
-                            argValue = new HashMap<>();
-                        }
-                    } else {
-                        argValue = new HashMap<>();
-                    }
-                } else if (qualifier != null) {
-                    // 如果有@Qualifier，按名称查找
-                    String beanName = qualifier.value();
-                    argValue = getBean(beanName);
+                InjectionMetadata.DependencyDescriptor param = parameters[i];
+                if (param.isLazy()) {
+                    // @Lazy 参数注入代理，依赖在第一次使用时才创建
+                    args[i] = createLazyResolutionProxy(beanClass, "constructor parameter " + i,
+                        param.getType(), () -> resolveConstructorParameter(param));
                 } else {
-                    // 如果没有@Qualifier，按类型查找
-                    try {
-                        argValue = getBean(paramType);
-                    } catch (RuntimeException e) {
-                        // 如果按类型查找失败，尝试使用默认的命名规则
-                        String defaultBeanName = Character.toLowerCase(paramType.getSimpleName().charAt(0)) + 
-                                               paramType.getSimpleName().substring(1);
-                        argValue = getBean(defaultBeanName);
-                    }
+                    args[i] = resolveConstructorParameter(param);
                 }
-                args[i] = argValue;
             }
             
-            autowiredConstructor.setAccessible(true);
-            return autowiredConstructor.newInstance(args);
+            return instantiationStrategy.instantiate(autowiredConstructor, args);
         }
         
         // 如果没有找到 @Autowired 构造函数，但有构造函数参数，使用匹配的构造函数
@@ -873,7 +931,7 @@ public class DefaultBeanFactory implements BeanFactory {
                         if (matches) {
                             constructor.setAccessible(true);
                             try {
-                                return constructor.newInstance(args);
+                                return instantiationStrategy.instantiate(constructor, args);
                             } catch (Exception e) {
                                 throw e;
                             }
@@ -889,45 +947,68 @@ public class DefaultBeanFactory implements BeanFactory {
         }
         
         // 3. 如果没有构造器参数，尝试使用带有@Value注解的构造器
-        for (Constructor<?> constructor : constructors) {
-            Parameter[] parameters = constructor.getParameters();
-            boolean hasValueAnnotation = false;
-            for (Parameter parameter : parameters) {
-                if (parameter.isAnnotationPresent(Value.class)) {
-                    hasValueAnnotation = true;
-                    break;
+        Constructor<?> valueConstructor = metadata.getValueConstructor();
+        if (valueConstructor != null) {
+            String[] expressions = metadata.getValueConstructorExpressions();
+            Class<?>[] paramTypes = valueConstructor.getParameterTypes();
+            Object[] args = new Object[expressions.length];
+            for (int i = 0; i < expressions.length; i++) {
+                if (expressions[i] != null) {
+                    args[i] = convertValue(expressions[i], paramTypes[i]);
                 }
             }
-            
-            if (hasValueAnnotation) {
-                constructor.setAccessible(true);
-                Object[] args = new Object[parameters.length];
-                for (int i = 0; i < parameters.length; i++) {
-                    Parameter parameter = parameters[i];
-                    Value valueAnnotation = parameter.getAnnotation(Value.class);
-                    if (valueAnnotation != null) {
-                        String value = valueAnnotation.value();
-                        Class<?> paramType = parameter.getType();
-                        args[i] = convertValue(value, paramType);
-                    }
-                }
-                try {
-                    return constructor.newInstance(args);
-                } catch (Exception e) {
-                    throw new BeanCreationException(beanClass.getName(), 
-                        "Failed to instantiate bean with @Value constructor", e);
-                }
+            try {
+                return instantiationStrategy.instantiate(valueConstructor, args);
+            } catch (Exception e) {
+                throw new BeanCreationException(beanClass.getName(), 
+                    "Failed to instantiate bean with @Value constructor", e);
             }
         }
         
         // 4. 最后尝试使用无参构造器
-        try {
-            Constructor<?> constructor = beanClass.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            return constructor.newInstance();
-        } catch (NoSuchMethodException e) {
+        Constructor<?> defaultConstructor = metadata.getDefaultConstructor();
+        if (defaultConstructor == null) {
             throw new CircularDependencyException(
-                "No suitable constructor found for " + beanClass.getName(), e);
+                "No suitable constructor found for " + beanClass.getName());
+        }
+        return instantiationStrategy.instantiate(defaultConstructor);
+    }
+
+    /**
+     * 解析 @Autowired 构造器的一个参数
+     */
+    private Object resolveConstructorParameter(InjectionMetadata.DependencyDescriptor param) {
+        if (param.isList() || param.isMap()) {
+            // 处理 List/Map 类型参数，无法解析泛型时注入空集合
+            Object argValue = resolveCollectionDependency(param);
+            if (argValue == null) {
+                argValue = param.isList() ? new ArrayList<>() : new HashMap<>();
+            }
+            return argValue;
+        } else if (param.getQualifier() != null) {
+            // 如果有@Qualifier，按名称查找
+            return getBean(param.getQualifier());
+        }
+        // 如果没有@Qualifier，按类型查找
+        try {
+            return getBean(param.getType());
+        } catch (RuntimeException e) {
+            // 如果按类型查找失败，尝试使用默认的命名规则
+            return getBean(param.getDefaultBeanName());
+        }
+    }
+
+    /**
+     * 为 @Lazy 注入点创建延迟解析代理，第一次调用代理方法时才通过 targetFactory 获取依赖。
+     * 接口使用 JDK 动态代理，类使用子类代理；final 类等无法代理的类型抛出 BeanCreationException，不会悄悄退回立即解析
+     */
+    public Object createLazyResolutionProxy(Class<?> declaringClass, String injectionPoint,
+                                            Class<?> type, ObjectFactory<?> targetFactory) {
+        try {
+            return LazyResolutionProxy.newProxy(type, targetFactory);
+        } catch (IllegalArgumentException e) {
+            throw new BeanCreationException(declaringClass.getName(), "@Lazy " + injectionPoint
+                + " of type " + type.getName() + " cannot be resolved lazily: " + e.getMessage(), e);
         }
     }
 
@@ -960,44 +1041,54 @@ public class DefaultBeanFactory implements BeanFactory {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T getBean(Class<T> requiredType) {
+        // 先查解析缓存，命中则直接按名称获取
+        String beanName = resolvedBeanNamesByType.get(requiredType);
+        if (beanName == null) {
+            beanName = resolveBeanNameForType(requiredType);
+            resolvedBeanNamesByType.put(requiredType, beanName);
+        }
+        
+        return (T) getBean(beanName);
+    }
+
+    /**
+     * 通过类型索引确定唯一的候选bean名称：@Primary 优先，其次精确匹配，最后唯一匹配
+     */
+    private String resolveBeanNameForType(Class<?> requiredType) {
         List<String> matchingBeans = new ArrayList<>();
         List<String> primaryBeans = new ArrayList<>();
         String exactMatch = null;
         
-        // 先检查普通 bean
-        for (String beanName : beanDefinitionMap.keySet()) {
-            BeanDefinition bd = beanDefinitionMap.get(beanName);
-            if (requiredType.isAssignableFrom(bd.getBeanClass())) {
-                matchingBeans.add(beanName);
-                if (bd.isPrimary()) {
-                    primaryBeans.add(beanName);
-                }
-                if (bd.getBeanClass() == requiredType) {
-                    exactMatch = beanName;
-                }
+        // 先检查普通 bean；类型匹配的是 FactoryBean 本身时返回 &name
+        for (String name : getBeanNamesForType(requiredType)) {
+            BeanDefinition bd = beanDefinitionMap.get(name);
+            if (bd == null) {
+                continue;
+            }
+            String beanName = beanNameForDefinitionType(name, bd);
+            matchingBeans.add(beanName);
+            if (bd.isPrimary()) {
+                primaryBeans.add(beanName);
+            }
+            if (bd.getBeanClass() == requiredType) {
+                exactMatch = beanName;
             }
         }
         
         // 如果没找到普通 bean，检查 FactoryBean(是为集成mybatis)
         if (matchingBeans.isEmpty()) {
-            for (String beanName : beanDefinitionMap.keySet()) {
+            for (String beanName : getBeanNamesForType(FactoryBean.class)) {
                 BeanDefinition bd = beanDefinitionMap.get(beanName);
-                if (FactoryBean.class.isAssignableFrom(bd.getBeanClass())) {
-                    try {
-                        FactoryBean<?> factoryBean = (FactoryBean<?>) getBean(beanName);
-                        if (requiredType.isAssignableFrom(factoryBean.getObjectType())) {
-                            matchingBeans.add(beanName);
-                            if (bd.isPrimary()) {
-                                primaryBeans.add(beanName);
-                            }
-                            if (factoryBean.getObjectType() == requiredType) {
-                                exactMatch = beanName;
-                            }
-                        }
-                    } catch (Exception e) {
-                        // 忽略异常，继续检查其他 bean
-                        continue;
+                Class<?> objectType = getFactoryBeanObjectType(beanName);
+                if (bd != null && objectType != null && requiredType.isAssignableFrom(objectType)) {
+                    matchingBeans.add(beanName);
+                    if (bd.isPrimary()) {
+                        primaryBeans.add(beanName);
+                    }
+                    if (objectType == requiredType) {
+                        exactMatch = beanName;
                     }
                 }
             }
@@ -1015,43 +1106,17 @@ public class DefaultBeanFactory implements BeanFactory {
         
         // 优先返回@Primary标注的bean
         if (primaryBeans.size() == 1) {
-            String beanName = primaryBeans.get(0);
-            Object bean = getBean(beanName);
-            if (bean instanceof FactoryBean) {
-                try {
-                    return (T) ((FactoryBean<?>) bean).getObject();
-                } catch (Exception e) {
-                    throw new BeanCreationException(beanName, "Failed to get object from FactoryBean", e);
-                }
-            }
-            return (T) bean;
+            return primaryBeans.get(0);
         }
         
         // 其次返回精确匹配的bean
         if (exactMatch != null) {
-            Object bean = getBean(exactMatch);
-            if (bean instanceof FactoryBean) {
-                try {
-                    return (T) ((FactoryBean<?>) bean).getObject();
-                } catch (Exception e) {
-                    throw new BeanCreationException(exactMatch, "Failed to get object from FactoryBean", e);
-                }
-            }
-            return (T) bean;
+            return exactMatch;
         }
         
         // 如果只有一个匹配的bean，返回它
         if (matchingBeans.size() == 1) {
-            String beanName = matchingBeans.get(0);
-            Object bean = getBean(beanName);
-            if (bean instanceof FactoryBean) {
-                try {
-                    return (T) ((FactoryBean<?>) bean).getObject();
-                } catch (Exception e) {
-                    throw new BeanCreationException(beanName, "Failed to get object from FactoryBean", e);
-                }
-            }
-            return (T) bean;
+            return matchingBeans.get(0);
         }
         
         // 如果有多个匹配但没有Primary标注，抛出异常
@@ -1059,35 +1124,160 @@ public class DefaultBeanFactory implements BeanFactory {
             + "' and none is marked as primary: " + matchingBeans);
     }
 
+    /**
+     * 类型索引按定义的类型登记，定义是 FactoryBean 时按类型取到的应该是 FactoryBean 本身，返回 &name；
+     * 按产品类型查找走 getFactoryBeanObjectType
+     */
+    private String beanNameForDefinitionType(String beanName, BeanDefinition bd) {
+        if (bd != null && bd.getBeanClass() != null && FactoryBean.class.isAssignableFrom(bd.getBeanClass())) {
+            return FACTORY_BEAN_PREFIX + beanName;
+        }
+        return beanName;
+    }
+
+    /**
+     * 获取 FactoryBean 的产品类型，结果按bean名称缓存。
+     * 优先从定义推断，推断不出时才创建 FactoryBean 本身(不创建产品)并调用 getObjectType()
+     */
+    private Class<?> getFactoryBeanObjectType(String beanName) {
+        Class<?> objectType = factoryBeanObjectTypes.get(beanName);
+        if (objectType == null) {
+            BeanDefinition bd = beanDefinitionMap.get(beanName);
+            objectType = bd != null ? predictFactoryBeanObjectType(bd) : null;
+            if (objectType == null) {
+                try {
+                    FactoryBean<?> factoryBean = (FactoryBean<?>) getBean(FACTORY_BEAN_PREFIX + beanName);
+                    objectType = factoryBean.getObjectType();
+                } catch (Exception e) {
+                    // 忽略异常，继续检查其他 bean
+                    return null;
+                }
+            }
+            if (objectType != null) {
+                factoryBeanObjectTypes.put(beanName, objectType);
+            }
+        }
+        return objectType;
+    }
+
+    /**
+     * 从定义推断 FactoryBean 的产品类型：FactoryBean<T> 的泛型参数(类或工厂方法的返回类型)，
+     * 泛型参数未绑定时(如 MapperFactoryBean<T>)使用 Class 类型的构造器参数值
+     */
+    private static Class<?> predictFactoryBeanObjectType(BeanDefinition bd) {
+        Type type = bd.getFactoryMethod() != null ? bd.getFactoryMethod().getGenericReturnType() : bd.getBeanClass();
+        Class<?> objectType = type != null ? resolveFactoryBeanTypeArgument(type, new HashMap<>()) : null;
+        if (objectType != null && objectType != Object.class) {
+            return objectType;
+        }
+        for (ConstructorArg arg : bd.getConstructorArgs()) {
+            if (arg.getValue() instanceof Class) {
+                return (Class<?>) arg.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Class<?> resolveFactoryBeanTypeArgument(Type type, Map<TypeVariable<?>, Type> bindings) {
+        Class<?> rawType;
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            rawType = (Class<?>) parameterizedType.getRawType();
+            // 记录类型变量的绑定，父类和接口中的类型变量据此解析
+            TypeVariable<?>[] variables = rawType.getTypeParameters();
+            Type[] arguments = parameterizedType.getActualTypeArguments();
+            for (int i = 0; i < variables.length; i++) {
+                Type argument = arguments[i];
+                bindings.put(variables[i], bindings.containsKey(argument) ? bindings.get(argument) : argument);
+            }
+            if (rawType == FactoryBean.class) {
+                Type objectType = bindings.get(variables[0]);
+                if (objectType instanceof ParameterizedType) {
+                    return (Class<?>) ((ParameterizedType) objectType).getRawType();
+                }
+                return objectType instanceof Class ? (Class<?>) objectType : null;
+            }
+        } else if (type instanceof Class) {
+            rawType = (Class<?>) type;
+        } else {
+            return null;
+        }
+        for (Type ifc : rawType.getGenericInterfaces()) {
+            Class<?> objectType = resolveFactoryBeanTypeArgument(ifc, bindings);
+            if (objectType != null) {
+                return objectType;
+            }
+        }
+        Type superclass = rawType.getGenericSuperclass();
+        return superclass != null ? resolveFactoryBeanTypeArgument(superclass, bindings) : null;
+    }
+
+    /**
+     * 销毁回调的超时时间(毫秒)，超时的回调记录到关闭报告中，不再等待
+     */
+    public void setDestroyTimeoutMillis(long destroyTimeoutMillis) {
+        if (destroyTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Destroy timeout must be positive: " + destroyTimeoutMillis);
+        }
+        this.destroyTimeoutMillis = destroyTimeoutMillis;
+    }
+
+    /**
+     * 并发执行销毁回调的最大线程数，为 1 时按依赖逆序串行销毁
+     */
+    public void setDestroyParallelism(int destroyParallelism) {
+        if (destroyParallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + destroyParallelism);
+        }
+        this.destroyParallelism = destroyParallelism;
+    }
+
+    /**
+     * 最近一次销毁单例的报告，还没有关闭时为 null
+     */
+    public ShutdownReport getShutdownReport() {
+        return shutdownReport;
+    }
+
+    /**
+     * 按依赖逆序销毁已创建的单例，失败和超时只记录在报告中；重复调用返回第一次的报告
+     */
+    public synchronized ShutdownReport destroySingletons() {
+        if (closed) {
+            return shutdownReport;
+        }
+        shutdownReport = new SingletonDestroyer(this, destroyTimeoutMillis, destroyParallelism)
+            .destroy(new HashMap<>(singletonObjects));
+        closed = true;
+        return shutdownReport;
+    }
+
     public void close() {
         if (closed) {
             return;
         }
         
-        // 遍历所有单例bean，调用destroy方法
-        for (Map.Entry<String, Object> entry : singletonObjects.entrySet()) {
-            String beanName = entry.getKey();
-            Object bean = entry.getValue();
-            BeanDefinition bd = getBeanDefinition(beanName);
-            
-            try {
-                invokeDestroyMethod(bean, bd);
-            } catch (BeanCreationException e) {
+        // 所有单例都处理完之后，再抛出第一个失败
+        ShutdownReport report = destroySingletons();
+        List<ShutdownReport.Entry> failures = report.getEntries(ShutdownReport.Status.FAILED);
+        if (!failures.isEmpty()) {
+            ShutdownReport.Entry failure = failures.get(0);
+            if (failure.getError() instanceof BeanCreationException) {
                 // BeanCreationException 直接抛出，不再包装
-                throw e;
-            } catch (Exception e) {
-                throw new BeanCreationException(beanName, "Failed to destroy bean", e);
+                throw (BeanCreationException) failure.getError();
             }
+            throw new BeanCreationException(failure.getBeanName(), "Failed to destroy bean", failure.getError());
+        }
+        if (report.hasProblems()) {
+            System.err.println(report);
         }
-        
-        closed = true;
     }
     
     protected void invokeDestroyMethod(Object bean, BeanDefinition bd) {
         String destroyMethodName = bd.getDestroyMethodName();
         if (destroyMethodName != null && !destroyMethodName.isEmpty()) {
             try {
-                Method destroyMethod = bd.getBeanClass().getDeclaredMethod(destroyMethodName);
+                Method destroyMethod = findDestroyMethod(bean.getClass(), bd.getBeanClass(), destroyMethodName);
                 destroyMethod.setAccessible(true);
                 destroyMethod.invoke(bean);
             } catch (NoSuchMethodException e) {
@@ -1100,6 +1290,21 @@ public class DefaultBeanFactory implements BeanFactory {
         }
     }
 
+    /**
+     * 先在实际对象的类层次中查找(@Bean 方法返回的可能是声明类型的子类)，再查找定义中的类
+     */
+    private Method findDestroyMethod(Class<?> actualClass, Class<?> declaredClass, String name)
+            throws NoSuchMethodException {
+        for (Class<?> clazz = actualClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            try {
+                return clazz.getDeclaredMethod(name);
+            } catch (NoSuchMethodException e) {
+                // 继续查找父类
+            }
+        }
+        return declaredClass.getDeclaredMethod(name);
+    }
+
     private void invokeAwareMethods(String beanName, Object bean) {
         if (bean instanceof BeanNameAware) {
             ((BeanNameAware) bean).setBeanName(beanName);
@@ -1138,20 +1343,117 @@ public class DefaultBeanFactory implements BeanFactory {
     }
 
     protected boolean isInCreation(String beanName) {
-        return singletonsCurrentlyInCreation.contains(beanName);
+        return singletonsCurrentlyInCreation.get().contains(beanName);
     }
 
+    /**
+     * 创建单例：每个bean一个创建记录(CompletableFuture)，不同bean的创建互不阻塞，
+     * 同一个bean的并发请求只等待该bean创建完成
+     */
     protected Object createSingleton(String beanName, ObjectFactory<?> factory) {
-        synchronized (this.singletonObjects) {
-            if (!this.singletonObjects.containsKey(beanName)) {
-                Object singleton = factory.getObject();
+        Object singleton = this.singletonObjects.get(beanName);
+        if (singleton != null) {
+            return singleton;
+        }
+
+        SingletonCreation creation = new SingletonCreation();
+        SingletonCreation existing = this.singletonCreations.putIfAbsent(beanName, creation);
+        if (existing != null) {
+            if (existing.thread == Thread.currentThread()) {
+                // 同一线程重入(循环依赖)：直接交给工厂，由创建过程报告无法解决的循环依赖
+                singleton = factory.getObject();
                 this.singletonObjects.put(beanName, singleton);
                 return singleton;
             }
-            return this.singletonObjects.get(beanName);
+            return awaitSingleton(beanName, existing);
+        }
+
+        try {
+            // 其他线程可能在 get 和 putIfAbsent 之间刚好创建完成
+            singleton = this.singletonObjects.get(beanName);
+            if (singleton == null) {
+                singleton = factory.getObject();
+                this.singletonObjects.put(beanName, singleton);
+            }
+            creation.future.complete(singleton);
+            return singleton;
+        } catch (RuntimeException | Error e) {
+            creation.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.singletonCreations.remove(beanName, creation);
         }
     }
 
+    /**
+     * 等待其他线程创建的单例。
+     * 如果对方(直接或间接)正在等待当前线程创建的bean，继续等待就会死锁，
+     * 此时与单线程的循环依赖一样改用早期引用
+     */
+    private Object awaitSingleton(String beanName, SingletonCreation creation) {
+        Thread current = Thread.currentThread();
+        this.waitingThreads.put(current, creation);
+        try {
+            while (true) {
+                if (isWaitingOn(creation, current)) {
+                    Object earlyReference = getEarlySingletonReference(beanName);
+                    if (earlyReference == null) {
+                        throw new CircularDependencyException(
+                            "Circular dependency across threads while creating bean: " + beanName);
+                    }
+                    return earlyReference;
+                }
+                try {
+                    // 定期醒来重新检查循环等待：对方可能在本线程登记之后才开始等待
+                    return creation.future.get(WAIT_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // 继续等待
+                }
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new BeanCreationException(beanName, "Singleton creation failed in another thread", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BeanCreationException(beanName, "Interrupted while waiting for singleton creation", e);
+        } finally {
+            this.waitingThreads.remove(current);
+        }
+    }
+
+    /**
+     * 沿"创建线程 -> 它正在等待的创建记录"检查是否回到当前线程
+     */
+    private boolean isWaitingOn(SingletonCreation creation, Thread current) {
+        Set<Thread> visited = new HashSet<>();
+        SingletonCreation next = creation;
+        while (next != null && visited.add(next.thread)) {
+            if (next.thread == current) {
+                return true;
+            }
+            next = this.waitingThreads.get(next.thread);
+        }
+        return false;
+    }
+
+    private Object getSingletonLock(String beanName) {
+        return this.singletonLocks.computeIfAbsent(beanName, k -> new Object());
+    }
+
+    /**
+     * 一次单例创建：记录创建线程，完成时通过 future 把结果交给等待的线程
+     */
+    private static class SingletonCreation {
+        private final Thread thread = Thread.currentThread();
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+    }
+
     @Override
     public String[] getBeanNamesForAnnotation(Class<? extends Annotation> annotationType) {
         List<String> result = new ArrayList<>();
@@ -1303,11 +1605,8 @@ public class DefaultBeanFactory implements BeanFactory {
 
     public List<Object> getBeansByType(Class<?> type) {
         List<Object> result = new ArrayList<>();
-        for (String name : getBeanDefinitionNames()) {
-            BeanDefinition bd = getBeanDefinition(name);
-            if (type.isAssignableFrom(bd.getBeanClass())) {
-                result.add(getBean(name));
-            }
+        for (String name : getBeanNamesForType(type)) {
+            result.add(getBean(beanNameForDefinitionType(name, beanDefinitionMap.get(name))));
         }
         return result;
     }
@@ -0,0 +1,411 @@
+package org.microspring.core;
+
+import org.microspring.beans.factory.annotation.Autowired;
+import org.microspring.beans.factory.annotation.Lazy;
+import org.microspring.beans.factory.annotation.Qualifier;
+import org.microspring.beans.factory.annotation.Value;
+
+import javax.annotation.Resource;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 类级别的注入元数据
+ * 每个bean类只解析一次 @Autowired/@Resource/@Value 注入点以及候选构造器，
+ * 字段、方法和构造器提前设置为可访问。之后创建实例(尤其是prototype/request作用域)时
+ * 不再做 getDeclaredFields/getDeclaredMethods/getAnnotation 之类的反射查找
+ */
+public class InjectionMetadata {
+
+    private final Class<?> targetClass;
+
+    // 用于 PropertyValue 按名称注入
+    private final Map<String, Field> fieldsByName = new HashMap<>();
+
+    private final List<InjectedField> autowiredFields = new ArrayList<>();
+    private final List<InjectedField> resourceFields = new ArrayList<>();
+    private final List<InjectedField> valueFields = new ArrayList<>();
+    private final List<InjectedMethod> autowiredMethods = new ArrayList<>();
+    private final List<InjectedMethod> resourceMethods = new ArrayList<>();
+    private final List<InjectedMethod> valueMethods = new ArrayList<>();
+
+    // 构造器候选
+    private final Constructor<?>[] declaredConstructors;
+    private Constructor<?> autowiredConstructor;
+    private DependencyDescriptor[] autowiredConstructorParameters;
+    private Constructor<?> valueConstructor;
+    private String[] valueConstructorExpressions;
+    private Constructor<?> defaultConstructor;
+
+    // 按名称缓存的无参方法(init方法等)
+    private final Map<String, Method> noArgMethods = new ConcurrentHashMap<>();
+
+    public InjectionMetadata(Class<?> targetClass) {
+        this.targetClass = targetClass;
+        for (Field field : targetClass.getDeclaredFields()) {
+            inspectField(field);
+        }
+        for (Method method : targetClass.getDeclaredMethods()) {
+            inspectMethod(method);
+        }
+        this.declaredConstructors = targetClass.getDeclaredConstructors();
+        inspectConstructors();
+    }
+
+    private void inspectField(Field field) {
+        // 构建元数据时统一设置可访问，之后按名称取字段不再检查
+        try {
+            field.setAccessible(true);
+        } catch (RuntimeException e) {
+            // JDK 模块中未开放的类(例如注册为 bean 的 JDK 类)，只有真正注入该字段时才会报错
+        }
+        fieldsByName.put(field.getName(), field);
+
+        Autowired autowired = field.getAnnotation(Autowired.class);
+        Resource resource = field.getAnnotation(Resource.class);
+        Value value = field.getAnnotation(Value.class);
+        if (autowired == null && resource == null && value == null) {
+            return;
+        }
+        DependencyDescriptor descriptor = new DependencyDescriptor(field.getType(), field.getGenericType(),
+            field.getAnnotation(Qualifier.class), isLazy(field.getAnnotation(Lazy.class)));
+
+        if (autowired != null) {
+            autowiredFields.add(new InjectedField(field, descriptor, null, null));
+        }
+        if (resource != null) {
+            String name = resource.name().isEmpty() ? field.getName() : resource.name();
+            resourceFields.add(new InjectedField(field, descriptor, name, null));
+        }
+        if (value != null) {
+            valueFields.add(new InjectedField(field, descriptor, null, value.value()));
+        }
+    }
+
+    private void inspectMethod(Method method) {
+        Autowired autowired = method.getAnnotation(Autowired.class);
+        Resource resource = method.getAnnotation(Resource.class);
+        Value value = method.getAnnotation(Value.class);
+        if (autowired == null && resource == null && value == null) {
+            return;
+        }
+        method.setAccessible(true);
+        Parameter[] parameters = method.getParameters();
+        DependencyDescriptor[] descriptors = new DependencyDescriptor[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            descriptors[i] = new DependencyDescriptor(parameters[i].getType(),
+                parameters[i].getParameterizedType(), parameters[i].getAnnotation(Qualifier.class),
+                isLazy(parameters[i].getAnnotation(Lazy.class)));
+        }
+
+        if (autowired != null) {
+            autowiredMethods.add(new InjectedMethod(method, descriptors, null, null));
+        }
+        if (resource != null && parameters.length == 1) {
+            String name = resource.name();
+            if (name.isEmpty()) {
+                if (method.getName().startsWith("set")) {
+                    // 使用方法名去掉"set"后的部分
+                    name = method.getName().substring(3);
+                    name = Character.toLowerCase(name.charAt(0)) + name.substring(1);
+                } else {
+                    // 使用参数类型的首字母小写作为bean名称
+                    name = descriptors[0].getDefaultBeanName();
+                }
+            }
+            resourceMethods.add(new InjectedMethod(method, descriptors, name, null));
+        }
+        // 只接受 setter 方法
+        if (value != null && method.getName().startsWith("set")
+                && parameters.length == 1 && method.getReturnType() == void.class) {
+            valueMethods.add(new InjectedMethod(method, descriptors, null, value.value()));
+        }
+    }
+
+    private static boolean isLazy(Lazy lazy) {
+        return lazy != null && lazy.value();
+    }
+
+    private void inspectConstructors() {
+        for (Constructor<?> constructor : declaredConstructors) {
+            if (constructor.isAnnotationPresent(Autowired.class)) {
+                constructor.setAccessible(true);
+                Parameter[] parameters = constructor.getParameters();
+                DependencyDescriptor[] descriptors = new DependencyDescriptor[parameters.length];
+                for (int i = 0; i < parameters.length; i++) {
+                    descriptors[i] = new DependencyDescriptor(parameters[i].getType(),
+                        parameters[i].getParameterizedType(), parameters[i].getAnnotation(Qualifier.class),
+                        isLazy(parameters[i].getAnnotation(Lazy.class)));
+                }
+                this.autowiredConstructor = constructor;
+                this.autowiredConstructorParameters = descriptors;
+                break;
+            }
+        }
+
+        for (Constructor<?> constructor : declaredConstructors) {
+            Parameter[] parameters = constructor.getParameters();
+            String[] expressions = new String[parameters.length];
+            boolean hasValueAnnotation = false;
+            for (int i = 0; i < parameters.length; i++) {
+                Value value = parameters[i].getAnnotation(Value.class);
+                if (value != null) {
+                    expressions[i] = value.value();
+                    hasValueAnnotation = true;
+                }
+            }
+            if (hasValueAnnotation) {
+                constructor.setAccessible(true);
+                this.valueConstructor = constructor;
+                this.valueConstructorExpressions = expressions;
+                break;
+            }
+        }
+
+        for (Constructor<?> constructor : declaredConstructors) {
+            if (constructor.getParameterCount() == 0) {
+                constructor.setAccessible(true);
+                this.defaultConstructor = constructor;
+                break;
+            }
+        }
+    }
+
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    /**
+     * 按名称获取已设置为可访问的字段
+     */
+    public Field getField(String name) throws NoSuchFieldException {
+        Field field = fieldsByName.get(name);
+        if (field == null) {
+            throw new NoSuchFieldException(name);
+        }
+        return field;
+    }
+
+    /**
+     * 按名称获取已设置为可访问的无参方法，用于init方法等按名称调用的场景
+     */
+    public Method getNoArgMethod(String name) throws NoSuchMethodException {
+        Method method = noArgMethods.get(name);
+        if (method == null) {
+            method = targetClass.getDeclaredMethod(name);
+            method.setAccessible(true);
+            noArgMethods.put(name, method);
+        }
+        return method;
+    }
+
+    public List<InjectedField> getAutowiredFields() {
+        return Collections.unmodifiableList(autowiredFields);
+    }
+
+    public List<InjectedField> getResourceFields() {
+        return Collections.unmodifiableList(resourceFields);
+    }
+
+    public List<InjectedField> getValueFields() {
+        return Collections.unmodifiableList(valueFields);
+    }
+
+    public List<InjectedMethod> getAutowiredMethods() {
+        return Collections.unmodifiableList(autowiredMethods);
+    }
+
+    public List<InjectedMethod> getResourceMethods() {
+        return Collections.unmodifiableList(resourceMethods);
+    }
+
+    public List<InjectedMethod> getValueMethods() {
+        return Collections.unmodifiableList(valueMethods);
+    }
+
+    public Constructor<?>[] getDeclaredConstructors() {
+        return declaredConstructors;
+    }
+
+    public Constructor<?> getAutowiredConstructor() {
+        return autowiredConstructor;
+    }
+
+    public DependencyDescriptor[] getAutowiredConstructorParameters() {
+        return autowiredConstructorParameters;
+    }
+
+    public Constructor<?> getValueConstructor() {
+        return valueConstructor;
+    }
+
+    /**
+     * @Value 构造器每个参数上的表达式，没有 @Value 的参数为 null
+     */
+    public String[] getValueConstructorExpressions() {
+        return valueConstructorExpressions;
+    }
+
+    public Constructor<?> getDefaultConstructor() {
+        return defaultConstructor;
+    }
+
+    /**
+     * 单个依赖(字段类型或方法/构造器参数)的解析结果
+     */
+    public static class DependencyDescriptor {
+        private final Class<?> type;
+        private final String qualifier;
+        private final boolean parameterized;
+        // List 的元素类型或 Map 的值类型，不是 Class 时为 null
+        private final Class<?> elementType;
+        private final boolean stringKeyed;
+        private final String defaultBeanName;
+        private final boolean lazy;
+
+        DependencyDescriptor(Class<?> type, Type genericType, Qualifier qualifier, boolean lazy) {
+            this.type = type;
+            this.qualifier = qualifier != null ? qualifier.value() : null;
+            this.lazy = lazy;
+            this.parameterized = genericType instanceof ParameterizedType;
+
+            Class<?> element = null;
+            boolean keyedByString = false;
+            if (parameterized && (isList() || isMap())) {
+                Type[] typeArgs = ((ParameterizedType) genericType).getActualTypeArguments();
+                Type elementArg = isList() ? typeArgs[0] : (typeArgs.length == 2 ? typeArgs[1] : null);
+                if (elementArg instanceof Class) {
+                    element = (Class<?>) elementArg;
+                }
+                keyedByString = isMap() && typeArgs.length == 2 && typeArgs[0] == String.class;
+            }
+            this.elementType = element;
+            this.stringKeyed = keyedByString;
+
+            String simpleName = type.getSimpleName();
+            this.defaultBeanName = simpleName.isEmpty() ? simpleName
+                : Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        public String getQualifier() {
+            return qualifier;
+        }
+
+        public boolean isList() {
+            return List.class.isAssignableFrom(type);
+        }
+
+        public boolean isMap() {
+            return Map.class.isAssignableFrom(type);
+        }
+
+        public boolean isParameterized() {
+            return parameterized;
+        }
+
+        public Class<?> getElementType() {
+            return elementType;
+        }
+
+        public boolean isStringKeyed() {
+            return stringKeyed;
+        }
+
+        public String getDefaultBeanName() {
+            return defaultBeanName;
+        }
+
+        /**
+         * 是否标注了 @Lazy，需要注入延迟解析代理
+         */
+        public boolean isLazy() {
+            return lazy;
+        }
+    }
+
+    /**
+     * 字段注入点
+     */
+    public static class InjectedField {
+        private final Field field;
+        private final DependencyDescriptor descriptor;
+        private final String resourceName;
+        private final String valueExpression;
+
+        InjectedField(Field field, DependencyDescriptor descriptor, String resourceName, String valueExpression) {
+            this.field = field;
+            this.descriptor = descriptor;
+            this.resourceName = resourceName;
+            this.valueExpression = valueExpression;
+        }
+
+        public Field getField() {
+            return field;
+        }
+
+        public DependencyDescriptor getDescriptor() {
+            return descriptor;
+        }
+
+        /**
+         * @Resource 指定的名称，未指定时为字段名
+         */
+        public String getResourceName() {
+            return resourceName;
+        }
+
+        public String getValueExpression() {
+            return valueExpression;
+        }
+    }
+
+    /**
+     * 方法注入点
+     */
+    public static class InjectedMethod {
+        private final Method method;
+        private final DependencyDescriptor[] parameters;
+        private final String resourceName;
+        private final String valueExpression;
+
+        InjectedMethod(Method method, DependencyDescriptor[] parameters, String resourceName, String valueExpression) {
+            this.method = method;
+            this.parameters = parameters;
+            this.resourceName = resourceName;
+            this.valueExpression = valueExpression;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public DependencyDescriptor[] getParameters() {
+            return parameters;
+        }
+
+        /**
+         * @Resource 指定的名称，未指定时由 setter 名称或参数类型推导
+         */
+        public String getResourceName() {
+            return resourceName;
+        }
+
+        public String getValueExpression() {
+            return valueExpression;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.microspring.core;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.InvocationHandlerAdapter;
+import org.objenesis.Objenesis;
+import org.objenesis.ObjenesisStd;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
+import static net.bytebuddy.matcher.ElementMatchers.isEquals;
+import static net.bytebuddy.matcher.ElementMatchers.isHashCode;
+import static net.bytebuddy.matcher.ElementMatchers.isToString;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+
+/**
+ * @Lazy 注入点使用的延迟解析代理
+ * 注入时不创建依赖，第一次调用代理方法时才通过 ObjectFactory 获取目标bean，之后直接委托给目标。
+ * 接口类型使用 JDK 动态代理；类类型由 ByteBuddy 生成子类，实例通过 Objenesis 创建，不调用目标类的构造器。
+ * final 类无法代理，final 方法调用的是代理对象自身(未初始化)的实现，不会转发给目标
+ */
+public class LazyResolutionProxy implements InvocationHandler {
+
+    private static final String HANDLER_FIELD = "$$microSpringLazyHandler";
+
+    // 类类型的代理类缓存，对目标类和代理类都是弱引用
+    private static final Map<Class<?>, WeakReference<Class<?>>> proxyClassCache =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Objenesis objenesis = new ObjenesisStd(true);
+    // JDK 8 上没有 privateLookupIn，退回到反射调用 ClassLoader.defineClass
+    private static final Method privateLookupIn = findPrivateLookupIn();
+
+    private final Class<?> type;
+    private final ObjectFactory<?> targetFactory;
+    private volatile Object target;
+
+    private LazyResolutionProxy(Class<?> type, ObjectFactory<?> targetFactory) {
+        this.type = type;
+        this.targetFactory = targetFactory;
+    }
+
+    public static Object newProxy(Class<?> type, ObjectFactory<?> targetFactory) {
+        if (type.isInterface()) {
+            ClassLoader classLoader = type.getClassLoader() != null
+                ? type.getClassLoader() : LazyResolutionProxy.class.getClassLoader();
+            return Proxy.newProxyInstance(classLoader, new Class<?>[]{type}, new LazyResolutionProxy(type, targetFactory));
+        }
+        if (type.isPrimitive() || type.isArray() || Modifier.isFinal(type.getModifiers())) {
+            throw new IllegalArgumentException("Lazy resolution proxy requires an interface or non-final class: "
+                + type.getName());
+        }
+        Class<?> proxyClass = getProxyClass(type);
+        Object proxy = objenesis.newInstance(proxyClass);
+        try {
+            Field handler = proxyClass.getDeclaredField(HANDLER_FIELD);
+            handler.setAccessible(true);
+            handler.set(proxy, new LazyResolutionProxy(type, targetFactory));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Failed to initialize lazy resolution proxy for " + type.getName(), e);
+        }
+        return proxy;
+    }
+
+    /**
+     * 代理的目标是否已经解析
+     */
+    public static boolean isResolved(Object proxy) {
+        LazyResolutionProxy handler = getHandler(proxy);
+        return handler == null || handler.target != null;
+    }
+
+    private static LazyResolutionProxy getHandler(Object proxy) {
+        if (Proxy.isProxyClass(proxy.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(proxy);
+            return handler instanceof LazyResolutionProxy ? (LazyResolutionProxy) handler : null;
+        }
+        try {
+            Field field = proxy.getClass().getDeclaredField(HANDLER_FIELD);
+            field.setAccessible(true);
+            return (LazyResolutionProxy) field.get(proxy);
+        } catch (NoSuchFieldException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access lazy resolution proxy handler", e);
+        }
+    }
+
+    private static Class<?> getProxyClass(Class<?> type) {
+        synchronized (proxyClassCache) {
+            WeakReference<Class<?>> cached = proxyClassCache.get(type);
+            Class<?> proxyClass = cached != null ? cached.get() : null;
+            if (proxyClass == null) {
+                proxyClass = createProxyClass(type);
+                proxyClassCache.put(type, new WeakReference<>(proxyClass));
+            }
+            return proxyClass;
+        }
+    }
+
+    private static Class<?> createProxyClass(Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader() != null
+            ? type.getClassLoader() : LazyResolutionProxy.class.getClassLoader();
+        try {
+            return new ByteBuddy()
+                .subclass(type)
+                .defineField(HANDLER_FIELD, InvocationHandler.class, Visibility.PRIVATE)
+                .method(not(isDeclaredBy(Object.class)).or(isEquals()).or(isHashCode()).or(isToString()))
+                .intercept(InvocationHandlerAdapter.toField(HANDLER_FIELD))
+                .make()
+                .load(classLoader, loadingStrategy(type, classLoader))
+                .getLoaded();
+        } catch (RuntimeException | LinkageError e) {
+            throw new IllegalArgumentException("Failed to create lazy resolution proxy for " + type.getName(), e);
+        }
+    }
+
+    /**
+     * 代理类定义在目标类所在的包中，这样也能覆盖包可见的方法
+     */
+    private static ClassLoadingStrategy<ClassLoader> loadingStrategy(Class<?> type, ClassLoader classLoader) {
+        if (classLoader != type.getClassLoader()) {
+            return ClassLoadingStrategy.Default.WRAPPER;
+        }
+        if (privateLookupIn == null) {
+            return ClassLoadingStrategy.Default.INJECTION;
+        }
+        try {
+            return ClassLoadingStrategy.UsingLookup.of(privateLookupIn.invoke(null, type, MethodHandles.lookup()));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot access package of " + type.getName(), e);
+        }
+    }
+
+    private static Method findPrivateLookupIn() {
+        try {
+            return MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private Object getTarget() {
+        Object result = target;
+        if (result == null) {
+            synchronized (this) {
+                result = target;
+                if (result == null) {
+                    result = targetFactory.getObject();
+                    if (result == null) {
+                        throw new IllegalStateException("Lazy dependency of type " + type.getName() + " resolved to null");
+                    }
+                    target = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        // equals/hashCode 不触发解析，代理按自身身份比较
+        if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+        }
+        // 子类代理拦截的方法可能是包可见或 protected 的，或者声明在非 public 类中
+        if (!Modifier.isPublic(method.getModifiers()) || !Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            method.setAccessible(true);
+        }
+        try {
+            return method.invoke(getTarget(), args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
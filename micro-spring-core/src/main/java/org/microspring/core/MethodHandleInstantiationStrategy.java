@@ -0,0 +1,170 @@
+package org.microspring.core;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于 MethodHandle 的实例化策略(默认)
+ * 每个构造器/方法/字段第一次使用时转换为统一签名的 MethodHandle 并缓存：
+ * 参数全部为 Object、返回 Object(void 方法返回 null)，参数较多时展开为 Object[]，字段为 (Object, Object)void。
+ * 调用点签名固定，JIT 可以内联，适合大量创建 prototype bean 的场景。
+ * 无法转换的成员(例如 static final 字段)退回反射调用
+ */
+public class MethodHandleInstantiationStrategy implements BeanInstantiationStrategy {
+
+    // 参数个数不超过该值时直接按参数调用，避免数组展开
+    private static final int MAX_DIRECT_ARITY = 2;
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+    private static final MethodType METHOD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final Object[] EMPTY_ARGS = new Object[0];
+
+    // 标记无法转换为 MethodHandle 的成员
+    private static final MethodHandle UNSUPPORTED = MethodHandles.constant(Object.class, null);
+
+    private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+    private final ReflectiveInstantiationStrategy fallback = new ReflectiveInstantiationStrategy();
+    private final Map<Member, MethodHandle> handleCache = new ConcurrentHashMap<>();
+
+    @Override
+    public Object instantiate(Constructor<?> constructor, Object... args) throws Exception {
+        MethodHandle handle = handleCache.get(constructor);
+        if (handle == null) {
+            handle = handleCache.computeIfAbsent(constructor, k -> createConstructorHandle(constructor));
+        }
+        if (handle == UNSUPPORTED) {
+            return fallback.instantiate(constructor, args);
+        }
+        args = checkArguments(constructor.getParameterCount(), args);
+        try {
+            switch (args.length) {
+                case 0:
+                    return (Object) handle.invokeExact();
+                case 1:
+                    return (Object) handle.invokeExact(args[0]);
+                case 2:
+                    return (Object) handle.invokeExact(args[0], args[1]);
+                default:
+                    return (Object) handle.invokeExact(args);
+            }
+        } catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    @Override
+    public Object invoke(Object target, Method method, Object... args) throws Exception {
+        MethodHandle handle = handleCache.get(method);
+        if (handle == null) {
+            handle = handleCache.computeIfAbsent(method, k -> createMethodHandle(method));
+        }
+        if (handle == UNSUPPORTED) {
+            return fallback.invoke(target, method, args);
+        }
+        args = checkArguments(method.getParameterCount(), args);
+        if (target == null && !Modifier.isStatic(method.getModifiers())) {
+            throw new NullPointerException("Target object is null for instance method " + method);
+        }
+        try {
+            switch (args.length) {
+                case 0:
+                    return (Object) handle.invokeExact(target);
+                case 1:
+                    return (Object) handle.invokeExact(target, args[0]);
+                case 2:
+                    return (Object) handle.invokeExact(target, args[0], args[1]);
+                default:
+                    return (Object) handle.invokeExact(target, args);
+            }
+        } catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    @Override
+    public void setField(Object target, Field field, Object value) throws Exception {
+        MethodHandle handle = handleCache.get(field);
+        if (handle == null) {
+            handle = handleCache.computeIfAbsent(field, k -> createSetterHandle(field));
+        }
+        if (handle == UNSUPPORTED) {
+            fallback.setField(target, field, value);
+            return;
+        }
+        try {
+            handle.invokeExact(target, value);
+        } catch (ClassCastException | NullPointerException ex) {
+            // setter 句柄不包含用户代码，这里的异常只可能来自参数类型转换，与 Field.set 保持一致
+            if (target == null) {
+                throw ex;
+            }
+            throw new IllegalArgumentException("Can not set " + field.getType().getName() + " field "
+                + field.getDeclaringClass().getName() + "." + field.getName() + " to "
+                + (value != null ? value.getClass().getName() : "null value"), ex);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Failed to set field " + field.getName(), ex);
+        }
+    }
+
+    private MethodHandle createConstructorHandle(Constructor<?> constructor) {
+        try {
+            int count = constructor.getParameterCount();
+            MethodHandle handle = lookup.unreflectConstructor(constructor)
+                .asType(MethodType.genericMethodType(count));
+            return count <= MAX_DIRECT_ARITY ? handle
+                : handle.asSpreader(Object[].class, count).asType(CONSTRUCTOR_TYPE);
+        } catch (IllegalAccessException | RuntimeException ex) {
+            return UNSUPPORTED;
+        }
+    }
+
+    private MethodHandle createMethodHandle(Method method) {
+        try {
+            int count = method.getParameterCount();
+            MethodHandle handle = lookup.unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                // 静态方法忽略目标对象参数
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            handle = handle.asType(MethodType.genericMethodType(count + 1));
+            return count <= MAX_DIRECT_ARITY ? handle
+                : handle.asSpreader(Object[].class, count).asType(METHOD_TYPE);
+        } catch (IllegalAccessException | RuntimeException ex) {
+            return UNSUPPORTED;
+        }
+    }
+
+    private MethodHandle createSetterHandle(Field field) {
+        if (Modifier.isStatic(field.getModifiers())) {
+            return UNSUPPORTED;
+        }
+        try {
+            return lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException | RuntimeException ex) {
+            return UNSUPPORTED;
+        }
+    }
+
+    private Object[] checkArguments(int expected, Object[] args) {
+        if (args == null) {
+            args = EMPTY_ARGS;
+        }
+        if (args.length != expected) {
+            throw new IllegalArgumentException("wrong number of arguments: expected " + expected + ", got " + args.length);
+        }
+        return args;
+    }
+}
@@ -0,0 +1,26 @@
+package org.microspring.core;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * 基于反射的实例化策略，直接使用 Constructor.newInstance/Method.invoke/Field.set
+ */
+public class ReflectiveInstantiationStrategy implements BeanInstantiationStrategy {
+
+    @Override
+    public Object instantiate(Constructor<?> constructor, Object... args) throws Exception {
+        return constructor.newInstance(args);
+    }
+
+    @Override
+    public Object invoke(Object target, Method method, Object... args) throws Exception {
+        return method.invoke(target, args);
+    }
+
+    @Override
+    public void setField(Object target, Field field, Object value) throws Exception {
+        field.set(target, value);
+    }
+}
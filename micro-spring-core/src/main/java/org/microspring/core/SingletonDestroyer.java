@@ -0,0 +1,142 @@
+package org.microspring.core;
+
+import org.microspring.core.shutdown.ShutdownReport;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按依赖逆序销毁已创建的单例
+ * 一个bean要等所有依赖它的bean销毁后才销毁，互不依赖的bean并发执行销毁回调；
+ * 每个回调有超时时间，超时或失败只记录到报告中，不影响其他bean的销毁。
+ * 只处理已经在单例缓存中的bean，不会为了销毁而创建bean
+ */
+class SingletonDestroyer {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final DefaultBeanFactory beanFactory;
+    private final long timeoutMillis;
+    private final int parallelism;
+
+    SingletonDestroyer(DefaultBeanFactory beanFactory, long timeoutMillis, int parallelism) {
+        this.beanFactory = beanFactory;
+        this.timeoutMillis = timeoutMillis;
+        this.parallelism = parallelism;
+    }
+
+    ShutdownReport destroy(Map<String, Object> singletons) {
+        ShutdownReport report = new ShutdownReport();
+        // 只有声明了销毁方法的单例需要处理
+        Map<String, Object> disposables = new HashMap<>();
+        for (Map.Entry<String, Object> entry : singletons.entrySet()) {
+            BeanDefinition bd = beanFactory.getBeanDefinition(entry.getKey());
+            if (bd != null && bd.getDestroyMethodName() != null && !bd.getDestroyMethodName().isEmpty()) {
+                disposables.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (disposables.isEmpty()) {
+            report.finish();
+            return report;
+        }
+
+        // 超时的回调线程无法强制结束，使用守护线程避免阻止 JVM 退出
+        ExecutorService callbackExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "microspring-destroy-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<BeanDependencyGraph.CreationGroup> groups = new BeanDependencyGraph(beanFactory).getCreationGroups();
+            if (parallelism == 1 || disposables.size() == 1) {
+                // 分组按依赖顺序排列，倒序即销毁顺序
+                for (int i = groups.size() - 1; i >= 0; i--) {
+                    destroyGroup(groups.get(i), disposables, callbackExecutor, report);
+                }
+            } else {
+                destroyConcurrently(groups, disposables, callbackExecutor, report);
+            }
+        } finally {
+            callbackExecutor.shutdownNow();
+            report.finish();
+        }
+        return report;
+    }
+
+    private void destroyConcurrently(List<BeanDependencyGraph.CreationGroup> groups, Map<String, Object> disposables,
+                                     ExecutorService callbackExecutor, ShutdownReport report) {
+        // 分组 -> 依赖它的分组，这些分组销毁完成后它才能销毁
+        Map<BeanDependencyGraph.CreationGroup, List<BeanDependencyGraph.CreationGroup>> dependents = new HashMap<>();
+        for (BeanDependencyGraph.CreationGroup group : groups) {
+            for (BeanDependencyGraph.CreationGroup dep : group.getDependencies()) {
+                dependents.computeIfAbsent(dep, k -> new ArrayList<>()).add(group);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            Map<BeanDependencyGraph.CreationGroup, CompletableFuture<Void>> futures = new HashMap<>();
+            // 倒序遍历保证依赖它的分组先建立任务
+            for (int i = groups.size() - 1; i >= 0; i--) {
+                BeanDependencyGraph.CreationGroup group = groups.get(i);
+                List<BeanDependencyGraph.CreationGroup> waitFor =
+                    dependents.getOrDefault(group, Collections.emptyList());
+                CompletableFuture<?>[] prerequisites = new CompletableFuture<?>[waitFor.size()];
+                for (int j = 0; j < prerequisites.length; j++) {
+                    prerequisites[j] = futures.get(waitFor.get(j));
+                }
+                futures.put(group, CompletableFuture.allOf(prerequisites).thenRunAsync(
+                    () -> destroyGroup(group, disposables, callbackExecutor, report), pool));
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * 组内(循环依赖的bean)按创建顺序的倒序依次销毁
+     */
+    private void destroyGroup(BeanDependencyGraph.CreationGroup group, Map<String, Object> disposables,
+                              ExecutorService callbackExecutor, ShutdownReport report) {
+        List<String> beanNames = group.getBeanNames();
+        for (int i = beanNames.size() - 1; i >= 0; i--) {
+            String beanName = beanNames.get(i);
+            Object bean = disposables.get(beanName);
+            if (bean != null) {
+                destroyBean(beanName, bean, callbackExecutor, report);
+            }
+        }
+    }
+
+    private void destroyBean(String beanName, Object bean, ExecutorService callbackExecutor, ShutdownReport report) {
+        BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
+        long start = System.nanoTime();
+        Future<?> future = callbackExecutor.submit(() -> beanFactory.invokeDestroyMethod(bean, bd));
+        try {
+            future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            report.record(beanName, ShutdownReport.Status.DESTROYED, System.nanoTime() - start, null);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            report.record(beanName, ShutdownReport.Status.TIMED_OUT, System.nanoTime() - start, null);
+        } catch (ExecutionException e) {
+            report.record(beanName, ShutdownReport.Status.FAILED, System.nanoTime() - start, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            report.record(beanName, ShutdownReport.Status.FAILED, System.nanoTime() - start, e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.microspring.core.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * 只有类路径上存在所有指定的类时才注册组件
+ * 类名以字符串给出，扫描时直接从字节码读取并检查类文件是否存在，不需要加载候选类
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalOnClass {
+    String[] value();
+}
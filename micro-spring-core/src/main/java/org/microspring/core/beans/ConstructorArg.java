@@ -4,6 +4,8 @@ public class ConstructorArg {
     private String ref;
     private Object value;
     private Class<?> type;
+    // @Lazy 参数：注入延迟解析代理
+    private boolean lazy;
     
     public ConstructorArg() {
         // 无参构造函数
@@ -18,6 +20,8 @@ public class ConstructorArg {
     public String getRef() { return ref; }
     public Object getValue() { return value; }
     public Class<?> getType() { return type; }
+    public boolean isLazy() { return lazy; }
+    public void setLazy(boolean lazy) { this.lazy = lazy; }
     
     public boolean isRef() { 
         // 只要有ref就是引用类型，否则就是值类型
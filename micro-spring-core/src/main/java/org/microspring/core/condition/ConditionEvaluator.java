@@ -0,0 +1,103 @@
+package org.microspring.core.condition;
+
+import org.microspring.core.DefaultBeanFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 条件评估，供一次扫描中的所有候选类共享
+ * 同一个条件类只创建一个实例；评估时没有访问 bean 工厂的条件只依赖环境，结果对所有候选类相同，
+ * 缓存后不再重复评估。访问了 bean 工厂的条件结果可能随已注册的 bean 变化，每次都重新评估。
+ * 类是否存在只检查类文件，不加载类，结果同样缓存
+ */
+public class ConditionEvaluator {
+
+    private final ConditionContext context;
+    private final Map<Class<? extends Condition>, Condition> conditions = new ConcurrentHashMap<>();
+    private final Map<Class<? extends Condition>, Boolean> results = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> classPresence = new ConcurrentHashMap<>();
+
+    public ConditionEvaluator(ConditionContext context) {
+        this.context = context;
+    }
+
+    /**
+     * 所有条件都匹配时返回 true
+     */
+    public boolean matches(Class<? extends Condition>[] conditionClasses) {
+        for (Class<? extends Condition> conditionClass : conditionClasses) {
+            if (!matches(conditionClass)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean matches(Class<? extends Condition> conditionClass) {
+        Boolean cached = results.get(conditionClass);
+        if (cached != null) {
+            return cached;
+        }
+        TrackingConditionContext tracking = new TrackingConditionContext(context);
+        boolean matched;
+        try {
+            matched = getCondition(conditionClass).matches(tracking);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to evaluate condition", e);
+        }
+        if (!tracking.beanFactoryAccessed) {
+            results.put(conditionClass, matched);
+        }
+        return matched;
+    }
+
+    private Condition getCondition(Class<? extends Condition> conditionClass) throws Exception {
+        Condition condition = conditions.get(conditionClass);
+        if (condition == null) {
+            condition = conditionClass.getDeclaredConstructor().newInstance();
+            conditions.put(conditionClass, condition);
+        }
+        return condition;
+    }
+
+    /**
+     * 类路径上是否存在所有指定的类
+     */
+    public boolean isPresent(String[] classNames, ClassLoader classLoader) {
+        for (String className : classNames) {
+            Boolean present = classPresence.get(className);
+            if (present == null) {
+                present = classLoader.getResource(className.replace('.', '/') + ".class") != null;
+                classPresence.put(className, present);
+            }
+            if (!present) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 记录条件是否访问了 bean 工厂
+     */
+    private static class TrackingConditionContext implements ConditionContext {
+        private final ConditionContext delegate;
+        private boolean beanFactoryAccessed;
+
+        TrackingConditionContext(ConditionContext delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getEnvironment(String key) {
+            return delegate.getEnvironment(key);
+        }
+
+        @Override
+        public DefaultBeanFactory getBeanFactory() {
+            beanFactoryAccessed = true;
+            return delegate.getBeanFactory();
+        }
+    }
+}
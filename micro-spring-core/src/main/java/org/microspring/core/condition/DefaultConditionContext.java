@@ -2,8 +2,15 @@ package org.microspring.core.condition;
 
 import org.microspring.core.DefaultBeanFactory;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class DefaultConditionContext implements ConditionContext {
+    private static final String NULL_VALUE = new String("<null>");
+
     private final DefaultBeanFactory beanFactory;
+    // 一次扫描内环境变量不会变化，同一个键只读取一次
+    private final Map<String, String> environmentCache = new ConcurrentHashMap<>();
     
     public DefaultConditionContext(DefaultBeanFactory beanFactory) {
         this.beanFactory = beanFactory;
@@ -11,11 +18,16 @@ public class DefaultConditionContext implements ConditionContext {
     
     @Override
     public String getEnvironment(String key) {
-        return System.getProperty(key);
+        String value = environmentCache.get(key);
+        if (value == null) {
+            value = System.getProperty(key);
+            environmentCache.put(key, value != null ? value : NULL_VALUE);
+        }
+        return value == NULL_VALUE ? null : value;
     }
     
     @Override
     public DefaultBeanFactory getBeanFactory() {
         return beanFactory;
     }
-} 
\ No newline at end of file
+}
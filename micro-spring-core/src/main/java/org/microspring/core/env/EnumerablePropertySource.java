@@ -0,0 +1,17 @@
+package org.microspring.core.env;
+
+/**
+ * 可以列出全部属性名的属性源
+ * StandardEnvironment 只在所有属性源都可枚举时才能预先合并出查找表
+ */
+public abstract class EnumerablePropertySource<T> extends PropertySource<T> {
+
+    public EnumerablePropertySource(String name, T source) {
+        super(name, source);
+    }
+
+    /**
+     * 获取全部属性名
+     */
+    public abstract String[] getPropertyNames();
+}
@@ -5,7 +5,7 @@ import java.util.Properties;
 /**
  * Properties 文件属性源
  */
-public class PropertiesPropertySource extends PropertySource<Properties> {
+public class PropertiesPropertySource extends EnumerablePropertySource<Properties> {
 
     public PropertiesPropertySource(String name, Properties source) {
         super(name, source);
@@ -15,4 +15,9 @@ public class PropertiesPropertySource extends PropertySource<Properties> {
     public Object getProperty(String name) {
         return getSource().getProperty(name);
     }
-} 
\ No newline at end of file
+
+    @Override
+    public String[] getPropertyNames() {
+        return getSource().stringPropertyNames().toArray(new String[0]);
+    }
+}
@@ -5,16 +5,24 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * 标准环境实现
+ * 所有属性源都可枚举时，按优先级预先合并成一张查找表，getProperty 只需一次哈希查找；
+ * 有不可枚举的属性源时退回逐个属性源查找。属性源加入后其内容视为不再变化
  */
 public class StandardEnvironment implements Environment {
     
-    private final List<PropertySource<?>> propertySources = new ArrayList<>();
+    private final List<PropertySource<?>> propertySources = new CopyOnWriteArrayList<>();
     private final String[] activeProfiles;
+    // 合并后的属性表，为 null 时逐个属性源查找
+    private volatile PropertyTable propertyTable;
 
     public StandardEnvironment() {
         this(new String[]{"default"});
@@ -41,6 +49,31 @@ public class StandardEnvironment implements Environment {
             // 后加载 profile 的 properties（优先级高于YAML）
             loadPropertiesConfig("application-" + profile + ".properties");
         }
+
+        rebuildPropertyTable();
+    }
+
+    /**
+     * 重新合并属性表，类型转换缓存随旧表一起丢弃
+     * 从优先级最高的属性源开始，同名属性先到先得，与逐个查找的结果一致
+     */
+    private synchronized void rebuildPropertyTable() {
+        Map<String, String> values = new HashMap<>();
+        for (PropertySource<?> propertySource : propertySources) {
+            if (!(propertySource instanceof EnumerablePropertySource)) {
+                propertyTable = null;
+                return;
+            }
+            for (String name : ((EnumerablePropertySource<?>) propertySource).getPropertyNames()) {
+                if (!values.containsKey(name)) {
+                    Object value = propertySource.getProperty(name);
+                    if (value != null) {
+                        values.put(name, value.toString().trim());
+                    }
+                }
+            }
+        }
+        propertyTable = new PropertyTable(values);
     }
 
     private void loadYamlConfig(String resourcePath) {
@@ -77,6 +110,10 @@ public class StandardEnvironment implements Environment {
 
     @Override
     public String getProperty(String key) {
+        PropertyTable table = propertyTable;
+        if (table != null) {
+            return table.values.get(key);
+        }
         for (PropertySource<?> propertySource : propertySources) {
             Object value = propertySource.getProperty(key);
             if (value != null) {
@@ -95,11 +132,27 @@ public class StandardEnvironment implements Environment {
     @Override
     @SuppressWarnings("unchecked")
     public <T> T getProperty(String key, Class<T> targetType) {
-        String value = getProperty(key);
-        if (value == null) {
-            return null;
+        PropertyTable table = propertyTable;
+        if (table == null) {
+            String value = getProperty(key);
+            return value != null ? convert(value, targetType) : null;
         }
 
+        Map<String, Object> cache = table.converted.computeIfAbsent(targetType, type -> new ConcurrentHashMap<>());
+        Object converted = cache.get(key);
+        if (converted == null) {
+            String value = table.values.get(key);
+            if (value == null) {
+                return null;
+            }
+            converted = convert(value, targetType);
+            cache.put(key, converted);
+        }
+        return (T) converted;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T convert(String value, Class<T> targetType) {
         if (targetType == String.class) {
             return (T) value;
         } else if (targetType == Integer.class) {
@@ -123,7 +176,24 @@ public class StandardEnvironment implements Environment {
         return this.activeProfiles;
     }
 
+    /**
+     * 添加优先级最高的属性源，属性表随之重建
+     */
     public void addPropertySource(PropertySource<?> propertySource) {
         propertySources.add(0, propertySource);
+        rebuildPropertyTable();
+    }
+
+    /**
+     * 合并后的属性值(已 trim)和基于它的类型转换结果
+     */
+    private static class PropertyTable {
+        private final Map<String, String> values;
+        // 目标类型 -> (属性名 -> 转换后的值)
+        private final Map<Class<?>, Map<String, Object>> converted = new ConcurrentHashMap<>();
+
+        PropertyTable(Map<String, String> values) {
+            this.values = values;
+        }
     }
 } 
\ No newline at end of file
@@ -4,26 +4,27 @@ import org.yaml.snakeyaml.Yaml;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
-public class YamlPropertySource extends PropertySource<Map<String, Object>> {
+/**
+ * YAML 属性源
+ * 加载时把嵌套结构展开为以点分隔的键(中间节点也保留，值为对应的 Map)，查找时直接按键取值
+ */
+public class YamlPropertySource extends EnumerablePropertySource<Map<String, Object>> {
+
+    private final Map<String, Object> flattened = new LinkedHashMap<>();
 
     public YamlPropertySource(String name, Map<String, Object> source) {
         super(name, source);
+        flatten("", source);
     }
 
     @Override
     public Object getProperty(String name) {
-        String[] paths = name.split("\\.");
-        Map<String, Object> currentMap = getSource();
-        
-        for (int i = 0; i < paths.length - 1; i++) {
-            Object value = currentMap.get(paths[i]);
-            if (!(value instanceof Map)) {
-                return null;
-            }
-            currentMap = (Map<String, Object>) value;
-        }
-        
-        return currentMap.get(paths[paths.length - 1]);
+        return flattened.get(name);
+    }
+
+    @Override
+    public String[] getPropertyNames() {
+        return flattened.keySet().toArray(new String[0]);
     }
 
     public static YamlPropertySource fromYaml(String name, String yamlContent) {
@@ -32,15 +33,14 @@ public class YamlPropertySource extends PropertySource<Map<String, Object>> {
         return new YamlPropertySource(name, properties != null ? properties : new LinkedHashMap<>());
     }
 
-    private Object getFlattenedValue(String path, Object value) {
-        if (value instanceof Map) {
-            Map<String, Object> map = (Map<String, Object>) value;
-            for (Map.Entry<String, Object> entry : map.entrySet()) {
-                String newPath = path.isEmpty() ? entry.getKey() : path + "." + entry.getKey();
-                getFlattenedValue(newPath, entry.getValue());
+    private void flatten(String path, Map<?, ?> map) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String newPath = path.isEmpty() ? String.valueOf(entry.getKey()) : path + "." + entry.getKey();
+            Object value = entry.getValue();
+            flattened.put(newPath, value);
+            if (value instanceof Map) {
+                flatten(newPath, (Map<?, ?>) value);
             }
-            return null;
         }
-        return value;
     }
-} 
\ No newline at end of file
+}
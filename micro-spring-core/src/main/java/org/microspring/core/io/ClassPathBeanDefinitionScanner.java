@@ -6,40 +6,34 @@ import org.microspring.core.beans.ConstructorArg;
 import org.microspring.core.beans.PropertyValue;
 import org.microspring.stereotype.Component;
 import org.microspring.core.annotation.Conditional;
-import org.microspring.core.condition.Condition;
-import org.microspring.core.condition.ConditionContext;
+import org.microspring.core.annotation.ConditionalOnClass;
+import org.microspring.core.condition.ConditionEvaluator;
 import org.microspring.core.condition.DefaultConditionContext;
+import org.microspring.core.type.ClassMetadata;
 
-import java.io.File;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
-import java.lang.reflect.Modifier;
 
 public class ClassPathBeanDefinitionScanner {
+    private static final String COMPONENT_ANNOTATION = Component.class.getName();
+    private static final String CONDITIONAL_ON_CLASS_ANNOTATION = ConditionalOnClass.class.getName();
+
     private final DefaultBeanFactory beanFactory;
-    private final ConditionContext conditionContext;
+    // 同一个扫描器多次扫描共享条件实例和评估结果
+    private final ConditionEvaluator conditionEvaluator;
     
     public ClassPathBeanDefinitionScanner(DefaultBeanFactory beanFactory) {
         this.beanFactory = beanFactory;
-        this.conditionContext = new DefaultConditionContext(beanFactory);
+        this.conditionEvaluator = new ConditionEvaluator(new DefaultConditionContext(beanFactory));
     }
     
     public List<BeanDefinition> scan(String basePackage) {
         List<BeanDefinition> beanDefinitions = new ArrayList<>();
         try {
-            String path = basePackage.replace('.', '/');
-            URL url = Thread.currentThread().getContextClassLoader().getResource(path);
-            if (url != null) {
-                File dir = new File(url.getFile());
-                if (dir.exists() && dir.isDirectory()) {
-                    for (File file : dir.listFiles()) {
-                        if (file.isFile() && file.getName().endsWith(".class")) {
-                            String className = basePackage + '.' + file.getName().substring(0, file.getName().length() - 6);
-                            processClass(className, beanDefinitions);
-                        }
-                    }
-                }
+            // 先读取字节码元数据筛选候选类，只有带 @Component 的类才会被加载
+            ClassPathMetadataScanner metadataScanner = new ClassPathMetadataScanner(getClassLoader());
+            for (ClassMetadata metadata : metadataScanner.scan(basePackage, false)) {
+                processCandidate(metadata, metadataScanner.getClassLoader(), beanDefinitions);
             }
         } catch (Exception e) {
             throw new RuntimeException("Error scanning package: " + basePackage, e);
@@ -47,58 +41,55 @@ public class ClassPathBeanDefinitionScanner {
         return beanDefinitions;
     }
 
-    private void processClass(String className, List<BeanDefinition> beanDefinitions) {
+    private void processCandidate(ClassMetadata metadata, ClassLoader classLoader, List<BeanDefinition> beanDefinitions) {
+        // 跳过非静态内部类、局部类和匿名类
+        if (!metadata.isIndependent() || !metadata.isAnnotated(COMPONENT_ANNOTATION)) {
+            return;
+        }
+        // @ConditionalOnClass 直接按字节码中的类名检查，不满足时不加载候选类
+        Object requiredClasses = metadata.getAnnotationAttribute(CONDITIONAL_ON_CLASS_ANNOTATION, "value");
+        if (requiredClasses instanceof Object[]
+                && !conditionEvaluator.isPresent(toStrings((Object[]) requiredClasses), classLoader)) {
+            return;
+        }
+        Class<?> clazz;
         try {
-            Class<?> clazz = Class.forName(className);
-            // 只跳过非静态内部类
-            if ((clazz.isMemberClass() && !Modifier.isStatic(clazz.getModifiers())) 
-                || clazz.isLocalClass() 
-                || clazz.isAnonymousClass()) {
-                return;
-            }
-            
-            Component component = clazz.getAnnotation(Component.class);
-            if (component != null) {
-                // 获取bean名称
-                String beanName = component.value();
-                if (beanName.isEmpty()) {
-                    beanName = toLowerFirstCase(clazz.getSimpleName());
-                }
-                
-                // 检查条件注解
-                boolean shouldRegister = true;
-                Conditional conditional = clazz.getAnnotation(Conditional.class);
-                if (conditional != null) {
-                    for (Class<? extends Condition> conditionClass : conditional.value()) {
-                        try {
-                            Condition condition = conditionClass.getDeclaredConstructor().newInstance();
-                            if (!condition.matches(conditionContext)) {
-                                shouldRegister = false;
-                                break;
-                            }
-                        } catch (Exception e) {
-                            throw new RuntimeException("Failed to evaluate condition", e);
-                        }
-                    }
-                }
-
-                if (shouldRegister) {
-                    BeanDefinition bd = createBeanDefinition(clazz);
-                    beanDefinitions.add(bd);
-                    beanFactory.registerBeanDefinition(beanName, bd);
-                    System.out.println("[INFO] Bean " + clazz.getSimpleName() + " is loaded");
-                }
-            }
-            
-            // 处理内部类
-            for (Class<?> innerClass : clazz.getDeclaredClasses()) {
-                if (innerClass.isAnnotationPresent(Component.class)) {
-                    processClass(innerClass.getName(), beanDefinitions);
-                }
-            }
-        } catch (ClassNotFoundException e) {
+            clazz = Class.forName(metadata.getClassName(), false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
             // 忽略无法加载的类
+            return;
         }
+
+        // 获取bean名称
+        Object value = metadata.getAnnotationAttribute(COMPONENT_ANNOTATION, "value");
+        String beanName = value instanceof String ? (String) value : "";
+        if (beanName.isEmpty()) {
+            beanName = toLowerFirstCase(clazz.getSimpleName());
+        }
+
+        // 检查条件注解
+        Conditional conditional = clazz.getAnnotation(Conditional.class);
+        boolean shouldRegister = conditional == null || conditionEvaluator.matches(conditional.value());
+
+        if (shouldRegister) {
+            BeanDefinition bd = createBeanDefinition(clazz);
+            beanDefinitions.add(bd);
+            beanFactory.registerBeanDefinition(beanName, bd);
+            System.out.println("[INFO] Bean " + clazz.getSimpleName() + " is loaded");
+        }
+    }
+
+    private static String[] toStrings(Object[] values) {
+        String[] strings = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            strings[i] = (String) values[i];
+        }
+        return strings;
+    }
+
+    private ClassLoader getClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : ClassPathBeanDefinitionScanner.class.getClassLoader();
     }
 
     private BeanDefinition createBeanDefinition(Class<?> beanClass) {
@@ -0,0 +1,120 @@
+package org.microspring.core.io;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 类路径指纹
+ * 对类路径上每个 jar 包的路径、大小、修改时间，以及每个目录下所有文件的相对路径、大小、修改时间计算摘要。
+ * 只读取文件属性、不读取文件内容，远比重新解析和扫描便宜；任何类或资源文件变化都会改变指纹
+ */
+public class ClassPathFingerprint {
+
+    private ClassPathFingerprint() {
+    }
+
+    /**
+     * 计算类加载器可见的类路径指纹
+     *
+     * @param classLoader 类加载器，会沿父加载器收集 URLClassLoader 的路径，并始终包含 java.class.path
+     * @param extras 参与计算的其他内容，例如扫描的包名、配置文件位置、激活的 profile
+     * @return 十六进制摘要
+     */
+    public static String compute(ClassLoader classLoader, String... extras) {
+        MessageDigest digest = newDigest();
+        if (extras != null) {
+            for (String extra : extras) {
+                update(digest, "extra", String.valueOf(extra));
+            }
+        }
+        for (File entry : getClassPathEntries(classLoader)) {
+            update(digest, "entry", entry.getAbsolutePath());
+            if (entry.isDirectory()) {
+                updateDirectory(digest, entry, "");
+            } else if (entry.isFile()) {
+                update(digest, "file", entry.length() + ":" + entry.lastModified());
+            } else {
+                update(digest, "missing", "");
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    private static Set<File> getClassPathEntries(ClassLoader classLoader) {
+        Set<File> entries = new LinkedHashSet<>();
+        for (ClassLoader cl = classLoader; cl != null; cl = cl.getParent()) {
+            if (cl instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) cl).getURLs()) {
+                    if ("file".equals(url.getProtocol())) {
+                        entries.add(toFile(url));
+                    }
+                }
+            }
+        }
+        String classPath = System.getProperty("java.class.path");
+        if (classPath != null) {
+            for (String path : classPath.split(File.pathSeparator)) {
+                if (!path.isEmpty()) {
+                    entries.add(new File(path));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static void updateDirectory(MessageDigest digest, File directory, String relativePath) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        // listFiles 的顺序与文件系统有关，排序后指纹才稳定
+        Arrays.sort(files);
+        for (File file : files) {
+            String path = relativePath + "/" + file.getName();
+            if (file.isDirectory()) {
+                updateDirectory(digest, file, path);
+            } else {
+                update(digest, path, file.length() + ":" + file.lastModified());
+            }
+        }
+    }
+
+    private static void update(MessageDigest digest, String key, String value) {
+        digest.update(key.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '=');
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    private static File toFile(URL url) {
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return new File(url.getPath());
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package org.microspring.core.io;
+
+import org.microspring.core.type.ClassMetadata;
+import org.microspring.core.type.ClassMetadataReader;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * 类路径扫描器
+ * 在目录和 jar 包中查找指定包下的 class 文件，只读取字节码元数据，不加载类。
+ * 调用方根据元数据筛选出候选类后再自行加载
+ */
+public class ClassPathMetadataScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final ClassLoader classLoader;
+
+    public ClassPathMetadataScanner(ClassLoader classLoader) {
+        this.classLoader = classLoader != null ? classLoader : ClassPathMetadataScanner.class.getClassLoader();
+    }
+
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * 扫描包下的所有类
+     *
+     * @param basePackage 包名
+     * @param recursive 是否包含子包
+     * @return 类元数据，无法解析的 class 文件会被跳过
+     */
+    public List<ClassMetadata> scan(String basePackage, boolean recursive) throws IOException {
+        String path = basePackage.replace('.', '/');
+        List<ClassMetadata> result = new ArrayList<>();
+        Enumeration<URL> resources = classLoader.getResources(path);
+        while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
+            if ("jar".equals(url.getProtocol())) {
+                scanJar(url, path, recursive, result);
+            } else if ("file".equals(url.getProtocol())) {
+                File directory = toFile(url);
+                if (directory.isDirectory()) {
+                    scanDirectory(directory, recursive, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按类名读取单个类的元数据，找不到时返回 null
+     */
+    public ClassMetadata read(String className) throws IOException {
+        URL url = classLoader.getResource(className.replace('.', '/') + CLASS_SUFFIX);
+        if (url == null) {
+            return null;
+        }
+        try (InputStream in = url.openStream()) {
+            return ClassMetadataReader.read(in);
+        }
+    }
+
+    private void scanDirectory(File directory, boolean recursive, List<ClassMetadata> result) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                if (recursive) {
+                    scanDirectory(file, true, result);
+                }
+            } else if (file.getName().endsWith(CLASS_SUFFIX)) {
+                try (InputStream in = new FileInputStream(file)) {
+                    result.add(ClassMetadataReader.read(in));
+                } catch (IOException e) {
+                    // 跳过无法解析的 class 文件
+                }
+            }
+        }
+    }
+
+    private void scanJar(URL url, String path, boolean recursive, List<ClassMetadata> result) throws IOException {
+        URLConnection connection = url.openConnection();
+        if (!(connection instanceof JarURLConnection)) {
+            return;
+        }
+        JarURLConnection jarConnection = (JarURLConnection) connection;
+        jarConnection.setUseCaches(false);
+        String prefix = path.endsWith("/") ? path : path + "/";
+        try (JarFile jarFile = jarConnection.getJarFile()) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (entry.isDirectory() || !name.startsWith(prefix) || !name.endsWith(CLASS_SUFFIX)) {
+                    continue;
+                }
+                if (!recursive && name.indexOf('/', prefix.length()) >= 0) {
+                    continue;
+                }
+                try (InputStream in = jarFile.getInputStream(entry)) {
+                    result.add(ClassMetadataReader.read(in));
+                } catch (IOException e) {
+                    // 跳过无法解析的 class 文件
+                }
+            }
+        }
+    }
+
+    private File toFile(URL url) throws UnsupportedEncodingException {
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return new File(URLDecoder.decode(url.getFile(), "UTF-8"));
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package org.microspring.core.io;
+
+import org.microspring.core.BeanDefinition;
+import org.microspring.core.DefaultBeanDefinition;
+import org.microspring.core.DefaultBeanFactory;
+import org.microspring.core.beans.ConstructorArg;
+import org.microspring.core.beans.PropertyValue;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 基于 StAX 的 XML bean定义读取器
+ * 边读边把 bean、property、constructor-arg 元素转换成 BeanDefinition，不构建 DOM 树，
+ * 支持的元素和属性与 {@link XmlBeanDefinitionReader} 相同。
+ * 多个文件可以并行解析(包括加载bean类)，解析完成后按文件顺序、文件内的书写顺序依次注册
+ */
+public class StaxXmlBeanDefinitionReader {
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private final DefaultBeanFactory beanFactory;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    public StaxXmlBeanDefinitionReader(DefaultBeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // bean定义文件不需要 DTD 和外部实体
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * 并行解析的最大线程数，默认为 CPU 核数
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public void loadBeanDefinitions(String location) {
+        register(parse(location));
+    }
+
+    /**
+     * 解析多个文件，文件数和并行度都大于 1 时并行解析
+     */
+    public void loadBeanDefinitions(String... locations) {
+        if (locations.length == 1 || parallelism == 1) {
+            // 同样先全部解析再注册
+            List<List<ParsedBean>> results = new ArrayList<>(locations.length);
+            for (String location : locations) {
+                results.add(parse(location));
+            }
+            for (List<ParsedBean> beans : results) {
+                register(beans);
+            }
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(Math.min(parallelism, locations.length));
+        try {
+            List<CompletableFuture<List<ParsedBean>>> futures = new ArrayList<>(locations.length);
+            for (String location : locations) {
+                futures.add(CompletableFuture.supplyAsync(() -> parse(location), pool));
+            }
+            // 全部解析成功后再注册，任何一个文件出错都不会留下部分定义
+            List<List<ParsedBean>> results = new ArrayList<>(locations.length);
+            for (CompletableFuture<List<ParsedBean>> future : futures) {
+                results.add(future.join());
+            }
+            for (List<ParsedBean> beans : results) {
+                register(beans);
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("Failed to load bean definitions", cause);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void register(List<ParsedBean> beans) {
+        for (ParsedBean bean : beans) {
+            beanFactory.registerBeanDefinition(bean.id, bean.definition);
+        }
+    }
+
+    private List<ParsedBean> parse(String location) {
+        InputStream inputStream = getClass().getClassLoader().getResourceAsStream(location);
+        if (inputStream == null) {
+            throw new RuntimeException("Resource not found: " + location);
+        }
+        try (InputStream in = inputStream) {
+            XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                return new DocumentParser(reader).parse();
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | IOException | ClassNotFoundException e) {
+            throw new RuntimeException("Error loading XML file: " + location, e);
+        }
+    }
+
+    private static class ParsedBean {
+        final String id;
+        final BeanDefinition definition;
+
+        ParsedBean(String id, BeanDefinition definition) {
+            this.id = id;
+            this.definition = definition;
+        }
+    }
+
+    /**
+     * 解析单个文件的状态机，bean 可以嵌套，属性和构造器参数归属于最内层的 bean
+     */
+    private static class DocumentParser {
+        private final XMLStreamReader reader;
+        private final List<ParsedBean> beans = new ArrayList<>();
+        private final Deque<ParsedBean> beanStack = new ArrayDeque<>();
+
+        // 当前 property 元素
+        private String propertyName;
+        private String propertyValue;
+        private String propertyRef;
+        private List<Object> list;
+        // list 中的引用，与 DOM 读取器一致：先放 value，再放 ref
+        private List<Object> listRefs;
+        private Map<String, Object> map;
+        private boolean containsRefs;
+
+        // 当前 map entry 元素
+        private boolean inEntry;
+        private String entryKey;
+        private String entryValueRef;
+        private String entryValue;
+        private String entryChildRef;
+        private String entryChildValue;
+
+        DocumentParser(XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        List<ParsedBean> parse() throws XMLStreamException, ClassNotFoundException {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    startElement(reader.getLocalName());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    endElement(reader.getLocalName());
+                }
+            }
+            return beans;
+        }
+
+        private String attribute(String name) {
+            String value = reader.getAttributeValue(null, name);
+            return value != null ? value : "";
+        }
+
+        private void startElement(String name) throws XMLStreamException, ClassNotFoundException {
+            switch (name) {
+                case "bean":
+                    startBean();
+                    break;
+                case "constructor-arg":
+                    addConstructorArg();
+                    break;
+                case "property":
+                    propertyName = attribute("name");
+                    propertyValue = attribute("value");
+                    propertyRef = attribute("ref");
+                    list = null;
+                    map = null;
+                    containsRefs = false;
+                    break;
+                case "list":
+                    if (propertyName != null && list == null && map == null) {
+                        list = new ArrayList<>();
+                        listRefs = new ArrayList<>();
+                    }
+                    break;
+                case "map":
+                    if (propertyName != null && list == null && map == null) {
+                        map = new HashMap<>();
+                    }
+                    break;
+                case "entry":
+                    inEntry = true;
+                    entryKey = attribute("key");
+                    entryValueRef = attribute("value-ref");
+                    entryValue = attribute("value");
+                    entryChildRef = null;
+                    entryChildValue = null;
+                    if (!entryValueRef.isEmpty()) {
+                        containsRefs = true;
+                    }
+                    break;
+                case "ref":
+                    addRef(attribute("bean"));
+                    break;
+                case "value":
+                    // getElementText 会消费到结束标签，不会再触发 endElement
+                    addValue(reader.getElementText());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void startBean() throws ClassNotFoundException {
+            Class<?> clz = Class.forName(attribute("class"));
+            DefaultBeanDefinition bd = new DefaultBeanDefinition(clz);
+
+            // 解析scope属性
+            String scope = attribute("scope");
+            if (!scope.isEmpty()) {
+                bd.setScope(scope);
+            }
+            if ("true".equals(attribute("lazy-init"))) {
+                bd.setLazyInit(true);
+            }
+
+            // 解析生命周期方法
+            String initMethod = attribute("init-method");
+            if (!initMethod.isEmpty()) {
+                bd.setInitMethodName(initMethod);
+            }
+            String destroyMethod = attribute("destroy-method");
+            if (!destroyMethod.isEmpty()) {
+                bd.setDestroyMethodName(destroyMethod);
+            }
+            beanStack.push(new ParsedBean(attribute("id"), bd));
+        }
+
+        private void addConstructorArg() {
+            ParsedBean bean = beanStack.peek();
+            if (bean == null) {
+                return;
+            }
+            String ref = attribute("ref");
+            String value = attribute("value");
+            if (!ref.isEmpty()) {
+                bean.definition.addConstructorArg(new ConstructorArg(ref, null, Object.class));
+            } else if (!value.isEmpty()) {
+                bean.definition.addConstructorArg(new ConstructorArg(null, value, String.class));
+            }
+        }
+
+        private void addRef(String beanRef) {
+            if (inEntry) {
+                if (entryChildRef == null) {
+                    entryChildRef = beanRef;
+                }
+                containsRefs = true;
+            } else if (list != null) {
+                // 直接添加引用名称，不使用 RuntimeBeanReference
+                listRefs.add(beanRef);
+                containsRefs = true;
+            }
+        }
+
+        private void addValue(String text) {
+            if (inEntry) {
+                if (entryChildValue == null) {
+                    entryChildValue = text;
+                }
+            } else if (list != null) {
+                list.add(text);
+            }
+        }
+
+        private void endElement(String name) {
+            switch (name) {
+                case "bean":
+                    beans.add(beanStack.pop());
+                    break;
+                case "entry":
+                    endEntry();
+                    break;
+                case "property":
+                    endProperty();
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void endEntry() {
+            inEntry = false;
+            if (map == null) {
+                return;
+            }
+            if (!entryValueRef.isEmpty()) {
+                map.put(entryKey, entryValueRef);
+            } else if (!entryValue.isEmpty()) {
+                map.put(entryKey, parseEntryValue(entryValue));
+            } else if (entryChildRef != null) {
+                map.put(entryKey, entryChildRef);
+            } else if (entryChildValue != null) {
+                map.put(entryKey, parseEntryValue(entryChildValue));
+            }
+        }
+
+        private static Object parseEntryValue(String value) {
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                return value;
+            }
+        }
+
+        private void endProperty() {
+            ParsedBean bean = beanStack.peek();
+            String name = propertyName;
+            propertyName = null;
+            if (bean == null) {
+                return;
+            }
+            if (list != null) {
+                list.addAll(listRefs);
+                bean.definition.addPropertyValue(new PropertyValue(name, list, List.class, containsRefs));
+            } else if (map != null) {
+                bean.definition.addPropertyValue(new PropertyValue(name, map, Map.class, containsRefs));
+            } else if (!propertyRef.isEmpty()) {
+                bean.definition.addPropertyValue(new PropertyValue(name, propertyRef, null, true));
+            } else if (!propertyValue.isEmpty()) {
+                bean.definition.addPropertyValue(new PropertyValue(name, propertyValue, String.class));
+            }
+            list = null;
+            listRefs = null;
+            map = null;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.microspring.core.shutdown;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 关闭报告
+ * 记录每个单例销毁回调的结果和耗时，条目按完成顺序排列
+ */
+public class ShutdownReport {
+
+    public enum Status {
+        DESTROYED, FAILED, TIMED_OUT
+    }
+
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+    private final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+
+    public void record(String beanName, Status status, long durationNanos, Throwable error) {
+        entries.add(new Entry(beanName, status, durationNanos, error));
+    }
+
+    public void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(new ArrayList<>(entries));
+    }
+
+    public List<Entry> getEntries(Status status) {
+        List<Entry> result = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.status == status) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 是否有销毁回调失败或超时
+     */
+    public boolean hasProblems() {
+        for (Entry entry : entries) {
+            if (entry.status != Status.DESTROYED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getTotalTimeMillis() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return TimeUnit.NANOSECONDS.toMillis(end - startNanos);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Shutdown completed in ")
+            .append(getTotalTimeMillis()).append("ms: ")
+            .append(getEntries(Status.DESTROYED).size()).append(" destroyed, ")
+            .append(getEntries(Status.FAILED).size()).append(" failed, ")
+            .append(getEntries(Status.TIMED_OUT).size()).append(" timed out");
+        for (Entry entry : entries) {
+            if (entry.status != Status.DESTROYED) {
+                sb.append(System.lineSeparator()).append("  ").append(entry);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 单个bean的销毁结果
+     */
+    public static class Entry {
+        private final String beanName;
+        private final Status status;
+        private final long durationNanos;
+        private final Throwable error;
+
+        Entry(String beanName, Status status, long durationNanos, Throwable error) {
+            this.beanName = beanName;
+            this.status = status;
+            this.durationNanos = durationNanos;
+            this.error = error;
+        }
+
+        public String getBeanName() {
+            return beanName;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public long getDurationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+
+        /**
+         * 失败原因，超时或成功时为 null
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            String text = beanName + " " + status + " (" + getDurationMillis() + "ms)";
+            return error != null ? text + ": " + error.getMessage() : text;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.microspring.core.spel;
+
+/**
+ * 表达式求值失败，例如方法不存在、类型不支持运算或被调用的方法抛出异常
+ */
+public class SpelEvaluationException extends RuntimeException {
+
+    public SpelEvaluationException(String message) {
+        super(message);
+    }
+
+    public SpelEvaluationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
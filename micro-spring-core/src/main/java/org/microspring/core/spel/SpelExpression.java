@@ -0,0 +1,32 @@
+package org.microspring.core.spel;
+
+import org.microspring.core.BeanFactory;
+
+/**
+ * 解析好的表达式，语法树只构建一次，可以在多个线程中反复求值
+ */
+public class SpelExpression {
+    private final String expressionString;
+    private final SpelNode ast;
+
+    SpelExpression(String expressionString, SpelNode ast) {
+        this.expressionString = expressionString;
+        this.ast = ast;
+    }
+
+    /**
+     * 以bean工厂为上下文求值，根标识符按bean名称解析
+     */
+    public Object getValue(BeanFactory beanFactory) {
+        return ast.getValue(beanFactory);
+    }
+
+    public String getExpressionString() {
+        return expressionString;
+    }
+
+    @Override
+    public String toString() {
+        return expressionString;
+    }
+}
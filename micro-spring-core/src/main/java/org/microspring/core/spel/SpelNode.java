@@ -0,0 +1,617 @@
+package org.microspring.core.spel;
+
+import org.microspring.core.BeanFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 表达式语法树节点
+ * 属性和方法访问在第一次遇到某个接收者类型时解析成 MethodHandle 并按类型缓存，
+ * 之后的求值只是一次缓存查找加一次 MethodHandle 调用，不再走反射查找。
+ *
+ * 沿用原有的宽松语义：bean不存在、属性不存在或导航途中遇到 null 时结果为 null，
+ * 算术运算的任一操作数为 null 时结果为 null
+ */
+abstract class SpelNode {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    // 属性不存在的标记，同样会被缓存
+    private static final MethodHandle NO_ACCESSOR =
+        MethodHandles.dropArguments(MethodHandles.constant(Object.class, null), 0, Object.class);
+
+    abstract Object getValue(BeanFactory beanFactory);
+
+    // ---------------------------------------------------------------- 工具方法
+
+    static boolean toBoolean(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        throw new SpelEvaluationException("Cannot convert value '" + value + "' of type "
+            + value.getClass().getName() + " to boolean");
+    }
+
+    private static boolean isFloating(Number number) {
+        return number instanceof Double || number instanceof Float
+            || !(number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte);
+    }
+
+    /**
+     * 按 Java 的二元数值提升规则计算：有浮点数按 double，有 long 按 long，否则按 int
+     */
+    static Object arithmetic(char operator, Number left, Number right) {
+        if (isFloating(left) || isFloating(right)) {
+            double l = left.doubleValue();
+            double r = right.doubleValue();
+            switch (operator) {
+                case '+': return l + r;
+                case '-': return l - r;
+                case '*': return l * r;
+                case '/': return l / r;
+                default: return l % r;
+            }
+        }
+        try {
+            if (left instanceof Long || right instanceof Long) {
+                long l = left.longValue();
+                long r = right.longValue();
+                switch (operator) {
+                    case '+': return l + r;
+                    case '-': return l - r;
+                    case '*': return l * r;
+                    case '/': return l / r;
+                    default: return l % r;
+                }
+            }
+            int l = left.intValue();
+            int r = right.intValue();
+            switch (operator) {
+                case '+': return l + r;
+                case '-': return l - r;
+                case '*': return l * r;
+                case '/': return l / r;
+                default: return l % r;
+            }
+        } catch (ArithmeticException e) {
+            throw new SpelEvaluationException("Arithmetic error: " + e.getMessage(), e);
+        }
+    }
+
+    static int compareNumbers(Number left, Number right) {
+        if (isFloating(left) || isFloating(right)) {
+            return Double.compare(left.doubleValue(), right.doubleValue());
+        }
+        return Long.compare(left.longValue(), right.longValue());
+    }
+
+    /**
+     * 找到可以调用的同一方法：声明类不是 public 时(例如 JDK 内部实现类)改用 public 接口或父类中的声明
+     */
+    private static Method findAccessibleMethod(Method method) {
+        if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            return method;
+        }
+        Method candidate = findPublicDeclaration(method.getDeclaringClass(), method);
+        if (candidate != null) {
+            return candidate;
+        }
+        method.setAccessible(true);
+        return method;
+    }
+
+    private static Method findPublicDeclaration(Class<?> type, Method method) {
+        if (type == null) {
+            return null;
+        }
+        if (Modifier.isPublic(type.getModifiers())) {
+            try {
+                return type.getMethod(method.getName(), method.getParameterTypes());
+            } catch (NoSuchMethodException e) {
+                // 继续查找父类型
+            }
+        }
+        for (Class<?> ifc : type.getInterfaces()) {
+            Method candidate = findPublicDeclaration(ifc, method);
+            if (candidate != null) {
+                return candidate;
+            }
+        }
+        return findPublicDeclaration(type.getSuperclass(), method);
+    }
+
+    private static RuntimeException rethrow(String description, Throwable ex) {
+        if (ex instanceof SpelEvaluationException) {
+            return (SpelEvaluationException) ex;
+        }
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        return new SpelEvaluationException(description + " threw exception: " + ex, ex);
+    }
+
+    // ---------------------------------------------------------------- 节点
+
+    static class Literal extends SpelNode {
+        private final Object value;
+
+        Literal(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        Object getValue(BeanFactory beanFactory) {
+            return value;
+        }
+    }
+
+    /**
+     * 根标识符，按名称引用bean，bean不存在时抛出 IllegalArgumentException
+     */
+    static class BeanReference extends SpelNode {
+        private final String beanName;
+
+        BeanReference(String beanName) {
+            this.beanName = beanName;
+        }
+
+        @Override
+        Object getValue(BeanFactory beanFactory) {
+            if (beanFactory == null || !beanFactory.containsBean(beanName)) {
+                throw new IllegalArgumentException("No bean named '" + beanName + "' is defined");
+            }
+            return beanFactory.getBean(beanName);
+        }
+    }
+
+    /**
+     * 属性访问：Map 按键取值，数组支持 length，其他对象依次尝试 getter、is 方法和字段
+     */
+    static class PropertyReference extends SpelNode {
+        private final SpelNode target;
+        private final String name;
+        private final Map<Class<?>, MethodHandle> accessors = new ConcurrentHashMap<>();
+
+        PropertyReference(SpelNode target, String name) {
+            this.target = target;
+            this.name = name;
+        }
+
+        @Override
+        Object getValue(BeanFactory beanFactory) {
+            Object object = target.getValue(beanFactory);
+            if (object == null) {
+                return null;
+            }
+            if (object instanceof Map) {
+                return ((Map<?, ?>) object).get(name);
+            }
+            if (object.getClass().isArray() && "length".equals(name)) {
+                return Array.getLength(object);
+            }
+            MethodHandle accessor = accessors.get(object.getClass());
+            if (accessor == null) {
+                accessor = compileAccessor(object.getClass());
+                accessors.put(object.getClass(), accessor);
+            }
+            try {
+                return (Object) accessor.invokeExact(object);
+            } catch (Throwable ex) {
+                throw rethrow("Property '" + name + "' on " + object.getClass().getName(), ex);
+            }
+        }
+
+        private MethodHandle compileAccessor(Class<?> type) {
+            String suffix = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            try {
+                for (String getterName : new String[]{"get" + suffix, "is" + suffix}) {
+                    try {
+                        Method getter = type.getMethod(getterName);
+                        if (getter.getReturnType() != void.class && !Modifier.isStatic(getter.getModifiers())) {
+                            return LOOKUP.unreflect(findAccessibleMethod(getter)).asType(ACCESSOR_TYPE);
+                        }
+                    } catch (NoSuchMethodException e) {
+                        // 尝试下一种访问方式
+                    }
+                }
+                for (Class<?> current = type; current != null && current != Object.class;
+                        current = current.getSuperclass()) {
+                    try {
+                        Field field = current.getDeclaredField(name);
+                        if (!Modifier.isStatic(field.getModifiers())) {
+                            field.setAccessible(true);
+                            return LOOKUP.unreflectGetter(field).asType(ACCESSOR_TYPE);
+                        }
+                    } catch (NoSuchFieldException e) {
+                        // 继续查找父类
+                    }
+                }
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new SpelEvaluationException("Cannot access property '" + name + "' on " + type.getName(), e);
+            }
+            return NO_ACCESSOR;
+        }
+    }
+
+    /**
+     * 方法调用：按名称、参数个数和实参类型选择方法，解析结果按 (接收者类型, 实参类型) 缓存
+     */
+    static class MethodReference extends SpelNode {
+        private final SpelNode target;
+        private final String name;
+        private final SpelNode[] arguments;
+        private final Map<List<Class<?>>, Invoker> invokers = new ConcurrentHashMap<>();
+
+        MethodReference(SpelNode target, String name, List<SpelNode> arguments) {
+            this.target = target;
+            this.name = name;
+            this.arguments = arguments.toArray(new SpelNode[0]);
+        }
+
+        @Override
+        Object getValue(BeanFactory beanFactory) {
+            Object object = target.getValue(beanFactory);
+            if (object == null) {
+                return null;
+            }
+            Object[] args = new Object[arguments.length];
+            List<Class<?>> key = new ArrayList<>(args.length + 1);
+            key.add(object.getClass());
+            for (int i = 0; i < args.length; i++) {
+                args[i] = arguments[i].getValue(beanFactory);
+                key.add(args[i] != null ? args[i].getClass() : null);
+            }
+            Invoker invoker = invokers.get(key);
+            if (invoker == null) {
+                invoker = compileInvoker(object.getClass(), args);
+                invokers.put(key, invoker);
+            }
+            return invoker.invoke(object, args);
+        }
+
+        private Invoker compileInvoker(Class<?> type, Object[] args) {
+            // 先找参数类型直接匹配的重载，再找需要数值转换的
+            Method method = findMethod(type, args, false);
+            if (method == null) {
+                method = findMethod(type, args, true);
+            }
+            if (method != null) {
+                try {
+                    Method accessible = findAccessibleMethod(method);
+                    MethodHandle handle = LOOKUP.unreflect(accessible);
+                    if (Modifier.isStatic(accessible.getModifiers())) {
+                        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+                    }
+                    handle = handle.asSpreader(Object[].class, args.length).asType(INVOKER_TYPE);
+                    return new Invoker(accessible, handle);
+                } catch (IllegalAccessException | RuntimeException e) {
+                    throw new SpelEvaluationException("Cannot access method '" + name + "' on " + type.getName(), e);
+                }
+            }
+            throw new SpelEvaluationException("Method '" + name + "' with " + args.length
+                + " argument(s) not found on " + type.getName());
+        }
+
+        private Method findMethod(Class<?> type, Object[] args, boolean numericConversion) {
+            for (Method method : type.getMethods()) {
+                if (method.getName().equals(name) && !method.isVarArgs()
+                        && isApplicable(method.getParameterTypes(), args, numericConversion)) {
+                    return method;
+                }
+            }
+            return null;
+        }
+
+        private static boolean isApplicable(Class<?>[] parameterTypes, Object[] args, boolean numericConversion) {
+            if (parameterTypes.length != args.length) {
+                return false;
+            }
+            for (int i = 0; i < args.length; i++) {
+                Class<?> parameterType = parameterTypes[i];
+                Object arg = args[i];
+                if (arg == null) {
+                    if (parameterType.isPrimitive()) {
+                        return false;
+                    }
+                } else if (!wrap(parameterType).isInstance(arg)
+                        && !(numericConversion && arg instanceof Number && isNumericType(parameterType))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private class Invoker {
+            private final Class<?>[] parameterTypes;
+            private final MethodHandle handle;
+
+            Invoker(Method method, MethodHandle handle) {
+                this.parameterTypes = method.getParameterTypes();
+                this.handle = handle;
+            }
+
+            Object invoke(Object target, Object[] args) {
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = coerce(args[i], parameterTypes[i]);
+                }
+                try {
+                    return (Object) handle.invokeExact(target, args);
+                } catch (Throwable ex) {
+                    throw rethrow("Method '" + name + "' on " + target.getClass().getName(), ex);
+                }
+            }
+        }
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) return Integer.class;
+        if (type == long.class) return Long.class;
+        if (type == double.class) return Double.class;
+        if (type == boolean.class) return Boolean.class;
+        if (type == float.class) return Float.class;
+        if (type == short.class) return Short.class;
+        if (type == byte.class) return Byte.class;
+        if (type == char.class) return Character.class;
+        return Void.class;
+    }
+
+    private static boolean isNumericType(Class<?> type) {
+        Class<?> wrapped = wrap(type);
+        return wrapped == Integer.class || wrapped == Long.class || wrapped == Double.class
+            || wrapped == Float.class || wrapped == Short.class || wrapped == Byte.class;
+    }
+
+    /**
+     * 数值实参转换为参数声明的数值类型，例如 int 字面量传给 double 参数
+     */
+    private static Object coerce(Object value, Class<?> parameterType) {
+        if (!(value instanceof Number) || wrap(parameterType).isInstance(value) || !isNumericType(parameterType)) {
+            return value;
+        }
+        Number number = (Number) value;
+        Class<?> wrapped = wrap(parameterType);
+        if (wrapped == Integer.class) return number.intValue();
+        if (wrapped == Long.class) return number.longValue();
+        if (wrapped == Double.class) return number.doubleValue();
+        if (wrapped == Float.class) return number.floatValue();
+        if (wrapped == Short.class) return number.shortValue();
+        return number.byteValue();
+    }
+
+    /**
+     * 下标访问：数组和 List 按整数下标，Map 按键，字符串取单个字符
+     */
+    static class Indexer extends SpelNode {
+        private final SpelNode target;
+        private final SpelNode index;
+
+        Indexer(SpelNode target, SpelNode index) {
+            this.target = target;
+            this.index = index;
+        }
+
+        @Override
+        Object getValue(BeanFactory beanFactory) {
+            Object object = target.getValue(beanFactory);
+            if (object == null) {
+                return null;
+            }
+            Object key = index.getValue(beanFactory);
+            if (object instanceof Map) {
+                return ((Map<?, ?>) object).get(key);
+            }
+            if (!(key instanceof Number)) {
+                throw new SpelEvaluationException("Index for " + object.getClass().getName() + " must be a number: " + key);
+            }
+            int i = ((Number) key).intValue();
+            try {
+                if (object instanceof List) {
+                    return ((List<?>) object).get(i);
+                }
+                if (object.getClass().isArray()) {
+                    return Array.get(object, i);
+                }
+                if (object instanceof CharSequence) {
+                    return String.valueOf(((CharSequence) object).charAt(i));
+                }
+            } catch (IndexOutOfBoundsException e) {
+                throw new SpelEvaluationException("Index " + i + " out of bounds for " + object.getClass().getName(), e);
+            }
+            throw new SpelEvaluationException("Cannot index into value of type " + object.getClass().getName());
+        }
+    }
+
+    /**
+     * 加减乘除和取模，+ 的任一操作数是字符串时做字符串拼接
+     */
+    static class Arithmetic extends SpelNode {
+        private final char operator;
+        private final SpelNode left;
+        private final SpelNode right;
+
+        Arithmetic(char operator, SpelNode left, SpelNode right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object getValue(BeanFactory beanFactory) {
+            Object l = left.getValue(beanFactory);
+            Object r = right.getValue(beanFactory);
+            if (l == null || r == null) {
+                return null;
+            }
+            if (operator == '+' && (l instanceof String || r instanceof String)) {
+                return l.toString() + r;
+            }
+            if (l instanceof Number && r instanceof Number) {
+                return arithmetic(operator, (Number) l, (Number) r);
+            }
+            throw new SpelEvaluationException("Operator '" + operator + "' not supported between "
+                + l.getClass().getName() + " and " + r.getClass().getName());
+        }
+    }
+
+    static class Negate extends SpelNode {
+        private final SpelNode operand;
+
+        Negate(SpelNode operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        Object getValue(BeanFactory beanFactory) {
+            Object value = operand.getValue(beanFactory);
+            if (value == null) {
+                return null;
+            }
+            if (!(value instanceof Number)) {
+                throw new SpelEvaluationException("Cannot negate value of type " + value.getClass().getName());
+            }
+            return arithmetic('-', 0, (Number) value);
+        }
+    }
+
+    /**
+     * 比较运算，数值按提升后的值比较，其他类型 == / != 用 equals，大小比较要求 Comparable
+     */
+    static class Comparison extends SpelNode {
+        private final String operator;
+        private final SpelNode left;
+        private final SpelNode right;
+
+        Comparison(String operator, SpelNode left, SpelNode right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Object getValue(BeanFactory beanFactory) {
+            Object l = left.getValue(beanFactory);
+            Object r = right.getValue(beanFactory);
+            boolean numeric = l instanceof Number && r instanceof Number;
+            if ("==".equals(operator)) {
+                return numeric ? compareNumbers((Number) l, (Number) r) == 0 : Objects.equals(l, r);
+            }
+            if ("!=".equals(operator)) {
+                return numeric ? compareNumbers((Number) l, (Number) r) != 0 : !Objects.equals(l, r);
+            }
+            int result;
+            if (numeric) {
+                result = compareNumbers((Number) l, (Number) r);
+            } else if (l instanceof Comparable && r != null && l.getClass() == r.getClass()) {
+                result = ((Comparable) l).compareTo(r);
+            } else {
+                throw new SpelEvaluationException("Cannot compare " + l + " and " + r + " with '" + operator + "'");
+            }
+            switch (operator) {
+                case "<": return result < 0;
+                case "<=": return result <= 0;
+                case ">": return result > 0;
+                default: return result >= 0;
+            }
+        }
+    }
+
+    static class And extends SpelNode {
+        private final SpelNode left;
+        private final SpelNode right;
+
+        And(SpelNode left, SpelNode right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object getValue(BeanFactory beanFactory) {
+            return toBoolean(left.getValue(beanFactory)) && toBoolean(right.getValue(beanFactory));
+        }
+    }
+
+    static class Or extends SpelNode {
+        private final SpelNode left;
+        private final SpelNode right;
+
+        Or(SpelNode left, SpelNode right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Object getValue(BeanFactory beanFactory) {
+            return toBoolean(left.getValue(beanFactory)) || toBoolean(right.getValue(beanFactory));
+        }
+    }
+
+    static class Not extends SpelNode {
+        private final SpelNode operand;
+
+        Not(SpelNode operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        Object getValue(BeanFactory beanFactory) {
+            return !toBoolean(operand.getValue(beanFactory));
+        }
+    }
+
+    static class Ternary extends SpelNode {
+        private final SpelNode condition;
+        private final SpelNode whenTrue;
+        private final SpelNode whenFalse;
+
+        Ternary(SpelNode condition, SpelNode whenTrue, SpelNode whenFalse) {
+            this.condition = condition;
+            this.whenTrue = whenTrue;
+            this.whenFalse = whenFalse;
+        }
+
+        @Override
+        Object getValue(BeanFactory beanFactory) {
+            return toBoolean(condition.getValue(beanFactory))
+                ? whenTrue.getValue(beanFactory) : whenFalse.getValue(beanFactory);
+        }
+    }
+
+    /**
+     * a ?: b，a 为 null 时取 b
+     */
+    static class Elvis extends SpelNode {
+        private final SpelNode value;
+        private final SpelNode fallback;
+
+        Elvis(SpelNode value, SpelNode fallback) {
+            this.value = value;
+            this.fallback = fallback;
+        }
+
+        @Override
+        Object getValue(BeanFactory beanFactory) {
+            Object result = value.getValue(beanFactory);
+            return result != null ? result : fallback.getValue(beanFactory);
+        }
+    }
+}
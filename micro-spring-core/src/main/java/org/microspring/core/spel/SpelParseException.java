@@ -0,0 +1,23 @@
+package org.microspring.core.spel;
+
+/**
+ * 表达式语法错误
+ */
+public class SpelParseException extends RuntimeException {
+    private final String expression;
+    private final int position;
+
+    public SpelParseException(String expression, int position, String message) {
+        super(message + " at position " + position + " in expression: " + expression);
+        this.expression = expression;
+        this.position = position;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+}
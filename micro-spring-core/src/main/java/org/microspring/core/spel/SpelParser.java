@@ -0,0 +1,370 @@
+package org.microspring.core.spel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 表达式解析器：词法分析后按运算符优先级递归下降构建语法树
+ *
+ * <pre>
+ * expression     := logicalOr ('?' expression ':' expression | '?:' expression)?
+ * logicalOr      := logicalAnd (('||' | 'or') logicalAnd)*
+ * logicalAnd     := equality (('&amp;&amp;' | 'and') equality)*
+ * equality       := relational (('==' | '!=') relational)*
+ * relational     := additive (('&lt;' | '&lt;=' | '&gt;' | '&gt;=') additive)?
+ * additive       := multiplicative (('+' | '-') multiplicative)*
+ * multiplicative := unary (('*' | '/' | '%') unary)*
+ * unary          := ('-' | '!' | 'not') unary | postfix
+ * postfix        := primary ('.' member | '?.' member | '[' expression ']')*
+ * member         := identifier ('(' arguments? ')')?
+ * primary        := literal | '(' expression ')' | identifier | '@' identifier
+ * </pre>
+ */
+class SpelParser {
+
+    private enum TokenType {
+        NUMBER, STRING, IDENTIFIER, BEAN_REFERENCE, OPERATOR, EOF
+    }
+
+    private static class Token {
+        final TokenType type;
+        final String text;
+        final Object value;
+        final int position;
+
+        Token(TokenType type, String text, Object value, int position) {
+            this.type = type;
+            this.text = text;
+            this.value = value;
+            this.position = position;
+        }
+
+        boolean is(String operator) {
+            return (type == TokenType.OPERATOR || type == TokenType.IDENTIFIER) && text.equals(operator);
+        }
+    }
+
+    // 按长度从长到短匹配
+    private static final String[] OPERATORS = {
+        "?.", "?:", "==", "!=", "<=", ">=", "&&", "||",
+        "+", "-", "*", "/", "%", "<", ">", "!", "?", ":", ".", ",", "(", ")", "[", "]"
+    };
+
+    private final String expression;
+    private final List<Token> tokens;
+    private int index;
+
+    private SpelParser(String expression) {
+        this.expression = expression;
+        this.tokens = tokenize(expression);
+    }
+
+    /**
+     * 解析不带 #{} 的表达式正文
+     */
+    static SpelNode parse(String expression) {
+        SpelParser parser = new SpelParser(expression);
+        SpelNode node = parser.parseExpression();
+        Token token = parser.peek();
+        if (token.type != TokenType.EOF) {
+            throw parser.error(token, "Unexpected token '" + token.text + "'");
+        }
+        return node;
+    }
+
+    // ---------------------------------------------------------------- 词法分析
+
+    private List<Token> tokenize(String input) {
+        List<Token> result = new ArrayList<>();
+        int pos = 0;
+        int length = input.length();
+        while (pos < length) {
+            char c = input.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (Character.isDigit(c)) {
+                pos = readNumber(input, pos, result);
+            } else if (c == '\'' || c == '"') {
+                pos = readString(input, pos, result);
+            } else if (c == '@' || Character.isJavaIdentifierStart(c)) {
+                int start = pos;
+                if (c == '@') {
+                    pos++;
+                }
+                int nameStart = pos;
+                while (pos < length && Character.isJavaIdentifierPart(input.charAt(pos))) {
+                    pos++;
+                }
+                if (pos == nameStart) {
+                    throw new SpelParseException(expression, start, "Bean name expected after '@'");
+                }
+                String name = input.substring(nameStart, pos);
+                result.add(new Token(c == '@' ? TokenType.BEAN_REFERENCE : TokenType.IDENTIFIER, name, null, start));
+            } else {
+                String operator = null;
+                for (String candidate : OPERATORS) {
+                    if (input.startsWith(candidate, pos)) {
+                        operator = candidate;
+                        break;
+                    }
+                }
+                if (operator == null) {
+                    throw new SpelParseException(expression, pos, "Unexpected character '" + c + "'");
+                }
+                result.add(new Token(TokenType.OPERATOR, operator, null, pos));
+                pos += operator.length();
+            }
+        }
+        result.add(new Token(TokenType.EOF, "<end>", null, length));
+        return result;
+    }
+
+    private int readNumber(String input, int start, List<Token> result) {
+        int pos = start;
+        int length = input.length();
+        boolean decimal = false;
+        while (pos < length && Character.isDigit(input.charAt(pos))) {
+            pos++;
+        }
+        // 小数点后必须是数字，否则是属性访问
+        if (pos + 1 < length && input.charAt(pos) == '.' && Character.isDigit(input.charAt(pos + 1))) {
+            decimal = true;
+            pos++;
+            while (pos < length && Character.isDigit(input.charAt(pos))) {
+                pos++;
+            }
+        }
+        if (pos < length && (input.charAt(pos) == 'e' || input.charAt(pos) == 'E')) {
+            int exponent = pos + 1;
+            if (exponent < length && (input.charAt(exponent) == '+' || input.charAt(exponent) == '-')) {
+                exponent++;
+            }
+            if (exponent < length && Character.isDigit(input.charAt(exponent))) {
+                decimal = true;
+                pos = exponent;
+                while (pos < length && Character.isDigit(input.charAt(pos))) {
+                    pos++;
+                }
+            }
+        }
+        String text = input.substring(start, pos);
+        Object value;
+        char suffix = pos < length ? input.charAt(pos) : 0;
+        try {
+            if (suffix == 'L' || suffix == 'l') {
+                if (decimal) {
+                    throw new SpelParseException(expression, start, "Invalid long literal '" + text + "'");
+                }
+                value = Long.parseLong(text);
+                pos++;
+            } else if (suffix == 'd' || suffix == 'D' || suffix == 'f' || suffix == 'F') {
+                value = Double.parseDouble(text);
+                pos++;
+            } else if (decimal) {
+                value = Double.parseDouble(text);
+            } else {
+                long number = Long.parseLong(text);
+                value = number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE ? (Object) (int) number : number;
+            }
+        } catch (NumberFormatException e) {
+            throw new SpelParseException(expression, start, "Invalid number '" + text + "'");
+        }
+        result.add(new Token(TokenType.NUMBER, input.substring(start, pos), value, start));
+        return pos;
+    }
+
+    private int readString(String input, int start, List<Token> result) {
+        char quote = input.charAt(start);
+        StringBuilder sb = new StringBuilder();
+        int pos = start + 1;
+        while (pos < input.length()) {
+            char c = input.charAt(pos);
+            if (c == quote) {
+                // 连续两个引号表示引号本身
+                if (pos + 1 < input.length() && input.charAt(pos + 1) == quote) {
+                    sb.append(quote);
+                    pos += 2;
+                    continue;
+                }
+                result.add(new Token(TokenType.STRING, input.substring(start, pos + 1), sb.toString(), start));
+                return pos + 1;
+            }
+            sb.append(c);
+            pos++;
+        }
+        throw new SpelParseException(expression, start, "Unterminated string literal");
+    }
+
+    // ---------------------------------------------------------------- 语法分析
+
+    private Token peek() {
+        return tokens.get(index);
+    }
+
+    private Token next() {
+        return tokens.get(index++);
+    }
+
+    private boolean accept(String operator) {
+        if (peek().is(operator)) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    private Token expect(String operator) {
+        Token token = next();
+        if (!token.is(operator)) {
+            throw error(token, "Expected '" + operator + "' but found '" + token.text + "'");
+        }
+        return token;
+    }
+
+    private SpelParseException error(Token token, String message) {
+        return new SpelParseException(expression, token.position, message);
+    }
+
+    private SpelNode parseExpression() {
+        SpelNode condition = parseLogicalOr();
+        if (accept("?")) {
+            SpelNode whenTrue = parseExpression();
+            expect(":");
+            SpelNode whenFalse = parseExpression();
+            return new SpelNode.Ternary(condition, whenTrue, whenFalse);
+        }
+        if (accept("?:")) {
+            return new SpelNode.Elvis(condition, parseExpression());
+        }
+        return condition;
+    }
+
+    private SpelNode parseLogicalOr() {
+        SpelNode left = parseLogicalAnd();
+        while (accept("||") || accept("or")) {
+            left = new SpelNode.Or(left, parseLogicalAnd());
+        }
+        return left;
+    }
+
+    private SpelNode parseLogicalAnd() {
+        SpelNode left = parseEquality();
+        while (accept("&&") || accept("and")) {
+            left = new SpelNode.And(left, parseEquality());
+        }
+        return left;
+    }
+
+    private SpelNode parseEquality() {
+        SpelNode left = parseRelational();
+        while (peek().is("==") || peek().is("!=")) {
+            String operator = next().text;
+            left = new SpelNode.Comparison(operator, left, parseRelational());
+        }
+        return left;
+    }
+
+    private SpelNode parseRelational() {
+        SpelNode left = parseAdditive();
+        Token token = peek();
+        if (token.is("<") || token.is("<=") || token.is(">") || token.is(">=")) {
+            next();
+            return new SpelNode.Comparison(token.text, left, parseAdditive());
+        }
+        return left;
+    }
+
+    private SpelNode parseAdditive() {
+        SpelNode left = parseMultiplicative();
+        while (peek().is("+") || peek().is("-")) {
+            char operator = next().text.charAt(0);
+            left = new SpelNode.Arithmetic(operator, left, parseMultiplicative());
+        }
+        return left;
+    }
+
+    private SpelNode parseMultiplicative() {
+        SpelNode left = parseUnary();
+        while (peek().is("*") || peek().is("/") || peek().is("%")) {
+            char operator = next().text.charAt(0);
+            left = new SpelNode.Arithmetic(operator, left, parseUnary());
+        }
+        return left;
+    }
+
+    private SpelNode parseUnary() {
+        if (accept("-")) {
+            return new SpelNode.Negate(parseUnary());
+        }
+        if (accept("!") || accept("not")) {
+            return new SpelNode.Not(parseUnary());
+        }
+        return parsePostfix(parsePrimary());
+    }
+
+    private SpelNode parsePostfix(SpelNode node) {
+        while (true) {
+            if (accept(".") || accept("?.")) {
+                Token name = next();
+                if (name.type != TokenType.IDENTIFIER) {
+                    throw error(name, "Property or method name expected");
+                }
+                if (accept("(")) {
+                    node = new SpelNode.MethodReference(node, name.text, parseArguments());
+                } else {
+                    node = new SpelNode.PropertyReference(node, name.text);
+                }
+            } else if (accept("[")) {
+                SpelNode indexNode = parseExpression();
+                expect("]");
+                node = new SpelNode.Indexer(node, indexNode);
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private List<SpelNode> parseArguments() {
+        List<SpelNode> arguments = new ArrayList<>();
+        if (accept(")")) {
+            return arguments;
+        }
+        do {
+            arguments.add(parseExpression());
+        } while (accept(","));
+        expect(")");
+        return arguments;
+    }
+
+    private SpelNode parsePrimary() {
+        Token token = next();
+        switch (token.type) {
+            case NUMBER:
+            case STRING:
+                return new SpelNode.Literal(token.value);
+            case BEAN_REFERENCE:
+                return new SpelNode.BeanReference(token.text);
+            case IDENTIFIER:
+                if ("null".equals(token.text)) {
+                    return new SpelNode.Literal(null);
+                } else if ("true".equals(token.text)) {
+                    return new SpelNode.Literal(Boolean.TRUE);
+                } else if ("false".equals(token.text)) {
+                    return new SpelNode.Literal(Boolean.FALSE);
+                }
+                if (peek().is("(")) {
+                    throw error(token, "Method '" + token.text + "' must be invoked on a bean");
+                }
+                return new SpelNode.BeanReference(token.text);
+            case OPERATOR:
+                if (token.is("(")) {
+                    SpelNode node = parseExpression();
+                    expect(")");
+                    return node;
+                }
+                throw error(token, "Unexpected token '" + token.text + "'");
+            default:
+                throw error(token, "Unexpected end of expression");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.microspring.core.startup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 启动过程中的一个步骤：一次bean创建、创建中的一个阶段，或上下文刷新的一个阶段。
+ * 步骤在哪个线程开始就必须在哪个线程结束，期间在同一线程开始的步骤成为它的子步骤
+ */
+public class StartupStep {
+
+    private final StartupTimeline timeline;
+    private final long id;
+    private final StartupStep parent;
+    private final String name;
+    private final String beanName;
+    private final long threadId;
+    private final String threadName;
+    private final long startNanos;
+    private final long startAllocatedBytes;
+    private final List<StartupStep> children = new ArrayList<>();
+    private volatile long endNanos = -1;
+    private volatile long allocatedBytes = -1;
+
+    StartupStep(StartupTimeline timeline, long id, StartupStep parent, String name, String beanName) {
+        this.timeline = timeline;
+        this.id = id;
+        this.parent = parent;
+        this.name = name;
+        this.beanName = beanName;
+        Thread thread = Thread.currentThread();
+        this.threadId = thread.getId();
+        this.threadName = thread.getName();
+        this.startAllocatedBytes = timeline != null ? timeline.currentAllocatedBytes() : -1;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * 结束该步骤，重复调用无效
+     */
+    public void end() {
+        if (timeline == null || endNanos >= 0) {
+            return;
+        }
+        endNanos = System.nanoTime();
+        if (startAllocatedBytes >= 0) {
+            long current = timeline.currentAllocatedBytes();
+            allocatedBytes = current >= 0 ? current - startAllocatedBytes : -1;
+        }
+        timeline.stepEnded(this);
+    }
+
+    void addChild(StartupStep child) {
+        synchronized (children) {
+            children.add(child);
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public StartupStep getParent() {
+        return parent;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 步骤相关的bean名称，上下文阶段为 null
+     */
+    public String getBeanName() {
+        return beanName;
+    }
+
+    public long getThreadId() {
+        return threadId;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public boolean isEnded() {
+        return endNanos >= 0;
+    }
+
+    /**
+     * 耗时(纳秒)，未结束时为 -1
+     */
+    public long getDurationNanos() {
+        return endNanos >= 0 ? endNanos - startNanos : -1;
+    }
+
+    /**
+     * 步骤期间当前线程分配的字节数(包括子步骤)，JVM 不支持统计或未结束时为 -1
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public List<StartupStep> getChildren() {
+        synchronized (children) {
+            return Collections.unmodifiableList(new ArrayList<>(children));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + (beanName != null ? "[" + beanName + "]" : "") + " " + getDurationNanos() + "ns";
+    }
+}
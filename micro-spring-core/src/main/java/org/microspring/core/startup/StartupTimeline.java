@@ -0,0 +1,264 @@
+package org.microspring.core.startup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 启动时间线
+ * 记录上下文刷新的各个阶段和每个bean的创建过程(实例化、属性填充、BeanPostProcessor、初始化方法、
+ * FactoryBean.getObject)，创建依赖bean时产生的步骤嵌套在当前步骤之下。
+ * 可以导出为 JSON，或导出为 Chrome trace 格式(chrome://tracing、Perfetto)查看火焰图
+ */
+public class StartupTimeline {
+
+    // 不记录任何内容的时间线，start 返回同一个空步骤
+    private static final StartupTimeline DISABLED = new StartupTimeline(false);
+    private static final StartupStep NOOP_STEP = new StartupStep(null, 0, null, "noop", null);
+
+    private final boolean enabled;
+    // 刷新完成后冻结，之后创建的原型和请求作用域bean不再记录，避免步骤无限增长
+    private volatile boolean frozen;
+    private final long startNanos = System.nanoTime();
+    private final long startTimeMillis = System.currentTimeMillis();
+    private final AtomicLong idGenerator = new AtomicLong();
+    private final Queue<StartupStep> steps = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Deque<StartupStep>> currentSteps = ThreadLocal.withInitial(ArrayDeque::new);
+    private final com.sun.management.ThreadMXBean allocationMXBean;
+
+    public StartupTimeline() {
+        this(true);
+    }
+
+    private StartupTimeline(boolean enabled) {
+        this.enabled = enabled;
+        this.allocationMXBean = enabled ? getAllocationMXBean() : null;
+    }
+
+    /**
+     * 不记录任何内容的时间线
+     */
+    public static StartupTimeline disabled() {
+        return DISABLED;
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationMXBean() {
+        try {
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+            if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMXBean;
+                if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                    return bean;
+                }
+            }
+        } catch (LinkageError | RuntimeException e) {
+            // 非 HotSpot 虚拟机不支持按线程统计分配量
+        }
+        return null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 停止记录新的步骤，已记录的步骤保留
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * 开始一个上下文阶段
+     */
+    public StartupStep start(String name) {
+        return start(name, null);
+    }
+
+    /**
+     * 开始一个步骤，调用方负责在同一线程中调用 {@link StartupStep#end()}
+     */
+    public StartupStep start(String name, String beanName) {
+        if (!enabled || frozen) {
+            return NOOP_STEP;
+        }
+        Deque<StartupStep> stack = currentSteps.get();
+        StartupStep parent = stack.peek();
+        StartupStep step = new StartupStep(this, idGenerator.incrementAndGet(), parent, name, beanName);
+        if (parent != null) {
+            parent.addChild(step);
+        }
+        stack.push(step);
+        steps.add(step);
+        return step;
+    }
+
+    void stepEnded(StartupStep step) {
+        Deque<StartupStep> stack = currentSteps.get();
+        // 正常情况下结束的就是栈顶；异常路径上漏掉 end 的子步骤一并弹出
+        if (stack.contains(step)) {
+            while (!stack.isEmpty() && stack.pop() != step) {
+                // 继续弹出
+            }
+        }
+        if (stack.isEmpty()) {
+            currentSteps.remove();
+        }
+    }
+
+    long currentAllocatedBytes() {
+        return allocationMXBean != null ? allocationMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    /**
+     * 所有步骤，按开始顺序排列
+     */
+    public List<StartupStep> getSteps() {
+        return Collections.unmodifiableList(new ArrayList<>(steps));
+    }
+
+    /**
+     * 没有父步骤的步骤
+     */
+    public List<StartupStep> getRootSteps() {
+        List<StartupStep> roots = new ArrayList<>();
+        for (StartupStep step : steps) {
+            if (step.getParent() == null) {
+                roots.add(step);
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * 指定名称的步骤，例如 "bean" 得到每个bean的完整创建过程
+     */
+    public List<StartupStep> getSteps(String name) {
+        List<StartupStep> result = new ArrayList<>();
+        for (StartupStep step : steps) {
+            if (step.getName().equals(name)) {
+                result.add(step);
+            }
+        }
+        return result;
+    }
+
+    public long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    /**
+     * 导出为嵌套的 JSON：根步骤数组，每个步骤包含 children
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"startTime\":").append(startTimeMillis).append(",\"steps\":[");
+        List<StartupStep> roots = getRootSteps();
+        for (int i = 0; i < roots.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendJson(sb, roots.get(i));
+        }
+        return sb.append("]}").toString();
+    }
+
+    private void appendJson(StringBuilder sb, StartupStep step) {
+        sb.append("{\"id\":").append(step.getId());
+        sb.append(",\"name\":");
+        appendString(sb, step.getName());
+        if (step.getBeanName() != null) {
+            sb.append(",\"bean\":");
+            appendString(sb, step.getBeanName());
+        }
+        sb.append(",\"thread\":");
+        appendString(sb, step.getThreadName());
+        sb.append(",\"startNanos\":").append(step.getStartNanos() - startNanos);
+        sb.append(",\"durationNanos\":").append(step.getDurationNanos());
+        sb.append(",\"allocatedBytes\":").append(step.getAllocatedBytes());
+        sb.append(",\"children\":[");
+        List<StartupStep> children = step.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            appendJson(sb, children.get(i));
+        }
+        sb.append("]}");
+    }
+
+    /**
+     * 导出为 Chrome trace 事件格式，每个已结束的步骤是一个完整事件("ph":"X")，时间单位为微秒
+     */
+    public String toChromeTrace() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        boolean first = true;
+        for (StartupStep step : steps) {
+            if (!step.isEnded()) {
+                continue;
+            }
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            sb.append("{\"name\":");
+            appendString(sb, step.getBeanName() != null ? step.getName() + " " + step.getBeanName() : step.getName());
+            sb.append(",\"cat\":");
+            appendString(sb, step.getBeanName() != null ? "bean" : "context");
+            sb.append(",\"ph\":\"X\"");
+            sb.append(",\"ts\":").append((step.getStartNanos() - startNanos) / 1000.0);
+            sb.append(",\"dur\":").append(step.getDurationNanos() / 1000.0);
+            sb.append(",\"pid\":1,\"tid\":").append(step.getThreadId());
+            sb.append(",\"args\":{\"allocatedBytes\":").append(step.getAllocatedBytes());
+            if (step.getBeanName() != null) {
+                sb.append(",\"bean\":");
+                appendString(sb, step.getBeanName());
+            }
+            sb.append("}}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+}
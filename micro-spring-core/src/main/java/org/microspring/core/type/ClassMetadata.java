@@ -0,0 +1,113 @@
+package org.microspring.core.type;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 从 class 文件字节码中读取的类元数据，读取过程不会加载或初始化类本身
+ * 注解属性值的表示：
+ * 字符串和基本类型为对应的包装类型，Class 为类名字符串，枚举为常量名，数组为 Object[]，嵌套注解为 Map
+ */
+public class ClassMetadata implements AnnotatedTypeMetadata {
+
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final int ACC_STATIC = 0x0008;
+
+    private final String className;
+    private final String superClassName;
+    private final List<String> interfaceNames;
+    private final int accessFlags;
+    // 注解类型名 -> 属性，只包含运行时可见的注解
+    private final Map<String, Map<String, Object>> annotations;
+    // InnerClasses 属性中记录的外部类名：顶层类为 null，局部类/匿名类为空字符串
+    private final String enclosingClassName;
+    private final int innerAccessFlags;
+
+    ClassMetadata(String className, String superClassName, List<String> interfaceNames, int accessFlags,
+                  Map<String, Map<String, Object>> annotations, String enclosingClassName, int innerAccessFlags) {
+        this.className = className;
+        this.superClassName = superClassName;
+        this.interfaceNames = Collections.unmodifiableList(interfaceNames);
+        this.accessFlags = accessFlags;
+        this.annotations = annotations;
+        this.enclosingClassName = enclosingClassName;
+        this.innerAccessFlags = innerAccessFlags;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getSuperClassName() {
+        return superClassName;
+    }
+
+    public List<String> getInterfaceNames() {
+        return interfaceNames;
+    }
+
+    public boolean isInterface() {
+        return (accessFlags & ACC_INTERFACE) != 0;
+    }
+
+    public boolean isAnnotation() {
+        return (accessFlags & ACC_ANNOTATION) != 0;
+    }
+
+    public boolean isAbstract() {
+        return (accessFlags & ACC_ABSTRACT) != 0;
+    }
+
+    /**
+     * 是否为顶层类或静态内部类，即可以脱离外部类实例独立创建
+     */
+    public boolean isIndependent() {
+        if (enclosingClassName == null) {
+            return true;
+        }
+        return !enclosingClassName.isEmpty() && (innerAccessFlags & ACC_STATIC) != 0;
+    }
+
+    /**
+     * 是否为局部类或匿名类
+     */
+    public boolean isLocalOrAnonymous() {
+        return enclosingClassName != null && enclosingClassName.isEmpty();
+    }
+
+    public boolean isMemberClass() {
+        return enclosingClassName != null && !enclosingClassName.isEmpty();
+    }
+
+    public Set<String> getAnnotationTypes() {
+        return Collections.unmodifiableSet(annotations.keySet());
+    }
+
+    @Override
+    public boolean isAnnotated(String annotationName) {
+        return annotations.containsKey(annotationName);
+    }
+
+    @Override
+    public Map<String, Object> getAnnotationAttributes(String annotationName) {
+        Map<String, Object> attributes = annotations.get(annotationName);
+        return attributes != null ? Collections.unmodifiableMap(attributes) : null;
+    }
+
+    /**
+     * 获取注解属性，未在字节码中显式声明(使用默认值)时返回 null
+     */
+    public Object getAnnotationAttribute(String annotationName, String attributeName) {
+        Map<String, Object> attributes = annotations.get(annotationName);
+        return attributes != null ? attributes.get(attributeName) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "ClassMetadata[" + className + ", annotations=" + annotations.keySet() + "]";
+    }
+}
@@ -0,0 +1,308 @@
+package org.microspring.core.type;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * class 文件读取器
+ * 直接解析常量池、类访问标志、RuntimeVisibleAnnotations 和 InnerClasses 属性，
+ * 不通过 ClassLoader 加载类，因此不会触发静态初始化，也不要求类的依赖完整
+ */
+public class ClassMetadataReader {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_DYNAMIC = 17;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+    private static final int CONSTANT_MODULE = 19;
+    private static final int CONSTANT_PACKAGE = 20;
+
+    private ClassMetadataReader() {
+    }
+
+    public static ClassMetadata read(InputStream in) throws IOException {
+        return read(toByteArray(in));
+    }
+
+    public static ClassMetadata read(byte[] bytes) throws IOException {
+        try {
+            return new Parser(bytes).parse();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Truncated class file", e);
+        }
+    }
+
+    private static byte[] toByteArray(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static class Parser {
+        private final byte[] bytes;
+        private int pos;
+        // 常量池条目在字节数组中的偏移量(指向 tag 之后)
+        private int[] offsets;
+        private int[] tags;
+        private String[] utf8Cache;
+
+        Parser(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        ClassMetadata parse() throws IOException {
+            if (bytes.length < 10 || readInt() != MAGIC) {
+                throw new IOException("Not a valid class file");
+            }
+            pos += 4; // minor_version, major_version
+            readConstantPool();
+
+            int accessFlags = readUnsignedShort();
+            String className = classNameAt(readUnsignedShort());
+            int superIndex = readUnsignedShort();
+            String superClassName = superIndex != 0 ? classNameAt(superIndex) : null;
+            int interfaceCount = readUnsignedShort();
+            List<String> interfaces = new ArrayList<>(interfaceCount);
+            for (int i = 0; i < interfaceCount; i++) {
+                interfaces.add(classNameAt(readUnsignedShort()));
+            }
+
+            skipMembers(); // fields
+            skipMembers(); // methods
+
+            Map<String, Map<String, Object>> annotations = new LinkedHashMap<>();
+            String enclosingClassName = null;
+            int innerAccessFlags = 0;
+            int attributeCount = readUnsignedShort();
+            for (int i = 0; i < attributeCount; i++) {
+                String name = utf8At(readUnsignedShort());
+                int length = readInt();
+                int end = pos + length;
+                if ("RuntimeVisibleAnnotations".equals(name)) {
+                    int count = readUnsignedShort();
+                    for (int j = 0; j < count; j++) {
+                        String type = descriptorToClassName(utf8At(readUnsignedShort()));
+                        annotations.put(type, readAnnotationAttributes());
+                    }
+                } else if ("InnerClasses".equals(name)) {
+                    int count = readUnsignedShort();
+                    for (int j = 0; j < count; j++) {
+                        int innerIndex = readUnsignedShort();
+                        int outerIndex = readUnsignedShort();
+                        pos += 2; // inner_name_index
+                        int flags = readUnsignedShort();
+                        if (innerIndex != 0 && className.equals(classNameAt(innerIndex))) {
+                            enclosingClassName = outerIndex != 0 ? classNameAt(outerIndex) : "";
+                            innerAccessFlags = flags;
+                        }
+                    }
+                }
+                pos = end;
+            }
+
+            return new ClassMetadata(className, superClassName, interfaces, accessFlags,
+                annotations, enclosingClassName, innerAccessFlags);
+        }
+
+        private void readConstantPool() throws IOException {
+            int count = readUnsignedShort();
+            offsets = new int[count];
+            tags = new int[count];
+            utf8Cache = new String[count];
+            for (int i = 1; i < count; i++) {
+                int tag = bytes[pos++] & 0xFF;
+                tags[i] = tag;
+                offsets[i] = pos;
+                switch (tag) {
+                    case CONSTANT_UTF8:
+                        pos += 2 + readUnsignedShortAt(pos);
+                        break;
+                    case CONSTANT_INTEGER:
+                    case CONSTANT_FLOAT:
+                    case CONSTANT_FIELDREF:
+                    case CONSTANT_METHODREF:
+                    case CONSTANT_INTERFACE_METHODREF:
+                    case CONSTANT_NAME_AND_TYPE:
+                    case CONSTANT_DYNAMIC:
+                    case CONSTANT_INVOKE_DYNAMIC:
+                        pos += 4;
+                        break;
+                    case CONSTANT_LONG:
+                    case CONSTANT_DOUBLE:
+                        pos += 8;
+                        // long/double 占用两个常量池槽位
+                        i++;
+                        break;
+                    case CONSTANT_CLASS:
+                    case CONSTANT_STRING:
+                    case CONSTANT_METHOD_TYPE:
+                    case CONSTANT_MODULE:
+                    case CONSTANT_PACKAGE:
+                        pos += 2;
+                        break;
+                    case CONSTANT_METHOD_HANDLE:
+                        pos += 3;
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag + " at index " + i);
+                }
+            }
+        }
+
+        private void skipMembers() {
+            int count = readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                pos += 6; // access_flags, name_index, descriptor_index
+                skipAttributes();
+            }
+        }
+
+        private void skipAttributes() {
+            int count = readUnsignedShort();
+            for (int i = 0; i < count; i++) {
+                pos += 2;
+                int length = readInt();
+                pos += length;
+            }
+        }
+
+        private Map<String, Object> readAnnotationAttributes() throws IOException {
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            int pairs = readUnsignedShort();
+            for (int i = 0; i < pairs; i++) {
+                String name = utf8At(readUnsignedShort());
+                attributes.put(name, readElementValue());
+            }
+            return attributes;
+        }
+
+        private Object readElementValue() throws IOException {
+            char tag = (char) (bytes[pos++] & 0xFF);
+            switch (tag) {
+                case 'B':
+                    return (byte) intAt(readUnsignedShort());
+                case 'C':
+                    return (char) intAt(readUnsignedShort());
+                case 'S':
+                    return (short) intAt(readUnsignedShort());
+                case 'I':
+                    return intAt(readUnsignedShort());
+                case 'Z':
+                    return intAt(readUnsignedShort()) != 0;
+                case 'J':
+                    return longAt(readUnsignedShort());
+                case 'F':
+                    return Float.intBitsToFloat(intAt(readUnsignedShort()));
+                case 'D':
+                    return Double.longBitsToDouble(longAt(readUnsignedShort()));
+                case 's':
+                    return utf8At(readUnsignedShort());
+                case 'e':
+                    pos += 2; // type_name_index
+                    return utf8At(readUnsignedShort());
+                case 'c':
+                    return descriptorToClassName(utf8At(readUnsignedShort()));
+                case '@':
+                    pos += 2; // type_index
+                    return readAnnotationAttributes();
+                case '[':
+                    int length = readUnsignedShort();
+                    Object[] values = new Object[length];
+                    for (int i = 0; i < length; i++) {
+                        values[i] = readElementValue();
+                    }
+                    return values;
+                default:
+                    throw new IOException("Unknown annotation element tag: " + tag);
+            }
+        }
+
+        private String classNameAt(int index) throws IOException {
+            checkTag(index, CONSTANT_CLASS);
+            return utf8At(readUnsignedShortAt(offsets[index])).replace('/', '.');
+        }
+
+        private String utf8At(int index) throws IOException {
+            String value = utf8Cache[index];
+            if (value == null) {
+                checkTag(index, CONSTANT_UTF8);
+                int offset = offsets[index];
+                int length = readUnsignedShortAt(offset);
+                // class 文件使用 modified UTF-8，与 DataInput.readUTF 的格式一致
+                DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(bytes, offset, length + 2));
+                value = in.readUTF();
+                utf8Cache[index] = value;
+            }
+            return value;
+        }
+
+        private int intAt(int index) {
+            return readIntAt(offsets[index]);
+        }
+
+        private long longAt(int index) {
+            int offset = offsets[index];
+            return ((long) readIntAt(offset) << 32) | (readIntAt(offset + 4) & 0xFFFFFFFFL);
+        }
+
+        private void checkTag(int index, int expected) throws IOException {
+            if (index <= 0 || index >= tags.length || tags[index] != expected) {
+                throw new IOException("Unexpected constant pool entry at index " + index);
+            }
+        }
+
+        private int readUnsignedShort() {
+            int value = readUnsignedShortAt(pos);
+            pos += 2;
+            return value;
+        }
+
+        private int readInt() {
+            int value = readIntAt(pos);
+            pos += 4;
+            return value;
+        }
+
+        private int readUnsignedShortAt(int offset) {
+            return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+        }
+
+        private int readIntAt(int offset) {
+            return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+        }
+
+        private static String descriptorToClassName(String descriptor) {
+            // Lcom/example/Foo; -> com.example.Foo，基本类型和数组保持描述符形式
+            if (descriptor.length() > 2 && descriptor.charAt(0) == 'L' && descriptor.endsWith(";")) {
+                return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+            }
+            return descriptor;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.microspring.core;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.microspring.core.beans.ConstructorArg;
+import org.microspring.core.beans.PropertyValue;
+import org.microspring.core.io.ClassPathFingerprint;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BeanDefinitionSnapshotTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    public static class Repository {
+    }
+
+    public static class Service {
+        private final Repository repository;
+        private List<String> names;
+        private String mode;
+
+        public Service(Repository repository) {
+            this.repository = repository;
+        }
+
+        public void setNames(List<String> names) {
+            this.names = names;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+    }
+
+    public static class Config {
+        public Repository auditRepository() {
+            return new Repository();
+        }
+    }
+
+    private DefaultBeanFactory createBeanFactory() throws Exception {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        DefaultBeanDefinition service = new DefaultBeanDefinition(Service.class);
+        service.setScope("prototype");
+        service.addConstructorArg(new ConstructorArg("repository", null, Repository.class));
+        service.addPropertyValue(new PropertyValue("names", new ArrayList<>(Arrays.asList("a", "b")), List.class));
+        service.addPropertyValue(new PropertyValue("mode", "fast", String.class));
+        beanFactory.registerBeanDefinition("service", service);
+
+        DefaultBeanDefinition repository = new DefaultBeanDefinition(Repository.class);
+        repository.setPrimary(true);
+        beanFactory.registerBeanDefinition("repository", repository);
+
+        beanFactory.registerBeanDefinition("config", new DefaultBeanDefinition(Config.class));
+        DefaultBeanDefinition audit = new DefaultBeanDefinition(Repository.class);
+        audit.setFactoryMethod(Config.class.getMethod("auditRepository"));
+        audit.setFactoryBeanClass(Config.class);
+        audit.setLazyInit(true);
+        beanFactory.registerBeanDefinition("auditRepository", audit);
+        return beanFactory;
+    }
+
+    @Test
+    public void testRoundTripRestoresDefinitionsInDependencyOrder() throws Exception {
+        File file = new File(temporaryFolder.getRoot(), "definitions.snapshot");
+        BeanDefinitionSnapshot.capture(createBeanFactory(), "fp-1").write(file);
+
+        BeanDefinitionSnapshot snapshot = BeanDefinitionSnapshot.read(file);
+        assertNotNull(snapshot);
+        assertTrue(snapshot.matches("fp-1"));
+        assertFalse(snapshot.matches("fp-2"));
+        List<String> order = snapshot.getCreationOrder();
+        assertTrue(order.indexOf("repository") < order.indexOf("service"));
+        assertTrue(order.indexOf("config") < order.indexOf("auditRepository"));
+
+        DefaultBeanFactory restored = new DefaultBeanFactory();
+        snapshot.restore(restored, getClass().getClassLoader());
+
+        BeanDefinition service = restored.getBeanDefinition("service");
+        assertEquals("prototype", service.getScope());
+        assertEquals(1, service.getConstructorArgs().size());
+        assertEquals(Repository.class, service.getConstructorArgs().get(0).getType());
+        assertTrue(restored.getBeanDefinition("repository").isPrimary());
+        BeanDefinition audit = restored.getBeanDefinition("auditRepository");
+        assertTrue(audit.isLazyInit());
+        assertEquals(Config.class.getMethod("auditRepository"), audit.getFactoryMethod());
+        assertEquals(Config.class, audit.getFactoryBeanClass());
+
+        Service bean = (Service) restored.getBean("service");
+        assertSame(restored.getBean("repository"), bean.repository);
+        assertEquals(Arrays.asList("a", "b"), bean.names);
+        assertEquals("fast", bean.mode);
+        assertNotNull(restored.getBean("auditRepository"));
+    }
+
+    @Test
+    public void testUnreadableSnapshotIsIgnored() throws Exception {
+        File file = temporaryFolder.newFile("broken.snapshot");
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[]{1, 2, 3, 4});
+        }
+        assertNull(BeanDefinitionSnapshot.read(file));
+        assertNull(BeanDefinitionSnapshot.read(new File(temporaryFolder.getRoot(), "missing.snapshot")));
+    }
+
+    @Test
+    public void testFingerprintTracksClassPathChanges() throws Exception {
+        File classes = temporaryFolder.newFolder("classes");
+        File resource = new File(classes, "app.properties");
+        try (OutputStream out = new FileOutputStream(resource)) {
+            out.write("a=1".getBytes("UTF-8"));
+        }
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, null)) {
+            String first = ClassPathFingerprint.compute(loader, "pkg");
+            assertEquals(first, ClassPathFingerprint.compute(loader, "pkg"));
+            assertNotEquals(first, ClassPathFingerprint.compute(loader, "other"));
+
+            try (OutputStream out = new FileOutputStream(resource)) {
+                out.write("a=12".getBytes("UTF-8"));
+            }
+            assertNotEquals(first, ClassPathFingerprint.compute(loader, "pkg"));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.microspring.core;
+
+import org.junit.Test;
+import org.microspring.beans.factory.annotation.Autowired;
+import org.microspring.core.beans.ConstructorArg;
+import org.microspring.core.beans.PropertyValue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class BeanDependencyGraphTest {
+
+    public static class Leaf {
+    }
+
+    public static class Middle {
+        @Autowired
+        private Leaf leaf;
+    }
+
+    public static class Top {
+    }
+
+    public static class Standalone {
+    }
+
+    @Test
+    public void testDependenciesFromRefsAndAnnotations() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.registerBeanDefinition("leaf", new DefaultBeanDefinition(Leaf.class));
+        beanFactory.registerBeanDefinition("middle", new DefaultBeanDefinition(Middle.class));
+        DefaultBeanDefinition top = new DefaultBeanDefinition(Top.class);
+        top.addConstructorArg(new ConstructorArg("middle", null, Middle.class));
+        top.addPropertyValue(new PropertyValue("standalone", "standalone", null, true));
+        beanFactory.registerBeanDefinition("top", top);
+        beanFactory.registerBeanDefinition("standalone", new DefaultBeanDefinition(Standalone.class));
+
+        BeanDependencyGraph graph = new BeanDependencyGraph(beanFactory);
+        assertEquals(new HashSet<>(Arrays.asList("leaf")), graph.getDependencies("middle"));
+        assertEquals(new HashSet<>(Arrays.asList("middle", "standalone")), graph.getDependencies("top"));
+        assertEquals(new HashSet<>(Arrays.asList("top")), graph.getDependents("middle"));
+
+        List<String> order = graph.getCreationOrder(Arrays.asList("top", "middle", "leaf"));
+        assertEquals(Arrays.asList("leaf", "middle", "top"), order);
+    }
+
+    @Test
+    public void testCircularBeansShareOneCreationGroup() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        DefaultBeanDefinition a = new DefaultBeanDefinition(Leaf.class);
+        a.addPropertyValue(new PropertyValue("b", "b", null, true));
+        DefaultBeanDefinition b = new DefaultBeanDefinition(Top.class);
+        b.addPropertyValue(new PropertyValue("a", "a", null, true));
+        DefaultBeanDefinition c = new DefaultBeanDefinition(Standalone.class);
+        c.addPropertyValue(new PropertyValue("a", "a", null, true));
+        beanFactory.registerBeanDefinition("a", a);
+        beanFactory.registerBeanDefinition("b", b);
+        beanFactory.registerBeanDefinition("c", c);
+
+        List<BeanDependencyGraph.CreationGroup> groups = new BeanDependencyGraph(beanFactory).getCreationGroups();
+        assertEquals(2, groups.size());
+
+        Map<String, BeanDependencyGraph.CreationGroup> groupOf = new HashMap<>();
+        for (BeanDependencyGraph.CreationGroup group : groups) {
+            for (String name : group.getBeanNames()) {
+                groupOf.put(name, group);
+            }
+        }
+        assertSame(groupOf.get("a"), groupOf.get("b"));
+        assertTrue(groupOf.get("c").getDependencies().contains(groupOf.get("a")));
+        // 被依赖的分组排在前面
+        assertTrue(groups.indexOf(groupOf.get("a")) < groups.indexOf(groupOf.get("c")));
+    }
+}
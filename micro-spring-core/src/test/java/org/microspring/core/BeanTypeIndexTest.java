@@ -0,0 +1,123 @@
+package org.microspring.core;
+
+import org.junit.Test;
+import org.microspring.beans.factory.FactoryBean;
+import org.microspring.core.exception.NoSuchBeanDefinitionException;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BeanTypeIndexTest {
+
+    public interface Repository {
+    }
+
+    public static abstract class AbstractRepository implements Repository {
+    }
+
+    public static class UserRepository extends AbstractRepository {
+    }
+
+    public static class OrderRepository extends AbstractRepository {
+    }
+
+    public static class Product {
+    }
+
+    // 记录 getObjectType 调用次数的 FactoryBean
+    public static class ProductFactoryBean implements FactoryBean<Product> {
+        static int objectTypeCalls = 0;
+
+        @Override
+        public Product getObject() {
+            return new Product();
+        }
+
+        @Override
+        public Class<?> getObjectType() {
+            objectTypeCalls++;
+            return Product.class;
+        }
+
+        @Override
+        public boolean isSingleton() {
+            return true;
+        }
+    }
+
+    @Test
+    public void testLookupBySuperclassAndInterface() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.registerBeanDefinition("userRepository", new DefaultBeanDefinition(UserRepository.class));
+
+        assertTrue(beanFactory.getBean(Repository.class) instanceof UserRepository);
+        assertTrue(beanFactory.getBean(AbstractRepository.class) instanceof UserRepository);
+        assertArrayEquals(new String[]{"userRepository"}, beanFactory.getBeanNamesForType(Repository.class));
+    }
+
+    @Test
+    public void testIndexFollowsRegistrationAndRemoval() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.registerBeanDefinition("userRepository", new DefaultBeanDefinition(UserRepository.class));
+        assertTrue(beanFactory.getBean(Repository.class) instanceof UserRepository);
+
+        // 新注册的定义会使已缓存的解析结果失效
+        beanFactory.registerBeanDefinition("orderRepository", new DefaultBeanDefinition(OrderRepository.class));
+        assertEquals(Arrays.asList("userRepository", "orderRepository"),
+            Arrays.asList(beanFactory.getBeanNamesForType(Repository.class)));
+        try {
+            beanFactory.getBean(Repository.class);
+            fail("Expected ambiguity between two repositories");
+        } catch (NoSuchBeanDefinitionException e) {
+            assertTrue(e.getMessage().contains("Multiple beans found"));
+        }
+
+        // 移除定义后索引同步更新
+        beanFactory.removeBeanDefinition("userRepository");
+        assertTrue(beanFactory.getBean(Repository.class) instanceof OrderRepository);
+        List<Object> repositories = beanFactory.getBeansByType(Repository.class);
+        assertEquals(1, repositories.size());
+
+        beanFactory.removeBeanDefinition("orderRepository");
+        assertEquals(0, beanFactory.getBeanNamesForType(Repository.class).length);
+    }
+
+    @Test
+    public void testReplacingDefinitionReindexesType() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.registerBeanDefinition("repository", new DefaultBeanDefinition(UserRepository.class));
+        beanFactory.registerBeanDefinition("repository", new DefaultBeanDefinition(Product.class));
+
+        assertEquals(0, beanFactory.getBeanNamesForType(Repository.class).length);
+        assertArrayEquals(new String[]{"repository"}, beanFactory.getBeanNamesForType(Product.class));
+    }
+
+    @Test
+    public void testPrimaryResolutionIsCached() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.registerBeanDefinition("userRepository", new DefaultBeanDefinition(UserRepository.class));
+        DefaultBeanDefinition primary = new DefaultBeanDefinition(OrderRepository.class);
+        primary.setPrimary(true);
+        beanFactory.registerBeanDefinition("orderRepository", primary);
+
+        Repository first = beanFactory.getBean(Repository.class);
+        Repository second = beanFactory.getBean(Repository.class);
+        assertTrue(first instanceof OrderRepository);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testFactoryBeanObjectTypeIsCached() {
+        ProductFactoryBean.objectTypeCalls = 0;
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.registerBeanDefinition("product", new DefaultBeanDefinition(ProductFactoryBean.class));
+        beanFactory.registerBeanDefinition("userRepository", new DefaultBeanDefinition(UserRepository.class));
+
+        assertNotNull(beanFactory.getBean(Product.class));
+        assertNotNull(beanFactory.getBean(Product.class));
+        // 产品类型从 FactoryBean<Product> 的泛型参数推断，不需要调用 getObjectType()
+        assertEquals(0, ProductFactoryBean.objectTypeCalls);
+    }
+}
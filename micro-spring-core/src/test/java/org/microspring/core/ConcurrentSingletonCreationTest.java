@@ -0,0 +1,164 @@
+package org.microspring.core;
+
+import org.junit.Test;
+import org.microspring.core.beans.PropertyValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentSingletonCreationTest {
+
+    public static class Node {
+        private Node next;
+    }
+
+    public static class Ping {
+        static volatile CyclicBarrier barrier;
+        private Pong pong;
+
+        public Ping() throws Exception {
+            barrier.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    public static class Pong {
+        private Ping ping;
+
+        public Pong() throws Exception {
+            Ping.barrier.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    public static class Slow {
+        static volatile CountDownLatch entered;
+        static volatile CountDownLatch release;
+
+        public Slow() throws Exception {
+            entered.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    public static class Fast {
+    }
+
+    private static DefaultBeanDefinition ref(Class<?> beanClass, String property, String refName) {
+        DefaultBeanDefinition bd = new DefaultBeanDefinition(beanClass);
+        bd.addPropertyValue(new PropertyValue(property, refName, null, true));
+        return bd;
+    }
+
+    @Test(timeout = 30000)
+    public void testCircularDependencyAcrossThreads() throws Exception {
+        DefaultBeanFactory factory = new DefaultBeanFactory();
+        factory.registerBeanDefinition("ping", ref(Ping.class, "pong", "pong"));
+        factory.registerBeanDefinition("pong", ref(Pong.class, "ping", "ping"));
+        // 两个线程都实例化完成后才开始注入，保证各自持有一半的循环
+        Ping.barrier = new CyclicBarrier(2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> ping = executor.submit(() -> factory.getBean("ping"));
+            Future<Object> pong = executor.submit(() -> factory.getBean("pong"));
+
+            Ping pingBean = (Ping) ping.get(10, TimeUnit.SECONDS);
+            Pong pongBean = (Pong) pong.get(10, TimeUnit.SECONDS);
+            assertSame(pongBean, pingBean.pong);
+            assertSame(pingBean, pongBean.ping);
+            assertSame(pingBean, factory.getBean("ping"));
+            assertSame(pongBean, factory.getBean("pong"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void testConcurrentGetBeanOnCircularRings() throws Exception {
+        String[] ring = {"a", "b", "c", "d"};
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Random random = new Random(42);
+        try {
+            for (int iteration = 0; iteration < 200; iteration++) {
+                DefaultBeanFactory factory = new DefaultBeanFactory();
+                for (int i = 0; i < ring.length; i++) {
+                    factory.registerBeanDefinition(ring[i], ref(Node.class, "next", ring[(i + 1) % ring.length]));
+                }
+                factory.registerBeanDefinition("x", ref(Node.class, "next", "y"));
+                factory.registerBeanDefinition("y", ref(Node.class, "next", "x"));
+
+                CountDownLatch start = new CountDownLatch(1);
+                Map<String, Object> seen = new ConcurrentHashMap<>();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    String[] names = {"a", "b", "c", "d", "x", "y"};
+                    String first = names[random.nextInt(names.length)];
+                    String second = names[random.nextInt(names.length)];
+                    futures.add(executor.submit(() -> {
+                        start.await();
+                        for (String name : new String[]{first, second}) {
+                            Object bean = factory.getBean(name);
+                            Object previous = seen.putIfAbsent(name, bean);
+                            assertTrue(previous == null || previous == bean);
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> future : futures) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+
+                for (int i = 0; i < ring.length; i++) {
+                    Node node = (Node) factory.getBean(ring[i]);
+                    assertSame(factory.getBean(ring[(i + 1) % ring.length]), node.next);
+                }
+                assertSame(factory.getBean("y"), ((Node) factory.getBean("x")).next);
+                assertSame(factory.getBean("x"), ((Node) factory.getBean("y")).next);
+                for (Map.Entry<String, Object> entry : seen.entrySet()) {
+                    assertSame(factory.getBean(entry.getKey()), entry.getValue());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testSlowSingletonDoesNotBlockOtherBeans() throws Exception {
+        DefaultBeanFactory factory = new DefaultBeanFactory();
+        factory.registerBeanDefinition("slow", new DefaultBeanDefinition(Slow.class));
+        factory.registerBeanDefinition("fast", new DefaultBeanDefinition(Fast.class));
+        Slow.entered = new CountDownLatch(1);
+        Slow.release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Object> first = executor.submit(() -> factory.getBean("slow"));
+            assertTrue(Slow.entered.await(5, TimeUnit.SECONDS));
+            Future<Object> second = executor.submit(() -> factory.getBean("slow"));
+
+            // slow 仍在创建中，其他bean不受影响，同一个bean的请求继续等待
+            assertNotNull(factory.getBean("fast"));
+            assertFalse(second.isDone());
+
+            Slow.release.countDown();
+            Object slow = first.get(5, TimeUnit.SECONDS);
+            assertSame(slow, second.get(5, TimeUnit.SECONDS));
+            assertSame(slow, factory.getBean("slow"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
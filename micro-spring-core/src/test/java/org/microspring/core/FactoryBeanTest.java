@@ -0,0 +1,173 @@
+package org.microspring.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.microspring.beans.factory.FactoryBean;
+import org.microspring.core.beans.ConstructorArg;
+import org.microspring.core.beans.PropertyValue;
+import org.microspring.core.exception.BeanCreationException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class FactoryBeanTest {
+
+    private static final AtomicInteger factoriesCreated = new AtomicInteger();
+    private static final AtomicInteger objectsCreated = new AtomicInteger();
+
+    public interface Mapper {
+    }
+
+    public static class Client {
+    }
+
+    public static class ClientFactoryBean implements FactoryBean<Client> {
+        public ClientFactoryBean() {
+            factoriesCreated.incrementAndGet();
+        }
+
+        @Override
+        public Client getObject() {
+            objectsCreated.incrementAndGet();
+            return new Client();
+        }
+
+        @Override
+        public Class<?> getObjectType() {
+            return Client.class;
+        }
+
+        @Override
+        public boolean isSingleton() {
+            return true;
+        }
+    }
+
+    public static class PrototypeClientFactoryBean extends ClientFactoryBean {
+        @Override
+        public boolean isSingleton() {
+            return false;
+        }
+    }
+
+    // 泛型参数未绑定，产品类型由构造器参数决定
+    public static class GenericMapperFactoryBean<T> implements FactoryBean<T> {
+        private final Class<T> mapperInterface;
+
+        public GenericMapperFactoryBean(Class<T> mapperInterface) {
+            factoriesCreated.incrementAndGet();
+            this.mapperInterface = mapperInterface;
+        }
+
+        @Override
+        public T getObject() {
+            objectsCreated.incrementAndGet();
+            return mapperInterface.cast(java.lang.reflect.Proxy.newProxyInstance(
+                mapperInterface.getClassLoader(), new Class<?>[]{mapperInterface}, (proxy, method, args) -> null));
+        }
+
+        @Override
+        public Class<?> getObjectType() {
+            return mapperInterface;
+        }
+
+        @Override
+        public boolean isSingleton() {
+            return true;
+        }
+    }
+
+    public static class MapperService {
+        private Mapper mapper;
+    }
+
+    private DefaultBeanFactory beanFactory;
+
+    @Before
+    public void setUp() {
+        factoriesCreated.set(0);
+        objectsCreated.set(0);
+        beanFactory = new DefaultBeanFactory();
+    }
+
+    @Test
+    public void testSingletonProductIsCachedAndFactoryIsDereferenced() {
+        beanFactory.registerBeanDefinition("client", new DefaultBeanDefinition(ClientFactoryBean.class));
+
+        Object first = beanFactory.getBean("client");
+        assertTrue(first instanceof Client);
+        assertSame(first, beanFactory.getBean("client", Client.class));
+        assertSame(first, beanFactory.getBean(Client.class));
+        assertEquals(1, objectsCreated.get());
+
+        Object factory = beanFactory.getBean("&client");
+        assertTrue(factory instanceof ClientFactoryBean);
+        assertSame(factory, beanFactory.getBean("&client"));
+        assertEquals(1, factoriesCreated.get());
+    }
+
+    @Test
+    public void testNonSingletonProductIsCreatedEachTime() {
+        beanFactory.registerBeanDefinition("client", new DefaultBeanDefinition(PrototypeClientFactoryBean.class));
+
+        assertNotSame(beanFactory.getBean("client"), beanFactory.getBean("client"));
+        assertEquals(2, objectsCreated.get());
+        assertEquals(1, factoriesCreated.get());
+    }
+
+    @Test
+    public void testTypeMatchingDoesNotCreateFactoryOrProduct() {
+        beanFactory.registerBeanDefinition("client", new DefaultBeanDefinition(ClientFactoryBean.class));
+        DefaultBeanDefinition mapper = new DefaultBeanDefinition(GenericMapperFactoryBean.class);
+        mapper.addConstructorArg(new ConstructorArg(null, Mapper.class, Class.class));
+        beanFactory.registerBeanDefinition("mapper", mapper);
+        DefaultBeanDefinition service = new DefaultBeanDefinition(MapperService.class);
+        service.setLazyInit(true);
+        beanFactory.registerBeanDefinition("mapperService", service);
+
+        // 解析类型只依赖定义中的泛型参数或构造器参数
+        assertEquals(0, factoriesCreated.get());
+        assertNotNull(beanFactory.getBean(Mapper.class));
+        assertEquals(1, factoriesCreated.get());
+        assertEquals(1, objectsCreated.get());
+    }
+
+    @Test
+    public void testReferenceInjectsCachedProduct() {
+        DefaultBeanDefinition mapper = new DefaultBeanDefinition(GenericMapperFactoryBean.class);
+        mapper.addConstructorArg(new ConstructorArg(null, Mapper.class, Class.class));
+        beanFactory.registerBeanDefinition("mapper", mapper);
+        for (String name : new String[]{"first", "second"}) {
+            DefaultBeanDefinition service = new DefaultBeanDefinition(MapperService.class);
+            service.addPropertyValue(new PropertyValue("mapper", "mapper", Mapper.class, true));
+            beanFactory.registerBeanDefinition(name, service);
+        }
+
+        MapperService first = (MapperService) beanFactory.getBean("first");
+        MapperService second = (MapperService) beanFactory.getBean("second");
+        assertSame(first.mapper, second.mapper);
+        assertSame(first.mapper, beanFactory.getBean(Mapper.class));
+        assertEquals(1, objectsCreated.get());
+    }
+
+    @Test
+    public void testLookupByFactoryTypeReturnsFactory() {
+        beanFactory.registerBeanDefinition("client", new DefaultBeanDefinition(ClientFactoryBean.class));
+
+        ClientFactoryBean factory = beanFactory.getBean(ClientFactoryBean.class);
+        assertSame(beanFactory.getBean("&client"), factory);
+        assertSame(factory, beanFactory.getBean(FactoryBean.class));
+        assertEquals(1, beanFactory.getBeansByType(ClientFactoryBean.class).size());
+        assertSame(factory, beanFactory.getBeansByType(ClientFactoryBean.class).get(0));
+        // 按产品类型查找仍然返回产品
+        assertTrue(beanFactory.getBean(Client.class) instanceof Client);
+        assertEquals(1, objectsCreated.get());
+    }
+
+    @Test(expected = BeanCreationException.class)
+    public void testDereferenceOfPlainBeanFails() {
+        beanFactory.registerBeanDefinition("plain", new DefaultBeanDefinition(Client.class));
+        beanFactory.getBean("&plain");
+    }
+}
@@ -0,0 +1,126 @@
+package org.microspring.core;
+
+import org.junit.Test;
+import org.microspring.beans.factory.annotation.Autowired;
+import org.microspring.beans.factory.annotation.Qualifier;
+import org.microspring.beans.factory.annotation.Value;
+
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class InjectionMetadataTest {
+
+    public interface Handler {
+    }
+
+    public static class FirstHandler implements Handler {
+    }
+
+    public static class SecondHandler implements Handler {
+    }
+
+    public static class Registry {
+        @Autowired
+        private List<Handler> handlers;
+
+        @Autowired
+        private Map<String, Handler> handlerMap;
+
+        @Autowired
+        @Qualifier("secondHandler")
+        private Handler preferred;
+
+        @Resource
+        private FirstHandler firstHandler;
+
+        private int timeout;
+
+        @Value("30")
+        public void setTimeout(int timeout) {
+            this.timeout = timeout;
+        }
+
+        public void notInjected(Handler handler) {
+        }
+    }
+
+    public static class ConstructorClient {
+        private final Handler handler;
+
+        @Autowired
+        public ConstructorClient(@Qualifier("firstHandler") Handler handler) {
+            this.handler = handler;
+        }
+    }
+
+    @Test
+    public void testMetadataDescribesInjectionPoints() {
+        InjectionMetadata metadata = new InjectionMetadata(Registry.class);
+
+        assertEquals(3, metadata.getAutowiredFields().size());
+        assertEquals(1, metadata.getResourceFields().size());
+        assertEquals("firstHandler", metadata.getResourceFields().get(0).getResourceName());
+        assertEquals(1, metadata.getValueMethods().size());
+        assertTrue(metadata.getAutowiredMethods().isEmpty());
+
+        for (InjectionMetadata.InjectedField element : metadata.getAutowiredFields()) {
+            InjectionMetadata.DependencyDescriptor descriptor = element.getDescriptor();
+            if (descriptor.isList()) {
+                assertEquals(Handler.class, descriptor.getElementType());
+            } else if (descriptor.isMap()) {
+                assertEquals(Handler.class, descriptor.getElementType());
+                assertTrue(descriptor.isStringKeyed());
+            } else {
+                assertEquals("secondHandler", descriptor.getQualifier());
+            }
+        }
+
+        assertNull(metadata.getAutowiredConstructor());
+        assertNotNull(metadata.getDefaultConstructor());
+    }
+
+    @Test
+    public void testMetadataIsBuiltOncePerClass() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        assertSame(beanFactory.getInjectionMetadata(Registry.class),
+            beanFactory.getInjectionMetadata(Registry.class));
+    }
+
+    @Test
+    public void testPrototypeInjectionReusesMetadata() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.registerBeanDefinition("firstHandler", new DefaultBeanDefinition(FirstHandler.class));
+        beanFactory.registerBeanDefinition("secondHandler", new DefaultBeanDefinition(SecondHandler.class));
+        DefaultBeanDefinition registryDefinition = new DefaultBeanDefinition(Registry.class);
+        registryDefinition.setScope("prototype");
+        beanFactory.registerBeanDefinition("registry", registryDefinition);
+
+        Registry first = (Registry) beanFactory.getBean("registry");
+        InjectionMetadata metadata = beanFactory.getInjectionMetadata(Registry.class);
+        Registry second = (Registry) beanFactory.getBean("registry");
+
+        assertNotSame(first, second);
+        assertSame(metadata, beanFactory.getInjectionMetadata(Registry.class));
+        for (Registry registry : new Registry[]{first, second}) {
+            assertEquals(2, registry.handlers.size());
+            assertEquals(2, registry.handlerMap.size());
+            assertTrue(registry.preferred instanceof SecondHandler);
+            assertSame(beanFactory.getBean("firstHandler"), registry.firstHandler);
+            assertEquals(30, registry.timeout);
+        }
+    }
+
+    @Test
+    public void testAutowiredConstructorFromMetadata() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        beanFactory.registerBeanDefinition("firstHandler", new DefaultBeanDefinition(FirstHandler.class));
+        beanFactory.registerBeanDefinition("secondHandler", new DefaultBeanDefinition(SecondHandler.class));
+        beanFactory.registerBeanDefinition("client", new DefaultBeanDefinition(ConstructorClient.class));
+
+        ConstructorClient client = (ConstructorClient) beanFactory.getBean("client");
+        assertTrue(client.handler instanceof FirstHandler);
+    }
+}
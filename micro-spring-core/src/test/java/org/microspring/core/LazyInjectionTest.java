@@ -0,0 +1,161 @@
+package org.microspring.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.microspring.beans.factory.annotation.Autowired;
+import org.microspring.beans.factory.annotation.Lazy;
+import org.microspring.beans.factory.annotation.Qualifier;
+import org.microspring.core.exception.BeanCreationException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class LazyInjectionTest {
+
+    public interface Repository {
+        String find(String id);
+    }
+
+    public static class ExpensiveRepository implements Repository {
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        public ExpensiveRepository() {
+            CREATED.incrementAndGet();
+        }
+
+        @Override
+        public String find(String id) {
+            if (id == null) {
+                throw new IllegalArgumentException("id must not be null");
+            }
+            return "found-" + id;
+        }
+    }
+
+    public static class FieldClient {
+        @Autowired
+        @Lazy
+        private Repository repository;
+    }
+
+    public static class ConstructorClient {
+        private final Repository repository;
+
+        @Autowired
+        public ConstructorClient(@Lazy Repository repository) {
+            this.repository = repository;
+        }
+    }
+
+    // 没有接口的具体类，只能通过子类代理延迟解析
+    public static class ReportGenerator {
+        static final AtomicInteger CREATED = new AtomicInteger();
+
+        public ReportGenerator() {
+            CREATED.incrementAndGet();
+        }
+
+        public String generate(String name) {
+            return "report-" + name;
+        }
+
+        String format() {
+            return "pdf";
+        }
+    }
+
+    public static final class FinalService {
+    }
+
+    public static class ClassTypedClient {
+        @Autowired
+        @Lazy
+        private ReportGenerator reportGenerator;
+    }
+
+    public static class FinalTypedClient {
+        @Autowired
+        @Lazy
+        private FinalService service;
+    }
+
+    private DefaultBeanFactory beanFactory;
+
+    @Before
+    public void setUp() {
+        ExpensiveRepository.CREATED.set(0);
+        ReportGenerator.CREATED.set(0);
+        beanFactory = new DefaultBeanFactory();
+        beanFactory.registerBeanDefinition("repository", new DefaultBeanDefinition(ExpensiveRepository.class));
+    }
+
+    @Test
+    public void testLazyFieldResolvesOnFirstUse() {
+        beanFactory.registerBeanDefinition("fieldClient", new DefaultBeanDefinition(FieldClient.class));
+
+        FieldClient client = (FieldClient) beanFactory.getBean("fieldClient");
+        assertNotNull(client.repository);
+        assertEquals(0, ExpensiveRepository.CREATED.get());
+        // equals/hashCode 不触发解析
+        assertEquals(client.repository, client.repository);
+        client.repository.hashCode();
+        assertEquals(0, ExpensiveRepository.CREATED.get());
+
+        assertEquals("found-1", client.repository.find("1"));
+        assertEquals("found-2", client.repository.find("2"));
+        assertEquals(1, ExpensiveRepository.CREATED.get());
+        assertSame(beanFactory.getBean("repository"), beanFactory.getBean(Repository.class));
+    }
+
+    @Test
+    public void testLazyConstructorParameterAndExceptionPropagation() {
+        beanFactory.registerBeanDefinition("constructorClient", new DefaultBeanDefinition(ConstructorClient.class));
+
+        ConstructorClient client = (ConstructorClient) beanFactory.getBean("constructorClient");
+        assertEquals(0, ExpensiveRepository.CREATED.get());
+        try {
+            client.repository.find(null);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("id must not be null", e.getMessage());
+        }
+        assertEquals(1, ExpensiveRepository.CREATED.get());
+    }
+
+    @Test
+    public void testClassTypedInjectionPointResolvesOnFirstUse() {
+        beanFactory.registerBeanDefinition("reportGenerator", new DefaultBeanDefinition(ReportGenerator.class));
+        beanFactory.registerBeanDefinition("classTypedClient", new DefaultBeanDefinition(ClassTypedClient.class));
+
+        ClassTypedClient client = (ClassTypedClient) beanFactory.getBean("classTypedClient");
+        assertNotNull(client.reportGenerator);
+        assertNotSame(ReportGenerator.class, client.reportGenerator.getClass());
+        assertEquals(0, ReportGenerator.CREATED.get());
+        assertFalse(LazyResolutionProxy.isResolved(client.reportGenerator));
+
+        assertEquals("report-daily", client.reportGenerator.generate("daily"));
+        assertEquals("pdf", client.reportGenerator.format());
+        assertEquals(1, ReportGenerator.CREATED.get());
+        assertTrue(LazyResolutionProxy.isResolved(client.reportGenerator));
+    }
+
+    @Test
+    public void testFinalClassInjectionPointIsRejected() {
+        beanFactory.registerBeanDefinition("service", new DefaultBeanDefinition(FinalService.class));
+        beanFactory.registerBeanDefinition("finalTypedClient", new DefaultBeanDefinition(FinalTypedClient.class));
+
+        try {
+            beanFactory.getBean("finalTypedClient");
+            fail("Expected BeanCreationException");
+        } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (cause != null && !(cause instanceof BeanCreationException)) {
+                cause = cause.getCause();
+            }
+            assertNotNull(cause);
+            assertTrue(cause.getMessage().contains(FinalTypedClient.class.getName()));
+            assertTrue(cause.getMessage().contains("field 'service'"));
+        }
+    }
+}
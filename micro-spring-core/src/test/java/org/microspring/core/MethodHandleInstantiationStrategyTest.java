@@ -0,0 +1,100 @@
+package org.microspring.core;
+
+import org.junit.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.junit.Assert.*;
+
+public class MethodHandleInstantiationStrategyTest {
+
+    public static class Target {
+        private final String name;
+        private int count;
+        private final long id = 1L;
+
+        private Target(String name, int count) {
+            this.name = name;
+            this.count = count;
+        }
+
+        private static Target create(String name) {
+            return new Target(name, 0);
+        }
+
+        private void increment() {
+            count++;
+        }
+
+        public void fail() {
+            throw new IllegalStateException("boom");
+        }
+    }
+
+    private final MethodHandleInstantiationStrategy strategy = new MethodHandleInstantiationStrategy();
+
+    @Test
+    public void testInstantiatePrivateConstructor() throws Exception {
+        Constructor<?> constructor = Target.class.getDeclaredConstructor(String.class, int.class);
+        constructor.setAccessible(true);
+
+        Target target = (Target) strategy.instantiate(constructor, "a", 3);
+        assertEquals("a", target.name);
+        assertEquals(3, target.count);
+        // 第二次调用使用缓存的 MethodHandle
+        assertEquals("b", ((Target) strategy.instantiate(constructor, "b", 4)).name);
+    }
+
+    @Test
+    public void testInvokeStaticAndVoidMethods() throws Exception {
+        Method factory = Target.class.getDeclaredMethod("create", String.class);
+        factory.setAccessible(true);
+        Target target = (Target) strategy.invoke(null, factory, "static");
+        assertEquals("static", target.name);
+
+        Method increment = Target.class.getDeclaredMethod("increment");
+        increment.setAccessible(true);
+        assertNull(strategy.invoke(target, increment));
+        assertEquals(1, target.count);
+    }
+
+    @Test
+    public void testTargetExceptionIsWrapped() throws Exception {
+        Method fail = Target.class.getMethod("fail");
+        try {
+            strategy.invoke(Target.create("x"), fail);
+            fail("Expected InvocationTargetException");
+        } catch (InvocationTargetException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testSetFields() throws Exception {
+        Target target = Target.create("x");
+        Field count = Target.class.getDeclaredField("count");
+        count.setAccessible(true);
+        strategy.setField(target, count, 7);
+        assertEquals(7, target.count);
+
+        try {
+            strategy.setField(target, count, "seven");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // 与 Field.set 一致
+        }
+    }
+
+    @Test
+    public void testFactoryUsesConfiguredStrategy() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        assertTrue(beanFactory.getInstantiationStrategy() instanceof MethodHandleInstantiationStrategy);
+
+        beanFactory.setInstantiationStrategy(new ReflectiveInstantiationStrategy());
+        beanFactory.registerBeanDefinition("target", new DefaultBeanDefinition(StringBuilder.class));
+        assertNotNull(beanFactory.getBean("target"));
+    }
+}
@@ -0,0 +1,151 @@
+package org.microspring.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.microspring.core.beans.PropertyValue;
+import org.microspring.core.exception.BeanCreationException;
+import org.microspring.core.shutdown.ShutdownReport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ShutdownTest {
+
+    private static final List<String> destroyed = Collections.synchronizedList(new ArrayList<>());
+    private static final AtomicInteger lazyCreated = new AtomicInteger();
+    private static CountDownLatch bothClosing;
+
+    public static class ConnectionPool {
+        public void close() {
+            destroyed.add("pool");
+        }
+    }
+
+    public static class OrderService {
+        private ConnectionPool pool;
+
+        public void close() {
+            destroyed.add("service");
+        }
+    }
+
+    public static class LazyResource {
+        public LazyResource() {
+            lazyCreated.incrementAndGet();
+        }
+
+        public void close() {
+            destroyed.add("lazy");
+        }
+    }
+
+    public static class SlowConsumer {
+        public void close() throws InterruptedException {
+            Thread.sleep(5000);
+        }
+    }
+
+    public static class BrokenResource {
+        public void close() {
+            throw new IllegalStateException("broken");
+        }
+    }
+
+    public static class Rendezvous {
+        // 两个bean互相等待，只有并发执行销毁回调才能按时完成
+        public void close() throws InterruptedException {
+            bothClosing.countDown();
+            if (!bothClosing.await(3, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("not concurrent");
+            }
+        }
+    }
+
+    private DefaultBeanFactory beanFactory;
+
+    @Before
+    public void setUp() {
+        destroyed.clear();
+        lazyCreated.set(0);
+        beanFactory = new DefaultBeanFactory();
+    }
+
+    private DefaultBeanDefinition register(String name, Class<?> type) {
+        DefaultBeanDefinition bd = new DefaultBeanDefinition(type);
+        bd.setDestroyMethodName("close");
+        beanFactory.registerBeanDefinition(name, bd);
+        return bd;
+    }
+
+    @Test
+    public void testDestroysInReverseDependencyOrderWithoutCreatingBeans() {
+        register("pool", ConnectionPool.class);
+        register("service", OrderService.class)
+            .addPropertyValue(new PropertyValue("pool", "pool", ConnectionPool.class, true));
+        register("lazy", LazyResource.class).setLazyInit(true);
+        beanFactory.getBean("service");
+
+        ShutdownReport report = beanFactory.destroySingletons();
+
+        assertEquals(Arrays.asList("service", "pool"), destroyed);
+        assertEquals(0, lazyCreated.get());
+        assertEquals(2, report.getEntries(ShutdownReport.Status.DESTROYED).size());
+        assertFalse(report.hasProblems());
+        assertSame(report, beanFactory.destroySingletons());
+    }
+
+    @Test
+    public void testSlowCallbackTimesOutWithoutBlockingOthers() {
+        beanFactory.setDestroyTimeoutMillis(100);
+        register("consumer", SlowConsumer.class);
+        register("pool", ConnectionPool.class);
+        beanFactory.getBean("consumer");
+        beanFactory.getBean("pool");
+
+        long start = System.nanoTime();
+        ShutdownReport report = beanFactory.destroySingletons();
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3000);
+        assertEquals("consumer", report.getEntries(ShutdownReport.Status.TIMED_OUT).get(0).getBeanName());
+        assertEquals(Collections.singletonList("pool"), destroyed);
+        assertTrue(report.toString().contains("consumer TIMED_OUT"));
+    }
+
+    @Test
+    public void testIndependentBeansAreDestroyedConcurrently() {
+        bothClosing = new CountDownLatch(2);
+        beanFactory.setDestroyParallelism(2);
+        register("first", Rendezvous.class);
+        register("second", Rendezvous.class);
+        beanFactory.getBean("first");
+        beanFactory.getBean("second");
+
+        ShutdownReport report = beanFactory.destroySingletons();
+
+        assertEquals(2, report.getEntries(ShutdownReport.Status.DESTROYED).size());
+    }
+
+    @Test
+    public void testCloseThrowsFailureAfterDestroyingOthers() {
+        register("broken", BrokenResource.class);
+        register("pool", ConnectionPool.class);
+        beanFactory.getBean("broken");
+        beanFactory.getBean("pool");
+
+        try {
+            beanFactory.close();
+            fail("Should throw BeanCreationException");
+        } catch (BeanCreationException e) {
+            assertTrue(e.getMessage().contains("Failed to invoke destroy method [close]"));
+        }
+        assertEquals(Collections.singletonList("pool"), destroyed);
+        assertEquals(1, beanFactory.getShutdownReport().getEntries(ShutdownReport.Status.FAILED).size());
+    }
+}
@@ -0,0 +1,131 @@
+package org.microspring.core;
+
+import org.junit.Test;
+import org.microspring.core.beans.ConstructorArg;
+import org.microspring.core.beans.PropertyValue;
+import org.microspring.core.io.StaxXmlBeanDefinitionReader;
+import org.microspring.core.io.XmlBeanDefinitionReader;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class StaxXmlBeanDefinitionReaderTest {
+
+    private static final String[] LOCATIONS = {
+        "stax-collections.xml", "di-test.xml", "application-context.xml", "lazyContext.xml", "complex-injection.xml"
+    };
+
+    public static class Item {
+        private final String name;
+
+        public Item(String name) {
+            this.name = name;
+        }
+
+        public void close() {
+        }
+    }
+
+    public static class Catalog {
+        private List<Item> items;
+        private Map<String, Item> itemsByName;
+        private List<String> labels;
+        private Map<String, Object> limits;
+        private String owner;
+    }
+
+    @Test
+    public void testDefinitionsMatchDomReader() {
+        for (String location : LOCATIONS) {
+            DefaultBeanFactory dom = new DefaultBeanFactory();
+            new XmlBeanDefinitionReader(dom).loadBeanDefinitions(location);
+            DefaultBeanFactory stax = new DefaultBeanFactory();
+            new StaxXmlBeanDefinitionReader(stax).loadBeanDefinitions(location);
+
+            assertEquals(location, new ArrayList<>(dom.getBeanDefinitionNames()),
+                new ArrayList<>(stax.getBeanDefinitionNames()));
+            for (String beanName : dom.getBeanDefinitionNames()) {
+                assertSameDefinition(location + ":" + beanName,
+                    dom.getBeanDefinition(beanName), stax.getBeanDefinition(beanName));
+            }
+        }
+    }
+
+    private static void assertSameDefinition(String message, BeanDefinition expected, BeanDefinition actual) {
+        assertEquals(message, expected.getBeanClass(), actual.getBeanClass());
+        assertEquals(message, expected.getScope(), actual.getScope());
+        assertEquals(message, expected.isLazyInit(), actual.isLazyInit());
+        assertEquals(message, expected.getInitMethodName(), actual.getInitMethodName());
+        assertEquals(message, expected.getDestroyMethodName(), actual.getDestroyMethodName());
+        assertEquals(message, expected.getConstructorArgs().size(), actual.getConstructorArgs().size());
+        for (int i = 0; i < expected.getConstructorArgs().size(); i++) {
+            ConstructorArg e = expected.getConstructorArgs().get(i);
+            ConstructorArg a = actual.getConstructorArgs().get(i);
+            assertEquals(message, e.getRef(), a.getRef());
+            assertEquals(message, e.getValue(), a.getValue());
+            assertEquals(message, e.getType(), a.getType());
+        }
+        assertEquals(message, expected.getPropertyValues().size(), actual.getPropertyValues().size());
+        for (int i = 0; i < expected.getPropertyValues().size(); i++) {
+            PropertyValue e = expected.getPropertyValues().get(i);
+            PropertyValue a = actual.getPropertyValues().get(i);
+            assertEquals(message, e.getName(), a.getName());
+            assertEquals(message, e.getValue(), a.getValue());
+            assertEquals(message, e.getType(), a.getType());
+            assertEquals(message, e.isRef(), a.isRef());
+        }
+    }
+
+    @Test
+    public void testMixedListPutsValuesBeforeRefsWithEitherReader() {
+        try {
+            for (String reader : new String[]{"dom", "stax"}) {
+                System.setProperty(DefaultBeanFactory.XML_READER_PROPERTY, reader);
+                DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+                beanFactory.loadBeanDefinitions("stax-collections.xml");
+
+                PropertyValue labels = beanFactory.getBeanDefinition("mixedCatalog").getPropertyValues().get(0);
+                assertEquals(reader, Arrays.asList("b", "d", "first", "second"), labels.getValue());
+                assertTrue(reader, labels.isRef());
+            }
+        } finally {
+            System.clearProperty(DefaultBeanFactory.XML_READER_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testParallelLoadRegistersAllFilesAndCreatesBeans() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        StaxXmlBeanDefinitionReader reader = new StaxXmlBeanDefinitionReader(beanFactory);
+        reader.setParallelism(4);
+        reader.loadBeanDefinitions(LOCATIONS);
+
+        assertTrue(beanFactory.getBeanDefinitionNames().containsAll(
+            Arrays.asList("catalog", "engine", "car", "serviceBean", "lazyBean", "complexBean")));
+        Catalog catalog = (Catalog) beanFactory.getBean("catalog");
+        assertEquals(2, catalog.items.size());
+        assertSame(beanFactory.getBean("first"), catalog.items.get(0));
+        assertEquals("two", catalog.itemsByName.get("second").name);
+        assertEquals(Arrays.asList("a & b", "c"), catalog.labels);
+        assertEquals(10, catalog.limits.get("max"));
+        assertEquals("items", catalog.limits.get("unit"));
+        assertEquals("store", catalog.owner);
+    }
+
+    @Test
+    public void testFailedFileRegistersNothing() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        StaxXmlBeanDefinitionReader reader = new StaxXmlBeanDefinitionReader(beanFactory);
+        try {
+            reader.loadBeanDefinitions("di-test.xml", "missing-beans.xml");
+            fail("Expected RuntimeException");
+        } catch (RuntimeException e) {
+            assertEquals("Resource not found: missing-beans.xml", e.getMessage());
+        }
+        assertTrue(beanFactory.getBeanDefinitionNames().isEmpty());
+    }
+}
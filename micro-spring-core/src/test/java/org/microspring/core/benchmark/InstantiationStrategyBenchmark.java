@@ -0,0 +1,81 @@
+package org.microspring.core.benchmark;
+
+import org.microspring.beans.factory.annotation.Autowired;
+import org.microspring.core.DefaultBeanDefinition;
+import org.microspring.core.DefaultBeanFactory;
+import org.microspring.core.ReflectiveInstantiationStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * prototype bean 创建开销：反射调用 vs MethodHandle 调用
+ * 运行方式：mvn test-compile 后执行 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstantiationStrategyBenchmark {
+
+    public static class Repository {
+    }
+
+    public static class Service {
+        @Autowired
+        private Repository repository;
+
+        private String name;
+
+        public Service() {
+        }
+
+        public void init() {
+            this.name = "service";
+        }
+    }
+
+    @Param({"reflective", "methodHandle"})
+    public String strategy;
+
+    private DefaultBeanFactory beanFactory;
+
+    @Setup
+    public void setUp() {
+        beanFactory = new DefaultBeanFactory();
+        if ("reflective".equals(strategy)) {
+            beanFactory.setInstantiationStrategy(new ReflectiveInstantiationStrategy());
+        }
+        beanFactory.registerBeanDefinition("repository", new DefaultBeanDefinition(Repository.class));
+        DefaultBeanDefinition service = new DefaultBeanDefinition(Service.class);
+        service.setScope("prototype");
+        service.setInitMethodName("init");
+        beanFactory.registerBeanDefinition("service", service);
+    }
+
+    @Benchmark
+    public Object createPrototype() {
+        return beanFactory.getBean("service");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(InstantiationStrategyBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
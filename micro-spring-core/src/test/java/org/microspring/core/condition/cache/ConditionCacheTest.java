@@ -0,0 +1,111 @@
+package org.microspring.core.condition.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.microspring.core.DefaultBeanFactory;
+import org.microspring.core.annotation.Conditional;
+import org.microspring.core.annotation.ConditionalOnClass;
+import org.microspring.core.condition.Condition;
+import org.microspring.core.condition.ConditionContext;
+import org.microspring.core.io.ClassPathBeanDefinitionScanner;
+import org.microspring.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConditionCacheTest {
+
+    private static final AtomicInteger environmentEvaluations = new AtomicInteger();
+    private static final AtomicInteger beanFactoryEvaluations = new AtomicInteger();
+    private static final AtomicInteger conditionInstances = new AtomicInteger();
+    static volatile boolean missingDependencyBeanLoaded;
+
+    public static class EnvironmentCondition implements Condition {
+        public EnvironmentCondition() {
+            conditionInstances.incrementAndGet();
+        }
+
+        @Override
+        public boolean matches(ConditionContext context) {
+            environmentEvaluations.incrementAndGet();
+            return context.getEnvironment("java.version") != null;
+        }
+    }
+
+    // 依赖已注册的 bean，结果不能缓存
+    public static class BeanFactoryCondition implements Condition {
+        @Override
+        public boolean matches(ConditionContext context) {
+            beanFactoryEvaluations.incrementAndGet();
+            return context.getBeanFactory() != null;
+        }
+    }
+
+    @Component
+    @Conditional(EnvironmentCondition.class)
+    public static class FirstBean {
+    }
+
+    @Component
+    @Conditional(EnvironmentCondition.class)
+    public static class SecondBean {
+    }
+
+    @Component
+    @Conditional({EnvironmentCondition.class, BeanFactoryCondition.class})
+    public static class ThirdBean {
+    }
+
+    @Component
+    @Conditional(BeanFactoryCondition.class)
+    public static class FourthBean {
+    }
+
+    @Component
+    @ConditionalOnClass("org.microspring.core.DefaultBeanFactory")
+    public static class PresentDependencyBean {
+    }
+
+    @Component
+    @ConditionalOnClass({"org.microspring.core.DefaultBeanFactory", "com.example.missing.Driver"})
+    public static class MissingDependencyBean {
+        static {
+            missingDependencyBeanLoaded = true;
+        }
+    }
+
+    private DefaultBeanFactory beanFactory;
+
+    @Before
+    public void setUp() {
+        environmentEvaluations.set(0);
+        beanFactoryEvaluations.set(0);
+        conditionInstances.set(0);
+        beanFactory = new DefaultBeanFactory();
+        new ClassPathBeanDefinitionScanner(beanFactory).scan(getClass().getPackage().getName());
+    }
+
+    @Test
+    public void testEnvironmentConditionIsEvaluatedOnce() {
+        assertTrue(beanFactory.containsBean("firstBean"));
+        assertTrue(beanFactory.containsBean("secondBean"));
+        assertTrue(beanFactory.containsBean("thirdBean"));
+        assertEquals(1, environmentEvaluations.get());
+        assertEquals(1, conditionInstances.get());
+    }
+
+    @Test
+    public void testBeanFactoryConditionIsEvaluatedEachTime() {
+        assertTrue(beanFactory.containsBean("fourthBean"));
+        assertEquals(2, beanFactoryEvaluations.get());
+    }
+
+    @Test
+    public void testConditionalOnClassFiltersBeforeLoading() throws ClassNotFoundException {
+        assertTrue(beanFactory.containsBean("presentDependencyBean"));
+        assertFalse(beanFactory.containsBean("missingDependencyBean"));
+        // 扫描过程不能触发候选类的初始化
+        assertFalse(missingDependencyBeanLoaded);
+    }
+}
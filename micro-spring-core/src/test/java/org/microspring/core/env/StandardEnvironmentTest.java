@@ -2,6 +2,9 @@ package org.microspring.core.env;
 
 import org.junit.Before;
 import org.junit.Test;
+
+import java.util.Properties;
+
 import static org.junit.Assert.*;
 
 public class StandardEnvironmentTest {
@@ -40,4 +43,40 @@ public class StandardEnvironmentTest {
         // 在同一优先级下，properties 应该覆盖 yaml
         assertEquals("from-profile-properties", environment.getProperty("app.name"));
     }
-} 
\ No newline at end of file
+
+    @Test
+    public void testAddedPropertySourceOverridesAndResetsConversions() {
+        assertEquals(Integer.valueOf(8083), environment.getProperty("server.port", Integer.class));
+
+        Properties overrides = new Properties();
+        overrides.setProperty("server.port", " 9090 ");
+        overrides.setProperty("feature.enabled", "true");
+        environment.addPropertySource(new PropertiesPropertySource("overrides", overrides));
+
+        assertEquals("9090", environment.getProperty("server.port"));
+        assertEquals(Integer.valueOf(9090), environment.getProperty("server.port", Integer.class));
+        assertEquals(Boolean.TRUE, environment.getProperty("feature.enabled", Boolean.class));
+        assertNull(environment.getProperty("missing.key", Long.class));
+        // 未被覆盖的属性仍按原有优先级解析
+        assertEquals("from-profile-properties", environment.getProperty("app.name"));
+    }
+
+    @Test
+    public void testNonEnumerablePropertySourceFallsBackToLookup() {
+        environment.addPropertySource(new PropertySource<Object>("dynamic", new Object()) {
+            @Override
+            public Object getProperty(String name) {
+                return name.startsWith("dynamic.") ? name.substring("dynamic.".length()) : null;
+            }
+        });
+
+        assertEquals("value", environment.getProperty("dynamic.value"));
+        assertEquals(Long.valueOf(42), environment.getProperty("dynamic.42", Long.class));
+        assertEquals("from-profile-properties", environment.getProperty("app.name"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedTargetType() {
+        environment.getProperty("server.port", Double.class);
+    }
+}
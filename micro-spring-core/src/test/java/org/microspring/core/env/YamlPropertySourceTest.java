@@ -72,6 +72,14 @@ public class YamlPropertySourceTest {
         assertTrue(serverConfig instanceof java.util.Map);
     }
 
+    @Test
+    public void testPropertyNames() {
+        java.util.List<String> names = java.util.Arrays.asList(yamlPropertySource.getPropertyNames());
+        assertTrue(names.contains("kafka.consumer.enable.auto.commit"));
+        assertTrue(names.contains("kafka.producer"));
+        assertTrue(names.contains("server.port"));
+    }
+
     @Test
     public void cleanup() throws IOException {
         if (tempYamlFile != null && tempYamlFile.exists()) {
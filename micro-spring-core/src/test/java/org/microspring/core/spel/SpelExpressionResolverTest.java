@@ -0,0 +1,147 @@
+package org.microspring.core.spel;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.microspring.core.DefaultBeanDefinition;
+import org.microspring.core.DefaultBeanFactory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class SpelExpressionResolverTest {
+
+    public static class Product {
+        private final String name = "widget";
+        private final double price = 100.0;
+        private final int quantity = 5;
+        private final boolean available = true;
+        private final List<String> tags = Arrays.asList("new", "sale");
+        private final Map<String, Integer> stock = new HashMap<>();
+        private final int[] sizes = {1, 2, 3};
+
+        public Product() {
+            stock.put("north", 7);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public double discount(double percent) {
+            return price * (100 - percent) / 100;
+        }
+
+        public String label(String prefix, int count) {
+            return prefix + ":" + name + "x" + count;
+        }
+    }
+
+    private DefaultBeanFactory beanFactory;
+    private SpelExpressionResolver resolver;
+
+    @Before
+    public void setUp() {
+        beanFactory = new DefaultBeanFactory();
+        beanFactory.registerBeanDefinition("product", new DefaultBeanDefinition(Product.class));
+        resolver = new SpelExpressionResolver();
+    }
+
+    private Object eval(String expression) {
+        return resolver.parseExpression("#{" + expression + "}", beanFactory);
+    }
+
+    @Test
+    public void testOperatorPrecedence() {
+        assertEquals(14, eval("2 + 3 * 4"));
+        assertEquals(20, eval("(2 + 3) * 4"));
+        assertEquals(1, eval("7 % 3"));
+        assertEquals(2, eval("7 / 3"));
+        assertEquals(3.5, (Double) eval("7 / 2.0"), 0.0001);
+        assertEquals(-5, eval("-product.quantity"));
+        assertEquals(Boolean.TRUE, eval("1 + 1 == 2 && !(3 < 2) or false"));
+        assertEquals(15, eval("product.quantity + 10"));
+        assertEquals(110.0, (Double) eval("product.price * 1.1"), 0.0001);
+    }
+
+    @Test
+    public void testPropertiesMethodsAndIndexing() {
+        assertEquals("widget", eval("product.name"));
+        assertEquals("widget", eval("@product.name"));
+        assertEquals(Boolean.TRUE, eval("product.available"));
+        assertEquals("sale", eval("product.tags[1]"));
+        assertEquals(7, eval("product.stock['north']"));
+        assertEquals(3, eval("product.sizes[2]"));
+        assertEquals(3, eval("product.sizes.length"));
+        assertEquals(2, eval("product.tags.size()"));
+        assertEquals("WIDGET", eval("product.name.toUpperCase()"));
+        assertEquals(80.0, (Double) eval("product.discount(20)"), 0.0001);
+        assertEquals("item:widgetx3", eval("product.label('item', 1 + 2)"));
+        assertEquals("it's widget", eval("'it''s ' + product.name"));
+    }
+
+    @Test
+    public void testTernaryElvisAndNullHandling() {
+        assertEquals("cheap", eval("product.price < 50 ? 'expensive' : 'cheap'"));
+        assertEquals("fallback", eval("product.missing ?: 'fallback'"));
+        assertNull(eval("null"));
+        try {
+            eval("missingBean.price * 2");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("No bean named 'missingBean' is defined", e.getMessage());
+        }
+        assertNull(eval("product.missing?.value"));
+        assertEquals("plain", resolver.parseExpression("plain", beanFactory));
+    }
+
+    @Test
+    public void testParseErrors() {
+        // 解析失败只解析一次，每次求值都抛出
+        for (int i = 0; i < 2; i++) {
+            try {
+                eval("product.price * * 1.1");
+                fail("Expected SpelParseException");
+            } catch (SpelParseException e) {
+                assertEquals("product.price * * 1.1", e.getExpression());
+            }
+        }
+        try {
+            resolver.parse("product.name +");
+            fail("Expected SpelParseException");
+        } catch (SpelParseException e) {
+            assertEquals(14, e.getPosition());
+        }
+        try {
+            eval("product.unknownMethod()");
+            fail("Expected SpelEvaluationException");
+        } catch (SpelEvaluationException e) {
+            assertTrue(e.getMessage().contains("unknownMethod"));
+        }
+    }
+
+    @Test
+    public void testCachedExpressionReflectsCurrentBeanState() {
+        DefaultBeanDefinition prototype = new DefaultBeanDefinition(Product.class);
+        prototype.setScope("prototype");
+        beanFactory.registerBeanDefinition("other", prototype);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("widget-widget", eval("other.name + '-' + product.name"));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.microspring.core.startup;
+
+import org.junit.Test;
+import org.microspring.beans.factory.FactoryBean;
+import org.microspring.core.DefaultBeanDefinition;
+import org.microspring.core.DefaultBeanFactory;
+import org.microspring.core.beans.PropertyValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StartupTimelineTest {
+
+    public static class Repository {
+    }
+
+    public static class Service {
+        private Repository repository;
+
+        public void init() {
+        }
+    }
+
+    public static class ConnectionFactoryBean implements FactoryBean<String> {
+        @Override
+        public String getObject() {
+            return "connection";
+        }
+
+        @Override
+        public Class<?> getObjectType() {
+            return String.class;
+        }
+
+        @Override
+        public boolean isSingleton() {
+            return true;
+        }
+    }
+
+    private static List<String> names(List<StartupStep> steps) {
+        List<String> names = new ArrayList<>();
+        for (StartupStep step : steps) {
+            names.add(step.getName());
+        }
+        return names;
+    }
+
+    private static StartupStep find(List<StartupStep> steps, String name) {
+        for (StartupStep step : steps) {
+            if (step.getName().equals(name)) {
+                return step;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testRecordsPhasesAndNestedDependencies() {
+        DefaultBeanFactory factory = new DefaultBeanFactory();
+        StartupTimeline timeline = new StartupTimeline();
+        factory.setStartupTimeline(timeline);
+
+        DefaultBeanDefinition service = new DefaultBeanDefinition(Service.class);
+        service.addPropertyValue(new PropertyValue("repository", "repository", null, true));
+        service.setInitMethodName("init");
+        factory.registerBeanDefinition("service", service);
+        factory.registerBeanDefinition("repository", new DefaultBeanDefinition(Repository.class));
+        factory.registerBeanDefinition("connection", new DefaultBeanDefinition(ConnectionFactoryBean.class));
+
+        factory.getBean("service");
+        assertEquals("connection", factory.getBean("connection", String.class));
+
+        List<StartupStep> roots = timeline.getRootSteps();
+        StartupStep serviceStep = roots.get(0);
+        assertEquals("bean", serviceStep.getName());
+        assertEquals("service", serviceStep.getBeanName());
+        assertTrue(serviceStep.isEnded());
+        assertEquals(Arrays.asList("bean.instantiate", "bean.populate", "bean.postProcessBeforeInitialization",
+            "bean.initMethod", "bean.postProcessAfterInitialization"), names(serviceStep.getChildren()));
+
+        // repository 在 service 的属性填充阶段创建
+        StartupStep populate = find(serviceStep.getChildren(), "bean.populate");
+        StartupStep repositoryStep = find(populate.getChildren(), "bean");
+        assertNotNull(repositoryStep);
+        assertEquals("repository", repositoryStep.getBeanName());
+        assertSame(populate, repositoryStep.getParent());
+        assertTrue(serviceStep.getDurationNanos() >= repositoryStep.getDurationNanos());
+
+        List<StartupStep> factorySteps = timeline.getSteps("bean.factoryBean.getObject");
+        assertEquals(1, factorySteps.size());
+        assertEquals("connection", factorySteps.get(0).getBeanName());
+    }
+
+    @Test
+    public void testJsonAndChromeTraceExport() {
+        StartupTimeline timeline = new StartupTimeline();
+        StartupStep refresh = timeline.start("context.refresh");
+        StartupStep bean = timeline.start("bean", "quote\"bean");
+        bean.end();
+        refresh.end();
+        // 未结束的步骤不会出现在 trace 中
+        timeline.start("unfinished").end();
+        timeline.start("dangling");
+
+        String json = timeline.toJson();
+        assertTrue(json.startsWith("{\"startTime\":"));
+        assertTrue(json.contains("\"name\":\"context.refresh\""));
+        assertTrue(json.contains("\"children\":[{\"id\":2,\"name\":\"bean\",\"bean\":\"quote\\\"bean\""));
+
+        String trace = timeline.toChromeTrace();
+        assertTrue(trace.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+        assertTrue(trace.contains("\"name\":\"bean quote\\\"bean\",\"cat\":\"bean\",\"ph\":\"X\""));
+        assertTrue(trace.contains("\"name\":\"unfinished\""));
+        assertFalse(trace.contains("dangling"));
+    }
+
+    @Test
+    public void testDisabledTimelineRecordsNothing() {
+        DefaultBeanFactory factory = new DefaultBeanFactory();
+        factory.registerBeanDefinition("repository", new DefaultBeanDefinition(Repository.class));
+        factory.getBean("repository");
+
+        StartupTimeline timeline = factory.getStartupTimeline();
+        assertFalse(timeline.isEnabled());
+        assertTrue(timeline.getSteps().isEmpty());
+        assertEquals("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[]}", timeline.toChromeTrace());
+    }
+}
@@ -0,0 +1,140 @@
+package org.microspring.core.type;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.microspring.core.DefaultBeanFactory;
+import org.microspring.core.annotation.Conditional;
+import org.microspring.core.io.ClassPathBeanDefinitionScanner;
+import org.microspring.core.io.ClassPathMetadataScanner;
+import org.microspring.core.type.scan.InitializationTracker;
+import org.microspring.core.type.scan.ScannedComponent;
+import org.microspring.stereotype.Component;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.*;
+
+public class ClassMetadataReaderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    public @interface Marker {
+        int[] numbers();
+    }
+
+    @Component("annotated")
+    @Conditional({org.microspring.core.condition.Condition.class})
+    public static abstract class AnnotatedType implements Serializable, Runnable {
+        static final long BIG = 1L << 40;
+        static final double RATIO = 0.5;
+    }
+
+    private ClassMetadata readClass(Class<?> clazz) throws Exception {
+        String resource = "/" + clazz.getName().replace('.', '/') + ".class";
+        try (InputStream in = clazz.getResourceAsStream(resource)) {
+            return ClassMetadataReader.read(in);
+        }
+    }
+
+    @Test
+    public void testReadClassStructureAndAnnotations() throws Exception {
+        ClassMetadata metadata = readClass(AnnotatedType.class);
+
+        assertEquals(AnnotatedType.class.getName(), metadata.getClassName());
+        assertEquals("java.lang.Object", metadata.getSuperClassName());
+        assertEquals(2, metadata.getInterfaceNames().size());
+        assertTrue(metadata.getInterfaceNames().contains("java.io.Serializable"));
+        assertTrue(metadata.isAbstract());
+        assertFalse(metadata.isInterface());
+        assertTrue(metadata.isMemberClass());
+        assertTrue(metadata.isIndependent());
+
+        assertTrue(metadata.isAnnotated(Component.class.getName()));
+        assertEquals("annotated", metadata.getAnnotationAttribute(Component.class.getName(), "value"));
+        Object[] conditions = (Object[]) metadata.getAnnotationAttribute(Conditional.class.getName(), "value");
+        assertArrayEquals(new Object[]{"org.microspring.core.condition.Condition"}, conditions);
+    }
+
+    @Test
+    public void testAnnotationAndInnerClassFlags() throws Exception {
+        assertTrue(readClass(Marker.class).isAnnotation());
+        assertTrue(readClass(Marker.class).isInterface());
+        assertTrue(readClass(ScannedComponent.class).isIndependent());
+        assertFalse(readClass(ScannedComponent.class).isMemberClass());
+        assertTrue(readClass(ScannedComponent.NestedComponent.class).isIndependent());
+        assertFalse(readClass(ScannedComponent.InnerComponent.class).isIndependent());
+
+        Runnable anonymous = new Runnable() {
+            @Override
+            public void run() {
+            }
+        };
+        ClassMetadata anonymousMetadata = readClass(anonymous.getClass());
+        assertTrue(anonymousMetadata.isLocalOrAnonymous());
+        assertFalse(anonymousMetadata.isIndependent());
+    }
+
+    @Test
+    public void testScanDoesNotInitializeNonCandidates() {
+        DefaultBeanFactory beanFactory = new DefaultBeanFactory();
+        new ClassPathBeanDefinitionScanner(beanFactory).scan(ScannedComponent.class.getPackage().getName());
+
+        assertTrue(beanFactory.containsBean("scannedComponent"));
+        assertTrue(beanFactory.containsBean("nestedComponent"));
+        assertFalse(beanFactory.containsBean("innerComponent"));
+        assertFalse(InitializationTracker.INITIALIZED.contains("PlainHelper"));
+    }
+
+    @Test
+    public void testScanJarEntries() throws Exception {
+        File jar = temporaryFolder.newFile("components.jar");
+        Map<String, Class<?>> entries = new HashMap<>();
+        entries.put("org/microspring/core/type/scan/ScannedComponent.class", ScannedComponent.class);
+        entries.put("org/microspring/core/type/scan/ScannedComponent$NestedComponent.class",
+            ScannedComponent.NestedComponent.class);
+        entries.put("org/microspring/core/type/ClassMetadataReaderTest.class", ClassMetadataReaderTest.class);
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            // 与 jar 工具打包的结构一致，包含目录条目
+            for (String directory : new String[]{"org/", "org/microspring/", "org/microspring/core/",
+                    "org/microspring/core/type/", "org/microspring/core/type/scan/"}) {
+                out.putNextEntry(new JarEntry(directory));
+                out.closeEntry();
+            }
+            for (Map.Entry<String, Class<?>> entry : entries.entrySet()) {
+                out.putNextEntry(new JarEntry(entry.getKey()));
+                try (InputStream in = entry.getValue().getResourceAsStream("/" + entry.getKey())) {
+                    byte[] buffer = new byte[4096];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                    }
+                }
+                out.closeEntry();
+            }
+        }
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null)) {
+            ClassPathMetadataScanner scanner = new ClassPathMetadataScanner(classLoader);
+
+            List<ClassMetadata> direct = scanner.scan("org.microspring.core.type", false);
+            assertEquals(1, direct.size());
+            assertEquals(ClassMetadataReaderTest.class.getName(), direct.get(0).getClassName());
+
+            List<ClassMetadata> all = scanner.scan("org.microspring.core.type", true);
+            assertEquals(3, all.size());
+            assertEquals(2, scanner.scan("org.microspring.core.type.scan", false).size());
+        }
+    }
+}
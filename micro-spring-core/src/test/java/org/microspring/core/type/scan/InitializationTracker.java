@@ -0,0 +1,11 @@
+package org.microspring.core.type.scan;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 记录哪些类执行过静态初始化
+ */
+public class InitializationTracker {
+    public static final Set<String> INITIALIZED = ConcurrentHashMap.newKeySet();
+}
@@ -0,0 +1,10 @@
+package org.microspring.core.type.scan;
+
+/**
+ * 不带构造型注解的类，扫描时不应被初始化
+ */
+public class PlainHelper {
+    static {
+        InitializationTracker.INITIALIZED.add("PlainHelper");
+    }
+}
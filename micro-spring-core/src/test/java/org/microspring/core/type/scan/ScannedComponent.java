@@ -0,0 +1,15 @@
+package org.microspring.core.type.scan;
+
+import org.microspring.stereotype.Component;
+
+@Component("scannedComponent")
+public class ScannedComponent {
+
+    @Component
+    public static class NestedComponent {
+    }
+
+    @Component
+    public class InnerComponent {
+    }
+}
@@ -0,0 +1,118 @@
+package org.microspring.transaction.support;
+
+import org.microspring.aop.MethodInterceptor;
+import org.microspring.aop.MethodInvocation;
+import org.microspring.transaction.TransactionStatus;
+import org.microspring.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 在事务中执行目标方法
+ * 方法上的 @Transactional 优先于类上的，接口方法按目标类中的实现方法查找注解，每个方法只解析一次
+ */
+public class TransactionInterceptor implements MethodInterceptor {
+
+    // 没有事务注解的方法在缓存中的占位
+    private static final TransactionAttribute NO_TRANSACTION = new TransactionAttribute(null);
+
+    private final AbstractPlatformTransactionManager transactionManager;
+    private final Class<?> targetClass;
+    private final Map<Method, TransactionAttribute> attributeCache = new ConcurrentHashMap<>();
+
+    public TransactionInterceptor(AbstractPlatformTransactionManager transactionManager, Class<?> targetClass) {
+        this.transactionManager = transactionManager;
+        this.targetClass = targetClass;
+    }
+
+    /**
+     * 方法是否需要在事务中执行
+     */
+    public boolean isTransactional(Method method) {
+        return getTransactionAttribute(method) != NO_TRANSACTION;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        TransactionAttribute attribute = getTransactionAttribute(invocation.getMethod());
+        if (attribute == NO_TRANSACTION) {
+            return invocation.proceed();
+        }
+
+        TransactionStatus status = transactionManager.getTransaction(attribute.definition);
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable ex) {
+            if (shouldRollback(attribute.transactional, ex)) {
+                transactionManager.rollback(status);
+            } else {
+                transactionManager.commit(status);
+            }
+            throw ex;
+        }
+        transactionManager.commit(status);
+        return result;
+    }
+
+    private TransactionAttribute getTransactionAttribute(Method method) {
+        TransactionAttribute attribute = attributeCache.get(method);
+        if (attribute == null) {
+            attribute = attributeCache.computeIfAbsent(method, this::resolveTransactionAttribute);
+        }
+        return attribute;
+    }
+
+    private TransactionAttribute resolveTransactionAttribute(Method method) {
+        Transactional transactional = null;
+        try {
+            // 接口方法上通常没有注解，查找目标类中的实现
+            Method specificMethod = targetClass.getMethod(method.getName(), method.getParameterTypes());
+            transactional = specificMethod.getAnnotation(Transactional.class);
+        } catch (NoSuchMethodException e) {
+            // 非 public 方法
+        }
+        if (transactional == null) {
+            transactional = method.getAnnotation(Transactional.class);
+        }
+        if (transactional == null && method.getDeclaringClass() != Object.class) {
+            transactional = targetClass.getAnnotation(Transactional.class);
+        }
+        return transactional != null ? new TransactionAttribute(transactional) : NO_TRANSACTION;
+    }
+
+    private boolean shouldRollback(Transactional transactional, Throwable ex) {
+        if (transactional.rollbackFor().length == 0) {
+            return ex instanceof RuntimeException || ex instanceof Error;
+        }
+
+        for (Class<? extends Throwable> rollbackType : transactional.rollbackFor()) {
+            if (rollbackType.isInstance(ex)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析后的事务注解和事务定义
+     */
+    private static final class TransactionAttribute {
+        private final Transactional transactional;
+        private final DefaultTransactionDefinition definition;
+
+        TransactionAttribute(Transactional transactional) {
+            this.transactional = transactional;
+            if (transactional != null) {
+                definition = new DefaultTransactionDefinition();
+                definition.setPropagationBehavior(transactional.propagation());
+                definition.setIsolationLevel(transactional.isolation());
+                definition.setReadOnly(transactional.readOnly());
+            } else {
+                definition = null;
+            }
+        }
+    }
+}